@@ -0,0 +1,156 @@
+package reference;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * An unbalanced binary search tree with {@code String} keys, as the cities and books tasks ask for.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ * @param <V>
+ *            The type of the values.
+ */
+public class SearchTree<V> {
+	private Node<V> root;
+
+	/**
+	 * How to traverse the tree.
+	 */
+	public enum Order {
+		PRE_ORDER("pre-order"), IN_ORDER("in-order"), LEVEL_ORDER("level-order");
+
+		private final String name;
+
+		Order(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @param name
+		 *            The name of an order, as given on the command line.
+		 * @return The order called {@code name}, or {@code null} if there is none.
+		 */
+		public static Order parse(String name) {
+			for (Order order : values()) {
+				if (order.name.equals(name)) {
+					return order;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Stores {@code value} for {@code key}, replacing the previous value.
+	 *
+	 * @param key
+	 *            the key.
+	 * @param value
+	 *            the value.
+	 */
+	public void put(String key, V value) {
+		if (this.root == null) {
+			this.root = new Node<V>(key, value);
+			return;
+		}
+		Node<V> node = this.root;
+		while (true) {
+			int comparison = key.compareTo(node.key);
+			if (comparison == 0) {
+				node.value = value;
+				return;
+			}
+			Node<V> next = (comparison < 0) ? node.left : node.right;
+			if (next == null) {
+				if (comparison < 0) {
+					node.left = new Node<V>(key, value);
+				} else {
+					node.right = new Node<V>(key, value);
+				}
+				return;
+			}
+			node = next;
+		}
+	}
+
+	/**
+	 * @param key
+	 *            the key.
+	 * @return The value stored for {@code key}, or {@code null}.
+	 */
+	public V get(String key) {
+		Node<V> node = this.root;
+		while (node != null) {
+			int comparison = key.compareTo(node.key);
+			if (comparison == 0) {
+				return node.value;
+			}
+			node = (comparison < 0) ? node.left : node.right;
+		}
+		return null;
+	}
+
+	/**
+	 * @param order
+	 *            How to traverse the tree.
+	 * @return The keys of the tree, in {@code order}.
+	 */
+	public List<String> keys(Order order) {
+		List<String> keys = new ArrayList<String>();
+		switch (order) {
+		case PRE_ORDER:
+			preOrder(this.root, keys);
+			break;
+		case IN_ORDER:
+			inOrder(this.root, keys);
+			break;
+		default:
+			LinkedList<Node<V>> queue = new LinkedList<Node<V>>();
+			if (this.root != null) {
+				queue.add(this.root);
+			}
+			while (!queue.isEmpty()) {
+				Node<V> node = queue.poll();
+				keys.add(node.key);
+				if (node.left != null) {
+					queue.add(node.left);
+				}
+				if (node.right != null) {
+					queue.add(node.right);
+				}
+			}
+		}
+		return keys;
+	}
+
+	private void preOrder(Node<V> node, List<String> keys) {
+		if (node != null) {
+			keys.add(node.key);
+			preOrder(node.left, keys);
+			preOrder(node.right, keys);
+		}
+	}
+
+	private void inOrder(Node<V> node, List<String> keys) {
+		if (node != null) {
+			inOrder(node.left, keys);
+			keys.add(node.key);
+			inOrder(node.right, keys);
+		}
+	}
+
+	private static class Node<V> {
+		private final String key;
+		private V value;
+		private Node<V> left;
+		private Node<V> right;
+
+		private Node(String key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package reference;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * The {@code Terminal} class of the programming lecture, as the reference submissions use it.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public final class Terminal {
+	private static BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+
+	private Terminal() {
+	}
+
+	public static void printLine(String out) {
+		System.out.println(out);
+	}
+
+	public static String readLine() {
+		try {
+			return in.readLine();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,245 @@
+package reference.bookDatabase;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import reference.Terminal;
+
+/**
+ * Reference submission for the book database task of sheet 6: reads books from a file and searches them with terms
+ * like {@code AND(creator=reussner,OR(year=2006,year=2007))}. An attribute matches if its normalised Levenshtein
+ * similarity to the searched value is at least the tolerance passed on the command line.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public final class BookDatabase {
+	private static final String[] ATTRIBUTES = {
+			"creator", "title", "year"
+	};
+	private static final int YEAR = 2;
+	private static final int MAX_YEAR = 2015;
+	public static final String VALUE = "[a-z0-9_-]+";
+
+	private BookDatabase() {
+	}
+
+	public static void main(String[] args) {
+		if (args.length != 2) {
+			error("Please pass the tolerance and the book file.");
+			System.exit(1);
+			return;
+		}
+		double tolerance;
+		try {
+			tolerance = Double.parseDouble(args[0]);
+		} catch (NumberFormatException e) {
+			tolerance = Double.NaN;
+		}
+		if (!(tolerance >= 0 && tolerance <= 1)) {
+			error("The tolerance has to be a number between 0 and 1.");
+			System.exit(1);
+			return;
+		}
+		List<String[]> books = new ArrayList<String[]>();
+		try {
+			for (String line : Files.readAllLines(Paths.get(args[1]), Charset.defaultCharset())) {
+				String[] book = parseBook(line);
+				if (book == null) {
+					error("Bad line in the book file: '" + line + "'.");
+					System.exit(1);
+					return;
+				}
+				books.add(book);
+			}
+		} catch (IOException | RuntimeException e) {
+			error("Could not read the book file '" + args[1] + "'.");
+			System.exit(1);
+			return;
+		}
+		if (books.isEmpty()) {
+			error("The book file is empty.");
+			System.exit(1);
+			return;
+		}
+
+		String line;
+		while ((line = Terminal.readLine()) != null && !line.equals("quit")) {
+			if (line.startsWith("search ")) {
+				Parser parser = new Parser(line.substring("search ".length()).replaceAll("\\s", "").toLowerCase());
+				Term term = parser.parse();
+				if (term == null) {
+					error("Bad search term.");
+					continue;
+				}
+				for (String[] book : books) {
+					StringBuilder result = new StringBuilder();
+					for (int i = 0; i < ATTRIBUTES.length; i++) {
+						result.append(ATTRIBUTES[i]).append('=').append((book[i] == null) ? "unknown" : book[i])
+								.append(',');
+					}
+					Terminal.printLine(result.append(term.matches(book, tolerance)).toString());
+				}
+			} else {
+				error("Unknown command '" + line + "'.");
+			}
+		}
+	}
+
+	private static String[] parseBook(String line) {
+		String[] book = new String[ATTRIBUTES.length];
+		for (String attribute : line.split(",", -1)) {
+			String[] parts = attribute.split("=", -1);
+			int index = (parts.length == 2) ? indexOf(parts[0].toLowerCase()) : -1;
+			if (index < 0 || book[index] != null) {
+				return null;
+			}
+			String value = parts[1].toLowerCase();
+			if (!isValid(index, value)) {
+				return null;
+			}
+			book[index] = value;
+		}
+		return book;
+	}
+
+	private static boolean isValid(int attribute, String value) {
+		if (attribute == YEAR) {
+			return value.matches("\\d{1,4}") && Integer.parseInt(value) <= MAX_YEAR;
+		}
+		return value.matches(VALUE);
+	}
+
+	public static int indexOf(String attribute) {
+		for (int i = 0; i < ATTRIBUTES.length; i++) {
+			if (ATTRIBUTES[i].equals(attribute)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public static double similarity(String first, String second) {
+		int[] previous = new int[second.length() + 1];
+		int[] current = new int[second.length() + 1];
+		for (int j = 0; j <= second.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= first.length(); i++) {
+			current[0] = i;
+			for (int j = 1; j <= second.length(); j++) {
+				int substitution = previous[j - 1] + ((first.charAt(i - 1) == second.charAt(j - 1)) ? 0 : 1);
+				current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return 1 - (double) previous[second.length()] / Math.max(first.length(), second.length());
+	}
+
+	private static void error(String message) {
+		Terminal.printLine("Error, " + message);
+	}
+
+	/**
+	 * A parsed search term. The nested classes are public, because the harness loads {@link BookDatabase} anew for every
+	 * test, but its nested classes only once, so they do not count as being in the same package.
+	 */
+	public static class Term {
+		private final String operator;
+		private final Term left;
+		private final Term right;
+		private final int attribute;
+		private final String value;
+
+		private Term(String operator, Term left, Term right) {
+			this.operator = operator;
+			this.left = left;
+			this.right = right;
+			this.attribute = -1;
+			this.value = null;
+		}
+
+		private Term(int attribute, String value) {
+			this.operator = null;
+			this.left = null;
+			this.right = null;
+			this.attribute = attribute;
+			this.value = value;
+		}
+
+		public boolean matches(String[] book, double tolerance) {
+			if (this.operator == null) {
+				String actual = book[this.attribute];
+				return actual != null && similarity(actual, this.value) >= tolerance;
+			}
+			boolean left = this.left.matches(book, tolerance);
+			boolean right = this.right.matches(book, tolerance);
+			return this.operator.equals("and") ? left && right : left || right;
+		}
+	}
+
+	/**
+	 * A recursive descent parser for search terms without whitespace, in lower case.
+	 */
+	public static class Parser {
+		private final String input;
+		private int position = 0;
+
+		public Parser(String input) {
+			this.input = input;
+		}
+
+		/**
+		 * @return The parsed term, or {@code null} if the input is no valid term.
+		 */
+		public Term parse() {
+			Term term = term();
+			return (term != null && this.position == this.input.length()) ? term : null;
+		}
+
+		private Term term() {
+			for (String operator : new String[] {
+					"and", "or"
+			}) {
+				if (this.input.startsWith(operator + "(", this.position)) {
+					this.position += operator.length() + 1;
+					Term left = term();
+					if (left == null || !consume(',')) {
+						return null;
+					}
+					Term right = term();
+					if (right == null || !consume(')')) {
+						return null;
+					}
+					return new Term(operator, left, right);
+				}
+			}
+			int end = this.position;
+			while (end < this.input.length() && this.input.charAt(end) != ',' && this.input.charAt(end) != ')') {
+				end++;
+			}
+			String[] parts = this.input.substring(this.position, end).split("=", -1);
+			this.position = end;
+			int attribute = (parts.length == 2) ? indexOf(parts[0]) : -1;
+			if (attribute < 0 || !parts[1].matches(VALUE)) {
+				return null;
+			}
+			return new Term(attribute, parts[1]);
+		}
+
+		private boolean consume(char expected) {
+			if (this.position < this.input.length() && this.input.charAt(this.position) == expected) {
+				this.position++;
+				return true;
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package reference.books;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.TreeSet;
+
+import reference.SearchTree;
+import reference.SearchTree.Order;
+import reference.Terminal;
+
+/**
+ * Reference submission for the books task of sheet 5: reads a book and answers on which pages a word occurs.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public final class Books {
+	private static final String TRAVERSE = "traverse=";
+	private static final String PAGE = "Seite";
+
+	private Books() {
+	}
+
+	public static void main(String[] args) {
+		if (args.length < 1 || args.length > 2) {
+			error("Please pass a book file and optionally the traverse order.", true);
+			return;
+		}
+		Order order = Order.IN_ORDER;
+		if (args.length == 2) {
+			order = args[1].startsWith(TRAVERSE) ? Order.parse(args[1].substring(TRAVERSE.length())) : null;
+			if (order == null) {
+				error("Unknown argument '" + args[1] + "'.", true);
+				return;
+			}
+		}
+		List<String> lines;
+		try {
+			lines = Files.readAllLines(Paths.get(args[0]), Charset.defaultCharset());
+		} catch (IOException | RuntimeException e) {
+			error("Could not read the book '" + args[0] + "'.", true);
+			return;
+		}
+
+		SearchTree<TreeSet<Integer>> words = new SearchTree<TreeSet<Integer>>();
+		int page = 0;
+		for (String line : lines) {
+			if (line.matches(PAGE + "\\d+")) {
+				page = Integer.parseInt(line.substring(PAGE.length()));
+				continue;
+			}
+			for (String word : line.split(" ")) {
+				if (word.length() > 0) {
+					TreeSet<Integer> pages = words.get(word);
+					if (pages == null) {
+						pages = new TreeSet<Integer>();
+						words.put(word, pages);
+					}
+					pages.add(page);
+				}
+			}
+		}
+
+		String line;
+		while ((line = Terminal.readLine()) != null && !line.equals("quit")) {
+			if (line.startsWith("search ")) {
+				String word = line.substring("search ".length());
+				TreeSet<Integer> pages = words.get(word);
+				Terminal.printLine(word + ":" + ((pages == null) ? "null" : join(pages)));
+			} else if (line.equals("info")) {
+				StringBuilder info = new StringBuilder();
+				for (String word : words.keys(order)) {
+					if (info.length() > 0) {
+						info.append(',');
+					}
+					info.append(word).append(':').append(join(words.get(word)));
+				}
+				if (info.length() > 0) {
+					Terminal.printLine(info.toString());
+				}
+			} else {
+				error("Unknown command '" + line + "'.", false);
+			}
+		}
+	}
+
+	private static String join(TreeSet<Integer> pages) {
+		StringBuilder result = new StringBuilder();
+		for (int page : pages) {
+			if (result.length() > 0) {
+				result.append(',');
+			}
+			result.append(page);
+		}
+		return result.toString();
+	}
+
+	private static void error(String message, boolean exit) {
+		Terminal.printLine("Error, " + message);
+		if (exit) {
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package reference.cities;
+
+import reference.SearchTree;
+import reference.SearchTree.Order;
+import reference.Terminal;
+
+/**
+ * Reference submission for the cities task of sheet 5: an interactive console storing cities and their populations in
+ * a search tree.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public final class Cities {
+	private static final String TRAVERSE = "traverse=";
+
+	private Cities() {
+	}
+
+	public static void main(String[] args) {
+		Order order = Order.IN_ORDER;
+		if (args.length > 1) {
+			error("Only one argument, the traverse order, is allowed.", true);
+			return;
+		}
+		if (args.length == 1) {
+			order = args[0].startsWith(TRAVERSE) ? Order.parse(args[0].substring(TRAVERSE.length())) : null;
+			if (order == null) {
+				error("Unknown argument '" + args[0] + "'.", true);
+				return;
+			}
+		}
+
+		SearchTree<Integer> cities = new SearchTree<Integer>();
+		String line;
+		while ((line = Terminal.readLine()) != null && !line.equals("quit")) {
+			if (line.startsWith("insert ")) {
+				String city = line.substring("insert ".length());
+				int colon = city.lastIndexOf(':');
+				if (colon < 0) {
+					error("insert needs a city and a value, separated by ':'.", false);
+					continue;
+				}
+				try {
+					cities.put(city.substring(0, colon), Integer.parseInt(city.substring(colon + 1)));
+				} catch (NumberFormatException e) {
+					error("The value of a city has to be a number.", false);
+				}
+			} else if (line.startsWith("search ")) {
+				String city = line.substring("search ".length());
+				Terminal.printLine(city + ":" + cities.get(city));
+			} else if (line.equals("info")) {
+				StringBuilder info = new StringBuilder();
+				for (String city : cities.keys(order)) {
+					if (info.length() > 0) {
+						info.append(',');
+					}
+					info.append(city).append(':').append(cities.get(city));
+				}
+				if (info.length() > 0) {
+					Terminal.printLine(info.toString());
+				}
+			} else {
+				error("Unknown command '" + line + "'.", false);
+			}
+		}
+	}
+
+	private static void error(String message, boolean exit) {
+		Terminal.printLine("Error, " + message);
+		if (exit) {
+			System.exit(1);
+		}
+	}
+}
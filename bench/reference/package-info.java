@@ -0,0 +1,10 @@
+/**
+ * Contains reference submissions for the sheet tasks, which {@link test.batch.SuiteBenchmark} runs the test suites
+ * against. They are written to pass the tests, not to be model solutions. The classes in this package are shared by all
+ * of them, like the classes that were handed out with the task sheets.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+package reference;
@@ -0,0 +1,147 @@
+package reference.waiting;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Reference submission for the waiting area task of sheet 4: simulates a processor that runs jobs one after another,
+ * and keeps the jobs that wait in a first-in-first-out, last-in-first-out or shortest-job-first waiting area.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public final class Scheduler {
+	private static final String WAITING_AREA = "waitingarea=";
+
+	private Scheduler() {
+	}
+
+	public static void main(String[] args) {
+		if (args.length < 1 || args.length > 2) {
+			error("Please pass a job file and optionally the waiting area.");
+			return;
+		}
+		String area = "fifo";
+		if (args.length == 2) {
+			area = args[1].startsWith(WAITING_AREA) ? args[1].substring(WAITING_AREA.length()) : "";
+			if (!area.equals("fifo") && !area.equals("lifo") && !area.equals("sjf")) {
+				error("Unknown waiting area '" + args[1] + "'.");
+				return;
+			}
+		}
+		List<Job> jobs = new ArrayList<Job>();
+		try {
+			for (String line : Files.readAllLines(Paths.get(args[0]), Charset.defaultCharset())) {
+				if (line.length() > 0) {
+					Job job = Job.parse(line);
+					if (job == null) {
+						error("Bad job '" + line + "'.");
+						return;
+					}
+					jobs.add(job);
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			error("Could not read the job file '" + args[0] + "'.");
+			return;
+		}
+		Collections.sort(jobs);
+		simulate(jobs, area);
+	}
+
+	private static void simulate(List<Job> jobs, String area) {
+		LinkedList<Job> waiting = new LinkedList<Job>();
+		Job running = null;
+		int next = 0;
+		for (int time = 0; running != null || next < jobs.size() || !waiting.isEmpty(); time++) {
+			while (next < jobs.size() && jobs.get(next).arrival <= time) {
+				enqueue(waiting, jobs.get(next++), area);
+			}
+			if (running == null) {
+				running = waiting.poll();
+			}
+			StringBuilder line = new StringBuilder().append(time).append(':');
+			line.append((running == null) ? "idle" : running).append(",Waiting:");
+			if (waiting.isEmpty()) {
+				line.append("empty");
+			}
+			for (int i = 0; i < waiting.size(); i++) {
+				line.append((i > 0) ? "," : "").append(waiting.get(i));
+			}
+			System.out.println(line);
+			if (running != null && --running.remaining == 0) {
+				running = null;
+			}
+		}
+	}
+
+	private static void enqueue(LinkedList<Job> waiting, Job job, String area) {
+		if (area.equals("fifo")) {
+			waiting.addLast(job);
+		} else if (area.equals("lifo")) {
+			waiting.addFirst(job);
+		} else {
+			ListIterator<Job> iterator = waiting.listIterator();
+			while (iterator.hasNext()) {
+				if (iterator.next().remaining > job.remaining) {
+					iterator.previous();
+					break;
+				}
+			}
+			iterator.add(job);
+		}
+	}
+
+	private static void error(String message) {
+		System.out.println("Error, " + message);
+		System.exit(1);
+	}
+
+	/**
+	 * A job. Public, because the harness loads {@link Scheduler} anew for every test, but its nested classes only once,
+	 * so they do not count as being in the same package.
+	 */
+	public static class Job implements Comparable<Job> {
+		public final String name;
+		public final int arrival;
+		public int remaining;
+
+		public Job(String name, int arrival, int remaining) {
+			this.name = name;
+			this.arrival = arrival;
+			this.remaining = remaining;
+		}
+
+		public static Job parse(String line) {
+			String[] fields = line.split(",", -1);
+			if (fields.length != 4 || fields[0].isEmpty()) {
+				return null;
+			}
+			int factor = fields[1].equals("simple") ? 1 : fields[1].equals("complex") ? 2 : 0;
+			int arrival = Integer.parseInt(fields[2]);
+			int duration = Integer.parseInt(fields[3]);
+			if (factor == 0 || arrival < 0 || duration <= 0) {
+				return null;
+			}
+			return new Job(fields[0], arrival, factor * duration);
+		}
+
+		@Override
+		public int compareTo(Job other) {
+			return Integer.compare(this.arrival, other.arrival);
+		}
+
+		@Override
+		public String toString() {
+			return this.name + "(" + this.remaining + ")";
+		}
+	}
+}
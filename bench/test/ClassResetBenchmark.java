@@ -0,0 +1,142 @@
+package test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures resetting the tested class through {@link TestObject#resetClass()}, and what the first invocation after a
+ * reset costs. The tested classes are the samples in {@code test.samples}, which come in different sizes. Every fork
+ * runs one sample, so {@link TestObject} is initialised with the sample's class name.
+ * <p>
+ * After a reset, all methods of the tested class start out in the interpreter again, no matter how warm the JVM is.
+ * {@link #firstInvocationAfterResetInterpreted()} runs the same code with {@code -Xint} to show how much of the first
+ * invocation is the harness, which is compiled in the other forks, and how much is the tested class.
+ * <p>
+ * {@link #resetClass(Metaspace)} also reports how much Metaspace every reset takes, and how much of it is left after a
+ * garbage collection. If the second number does not go down to about zero, old versions of the tested class are kept
+ * alive somewhere.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClassResetBenchmark {
+	private static final Object[] MAIN_ARGUMENTS = {
+		new String[0]
+	};
+
+	@Param({
+			"test.samples.Counter", "test.samples.NaturalNumberTuple", "test.samples.WaitingArea"
+	})
+	public String sample;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		// must happen before TestObject is initialised, which reads the class name only once
+		System.setProperty("className", this.sample);
+		// initialise TestObject before its class loader, which needs TestObject's class name while it is initialised
+		TestObject.resetClass();
+	}
+
+	@Benchmark
+	public void resetClass(@SuppressWarnings("unused") Metaspace metaspace) {
+		// the state only reports the Metaspace after the trial
+		TestObject.resetClass();
+	}
+
+	@Benchmark
+	public String firstInvocationAfterReset() {
+		TestObject.resetClass();
+		TestObject.runStaticVoid("main", MAIN_ARGUMENTS);
+		return TestObject.getLastMethodOutput();
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsPrepend = "-Xint")
+	public String firstInvocationAfterResetInterpreted() {
+		TestObject.resetClass();
+		TestObject.runStaticVoid("main", MAIN_ARGUMENTS);
+		return TestObject.getLastMethodOutput();
+	}
+
+	@Benchmark
+	public String invocationWithoutReset() {
+		TestObject.runStaticVoid("main", MAIN_ARGUMENTS);
+		return TestObject.getLastMethodOutput();
+	}
+
+	@Benchmark
+	public byte[] getClassData() {
+		return TestObject.TestClassLoader.getClassData();
+	}
+
+	/**
+	 * Measures the Metaspace of the tested class after the trial. This is not done during the iterations: they reset
+	 * the class so often that the old versions are unloaded while the iteration runs, so the Metaspace used before and
+	 * after an iteration tells nothing. Instead, a fixed number of versions is loaded and kept alive, and then as many
+	 * are reset through {@link TestObject#resetClass()} and left to the garbage collector.
+	 */
+	@State(Scope.Thread)
+	public static class Metaspace {
+		private static final int VERSIONS = 1000;
+		private final MemoryPoolMXBean pool = findPool();
+
+		@TearDown(Level.Trial)
+		public void report() {
+			if (this.pool == null) {
+				return;
+			}
+			List<Class<?>> versions = new ArrayList<Class<?>>(VERSIONS);
+			System.gc();
+			long usedBefore = used();
+			for (int i = 0; i < VERSIONS; i++) {
+				versions.add(new TestObject.TestClassLoader().loadClass());
+			}
+			long loaded = used() - usedBefore;
+			versions.clear();
+			for (int i = 0; i < VERSIONS; i++) {
+				TestObject.resetClass();
+			}
+			System.gc();
+			long retained = used() - usedBefore;
+			System.out.printf("%nMetaspace per reset: %.0f bytes, %.1f bytes retained after GC (%d resets)%n",
+					(double) loaded / VERSIONS, (double) retained / VERSIONS, VERSIONS);
+		}
+
+		private long used() {
+			return this.pool.getUsage().getUsed();
+		}
+
+		private static MemoryPoolMXBean findPool() {
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				if ("Metaspace".equals(pool.getName())) {
+					return pool;
+				}
+			}
+			return null;
+		}
+	}
+}
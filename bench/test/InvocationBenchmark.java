@@ -0,0 +1,95 @@
+package test;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of invoking the tested class through {@link TestObject}. The tested class is
+ * {@code test.test.TestClass}, whose methods do next to nothing, so what is measured is the harness. Run with
+ * {@code -prof gc} to see how much every invocation allocates.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsPrepend = "-DclassName=test.test.TestClass")
+@State(Scope.Thread)
+public class InvocationBenchmark {
+	private TestObject instance;
+	private TestObject other;
+	private Object implemented;
+	private Object[] arguments;
+
+	@Setup
+	public void setUp() {
+		this.instance = new TestObject(0);
+		this.other = new TestObject(1);
+		this.arguments = new Object[] {
+				1, 2L, "three", this.other
+		};
+		this.implemented = TestObject.translateAllToImplemented(new Object[] {
+			this.other
+		})[0];
+	}
+
+	@Benchmark
+	public int runStatic() {
+		return TestObject.runStatic(int.class, "staticAddition");
+	}
+
+	@Benchmark
+	public int run() {
+		return this.instance.run(int.class, "add", 1);
+	}
+
+	@Benchmark
+	public TestObject runWithTestObjects() {
+		return this.instance.run(TestObject.class, "combine", this.other);
+	}
+
+	@Benchmark
+	public String runWithConsoleInput() {
+		TestObject.setNextMethodCallInput("first\nsecond\nquit\n");
+		TestObject.runStaticVoid("echo");
+		return TestObject.getLastMethodOutput();
+	}
+
+	@Benchmark
+	public TestObject constructor() {
+		return new TestObject();
+	}
+
+	@Benchmark
+	public TestObject constructorWithArguments() {
+		return new TestObject(42);
+	}
+
+	@Benchmark
+	public Class<?>[] getTypeArray() {
+		return TestObject.getTypeArray(this.arguments);
+	}
+
+	@Benchmark
+	public Object[] translateAllToImplemented() {
+		return TestObject.translateAllToImplemented(this.arguments);
+	}
+
+	@Benchmark
+	public Object translateToTestObject() {
+		return TestObject.translateToTestObject(this.implemented);
+	}
+}
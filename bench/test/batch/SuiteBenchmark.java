@@ -0,0 +1,227 @@
+package test.batch;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+/**
+ * Runs the interactive console suites against the reference submissions in the {@code reference} package, and measures
+ * how long the harness takes for them. Every suite is run through {@link IsolatedRun}, just like a {@link Worker} runs
+ * it, {@code -runs} times in a row. The first run shows what a cold JVM costs, the median of the others what a warm
+ * worker costs. For every suite, the benchmark prints the wall time, the tests per second and the bytes the test
+ * thread allocated, and in the end the peak resident set size of the JVM.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * java test.batch.SuiteBenchmark [-runs N] [-save FILE] [-baseline FILE] [-tolerance PERCENT]
+ * </pre>
+ *
+ * {@code -save} writes the results to a file. {@code -baseline} compares the results to such a file and exits with
+ * {@code 1} if a median wall time or allocation grew by more than {@code -tolerance} percent (default: 10).
+ * <p>
+ * The reference submissions have to be on the class path, so compile {@code bench} together with {@code src}. Run the
+ * JVM with {@code -Dfile.encoding=UTF-8}, or the cities suite fails on its umlauts.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class SuiteBenchmark {
+	/**
+	 * The tested class and the test class of every suite.
+	 */
+	private static final String[][] SUITES = {
+			{
+					"reference.waiting.Scheduler", "sheet4.c_waiting.WaitingTest"
+			}, {
+					"reference.cities.Cities", "sheet5.b_cities.CitiesInteracitveConsoleTest"
+			}, {
+					"reference.books.Books", "sheet5.c_books.BooksInteractiveConsoleTest"
+			}, {
+					"reference.bookDatabase.BookDatabase", "sheet6.c_bookDatabase.BookDatabaseTest"
+			}
+	};
+	private static final String TABLE_FORMAT = "%-45s %6s %9s %10s %10s %9s %12s%n";
+	private static final String ROW_FORMAT = "%-45s %6d %9d %10.1f %10.1f %9.0f %12s%n";
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private SuiteBenchmark() {
+	}
+
+	/**
+	 * Runs the benchmark. See the class documentation for the arguments.
+	 *
+	 * @param args
+	 *            the command line arguments.
+	 * @throws Exception
+	 *             if a suite cannot be found or a file cannot be read or written.
+	 */
+	public static void main(String[] args) throws Exception {
+		int runs = 10;
+		String save = null;
+		String baseline = null;
+		double tolerance = 10;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-runs")) {
+				runs = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-save")) {
+				save = args[++i];
+			} else if (args[i].equals("-baseline")) {
+				baseline = args[++i];
+			} else if (args[i].equals("-tolerance")) {
+				tolerance = Double.parseDouble(args[++i]);
+			} else {
+				System.err.println("Usage: java " + SuiteBenchmark.class.getName()
+						+ " [-runs N] [-save FILE] [-baseline FILE] [-tolerance PERCENT]");
+				System.exit(2);
+			}
+		}
+		if (runs < 2) {
+			throw new IllegalArgumentException("The benchmark needs at least two runs: a cold and a warm one.");
+		}
+
+		String submissions = submissionClassPath();
+		Properties results = new Properties();
+		System.out.printf(TABLE_FORMAT, "suite", "tests", "failures", "cold ms", "median ms", "tests/s", "MB allocated");
+		for (String[] suite : SUITES) {
+			WorkItem item = new WorkItem(submissions, suite[0], suite[1]);
+			long[] wallNanos = new long[runs];
+			long[] allocated = new long[runs];
+			Result result = null;
+			for (int run = 0; run < runs; run++) {
+				long allocatedBefore = allocatedBytes();
+				long start = System.nanoTime();
+				result = IsolatedRun.run(item, null);
+				wallNanos[run] = System.nanoTime() - start;
+				allocated[run] = allocatedBytes() - allocatedBefore;
+			}
+			// the first run is the cold one, the median is taken over the warm ones
+			long medianWall = median(Arrays.copyOfRange(wallNanos, 1, runs));
+			long medianAllocated = median(Arrays.copyOfRange(allocated, 1, runs));
+			String name = suite[1].substring(suite[1].lastIndexOf('.') + 1);
+			System.out.printf(ROW_FORMAT, name, result.getRunCount(), result.getFailureCount(), wallNanos[0] / 1e6,
+					medianWall / 1e6, result.getRunCount() / (medianWall / 1e9), (medianAllocated < 0) ? "n/a"
+							: String.format("%.1f", medianAllocated / 1e6));
+			for (Failure failure : result.getFailures()) {
+				System.out.println("    failed: " + failure.getDescription().getDisplayName());
+			}
+			results.setProperty(name + ".tests", String.valueOf(result.getRunCount()));
+			results.setProperty(name + ".coldNanos", String.valueOf(wallNanos[0]));
+			results.setProperty(name + ".medianNanos", String.valueOf(medianWall));
+			results.setProperty(name + ".allocatedBytes", String.valueOf(medianAllocated));
+		}
+		long peakRss = peakResidentSetSize();
+		System.out.println();
+		System.out.println("peak resident set size: " + ((peakRss < 0) ? "n/a" : (peakRss / 1024) + " MB"));
+		results.setProperty("peakRssKiloBytes", String.valueOf(peakRss));
+
+		if (save != null) {
+			OutputStream out = new FileOutputStream(save);
+			try {
+				results.store(out, "SuiteBenchmark results");
+			} finally {
+				out.close();
+			}
+		}
+		if (baseline != null && !compare(results, load(baseline), tolerance)) {
+			System.exit(1);
+		}
+		// a submission may have leaked non-daemon threads
+		System.exit(0);
+	}
+
+	/**
+	 * Prints how every result changed compared to the baseline.
+	 *
+	 * @return {@code false} if a median wall time or allocation grew by more than {@code tolerance} percent.
+	 */
+	private static boolean compare(Properties results, Properties baseline, double tolerance) {
+		boolean passed = true;
+		System.out.println();
+		System.out.printf("%-45s %15s %15s %9s%n", "compared to the baseline", "baseline", "now", "change");
+		for (String key : new TreeSet<String>(results.stringPropertyNames())) {
+			String before = baseline.getProperty(key);
+			if (before == null || key.endsWith(".tests")) {
+				continue;
+			}
+			long old = Long.parseLong(before);
+			long now = Long.parseLong(results.getProperty(key));
+			double change = (old > 0) ? 100.0 * (now - old) / old : 0;
+			boolean regression = change > tolerance && (key.endsWith(".medianNanos")
+					|| key.endsWith(".allocatedBytes"));
+			passed &= !regression;
+			System.out.printf("%-45s %15d %15d %+8.1f%%%s%n", key, old, now, change, regression ? "  REGRESSION" : "");
+		}
+		return passed;
+	}
+
+	private static Properties load(String file) throws IOException {
+		Properties properties = new Properties();
+		InputStream in = new FileInputStream(file);
+		try {
+			properties.load(in);
+		} finally {
+			in.close();
+		}
+		return properties;
+	}
+
+	private static long median(long[] values) {
+		long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+
+	/**
+	 * @return The bytes the current thread allocated so far, or {@code -1} if the JVM cannot tell.
+	 */
+	private static long allocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	/**
+	 * @return The peak resident set size of this JVM in kilobytes ({@code VmHWM}), or {@code -1} if the operating
+	 *         system does not tell.
+	 */
+	private static long peakResidentSetSize() {
+		try {
+			for (String line : Files.readAllLines(Paths.get("/proc/self/status"), StandardCharsets.US_ASCII)) {
+				if (line.startsWith("VmHWM:")) {
+					return Long.parseLong(line.replaceAll("[^0-9]", ""));
+				}
+			}
+		} catch (IOException e) {
+			// not on Linux
+		}
+		return -1;
+	}
+
+	/**
+	 * The reference submissions are compiled together with this class, so they are found where it was loaded from.
+	 */
+	private static String submissionClassPath() throws URISyntaxException {
+		return new File(SuiteBenchmark.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+	}
+}
@@ -0,0 +1,21 @@
+package test.samples;
+
+/**
+ * A small sample of a tested class: one static field and two methods.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Counter {
+	private static int count = 0;
+
+	public static int increment() {
+		return ++count;
+	}
+
+	public static void main(String[] args) {
+		increment();
+		System.out.println(count);
+	}
+}
@@ -0,0 +1,178 @@
+package test.samples;
+
+/**
+ * A medium sized sample of a tested class, like the natural number tuples of sheet 3.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class NaturalNumberTuple {
+	private static int created = 0;
+	private final int[] numbers;
+
+	public NaturalNumberTuple(int[] numbers) {
+		int count = 0;
+		for (int number : numbers) {
+			if (number > 0) {
+				count++;
+			}
+		}
+		this.numbers = new int[count];
+		int index = 0;
+		for (int number : numbers) {
+			if (number > 0) {
+				this.numbers[index++] = number;
+			}
+		}
+		created++;
+	}
+
+	public NaturalNumberTuple insert(int number) {
+		if (number <= 0) {
+			return this;
+		}
+		int[] result = new int[this.numbers.length + 1];
+		System.arraycopy(this.numbers, 0, result, 0, this.numbers.length);
+		result[this.numbers.length] = number;
+		return new NaturalNumberTuple(result);
+	}
+
+	public NaturalNumberTuple remove(int number) {
+		int[] result = new int[this.numbers.length];
+		int index = 0;
+		for (int current : this.numbers) {
+			if (current != number) {
+				result[index++] = current;
+			}
+		}
+		int[] trimmed = new int[index];
+		System.arraycopy(result, 0, trimmed, 0, index);
+		return new NaturalNumberTuple(trimmed);
+	}
+
+	public int indexOf(int number) {
+		for (int i = 0; i < this.numbers.length; i++) {
+			if (this.numbers[i] == number) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public int countNumbers(int number) {
+		int count = 0;
+		for (int current : this.numbers) {
+			if (current == number) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public int max() {
+		int max = -1;
+		for (int current : this.numbers) {
+			max = Math.max(max, current);
+		}
+		return max;
+	}
+
+	public int min() {
+		if (this.numbers.length == 0) {
+			return -1;
+		}
+		int min = Integer.MAX_VALUE;
+		for (int current : this.numbers) {
+			min = Math.min(min, current);
+		}
+		return min;
+	}
+
+	public boolean swap(int first, int second) {
+		if (first < 0 || second < 0 || first >= this.numbers.length || second >= this.numbers.length) {
+			return false;
+		}
+		int swap = this.numbers[first];
+		this.numbers[first] = this.numbers[second];
+		this.numbers[second] = swap;
+		return true;
+	}
+
+	public NaturalNumberTuple sort() {
+		int[] sorted = this.numbers.clone();
+		for (int i = 1; i < sorted.length; i++) {
+			int current = sorted[i];
+			int j = i - 1;
+			while (j >= 0 && sorted[j] > current) {
+				sorted[j + 1] = sorted[j];
+				j--;
+			}
+			sorted[j + 1] = current;
+		}
+		return new NaturalNumberTuple(sorted);
+	}
+
+	public NaturalNumberTuple toSet() {
+		int[] set = new int[this.numbers.length];
+		int size = 0;
+		for (int current : this.numbers) {
+			boolean contained = false;
+			for (int i = 0; i < size && !contained; i++) {
+				contained = set[i] == current;
+			}
+			if (!contained) {
+				set[size++] = current;
+			}
+		}
+		int[] trimmed = new int[size];
+		System.arraycopy(set, 0, trimmed, 0, size);
+		return new NaturalNumberTuple(trimmed);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof NaturalNumberTuple)) {
+			return false;
+		}
+		int[] otherNumbers = ((NaturalNumberTuple) other).numbers;
+		if (otherNumbers.length != this.numbers.length) {
+			return false;
+		}
+		for (int i = 0; i < this.numbers.length; i++) {
+			if (otherNumbers[i] != this.numbers[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int current : this.numbers) {
+			hash = 31 * hash + current;
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < this.numbers.length; i++) {
+			if (i > 0) {
+				builder.append(',');
+			}
+			builder.append(this.numbers[i]);
+		}
+		return builder.toString();
+	}
+
+	public static void main(String[] args) {
+		NaturalNumberTuple tuple = new NaturalNumberTuple(new int[] {
+				5, 3, -1, 8, 3
+		});
+		tuple = tuple.insert(7).remove(8).sort();
+		System.out.println(tuple + " " + tuple.toSet() + " " + tuple.max() + " " + tuple.min() + " " + created);
+	}
+}
@@ -0,0 +1,289 @@
+package test.samples;
+
+/**
+ * A large sample of a tested class, like the waiting areas of sheet 5: many methods, static state and some string
+ * handling.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class WaitingArea {
+	private static final int DEFAULT_CAPACITY = 16;
+	private static int areasCreated = 0;
+	private static int totalAdded = 0;
+	private static String lastCommand = "";
+
+	private String[] names;
+	private int[] ages;
+	private int[] priorities;
+	private int size;
+	private final int capacity;
+
+	public WaitingArea() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public WaitingArea(int capacity) {
+		this.capacity = capacity;
+		this.names = new String[Math.min(capacity, DEFAULT_CAPACITY)];
+		this.ages = new int[this.names.length];
+		this.priorities = new int[this.names.length];
+		areasCreated++;
+	}
+
+	public boolean add(String name, int age, int priority) {
+		if (this.size == this.capacity || name == null || name.isEmpty() || age < 0) {
+			return false;
+		}
+		ensureSpace();
+		int position = this.size;
+		while (position > 0 && this.priorities[position - 1] < priority) {
+			this.names[position] = this.names[position - 1];
+			this.ages[position] = this.ages[position - 1];
+			this.priorities[position] = this.priorities[position - 1];
+			position--;
+		}
+		this.names[position] = name;
+		this.ages[position] = age;
+		this.priorities[position] = priority;
+		this.size++;
+		totalAdded++;
+		return true;
+	}
+
+	private void ensureSpace() {
+		if (this.size < this.names.length) {
+			return;
+		}
+		int newLength = Math.min(this.capacity, this.names.length * 2);
+		String[] newNames = new String[newLength];
+		int[] newAges = new int[newLength];
+		int[] newPriorities = new int[newLength];
+		System.arraycopy(this.names, 0, newNames, 0, this.size);
+		System.arraycopy(this.ages, 0, newAges, 0, this.size);
+		System.arraycopy(this.priorities, 0, newPriorities, 0, this.size);
+		this.names = newNames;
+		this.ages = newAges;
+		this.priorities = newPriorities;
+	}
+
+	public String next() {
+		if (this.size == 0) {
+			return null;
+		}
+		String next = this.names[0];
+		removeAt(0);
+		return next;
+	}
+
+	public String peek() {
+		return (this.size == 0) ? null : this.names[0];
+	}
+
+	public boolean remove(String name) {
+		int index = indexOf(name);
+		if (index == -1) {
+			return false;
+		}
+		removeAt(index);
+		return true;
+	}
+
+	private void removeAt(int index) {
+		int moved = this.size - index - 1;
+		System.arraycopy(this.names, index + 1, this.names, index, moved);
+		System.arraycopy(this.ages, index + 1, this.ages, index, moved);
+		System.arraycopy(this.priorities, index + 1, this.priorities, index, moved);
+		this.size--;
+		this.names[this.size] = null;
+	}
+
+	public int indexOf(String name) {
+		for (int i = 0; i < this.size; i++) {
+			if (this.names[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public boolean contains(String name) {
+		return indexOf(name) != -1;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public int capacity() {
+		return this.capacity;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public boolean isFull() {
+		return this.size == this.capacity;
+	}
+
+	public void clear() {
+		for (int i = 0; i < this.size; i++) {
+			this.names[i] = null;
+		}
+		this.size = 0;
+	}
+
+	public int oldest() {
+		int oldest = -1;
+		for (int i = 0; i < this.size; i++) {
+			oldest = Math.max(oldest, this.ages[i]);
+		}
+		return oldest;
+	}
+
+	public int youngest() {
+		if (this.size == 0) {
+			return -1;
+		}
+		int youngest = Integer.MAX_VALUE;
+		for (int i = 0; i < this.size; i++) {
+			youngest = Math.min(youngest, this.ages[i]);
+		}
+		return youngest;
+	}
+
+	public double averageAge() {
+		if (this.size == 0) {
+			return 0;
+		}
+		long sum = 0;
+		for (int i = 0; i < this.size; i++) {
+			sum += this.ages[i];
+		}
+		return (double) sum / this.size;
+	}
+
+	public int countWithPriority(int priority) {
+		int count = 0;
+		for (int i = 0; i < this.size; i++) {
+			if (this.priorities[i] == priority) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public boolean raisePriority(String name, int by) {
+		int index = indexOf(name);
+		if (index == -1 || by <= 0) {
+			return false;
+		}
+		int age = this.ages[index];
+		int priority = this.priorities[index] + by;
+		removeAt(index);
+		totalAdded--;
+		return add(name, age, priority);
+	}
+
+	public WaitingArea merge(WaitingArea other) {
+		WaitingArea merged = new WaitingArea(this.capacity + other.capacity);
+		for (int i = 0; i < this.size; i++) {
+			merged.add(this.names[i], this.ages[i], this.priorities[i]);
+		}
+		for (int i = 0; i < other.size; i++) {
+			merged.add(other.names[i], other.ages[i], other.priorities[i]);
+		}
+		return merged;
+	}
+
+	public WaitingArea olderThan(int age) {
+		WaitingArea result = new WaitingArea(this.capacity);
+		for (int i = 0; i < this.size; i++) {
+			if (this.ages[i] > age) {
+				result.add(this.names[i], this.ages[i], this.priorities[i]);
+			}
+		}
+		return result;
+	}
+
+	public String[] names() {
+		String[] result = new String[this.size];
+		System.arraycopy(this.names, 0, result, 0, this.size);
+		return result;
+	}
+
+	public String execute(String command) {
+		lastCommand = command;
+		String[] parts = command.trim().split("\\s+");
+		switch (parts[0]) {
+		case "add":
+			if (parts.length != 4) {
+				return "Error, add needs a name, an age and a priority.";
+			}
+			try {
+				return add(parts[1], Integer.parseInt(parts[2]), Integer.parseInt(parts[3])) ? "OK"
+						: "Error, could not add " + parts[1] + ".";
+			} catch (NumberFormatException e) {
+				return "Error, age and priority have to be numbers.";
+			}
+		case "next":
+			String next = next();
+			return (next == null) ? "Error, nobody is waiting." : next;
+		case "remove":
+			return (parts.length == 2 && remove(parts[1])) ? "OK" : "Error, nobody to remove.";
+		case "size":
+			return String.valueOf(size());
+		case "print":
+			return toString();
+		case "clear":
+			clear();
+			return "OK";
+		default:
+			return "Error, unknown command '" + parts[0] + "'.";
+		}
+	}
+
+	public static int getAreasCreated() {
+		return areasCreated;
+	}
+
+	public static int getTotalAdded() {
+		return totalAdded;
+	}
+
+	public static String getLastCommand() {
+		return lastCommand;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < this.size; i++) {
+			if (i > 0) {
+				builder.append('\n');
+			}
+			builder.append(this.names[i]).append(" (").append(this.ages[i]).append(", ").append(this.priorities[i])
+					.append(')');
+		}
+		return builder.toString();
+	}
+
+	public static void main(String[] args) {
+		WaitingArea area = new WaitingArea(8);
+		String[] commands = {
+				"add alice 34 2", "add bob 27 5", "add carol 61 1", "add dave x 1", "size", "next", "remove carol",
+				"print", "clear", "next", "help"
+		};
+		for (String command : commands) {
+			System.out.println(area.execute(command));
+		}
+		WaitingArea other = new WaitingArea();
+		other.add("erin", 45, 3);
+		other.add("frank", 19, 3);
+		other.raisePriority("frank", 2);
+		System.out.println(area.merge(other).olderThan(20) + " " + other.averageAge() + " " + getAreasCreated() + " "
+				+ getTotalAdded() + " " + getLastCommand());
+	}
+}
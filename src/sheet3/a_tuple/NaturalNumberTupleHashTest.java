@@ -0,0 +1,54 @@
+package sheet3.a_tuple;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import test.Hashing;
+import test.Randomness;
+import test.TestObject;
+import test.Watchdog;
+
+/**
+ * Puts up to 10^6 random {@code NaturalNumberTuple}s into a {@link java.util.HashMap} and looks them up again, see
+ * {@link Hashing}. {@link NaturalNumberTupleTest} checks that {@code equals(NaturalNumberTuple)} is correct. A hash map
+ * only uses {@code equals(Object)} though. If your tuple overrides it, this test checks that {@code hashCode()} agrees
+ * with it and spreads the tuples well enough for hash maps and hash sets to stay fast. A constant hash code, or one
+ * that adds the numbers up, is correct, but makes every lookup call {@code equals(o)} on hundreds of tuples. If your
+ * tuple does not override {@code equals(Object)}, there is nothing to test.
+ * <p>
+ * The tuples have 6 to 12 numbers between 1 and 100. The sizes are tried from the smallest to the largest, and if
+ * filling the map and looking all tuples up exceeds its budget, the failure message tells how many tuples share a hash
+ * code. The largest size can be limited through the JVM variable {@code -Dtest.scale.maxSize} (default:
+ * {@code 1000000}).
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class NaturalNumberTupleHashTest {
+    private static final int MAX_SIZE = Integer.getInteger("test.scale.maxSize", 1000000);
+
+    @Rule
+    public TestRule globalTimeout = Watchdog.timeout(600000);
+
+    @Rule
+    public TestRule randomness = Randomness.rule();
+
+    /**
+     * Tests {@code hashCode()} and {@code equals(o)} in a {@link java.util.HashMap}. Asserts that:
+     * <ul>
+     * <li>equal tuples have the same hash code.</li>
+     * <li>a {@code HashMap} finds every tuple through an equal one.</li>
+     * <li>filling the map and looking every tuple up takes time linear in the number of tuples.</li>
+     * </ul>
+     */
+    @Test
+    public void testHashMapLookups() {
+        // overriding equals(Object) is not obligatory, see NaturalNumberTupleTest
+        if (!TestObject.hasMethod("equals", Object.class)) {
+            return;
+        }
+        Hashing.stressRandomTuples(MAX_SIZE);
+    }
+}
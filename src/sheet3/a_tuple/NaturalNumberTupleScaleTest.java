@@ -0,0 +1,487 @@
+package sheet3.a_tuple;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import test.Budget;
+import test.Complexity;
+import test.Measurement;
+import test.Operations;
+import test.Randomness;
+import test.TestObject;
+import test.Watchdog;
+
+/**
+ * Runs the operations of {@code NaturalNumberTuple} on tuples of 10^4 up to 10^7 numbers. {@link NaturalNumberTupleTest}
+ * checks that the operations are correct. This test checks that they stay correct and fast for large tuples and for
+ * input that is hard on naive implementations: sorted, reverse sorted, all equal, many duplicates and many numbers
+ * that are no natural numbers and must be filtered.
+ * <p>
+ * Every call gets a time and an allocation budget (see {@link Budget}), which grows with the size of the tuple. A
+ * linear operation that copies the tuple once is fine, a quadratic one is not. The expected results are computed on a
+ * plain {@code int} array, so the test itself stays cheap. The sizes are tried from the smallest to the largest, so a
+ * slow implementation fails at the first size that reveals it.
+ * <p>
+ * With {@code -Dtest.operations=true}, {@link #testSortComplexity()} also counts the operations of {@code sort()} for
+ * growing tuples (see {@link Complexity}). Unlike a time, the count does not depend on the machine, so it tells an
+ * O(n²) sort from an O(n log n) one even where the time budget is generous. Without it, that test is skipped.
+ * <p>
+ * The largest size can be limited through the JVM variable {@code -Dtest.scale.maxSize} (default: {@code 10000000}),
+ * for example if the JVM does not have enough memory for tuples of 10^7 numbers.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class NaturalNumberTupleScaleTest {
+    private static final int MAX_SIZE = Integer.getInteger("test.scale.maxSize", 10000000);
+    private static final int[] SIZES = {10000, 100000, 1000000, 10000000};
+    /*
+     * What an operation may cost: CPU milliseconds on the reference machine for any size and per million numbers in the
+     * tuple, and bytes per number.
+     */
+    private static final Budget.Scaling CONSTRUCTION = Budget.linear(20, 300, 64);
+    private static final Budget.Scaling QUERY = Budget.linear(10, 100, 1);
+    private static final Budget.Scaling UPDATE = Budget.linear(10, 200, 48);
+    private static final Budget.Scaling SORT = Budget.linearithmic(20, 600, 48);
+    private static final Budget.Scaling SET = Budget.linear(20, 800, 160);
+
+    @Rule
+    public TestRule globalTimeout = Watchdog.timeout(600000);
+
+    @Rule
+    public TestRule randomness = Randomness.rule();
+
+    /**
+     * How the numbers the tuple is instantiated with are distributed.
+     */
+    private enum Distribution {
+        SORTED("sorted") {
+            @Override
+            int[] generate(int n, SplittableRandom random) {
+                int[] numbers = new int[n];
+                for (int i = 0; i < n; i++) {
+                    numbers[i] = i + 1;
+                }
+                return numbers;
+            }
+        },
+        REVERSE_SORTED("reverse sorted") {
+            @Override
+            int[] generate(int n, SplittableRandom random) {
+                int[] numbers = new int[n];
+                for (int i = 0; i < n; i++) {
+                    numbers[i] = n - i;
+                }
+                return numbers;
+            }
+        },
+        ALL_EQUAL("equal") {
+            @Override
+            int[] generate(int n, SplittableRandom random) {
+                int[] numbers = new int[n];
+                Arrays.fill(numbers, 7);
+                return numbers;
+            }
+        },
+        DUPLICATES("mostly duplicate") {
+            @Override
+            int[] generate(int n, SplittableRandom random) {
+                int[] numbers = new int[n];
+                for (int i = 0; i < n; i++) {
+                    numbers[i] = random.nextInt(1, 17);
+                }
+                return numbers;
+            }
+        },
+        NEGATIVES("partly negative") {
+            @Override
+            int[] generate(int n, SplittableRandom random) {
+                int[] numbers = new int[n];
+                for (int i = 0; i < n; i++) {
+                    numbers[i] = random.nextInt(-n, n + 1);
+                }
+                return numbers;
+            }
+        };
+
+        private final String description;
+
+        private Distribution(String description) {
+            this.description = description;
+        }
+
+        abstract int[] generate(int n, SplittableRandom random);
+    }
+
+    /**
+     * A tuple under test and the natural numbers it is expected to contain.
+     */
+    private static class Instance {
+        private final Distribution distribution;
+        private final int size;
+        private TestObject tuple;
+        private int[] expected;
+
+        private Instance(Distribution distribution, int size) {
+            this.distribution = distribution;
+            this.size = size;
+        }
+
+        private String describe(String call) {
+            return call + " of a NaturalNumberTuple instantiated with " + this.size + " "
+                    + this.distribution.description + " numbers";
+        }
+    }
+
+    /**
+     * Creates a tuple of every distribution and size and runs the check on it.
+     */
+    private void forEachInstance(Check check) {
+        SplittableRandom random = Randomness.current();
+        Budget.warmup(new Budget.Task<Integer>() {
+            @Override
+            public Integer run() {
+                return new TestObject(new int[] {1}).run(int.class, "max");
+            }
+        });
+        for (int size : SIZES) {
+            if (size > MAX_SIZE) {
+                break;
+            }
+            for (Distribution distribution : Distribution.values()) {
+                final Instance instance = new Instance(distribution, size);
+                final int[] numbers = distribution.generate(size, random);
+                instance.expected = naturalNumbers(numbers);
+                instance.tuple = call(instance, CONSTRUCTION, "the constructor", new Budget.Task<TestObject>() {
+                    @Override
+                    public TestObject run() {
+                        return new TestObject(numbers);
+                    }
+                });
+                check.check(instance);
+            }
+        }
+    }
+
+    private abstract static class Check {
+        abstract void check(Instance instance);
+    }
+
+    private static <T> T call(Instance instance, Budget.Scaling cost, String call, Budget.Task<T> task) {
+        return cost.forSize(instance.size).run(instance.describe(call), task);
+    }
+
+    private static int indexOf(final Instance instance, final int number) {
+        return call(instance, QUERY, "indexOf(" + number + ")", new Budget.Task<Integer>() {
+            @Override
+            public Integer run() {
+                return instance.tuple.run(int.class, "indexOf", number);
+            }
+        });
+    }
+
+    private static int countNumbers(final Instance instance, final int number) {
+        return call(instance, QUERY, "countNumbers(" + number + ")", new Budget.Task<Integer>() {
+            @Override
+            public Integer run() {
+                return instance.tuple.run(int.class, "countNumbers", number);
+            }
+        });
+    }
+
+    private static int extreme(final Instance instance, final String method) {
+        return call(instance, QUERY, method + "()", new Budget.Task<Integer>() {
+            @Override
+            public Integer run() {
+                return instance.tuple.run(int.class, method);
+            }
+        });
+    }
+
+    /**
+     * Runs a method that changes the tuple. If it returns a new tuple, the instance continues with the new tuple.
+     */
+    private static void change(final Instance instance, Budget.Scaling cost, final String method,
+            final Object... arguments) {
+        String call = method + "(" + (arguments.length > 0 ? arguments[0] : "")
+                + (arguments.length > 1 ? ", " + arguments[1] : "") + ")";
+        Object result = call(instance, cost, call, new Budget.Task<Object>() {
+            @Override
+            public Object run() {
+                return instance.tuple.run(Object.class, method, arguments);
+            }
+        });
+        if (result instanceof TestObject) {
+            instance.tuple = (TestObject) result;
+        }
+    }
+
+    private static int[] naturalNumbers(int[] numbers) {
+        int count = 0;
+        for (int number : numbers) {
+            if (number > 0) {
+                count++;
+            }
+        }
+        int[] result = new int[count];
+        int index = 0;
+        for (int number : numbers) {
+            if (number > 0) {
+                result[index++] = number;
+            }
+        }
+        return result;
+    }
+
+    private static int referenceIndexOf(int[] numbers, int number) {
+        for (int i = 0; i < numbers.length; i++) {
+            if (numbers[i] == number) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int referenceCount(int[] numbers, int number) {
+        int count = 0;
+        for (int current : numbers) {
+            if (current == number) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int referenceMax(int[] numbers) {
+        int max = -1;
+        for (int number : numbers) {
+            max = Math.max(max, number);
+        }
+        return max;
+    }
+
+    private static int referenceMin(int[] numbers) {
+        if (numbers.length == 0) {
+            return -1;
+        }
+        int min = Integer.MAX_VALUE;
+        for (int number : numbers) {
+            min = Math.min(min, number);
+        }
+        return min;
+    }
+
+    /**
+     * @return Numbers that are worth looking for: the first, the middle and the last number of the tuple.
+     */
+    private static int[] probes(int[] numbers) {
+        return new int[] {numbers[0], numbers[numbers.length / 2], numbers[numbers.length - 1]};
+    }
+
+    @Test
+    public void testIndexOfAtScale() {
+        forEachInstance(new Check() {
+            @Override
+            void check(Instance instance) {
+                int[] expected = instance.expected;
+                int absent = referenceMax(expected) + 1;
+                for (int number : probes(expected)) {
+                    assertEquals(instance.describe("indexOf(" + number + ")"), referenceIndexOf(expected, number),
+                            indexOf(instance, number));
+                }
+                assertEquals(instance.describe("indexOf(" + absent + ")"), -1, indexOf(instance, absent));
+                assertEquals(instance.describe("indexOf(0)"), -1, indexOf(instance, 0));
+            }
+        });
+    }
+
+    @Test
+    public void testCountNumbersAtScale() {
+        forEachInstance(new Check() {
+            @Override
+            void check(Instance instance) {
+                int[] expected = instance.expected;
+                int absent = referenceMax(expected) + 1;
+                for (int number : probes(expected)) {
+                    assertEquals(instance.describe("countNumbers(" + number + ")"), referenceCount(expected, number),
+                            countNumbers(instance, number));
+                }
+                assertEquals(instance.describe("countNumbers(" + absent + ")"), 0, countNumbers(instance, absent));
+                assertEquals(instance.describe("countNumbers(-1)"), 0, countNumbers(instance, -1));
+            }
+        });
+    }
+
+    @Test
+    public void testMaxAndMinAtScale() {
+        forEachInstance(new Check() {
+            @Override
+            void check(Instance instance) {
+                assertEquals(instance.describe("max()"), referenceMax(instance.expected), extreme(instance, "max"));
+                assertEquals(instance.describe("min()"), referenceMin(instance.expected), extreme(instance, "min"));
+            }
+        });
+    }
+
+    @Test
+    public void testInsertAtScale() {
+        forEachInstance(new Check() {
+            @Override
+            void check(Instance instance) {
+                int[] expected = instance.expected;
+                int absent = referenceMax(expected) + 1;
+                int first = expected[0];
+                change(instance, UPDATE, "insert", absent);
+                assertEquals(instance.describe("insert(" + absent + ").indexOf(" + absent + ")"), expected.length,
+                        indexOf(instance, absent));
+                change(instance, UPDATE, "insert", -2);
+                assertEquals(instance.describe("insert(" + absent + ").insert(-2).indexOf(-2)"), -1,
+                        indexOf(instance, -2));
+                change(instance, UPDATE, "insert", first);
+                assertEquals(instance.describe("insert(" + absent + ").insert(-2).insert(" + first + ").countNumbers("
+                        + first + ")"), referenceCount(expected, first) + 1, countNumbers(instance, first));
+            }
+        });
+    }
+
+    @Test
+    public void testRemoveAtScale() {
+        forEachInstance(new Check() {
+            @Override
+            void check(Instance instance) {
+                int[] expected = instance.expected;
+                int removed = expected[expected.length / 2];
+                int[] remaining = new int[expected.length - referenceCount(expected, removed)];
+                int index = 0;
+                for (int number : expected) {
+                    if (number != removed) {
+                        remaining[index++] = number;
+                    }
+                }
+                change(instance, UPDATE, "remove", removed);
+                String call = "remove(" + removed + ")";
+                assertEquals(instance.describe(call + ".countNumbers(" + removed + ")"), 0,
+                        countNumbers(instance, removed));
+                assertEquals(instance.describe(call + ".max()"), referenceMax(remaining), extreme(instance, "max"));
+                if (remaining.length > 0) {
+                    int last = remaining[remaining.length - 1];
+                    assertEquals(instance.describe(call + ".indexOf(" + last + ")"), referenceIndexOf(remaining, last),
+                            indexOf(instance, last));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testSwapAtScale() {
+        forEachInstance(new Check() {
+            @Override
+            void check(Instance instance) {
+                int[] expected = instance.expected.clone();
+                int last = expected.length - 1;
+                // swapping positions that don't exist must not change anything
+                change(instance, UPDATE, "swap", expected.length, -1);
+                change(instance, UPDATE, "swap", 0, last);
+                int swap = expected[0];
+                expected[0] = expected[last];
+                expected[last] = swap;
+                String call = "swap(" + expected.length + ", -1).swap(0, " + last + ")";
+                for (int number : probes(expected)) {
+                    assertEquals(instance.describe(call + ".indexOf(" + number + ")"),
+                            referenceIndexOf(expected, number), indexOf(instance, number));
+                }
+            }
+        });
+    }
+
+    @Test
+    public void testSortAtScale() {
+        // sort() is not obligatory, see NaturalNumberTupleTest
+        if (!TestObject.hasMethod("sort")) {
+            return;
+        }
+        forEachInstance(new Check() {
+            @Override
+            void check(Instance instance) {
+                int[] sorted = instance.expected.clone();
+                Arrays.sort(sorted);
+                change(instance, SORT, "sort");
+                int[] numbers = {sorted[0], sorted[sorted.length / 4], sorted[sorted.length / 2],
+                        sorted[sorted.length - 1]};
+                for (int number : numbers) {
+                    assertEquals(instance.describe("sort().indexOf(" + number + ")"),
+                            referenceIndexOf(sorted, number), indexOf(instance, number));
+                }
+            }
+        });
+    }
+
+    /**
+     * Tests how the number of operations of {@code sort()} grows on tuples of 1000 up to 16000 random numbers. Asserts
+     * that:
+     * <ul>
+     * <li>{@code sort()} takes at most O(n log n) operations.</li>
+     * </ul>
+     * Needs {@code -Dtest.operations=true}, see {@link Operations}.
+     */
+    @Test
+    public void testSortComplexity() {
+        // sort() is not obligatory, see NaturalNumberTupleTest
+        Assume.assumeTrue(TestObject.hasMethod("sort"));
+        Assume.assumeTrue("Operations are only counted with -Dtest.operations=true.", Operations.isCounting());
+        final SplittableRandom random = Randomness.current();
+        Complexity.of("sort() of a NaturalNumberTuple with n random numbers", new Complexity.Experiment() {
+            @Override
+            public Measurement prepare(int n) {
+                int[] numbers = new int[n];
+                for (int i = 0; i < n; i++) {
+                    numbers[i] = random.nextInt(1, Integer.MAX_VALUE);
+                }
+                return new TestObject(numbers).measure("sort");
+            }
+        }).sizes(1000, 16000).countingOperations().assertAtMost(Complexity.Growth.LINEARITHMIC);
+    }
+
+    @Test
+    public void testToSetAtScale() {
+        forEachInstance(new Check() {
+            @Override
+            void check(final Instance instance) {
+                int[] expected = instance.expected;
+                final TestObject tuple = instance.tuple;
+                TestObject set = call(instance, SET, "toSet()", new Budget.Task<TestObject>() {
+                    @Override
+                    public TestObject run() {
+                        return tuple.run(TestObject.class, "toSet");
+                    }
+                });
+                instance.tuple = set;
+                for (int number : probes(expected)) {
+                    assertEquals(instance.describe("toSet().countNumbers(" + number + ")"), 1,
+                            countNumbers(instance, number));
+                }
+                assertEquals(instance.describe("toSet().max()"), referenceMax(expected), extreme(instance, "max"));
+                assertEquals(instance.describe("toSet().min()"), referenceMin(expected), extreme(instance, "min"));
+                if (instance.distribution == Distribution.SORTED) {
+                    // the numbers are distinct already
+                    boolean equal = call(instance, QUERY, "tuple.toSet().equals(tuple)",
+                            new Budget.Task<Boolean>() {
+                                @Override
+                                public Boolean run() {
+                                    return tuple.run(boolean.class, "equals", instance.tuple);
+                                }
+                            });
+                    assertEquals(instance.describe("tuple.toSet().equals(tuple)"), true, equal);
+                }
+            }
+        });
+    }
+}
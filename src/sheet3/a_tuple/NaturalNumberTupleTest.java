@@ -2,12 +2,18 @@ package sheet3.a_tuple;
 
 import static org.junit.Assert.*;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TestRule;
 
+import test.Metrics;
 import test.TestObject;
 
 public class NaturalNumberTupleTest {
 
+    @Rule
+    public TestRule metrics = Metrics.rule();
+
     private static String NumbersToString(int[] numbers) {
         String result = "{";
         for (int i = 0; i < numbers.length; i++) {
@@ -1,5 +1,6 @@
 /**
  * Tests for Sheet 3 Task A: {@code NaturalNumberTuple}. Run {@link sheet3.a_tuple.NaturalNumberTupleTest} to test your
- * implementation.
+ * implementation. Run {@link sheet3.a_tuple.NaturalNumberTupleScaleTest} to check that it is fast enough for large
+ * tuples, and {@link sheet3.a_tuple.NaturalNumberTupleHashTest} to check that it works well in hash maps.
  */
-package sheet3.a_tuple;
\ No newline at end of file
+package sheet3.a_tuple;
@@ -0,0 +1,302 @@
+package sheet3.b_euler;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Writes large input files for the Euler task. Every line is a walk through a graph, given as the natural numbers of
+ * the vertices it passes, like {@code 1,5,2,3,5,4,3,1}. Whether a line is an Euler circuit is known by construction,
+ * see {@link Kind}, so the expected output does not have to be computed. The same seed and settings always produce the
+ * same file.
+ * <p>
+ * A walk is built from segments. Every segment leaves the current vertex, passes at least two new vertices and
+ * returns to a vertex the walk has already visited, chosen at random. As every edge touches a new vertex, no edge is
+ * used twice, and some vertices are visited many times. The vertices are numbered by a random permutation, so their
+ * numbers don't follow the walk. The file is written line by line while the walks are built, so even lines of
+ * millions of edges need almost no memory.
+ *
+ * <pre>
+ * <code>
+ * new EulerFileGenerator(42).lines(10).edges(500000, 1000000).writeTo(file);
+ * </code>
+ * </pre>
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class EulerFileGenerator {
+    /**
+     * The version of the generated files, for the {@link test.FixtureCache}. Increase it whenever the same seed and
+     * settings produce a different file than before.
+     */
+    public static final int VERSION = 1;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The most new vertices a segment of a walk passes before it returns to a visited one.
+     */
+    private static final int MAX_SEGMENT_VERTICES = 8;
+
+    private final long seed;
+    private int lines = 1000;
+    private int minEdges = 3;
+    private int maxEdges = 10;
+
+    /**
+     * What a line of the file is.
+     */
+    public enum Kind {
+        /**
+         * A closed walk that uses every edge once. It is an Euler circuit.
+         */
+        CIRCUIT(true, "a closed walk that uses every edge once"),
+        /**
+         * A walk that uses every edge once, but ends at another vertex than it started at. Its first and last vertex
+         * have an odd degree, so it is no Euler circuit.
+         */
+        OPEN_WALK(false, "a walk that uses every edge once, but does not return to its start"),
+        /**
+         * A closed walk that goes to a new vertex and straight back once. It uses that edge twice, and the new vertex
+         * has only one neighbour, so it is no Euler circuit.
+         */
+        DOUBLED_EDGE(false, "a closed walk that uses one edge twice");
+
+        private final boolean eulerian;
+        private final String description;
+
+        private Kind(boolean eulerian, String description) {
+            this.eulerian = eulerian;
+            this.description = description;
+        }
+
+        /**
+         * @return Whether a line of this kind is an Euler circuit.
+         */
+        public boolean isEulerian() {
+            return this.eulerian;
+        }
+
+        @Override
+        public String toString() {
+            return this.description;
+        }
+    }
+
+    /**
+     * Creates a generator for files of 1000 lines of 3 to 10 edges.
+     *
+     * @param seed
+     *            The seed all random decisions are derived from.
+     */
+    public EulerFileGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param lines
+     *            How many lines the file shall have.
+     * @return this generator
+     */
+    public EulerFileGenerator lines(int lines) {
+        if (lines < 0) {
+            throw new IllegalArgumentException("A file can not have " + lines + " lines!");
+        }
+        this.lines = lines;
+        return this;
+    }
+
+    /**
+     * @param min
+     *            The fewest edges a line shall have. At least 3, as a shorter closed walk uses an edge twice.
+     * @param max
+     *            The most edges a line shall have.
+     * @return this generator
+     */
+    public EulerFileGenerator edges(int min, int max) {
+        if (min < 3 || max < min) {
+            throw new IllegalArgumentException("A line can not have between " + min + " and " + max + " edges!");
+        }
+        this.minEdges = min;
+        this.maxEdges = max;
+        return this;
+    }
+
+    /**
+     * @return The seed all random decisions are derived from.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * @return How many lines the file has.
+     */
+    public int getLines() {
+        return this.lines;
+    }
+
+    /**
+     * Describes all settings of this generator except for the seed. Two generators with the same seed and parameters
+     * generate the same file.
+     *
+     * @return The settings of this generator.
+     */
+    public String getParameters() {
+        return "lines=" + this.lines + ",minEdges=" + this.minEdges + ",maxEdges=" + this.maxEdges
+                + ",lineSeparator=" + LINE_SEPARATOR.length;
+    }
+
+    /**
+     * @param line
+     *            The index of a line, starting at {@code 0}.
+     * @return What the line is. Computed without writing the file.
+     */
+    public Kind kind(int line) {
+        return new Walk(line).kind;
+    }
+
+    /**
+     * @param line
+     *            The index of a line, starting at {@code 0}.
+     * @return How many edges the walk on the line has. Computed without writing the file.
+     */
+    public int edges(int line) {
+        return new Walk(line).edges;
+    }
+
+    /**
+     * @return How many edges all lines have together. Computed without writing the file.
+     */
+    public long totalEdges() {
+        long total = 0;
+        for (int line = 0; line < this.lines; line++) {
+            total += edges(line);
+        }
+        return total;
+    }
+
+    /**
+     * Writes the file. An existing file is overwritten.
+     *
+     * @param file
+     *            Where to write the file to.
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    public void writeTo(Path file) throws IOException {
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            for (int line = 0; line < this.lines; line++) {
+                new Walk(line).writeTo(output);
+                output.write(LINE_SEPARATOR);
+            }
+        }
+    }
+
+    /**
+     * The walk on one line. Its kind and length are the first random decisions, so they can be known without building
+     * the walk.
+     */
+    private class Walk {
+        private final SplittableRandom random;
+        private final Kind kind;
+        private final int edges;
+        private final byte[] digits = new byte[11];
+        private OutputStream output;
+        private int permutationBits;
+        private long permutationMultiplier;
+        private int visited = 0;
+
+        private Walk(int line) {
+            // the golden ratio spreads the line seeds, so neighbouring lines are not correlated
+            this.random = new SplittableRandom(EulerFileGenerator.this.seed + line * 0x9E3779B97F4A7C15L);
+            Kind kind;
+            if (this.random.nextBoolean()) {
+                kind = Kind.CIRCUIT;
+            } else {
+                kind = this.random.nextBoolean() ? Kind.OPEN_WALK : Kind.DOUBLED_EDGE;
+            }
+            this.edges = this.random.nextInt(EulerFileGenerator.this.minEdges, EulerFileGenerator.this.maxEdges + 1);
+            // going back and forth takes two edges, and the rest still needs to be a circuit
+            this.kind = (kind == Kind.DOUBLED_EDGE && this.edges < 5) ? Kind.OPEN_WALK : kind;
+        }
+
+        private void writeTo(OutputStream output) throws IOException {
+            this.output = output;
+            // there are at most edges + 1 vertices
+            this.permutationBits = 64 - Long.numberOfLeadingZeros(this.edges + 1);
+            this.permutationMultiplier = this.random.nextLong() | 1;
+            int start = visit();
+            writeVertex(start, true);
+            int remaining = this.edges;
+            int detour = -1;
+            if (this.kind == Kind.DOUBLED_EDGE) {
+                remaining -= 2;
+                detour = this.random.nextInt(remaining);
+            }
+            int current = start;
+            while (remaining > 0) {
+                int passed = 2 + this.random.nextInt(MAX_SEGMENT_VERTICES - 1);
+                boolean last = remaining - (passed + 1) < 3;
+                if (last) {
+                    // an open walk ends at a new vertex, a closed one at its start
+                    passed = (this.kind == Kind.OPEN_WALK) ? remaining : remaining - 1;
+                }
+                if (detour >= 0 && (last || remaining <= detour)) {
+                    writeVertex(visit(), false);
+                    writeVertex(current, false);
+                    detour = -1;
+                }
+                int visitedBefore = this.visited;
+                for (int i = 0; i < passed; i++) {
+                    writeVertex(visit(), false);
+                }
+                if (!last) {
+                    // returning to a vertex of this segment would use an edge twice
+                    current = this.random.nextInt(visitedBefore);
+                    writeVertex(current, false);
+                    remaining -= passed + 1;
+                } else {
+                    if (this.kind != Kind.OPEN_WALK) {
+                        writeVertex(start, false);
+                    }
+                    remaining = 0;
+                }
+            }
+        }
+
+        /**
+         * @return A vertex the walk did not visit before.
+         */
+        private int visit() {
+            return this.visited++;
+        }
+
+        /**
+         * Writes the natural number of a vertex. Vertex {@code v} gets the number {@code p(v) + 1}, where {@code p} is
+         * a random permutation of the numbers with {@link #permutationBits} bits.
+         */
+        private void writeVertex(int vertex, boolean first) throws IOException {
+            long mask = (1L << this.permutationBits) - 1;
+            long permuted = (vertex * this.permutationMultiplier) & mask;
+            permuted ^= permuted >>> (this.permutationBits / 2 + 1);
+            permuted = (permuted * this.permutationMultiplier) & mask;
+            long number = permuted + 1;
+            if (!first) {
+                this.output.write(',');
+            }
+            int length = 0;
+            do {
+                this.digits[length++] = (byte) ('0' + number % 10);
+                number /= 10;
+            } while (number > 0);
+            while (length > 0) {
+                this.output.write(this.digits[--length]);
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package sheet3.b_euler;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import test.Budget;
+import test.Calibration;
+import test.FixtureCache;
+import test.TestObject;
+import test.Watchdog;
+
+/**
+ * Runs the Euler program on large input files. {@link EulerTest} checks that the program is correct for seven short
+ * lines. This test checks that it stays correct and fast for many lines, and for lines of up to a million edges. The
+ * files are generated by {@link EulerFileGenerator}, which knows the right answer for every line by construction, and
+ * kept in the {@link FixtureCache}. The output is compared to the expected answers line by line, without splitting it.
+ * <p>
+ * The program gets a time and an allocation budget (see {@link Budget}) that is the sum of a budget for every line: a
+ * fixed part, and a part for every edge on the line. Reading a line and checking its graph should take time linear in
+ * its number of edges. The time budget also has {@link #STARTUP_MILLIS} for starting up, so a run on a small file does
+ * not measure how long the JIT compiler takes to warm up.
+ * <p>
+ * A single pathological line hardly shows in the budget of a file of 100000 lines, so every line also gets its own
+ * time budget, with {@link #SLACK_MILLIS} to spare. The CPU time of a line is the CPU time between printing its answer
+ * and printing the answer before it, see {@link TestObject#getLastMethodLineCpuTimes()}. Answers that are printed
+ * together share their budgets. The first answer is only checked with the budget of the whole file, as a program may
+ * read the whole file before it answers the first line. If the program finishes, its answers are checked before its
+ * time, so a wrong answer is reported as such even if the program was also too slow.
+ * <p>
+ * The sizes can be set through these JVM variables:
+ * <ul>
+ * <li>{@code -Dtest.euler.lines}: how many short lines there are. Default: {@code 100000}.
+ * <li>{@code -Dtest.euler.edges}: how many edges the longest line has. Default: {@code 1000000}.
+ * </ul>
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class EulerScaleTest {
+    private static final int LINES = Integer.getInteger("test.euler.lines", 100000);
+    private static final int EDGES = Integer.getInteger("test.euler.edges", 1000000);
+    private static final long SEED = 20141124;
+    /**
+     * The CPU time the program may take once, besides its lines, in milliseconds on the reference machine: for loading
+     * its classes, opening the file and compiling its hot loops.
+     */
+    private static final long STARTUP_MILLIS = 200;
+    /**
+     * The CPU time every line may take, besides the time for its edges, in microseconds on the reference machine.
+     */
+    private static final long MICROS_PER_LINE = 20;
+    /**
+     * The CPU time every edge may take, in nanoseconds on the reference machine.
+     */
+    private static final long NANOS_PER_EDGE = 2000;
+    /**
+     * The CPU time a single line may take more than its budget, in milliseconds on the reference machine. A line can be
+     * charged with one-time costs like loading a class or growing a buffer.
+     */
+    private static final long SLACK_MILLIS = 100;
+    private static final long BYTES_PER_LINE = 4096;
+    private static final long BYTES_PER_EDGE = 1024;
+    private static final long MEGABYTE = 1024 * 1024;
+
+    @Rule
+    public TestRule globalTimeout = Watchdog.timeout(600000);
+
+    /**
+     * Tests the program on many short lines. Asserts that:
+     * <ul>
+     * <li>the program prints {@code true} for every line that is an Euler circuit and {@code false} for all others.</li>
+     * <li>it does not take much time for every line, besides the time for its edges.</li>
+     * </ul>
+     */
+    @Test
+    public void testManyShortLines() {
+        check(new EulerFileGenerator(SEED).lines(LINES).edges(3, 20));
+    }
+
+    /**
+     * Tests the program on a few lines with up to {@code -Dtest.euler.edges} edges. Asserts that:
+     * <ul>
+     * <li>the program prints {@code true} for every line that is an Euler circuit and {@code false} for all others.</li>
+     * <li>it takes time linear in the number of edges of a line.</li>
+     * </ul>
+     */
+    @Test
+    public void testLongLines() {
+        check(new EulerFileGenerator(SEED).lines(4).edges(Math.max(EDGES / 2, 3), Math.max(EDGES, 3)));
+    }
+
+    private void check(EulerFileGenerator generator) {
+        final String fileName = generate(generator);
+        int lines = generator.getLines();
+        long edges = generator.totalEdges();
+        Budget budget = Budget.of(STARTUP_MILLIS + (MICROS_PER_LINE * lines + NANOS_PER_EDGE * edges / 1000 + 999)
+                / 1000, 16 * MEGABYTE + BYTES_PER_LINE * lines + BYTES_PER_EDGE * edges);
+        String what = String.format(Locale.US, "Your program on a file of %d lines and %d edges (%d ms to start, %d "
+                + "microseconds per line and %d nanoseconds per edge)", lines, edges, STARTUP_MILLIS, MICROS_PER_LINE,
+                NANOS_PER_EDGE);
+        final String[] output = new String[1];
+        AssertionError overBudget = null;
+        TestObject.timeOutputLines(true);
+        try {
+            budget.run(what, new Budget.Task<Void>() {
+                @Override
+                public Void run() {
+                    TestObject.runStaticVoid("main", (Object) new String[] {fileName});
+                    output[0] = TestObject.getLastMethodOutput();
+                    return null;
+                }
+            });
+        } catch (AssertionError e) {
+            if (output[0] == null) {
+                // the program did not finish, so its answers are incomplete
+                throw withSlowestLine(e, slowestLine(generator, fileName));
+            }
+            overBudget = e;
+        } finally {
+            TestObject.timeOutputLines(false);
+        }
+        checkAnswers(generator, fileName, output[0]);
+        String slowest = slowestLine(generator, fileName);
+        if (overBudget != null) {
+            throw withSlowestLine(overBudget, slowest);
+        }
+        if (slowest != null) {
+            fail(slowest);
+        }
+    }
+
+    private static AssertionError withSlowestLine(AssertionError failure, String slowest) {
+        if (slowest == null) {
+            return failure;
+        }
+        AssertionError withLine = new AssertionError(failure.getMessage() + "\n\n" + slowest);
+        withLine.initCause(failure);
+        return withLine;
+    }
+
+    /**
+     * Compares the output of the program to the expected answers, line by line.
+     */
+    private static void checkAnswers(EulerFileGenerator generator, String fileName, String output) {
+        int lines = generator.getLines();
+        int cursor = 0;
+        for (int line = 0; line < lines; line++) {
+            if (cursor >= output.length()) {
+                fail("Your program wrote " + line + " output lines, but there were " + lines
+                        + " lines in the input file " + fileName + ".");
+            }
+            int end = output.indexOf('\n', cursor);
+            if (end < 0) {
+                end = output.length();
+            }
+            int next = end + 1;
+            if (end > cursor && output.charAt(end - 1) == '\r') {
+                end--;
+            }
+            EulerFileGenerator.Kind kind = generator.kind(line);
+            assertEquals("Your program's output for line " + (line + 1) + " of " + fileName + ", which is " + kind
+                    + " (" + generator.edges(line) + " edges)", String.valueOf(kind.isEulerian()),
+                    output.substring(cursor, end));
+            cursor = next;
+        }
+        if (cursor < output.length()) {
+            fail("Your program wrote more output lines than there were lines in the input file " + fileName + ".");
+        }
+    }
+
+    /**
+     * Finds the line that exceeded its own budget the most in the last run of the program. The CPU time after the last
+     * answer is charged to the line after it, as the program may have run out of time there.
+     *
+     * @return A message naming the line, or {@code null} if every line stayed within its budget.
+     */
+    private static String slowestLine(EulerFileGenerator generator, String fileName) {
+        long[] times = TestObject.getLastMethodLineCpuTimes();
+        long total = TestObject.getLastMethodCpuTime();
+        if (times == null || total < 0) {
+            return null;
+        }
+        double factor = Calibration.factor();
+        int answers = Math.min(times.length, generator.getLines());
+        String slowest = null;
+        double worst = 0;
+        // the first answer may include reading the whole file
+        int first = 1;
+        while (first < answers && times[first] == times[0]) {
+            first++;
+        }
+        while (first <= answers && first < generator.getLines()) {
+            int last = first;
+            long used;
+            if (first == answers) {
+                used = total - times[answers - 1];
+            } else {
+                while (last + 1 < answers && times[last + 1] == times[first]) {
+                    last++;
+                }
+                used = times[last] - times[first - 1];
+            }
+            long edges = 0;
+            for (int line = first; line <= last; line++) {
+                edges += generator.edges(line);
+            }
+            double allowed = ((last - first + 1) * MICROS_PER_LINE * 1000 + NANOS_PER_EDGE * edges + SLACK_MILLIS
+                    * 1000000) * factor;
+            if (used > allowed && used / allowed > worst) {
+                worst = used / allowed;
+                String lines = (first == last) ? String.format(Locale.US, "Line %d of %s, which is %s (%d edges),",
+                        first + 1, fileName, generator.kind(first), edges) : String.format(Locale.US, "Lines %d to "
+                        + "%d of %s, which were answered together (%d edges),", first + 1, last + 1, fileName, edges);
+                slowest = String.format(Locale.US, "%s took %.1f ms of CPU time%s, but may take %.1f ms on this "
+                        + "machine (%d microseconds per line, %d nanoseconds per edge and %d ms to spare).", lines,
+                        used / 1e6, (first == answers) ? " before your program stopped" : "", allowed / 1e6,
+                        MICROS_PER_LINE, NANOS_PER_EDGE, SLACK_MILLIS);
+            }
+            first = last + 1;
+        }
+        return slowest;
+    }
+
+    private String generate(final EulerFileGenerator generator) {
+        try {
+            Path file = FixtureCache.get("euler", EulerFileGenerator.VERSION, generator.getSeed(),
+                    generator.getParameters(), new FixtureCache.Generator() {
+                        @Override
+                        public void generate(Path file) throws IOException {
+                            generator.writeTo(file);
+                        }
+                    });
+            return file.toString();
+        } catch (IOException e) {
+            fail("The test was unable to create a test file. That's a shame!");
+            return null;
+        }
+    }
+}
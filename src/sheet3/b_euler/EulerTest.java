@@ -2,22 +2,19 @@ package sheet3.b_euler;
 
 import static org.junit.Assert.*;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TestRule;
 
+import test.Input;
+import test.Metrics;
 import test.TestObject;
 
 public class EulerTest {
 
-    /*
-     * TAKE NOTE: If there is already a JUnitEulerTestFile.txt in the root of your Eclipse project, it will be deleted
-     * after running this test!!!
-     */
-    
+    @Rule
+    public TestRule metrics = Metrics.rule();
+
     @Test
     public void testMain() {
         String output;
@@ -43,21 +40,8 @@ public class EulerTest {
         };
         // @formatter:on
         String[] resultArray;
-        String testFileName = "JUnitEulerTestFile.txt";
-
-        // Write the test file for the class
-        BufferedWriter outputWriter = null;
-        try {
-            outputWriter = new BufferedWriter(new FileWriter(testFileName));
-            for (int i = 0; i < testArray.length; i++) {
-                outputWriter.write(testArray[i]);
-                outputWriter.newLine();
-            }
-            outputWriter.flush();
-            outputWriter.close();
-        } catch (IOException e) {
-            fail("The test was unable to create a test file. That's a shame!");
-        }
+        // the file is named after its content, so parallel runs don't overwrite each other's files
+        String testFileName = Input.getFile(testArray);
 
         // run the test file
         TestObject.runStaticVoid("main", (Object) new String[]{testFileName});
@@ -77,8 +61,5 @@ public class EulerTest {
             assertEquals("Your program's output for the line '" + testArray[i] + "'", expectedResultArray[i],
                     resultArray[i]);
         }
-        
-        // Remove the test file
-        new File(testFileName).delete();
     }
 }
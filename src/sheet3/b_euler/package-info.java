@@ -1,5 +1,6 @@
 /**
  * Tests for Sheet 3 Task B: Construction of Graphs and test if they're Eulerian Circles. Run
- * {@link sheet3.b_euler.EulerTest} to test your implementation.
+ * {@link sheet3.b_euler.EulerTest} to test your implementation. Run {@link sheet3.b_euler.EulerScaleTest} to check that
+ * it is fast enough for large files.
  */
 package sheet3.b_euler;
\ No newline at end of file
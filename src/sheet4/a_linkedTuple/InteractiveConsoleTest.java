@@ -5,8 +5,11 @@ import static org.hamcrest.CoreMatchers.startsWith;
 import static org.junit.Assert.*;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TestRule;
 
+import test.Metrics;
 import test.TestObject;
 import test.TestObject.SystemExitStatus;
 
@@ -20,6 +23,9 @@ import test.TestObject.SystemExitStatus;
 
 public class InteractiveConsoleTest {
 
+    @Rule
+    public TestRule metrics = Metrics.rule();
+
     @Before
     public void allowSystemExit0() {
         TestObject.allowSystemExit(SystemExitStatus.WITH_0);
@@ -0,0 +1,567 @@
+package sheet4.a_linkedTuple;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import test.Budget;
+import test.Complexity;
+import test.Complexity.Growth;
+import test.Measurement;
+import test.Operations;
+import test.Randomness;
+import test.TestObject;
+import test.TestObject.SystemExitStatus;
+import test.Watchdog;
+
+/**
+ * Runs the operations of {@code LinkedNaturalNumberTuple} on tuples of 10^3 up to 10^6 nodes.
+ * {@link LinkedNaturalNumberTupleTest} checks that the operations are correct on a few numbers. This test checks that
+ * they stay correct and fast if the list of nodes is long:
+ * <ul>
+ * <li>{@code toString()}, {@code equals(o)} and {@code countNumbers(x)} must not overflow the stack. A method that
+ * recursively calls itself for the next node works for 18 numbers, but not for 10^6.
+ * <li>{@code insert(x)} must not walk through the whole list to find its end.
+ * <li>{@code remove(x)} must not start over at the first node for every occurrence of {@code x}.
+ * <li>{@code swap(i, j)} must work for the first and the last node.
+ * </ul>
+ * Every call gets a time and an allocation budget (see {@link Budget}), which grows with the size of the tuple. The
+ * results are compared to the expected numbers node by node: {@code toString()} is read number by number, and other
+ * results are checked through {@code equals(o)}, {@code indexOf(x)} and {@code countNumbers(x)}. If a call exceeds its
+ * budget, the failure message lists what every operation cost so far, so you can see which one grows too fast.
+ * <p>
+ * With {@code -Dtest.operations=true}, the tests ending in {@code Complexity} count the operations of
+ * {@code insert(x)}, {@code remove(x)} and {@code countNumbers(x)} for growing tuples (see {@link Complexity}). Unlike
+ * a time, the count does not depend on the machine or its load, so it tells a constant from a linear
+ * {@code insert(x)} for sure. Without it, these tests are skipped.
+ * <p>
+ * The largest size can be limited through the JVM variable {@code -Dtest.scale.maxSize} (default: {@code 1000000}),
+ * for example if the JVM does not have enough memory for tuples of 10^6 nodes.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class LinkedNaturalNumberTupleScaleTest {
+    private static final int MAX_SIZE = Integer.getInteger("test.scale.maxSize", 1000000);
+    private static final int[] SIZES = {1000, 10000, 100000, 1000000};
+    /**
+     * How many numbers are appended to a tuple to measure {@code insert(x)}.
+     */
+    private static final int INSERTS = 1000;
+    /*
+     * What an operation may cost: CPU milliseconds on the reference machine for any size and per million nodes in the
+     * tuple, and bytes per node.
+     */
+    private static final Budget.Scaling CONSTRUCTION = Budget.linear(20, 400, 64);
+    private static final Budget.Scaling QUERY = Budget.linear(10, 150, 1);
+    private static final Budget.Scaling UPDATE = Budget.linear(10, 200, 48);
+    private static final Budget.Scaling STRING = Budget.linear(20, 600, 64);
+    /**
+     * What {@link #INSERTS} calls of {@code insert(x)} may cost together, by number of calls.
+     */
+    private static final Budget.Scaling INSERT = Budget.linear(20, 25000, 256);
+    private static final Class<?>[] OBJECT_CLASS_ARRAY = new Class<?>[] {Object.class};
+
+    @Rule
+    public TestRule globalTimeout = Watchdog.timeout(600000);
+
+    @Rule
+    public TestRule randomness = Randomness.rule();
+
+    private final Costs costs = new Costs();
+
+    @Before
+    public void allowSystemExit0() {
+        TestObject.allowSystemExit(SystemExitStatus.WITH_0);
+    }
+
+    /**
+     * The CPU time every operation took, by size of the tuple. If an operation was called several times on tuples of
+     * the same size, the most expensive call is kept.
+     */
+    private static class Costs {
+        private final Map<String, Map<Integer, Long>> table = new LinkedHashMap<String, Map<Integer, Long>>();
+
+        private void record(String operation, int size, long nanos) {
+            Map<Integer, Long> row = this.table.get(operation);
+            if (row == null) {
+                row = new TreeMap<Integer, Long>();
+                this.table.put(operation, row);
+            }
+            Long previous = row.get(size);
+            if (previous == null || previous < nanos) {
+                row.put(size, nanos);
+            }
+        }
+
+        @Override
+        public String toString() {
+            if (this.table.isEmpty()) {
+                return "";
+            }
+            StringBuilder result = new StringBuilder("\n\nCPU time per call so far, including the test framework:");
+            for (Map.Entry<String, Map<Integer, Long>> row : this.table.entrySet()) {
+                result.append("\n    ").append(row.getKey()).append(":");
+                for (Map.Entry<Integer, Long> cell : row.getValue().entrySet()) {
+                    result.append(String.format(Locale.US, " %.3f ms for %d nodes,", cell.getValue() / 1e6,
+                            cell.getKey()));
+                }
+                result.setLength(result.length() - 1);
+            }
+            return result.toString();
+        }
+    }
+
+    /**
+     * Runs a task within a budget and records what it cost per call.
+     *
+     * @param operation
+     *            The operation the task performs, for the cost table.
+     * @param calls
+     *            How many times the task calls the operation.
+     * @param hint
+     *            What the student could do better if the task is too expensive.
+     */
+    private <T> T call(String operation, int size, int calls, Budget budget, String what, String hint,
+            Budget.Task<T> task) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long start = threads.getCurrentThreadCpuTime();
+        T result;
+        try {
+            result = budget.run(what, task);
+        } catch (AssertionError e) {
+            String message = (e.getMessage() == null) ? "" : e.getMessage();
+            AssertionError failure;
+            if (message.contains("java.lang.StackOverflowError")) {
+                failure = new AssertionError(what + " overflowed the stack! It seems that a method calls itself for "
+                        + "every node. That works for a few nodes, but not for many of them. Use a loop instead!");
+            } else {
+                failure = new AssertionError(message + " " + hint + this.costs);
+            }
+            failure.initCause(e);
+            throw failure;
+        }
+        if (start >= 0) {
+            this.costs.record(operation, size, (threads.getCurrentThreadCpuTime() - start) / calls);
+        }
+        return result;
+    }
+
+    private TestObject construct(final int[] numbers, String description) {
+        return call("the constructor", numbers.length, 1, CONSTRUCTION.forSize(numbers.length),
+                "the constructor of a LinkedNaturalNumberTuple with " + description,
+                "Creating a node for every number should be enough. If the constructor calls insert(x) for every "
+                        + "number, insert(x) must not look for the last node every time.",
+                new Budget.Task<TestObject>() {
+                    @Override
+                    public TestObject run() {
+                        return new TestObject(numbers);
+                    }
+                });
+    }
+
+    private int query(final TestObject tuple, final String method, final int number, int size) {
+        return call(method + "(x)", size, 1, QUERY.forSize(size), describe(method + "(" + number + ")", size),
+                "Walking through the nodes once should be enough.", new Budget.Task<Integer>() {
+                    @Override
+                    public Integer run() {
+                        return tuple.run(int.class, method, number);
+                    }
+                });
+    }
+
+    private boolean equal(final TestObject tuple, final TestObject other, String what, int size) {
+        return call("equals(o)", size, 1, QUERY.forSize(size), describe(what, size),
+                "Walking through the nodes of both tuples once should be enough.", new Budget.Task<Boolean>() {
+                    @Override
+                    public Boolean run() {
+                        return tuple.run(boolean.class, "equals", OBJECT_CLASS_ARRAY, other);
+                    }
+                });
+    }
+
+    private boolean swap(final TestObject tuple, final int i, final int j, int size) {
+        return call("swap(i, j)", size, 1, UPDATE.forSize(size), describe("swap(" + i + ", " + j + ")", size),
+                "Walking through the nodes once should be enough to find both positions.", new Budget.Task<Boolean>() {
+                    @Override
+                    public Boolean run() {
+                        return tuple.run(boolean.class, "swap", i, j);
+                    }
+                });
+    }
+
+    /**
+     * Generates the numbers of the tuple for a complexity check.
+     */
+    private abstract static class Numbers {
+        abstract int[] generate(int n);
+    }
+
+    /**
+     * Counts the operations of {@code method(argument)} on tuples of 1000 up to 64000 numbers and asserts that they
+     * grow at most like {@code bound}. Skips the test if operations are not counted.
+     */
+    private static void assertOperationsAtMost(final String method, final int argument, final Numbers numbers,
+            String description, Growth bound) {
+        Assume.assumeTrue("Operations are only counted with -Dtest.operations=true.", Operations.isCounting());
+        Complexity.of(method + "(" + argument + ") of a LinkedNaturalNumberTuple with n " + description,
+                new Complexity.Experiment() {
+                    @Override
+                    public Measurement prepare(int n) {
+                        return new TestObject(numbers.generate(n)).measure(method, argument);
+                    }
+                }).sizes(1000, 64000).countingOperations().assertAtMost(bound);
+    }
+
+    private static String describe(String call, int size) {
+        return call + " of a LinkedNaturalNumberTuple with " + size + " numbers";
+    }
+
+    /**
+     * Warms the framework up with the cheapest call of the tuple.
+     */
+    private static void warmup() {
+        Budget.warmup(new Budget.Task<Integer>() {
+            @Override
+            public Integer run() {
+                return new TestObject(new int[] {1}).run(int.class, "max");
+            }
+        });
+    }
+
+    /**
+     * @return {@code n} random natural numbers between {@code 1} and {@code bound}, inclusive.
+     */
+    private static int[] randomNumbers(int n, int bound) {
+        SplittableRandom random = Randomness.current();
+        int[] numbers = new int[n];
+        for (int i = 0; i < n; i++) {
+            numbers[i] = random.nextInt(1, bound + 1);
+        }
+        return numbers;
+    }
+
+    /**
+     * Compares a string representation to the expected numbers without splitting it, as it may have millions of
+     * characters.
+     */
+    private static void assertRepresents(String what, int[] expected, String actual) {
+        assertNotNull(what + " returned null!", actual);
+        int cursor = 0;
+        for (int i = 0; i < expected.length; i++) {
+            if (i > 0) {
+                if (cursor >= actual.length() || actual.charAt(cursor) != ',') {
+                    fail(what + " does not separate number " + i + " and " + (i + 1) + " with a ',' at character "
+                            + cursor + ": " + excerpt(actual, cursor));
+                }
+                cursor++;
+            }
+            String number = Integer.toString(expected[i]);
+            if (!actual.startsWith(number, cursor)
+                    || (cursor + number.length() < actual.length() && Character.isDigit(actual.charAt(cursor
+                            + number.length())))) {
+                fail(what + " should show " + number + " as number " + (i + 1) + " at character " + cursor + ": "
+                        + excerpt(actual, cursor));
+            }
+            cursor += number.length();
+        }
+        if (cursor != actual.length()) {
+            fail(what + " should end after the last number at character " + cursor + ": " + excerpt(actual, cursor));
+        }
+    }
+
+    private static String excerpt(String string, int position) {
+        int from = Math.max(position - 20, 0);
+        int to = Math.min(position + 20, string.length());
+        return (from > 0 ? "…" : "") + string.substring(from, to) + (to < string.length() ? "…" : "")
+                + " (of " + string.length() + " characters)";
+    }
+
+    /**
+     * Tests {@code insert(x)} on long tuples. Asserts that:
+     * <ul>
+     * <li>appending numbers takes the same time no matter how long the tuple is.</li>
+     * <li>appended numbers are found at the end of the tuple.</li>
+     * </ul>
+     */
+    @Test
+    public void testInsertAtTail() {
+        warmup();
+        for (final int size : SIZES) {
+            if (size > MAX_SIZE) {
+                break;
+            }
+            final TestObject tuple = construct(randomNumbers(size, size), size + " random numbers");
+            // the appended numbers are greater than all others
+            call("insert(x)", size, INSERTS, INSERT.forSize(INSERTS),
+                    describe(INSERTS + " calls of insert(x)", size),
+                    "Keep a reference to the last node, so insert(x) does not have to look for it.",
+                    new Budget.Task<Void>() {
+                        @Override
+                        public Void run() {
+                            for (int i = 1; i <= INSERTS; i++) {
+                                tuple.run(int.class, "insert", size + i);
+                            }
+                            return null;
+                        }
+                    });
+            assertEquals(describe("insert(" + (size + 1) + ").indexOf(" + (size + 1) + ")", size), size,
+                    query(tuple, "indexOf", size + 1, size));
+            assertEquals(describe("insert(" + (size + INSERTS) + ").indexOf(" + (size + INSERTS) + ")", size), size
+                    + INSERTS - 1, query(tuple, "indexOf", size + INSERTS, size));
+            assertEquals(describe("insert(" + (size + INSERTS) + ").countNumbers(" + (size + INSERTS) + ")", size), 1,
+                    query(tuple, "countNumbers", size + INSERTS, size));
+        }
+    }
+
+    /**
+     * Tests {@code remove(x)} on long tuples where every other number is {@code x}. Asserts that:
+     * <ul>
+     * <li>removing all occurrences takes time linear in the size of the tuple.</li>
+     * <li>{@code remove(x)} returns {@code true} the first and {@code false} the second time.</li>
+     * <li>exactly the other numbers remain, in their order.</li>
+     * </ul>
+     */
+    @Test
+    public void testRemoveEveryOther() {
+        warmup();
+        for (final int size : SIZES) {
+            if (size > MAX_SIZE) {
+                break;
+            }
+            int[] numbers = new int[size];
+            int[] remaining = new int[size / 2];
+            for (int i = 0; i < size; i++) {
+                numbers[i] = (i % 2 == 0) ? 1 : i + 1;
+                if (i % 2 == 1) {
+                    remaining[i / 2] = i + 1;
+                }
+            }
+            final TestObject tuple = construct(numbers, size + " numbers, every other being 1");
+            for (final boolean expected : new boolean[] {true, false}) {
+                String what = describe(expected ? "remove(1)" : "remove(1).remove(1)", size);
+                boolean removed = call("remove(x)", size, 1, UPDATE.forSize(size), what,
+                        "Walk through the nodes once and unlink every node holding x as you pass it.",
+                        new Budget.Task<Boolean>() {
+                            @Override
+                            public Boolean run() {
+                                return tuple.run(boolean.class, "remove", 1);
+                            }
+                        });
+                assertEquals(what, expected, removed);
+            }
+            assertEquals(describe("remove(1).countNumbers(1)", size), 0, query(tuple, "countNumbers", 1, size));
+            int last = remaining[remaining.length - 1];
+            assertEquals(describe("remove(1).indexOf(" + last + ")", size), remaining.length - 1,
+                    query(tuple, "indexOf", last, size));
+            TestObject expected = construct(remaining, "the " + remaining.length + " numbers that should remain");
+            assertTrue(describe("remove(1) should leave the other numbers in their order, but remove(1).equals(o)",
+                    size) + " returned false!", equal(tuple, expected, "remove(1).equals(o)", size));
+        }
+    }
+
+    /**
+     * Tests {@code swap(i, j)} for the first and the last node of long tuples. Asserts that:
+     * <ul>
+     * <li>the first and the last number change places, and change back if swapped again.</li>
+     * <li>swapping with a position behind the last node returns {@code false} and changes nothing.</li>
+     * </ul>
+     */
+    @Test
+    public void testSwapFarApart() {
+        warmup();
+        for (int size : SIZES) {
+            if (size > MAX_SIZE) {
+                break;
+            }
+            int last = size - 1;
+            // the first and the last number are unique, so indexOf(x) finds them
+            int[] numbers = randomNumbers(size, size);
+            numbers[0] = size + 1;
+            numbers[last] = size + 2;
+            int[] swapped = numbers.clone();
+            swapped[0] = numbers[last];
+            swapped[last] = numbers[0];
+            TestObject tuple = construct(numbers, size + " random numbers");
+            TestObject expected = construct(swapped, size + " random numbers");
+            TestObject original = construct(numbers, size + " random numbers");
+
+            String call = "swap(0, " + last + ")";
+            assertEquals(describe(call, size), true, swap(tuple, 0, last, size));
+            assertEquals(describe(call + ".indexOf(" + (size + 2) + ")", size), 0,
+                    query(tuple, "indexOf", size + 2, size));
+            assertEquals(describe(call + ".indexOf(" + (size + 1) + ")", size), last,
+                    query(tuple, "indexOf", size + 1, size));
+            assertTrue(describe(call + " should only exchange the first and the last number, but " + call
+                    + ".equals(o)", size) + " returned false!", equal(tuple, expected, call + ".equals(o)", size));
+
+            call = "swap(0, " + last + ").swap(" + last + ", 0)";
+            assertEquals(describe(call, size), true, swap(tuple, last, 0, size));
+            assertTrue(describe(call + ".equals(o)", size) + " returned false!",
+                    equal(tuple, original, call + ".equals(o)", size));
+
+            call = "swap(0, " + size + ")";
+            assertEquals(describe(call, size), false, swap(tuple, 0, size, size));
+            assertTrue(describe(call + " should not change anything, but " + call + ".equals(o)", size)
+                    + " returned false!", equal(tuple, original, call + ".equals(o)", size));
+        }
+    }
+
+    /**
+     * Tests {@code toString()} on long tuples. Asserts that:
+     * <ul>
+     * <li>{@code toString()} does not overflow the stack and takes time linear in the size of the tuple.</li>
+     * <li>it shows all numbers in their order, separated by ','.</li>
+     * </ul>
+     */
+    @Test
+    public void testDeepToString() {
+        warmup();
+        for (int size : SIZES) {
+            if (size > MAX_SIZE) {
+                break;
+            }
+            int[] numbers = randomNumbers(size, 1000000);
+            final TestObject tuple = construct(numbers, size + " random numbers");
+            String what = describe("toString()", size);
+            String representation = call("toString()", size, 1, STRING.forSize(size), what,
+                    "Use a StringBuilder instead of concatenating Strings.", new Budget.Task<String>() {
+                        @Override
+                        public String run() {
+                            return tuple.run(String.class, "toString");
+                        }
+                    });
+            assertRepresents(what, numbers, representation);
+        }
+    }
+
+    /**
+     * Tests {@code equals(o)} on long tuples. Asserts that:
+     * <ul>
+     * <li>{@code equals(o)} does not overflow the stack and takes time linear in the size of the tuple.</li>
+     * <li>tuples with the same numbers are equal.</li>
+     * <li>tuples that differ only in their last number, or in whether they have it, are not.</li>
+     * </ul>
+     */
+    @Test
+    public void testDeepEquals() {
+        warmup();
+        for (int size : SIZES) {
+            if (size > MAX_SIZE) {
+                break;
+            }
+            int[] numbers = randomNumbers(size, size);
+            int[] changed = numbers.clone();
+            changed[size - 1]++;
+            int[] shorter = new int[size - 1];
+            System.arraycopy(numbers, 0, shorter, 0, size - 1);
+            TestObject tuple = construct(numbers, size + " random numbers");
+            TestObject same = construct(numbers, size + " random numbers");
+
+            assertEquals(describe("equals(o) with a tuple of the same numbers", size), true,
+                    equal(tuple, same, "equals(o)", size));
+            assertEquals(describe("equals(o) with a tuple that has a different last number", size), false,
+                    equal(tuple, construct(changed, size + " random numbers"), "equals(o)", size));
+            assertEquals(describe("equals(o) with a tuple that lacks the last number", size), false,
+                    equal(tuple, construct(shorter, (size - 1) + " random numbers"), "equals(o)", size));
+        }
+    }
+
+    /**
+     * Tests {@code countNumbers(x)} and {@code indexOf(x)} on long tuples. Asserts that:
+     * <ul>
+     * <li>{@code countNumbers(x)} does not overflow the stack and takes time linear in the size of the tuple.</li>
+     * <li>it counts every occurrence, and {@code indexOf(x)} finds a number at the very end.</li>
+     * </ul>
+     */
+    @Test
+    public void testDeepCountNumbers() {
+        warmup();
+        for (int size : SIZES) {
+            if (size > MAX_SIZE) {
+                break;
+            }
+            int[] numbers = randomNumbers(size, 16);
+            numbers[size - 1] = 17;
+            int[] counts = new int[18];
+            for (int number : numbers) {
+                counts[number]++;
+            }
+            TestObject tuple = construct(numbers, size + " random numbers up to 17");
+            for (int number : new int[] {1, 16, 17}) {
+                assertEquals(describe("countNumbers(" + number + ")", size), counts[number],
+                        query(tuple, "countNumbers", number, size));
+            }
+            assertEquals(describe("indexOf(17)", size), size - 1, query(tuple, "indexOf", 17, size));
+        }
+    }
+
+    /**
+     * Tests how the number of operations of {@code insert(x)} grows with the length of the tuple. Asserts that:
+     * <ul>
+     * <li>appending a number takes the same number of operations, no matter how long the tuple is.</li>
+     * </ul>
+     * Needs {@code -Dtest.operations=true}, see {@link Operations}.
+     */
+    @Test
+    public void testInsertComplexity() {
+        assertOperationsAtMost("insert", Integer.MAX_VALUE, new Numbers() {
+            @Override
+            int[] generate(int n) {
+                return randomNumbers(n, n);
+            }
+        }, "random numbers", Growth.CONSTANT);
+    }
+
+    /**
+     * Tests how the number of operations of {@code remove(x)} grows with the length of the tuple, if every other
+     * number is {@code x}. Asserts that:
+     * <ul>
+     * <li>removing all occurrences takes operations linear in the length of the tuple.</li>
+     * </ul>
+     * Needs {@code -Dtest.operations=true}, see {@link Operations}.
+     */
+    @Test
+    public void testRemoveComplexity() {
+        assertOperationsAtMost("remove", 1, new Numbers() {
+            @Override
+            int[] generate(int n) {
+                int[] numbers = new int[n];
+                for (int i = 0; i < n; i++) {
+                    numbers[i] = (i % 2 == 0) ? 1 : i + 1;
+                }
+                return numbers;
+            }
+        }, "numbers, every other being 1", Growth.LINEAR);
+    }
+
+    /**
+     * Tests how the number of operations of {@code countNumbers(x)} grows with the length of the tuple. Asserts that:
+     * <ul>
+     * <li>counting takes operations linear in the length of the tuple.</li>
+     * </ul>
+     * Needs {@code -Dtest.operations=true}, see {@link Operations}.
+     */
+    @Test
+    public void testCountNumbersComplexity() {
+        assertOperationsAtMost("countNumbers", 1, new Numbers() {
+            @Override
+            int[] generate(int n) {
+                return randomNumbers(n, 16);
+            }
+        }, "random numbers up to 16", Growth.LINEAR);
+    }
+}
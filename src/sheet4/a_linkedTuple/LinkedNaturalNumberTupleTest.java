@@ -7,8 +7,11 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TestRule;
 
+import test.Metrics;
 import test.TestObject;
 import test.TestObject.SystemExitStatus;
 
@@ -33,6 +36,9 @@ public class LinkedNaturalNumberTupleTest {
 
     private static final int OUTPUT_LINE_WIDTH = 50;
 
+    @Rule
+    public TestRule metrics = Metrics.rule();
+
     @Before
     public void allowSystemExit0() {
         TestObject.allowSystemExit(SystemExitStatus.WITH_0);
@@ -2,6 +2,8 @@
  * Tests for Sheet 4 Task A: {@code LinkedNaturalNumberTuple}. Run
  * {@link sheet4.a_linkedTuple.LinkedNaturalNumberTupleTest} to test your implementation of the
  * {@code LinkedNaturalNumberTuple}. Run {@link sheet4.a_linkedTuple.InteractiveConsoleTest} to test your interactive
- * console.
+ * console. Run {@link sheet4.a_linkedTuple.LinkedNaturalNumberTupleScaleTest} to check that your
+ * {@code LinkedNaturalNumberTuple} works and stays fast with a million nodes, and
+ * {@link sheet4.a_linkedTuple.LinkedNaturalNumberTupleHashTest} to check that it works well in hash maps.
  */
 package sheet4.a_linkedTuple;
\ No newline at end of file
@@ -9,11 +9,10 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
 import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.math.BigInteger;
-import java.security.SecureRandom;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -21,10 +20,13 @@ import java.util.List;
 import org.hamcrest.Matcher;
 import org.junit.Rule;
 import org.junit.Test;
-import org.junit.rules.Timeout;
+import org.junit.rules.TestRule;
 
+import test.Fixtures;
+import test.Fixtures.Scope;
 import test.TestObject;
 import test.TestObject.SystemExitStatus;
+import test.Watchdog;
 
 /**
  * @author Joshua Gleitze
@@ -34,7 +36,10 @@ public class WaitingTest {
 
     // 2 seconds should be enough for everything. If not, there is a bug or something.
     @Rule
-    public Timeout globalTimeout = new Timeout(2000000);
+    public TestRule globalTimeout = Watchdog.timeout(2000000);
+
+    @Rule
+    public TestRule fixtures = Fixtures.scope(Scope.TEST);
 
     private final String FIFO = "waitingarea=fifo";
     private final String LIFO = "waitingarea=lifo";
@@ -73,17 +78,16 @@ public class WaitingTest {
 
     private String writeFile(String content) {
         String[] contentArray = content.split("" + nl);
-        BufferedWriter outputWriter = null;
-        SecureRandom random = new SecureRandom();
-        String testFileName = new BigInteger(130, random).toString(32) + ".txt";
+        String testFileName = null;
         try {
-            outputWriter = new BufferedWriter(new FileWriter(testFileName));
-            for (int i = 0; i < contentArray.length; i++) {
-                outputWriter.write(contentArray[i]);
-                outputWriter.newLine();
+            Path testFile = Fixtures.newFile(Scope.TEST, ".txt");
+            testFileName = testFile.toString();
+            try (BufferedWriter outputWriter = Files.newBufferedWriter(testFile, Charset.defaultCharset())) {
+                for (int i = 0; i < contentArray.length; i++) {
+                    outputWriter.write(contentArray[i]);
+                    outputWriter.newLine();
+                }
             }
-            outputWriter.flush();
-            outputWriter.close();
         } catch (IOException e) {
             fail("The test was unable to create a test file. That's a shame!");
         }
@@ -107,23 +111,20 @@ public class WaitingTest {
         TestObject.allowSystemExit(SystemExitStatus.WITH_GREATER_THAN_0);
         String testFileName;
         testFileName = writeFile(taskSheetExampleJobList);
-        TestObject.runStaticVoid("main", testFileName, "asdfasdfasf");
-        new File(testFileName).delete();
+        TestObject.runStaticVoid("main", (Object) new String[] {testFileName, "asdfasdfasf"});
         result = TestObject.getLastMethodOutput();
         message = "We called your program with a valid file as first parameter, but bullshit"
                 + " as second parameter. Therefore, your program should print an error message!";
         assertThat(message, result, startsWith("Error,"));
         testFileName = writeFile(taskSheetExampleJobList);
-        TestObject.runStaticVoid("main", testFileName, "waitingarea=asdfasdfasf");
-        new File(testFileName).delete();
+        TestObject.runStaticVoid("main", (Object) new String[] {testFileName, "waitingarea=asdfasdfasf"});
         result = TestObject.getLastMethodOutput();
         message = "We called your program with a valid file as first parameter and a second parameter "
                 + "starting with 'waitingarea=' but ending with bullshit. Therefore, your program should"
                 + " print an error message!";
         assertThat(message, result, startsWith("Error,"));
         testFileName = writeFile(taskSheetExampleJobList);
-        TestObject.runStaticVoid("main", testFileName, "waitingarea==lifo");
-        new File(testFileName).delete();
+        TestObject.runStaticVoid("main", (Object) new String[] {testFileName, "waitingarea==lifo"});
         result = TestObject.getLastMethodOutput();
         message = "We called your program with a valid file as first parameter and the second parameter 'waitingarea==lifo'."
                 + " Therefore, your program should print an error message!";
@@ -141,12 +142,12 @@ public class WaitingTest {
         String result;
         String message;
         TestObject.allowSystemExit(SystemExitStatus.WITH_GREATER_THAN_0);
-        TestObject.runStaticVoid("main","I_do_no_exists.adsf");
+        TestObject.runStaticVoid("main", (Object) new String[] {"I_do_no_exists.adsf"});
         result = TestObject.getLastMethodOutput();
         message = "We called your program with a path leading nowhere as a first parameter. Therefore, your program should"
                 + " print an error message!";
         assertThat(message, result, startsWith("Error,"));
-        TestObject.runStaticVoid("main", "I_do_no_exists.adsf", FIFO);
+        TestObject.runStaticVoid("main", (Object) new String[] {"I_do_no_exists.adsf", FIFO});
         result = TestObject.getLastMethodOutput();
         message = "We called your program with a path leading nowhere as a first parameter. Therefore, your program should"
                 + " print an error message!";
@@ -320,8 +321,7 @@ public class WaitingTest {
         } else {
             arguments = new String[] {testFileName, mode};
         }
-        TestObject.runStaticVoid("main", arguments);
-        new File(testFileName).delete();
+        TestObject.runStaticVoid("main", (Object) arguments);
         actualResult = TestObject.getLastMethodOutput();
         resultArray = actualResult.split(nl);
         String wholeFileMessage = wholeFileMessage(inputFile, actualResult, expectedResult, mode);
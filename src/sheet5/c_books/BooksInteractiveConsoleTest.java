@@ -4,10 +4,13 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 
-import org.junit.AfterClass;
 import org.junit.BeforeClass;
+import org.junit.ClassRule;
 import org.junit.Test;
+import org.junit.rules.TestRule;
 
+import test.Fixtures;
+import test.Fixtures.Scope;
 import test.InteractiveConsoleTest;
 import test.TestObject;
 import test.TestObject.SystemExitStatus;
@@ -32,19 +35,29 @@ import test.TestObject.SystemExitStatus;
  *
  */
 public class BooksInteractiveConsoleTest extends InteractiveConsoleTest {
-    protected static final String BASE_FILE_PATH = "";
-    protected static final File BOOK_1 = new File(BASE_FILE_PATH + "book1.txt");
-    protected static final File BOOK_2 = new File(BASE_FILE_PATH + "book2.txt");
-    protected static final File EMPTY_BOOK = new File(BASE_FILE_PATH + "empty_book.txt");
-    protected static final File BOOK_4 = new File(BASE_FILE_PATH + "book4.txt");
-    protected static final File BOOK_5 = new File(BASE_FILE_PATH + "book5.txt");
-    protected static final File BOOK_6_1 = new File(BASE_FILE_PATH + "book6_1.txt");
-    protected static final File BOOK_6_2 = new File(BASE_FILE_PATH + "book6_2.txt");
-    protected static final File BOOK_7 = new File(BASE_FILE_PATH + "book7.txt");
+    @ClassRule
+    public static TestRule fixtures = Fixtures.scope(Scope.CLASS);
+
+    protected static File BOOK_1;
+    protected static File BOOK_2;
+    protected static File EMPTY_BOOK;
+    protected static File BOOK_4;
+    protected static File BOOK_5;
+    protected static File BOOK_6_1;
+    protected static File BOOK_6_2;
+    protected static File BOOK_7;
 
     @BeforeClass
     public static void createFiles() {
         try {
+            BOOK_1 = Fixtures.newFile(Scope.CLASS, "book1.txt").toFile();
+            BOOK_2 = Fixtures.newFile(Scope.CLASS, "book2.txt").toFile();
+            EMPTY_BOOK = Fixtures.newFile(Scope.CLASS, "empty_book.txt").toFile();
+            BOOK_4 = Fixtures.newFile(Scope.CLASS, "book4.txt").toFile();
+            BOOK_5 = Fixtures.newFile(Scope.CLASS, "book5.txt").toFile();
+            BOOK_6_1 = Fixtures.newFile(Scope.CLASS, "book6_1.txt").toFile();
+            BOOK_6_2 = Fixtures.newFile(Scope.CLASS, "book6_2.txt").toFile();
+            BOOK_7 = Fixtures.newFile(Scope.CLASS, "book7.txt").toFile();
             PrintStream book1stream = new PrintStream(BOOK_1);
             book1stream.println("Seite1");
             book1stream.println("Lorem ipsum dolor sit amet consetetur sadipscing");
@@ -85,24 +98,11 @@ public class BooksInteractiveConsoleTest extends InteractiveConsoleTest {
             book7stream.println("Seite3");
             book7stream.println("aa ca a e");
             book7stream.close();
-            EMPTY_BOOK.createNewFile();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    @AfterClass
-    public static void deleteFiles() {
-        BOOK_1.delete();
-        BOOK_2.delete();
-        EMPTY_BOOK.delete();
-        BOOK_4.delete();
-        BOOK_5.delete();
-        BOOK_6_1.delete();
-        BOOK_6_2.delete();
-        BOOK_7.delete();
-    }
-
     @Test
     public void testSimpleFileAndQuit() {
         oneLineTest("quit\n", "", BOOK_1.getAbsolutePath(), "traverse=pre-order");
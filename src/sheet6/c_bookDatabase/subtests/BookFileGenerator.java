@@ -0,0 +1,330 @@
+package sheet6.c_bookDatabase.subtests;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Writes large, valid input files for the book database. Every line contains some of the attributes {@code title},
+ * {@code creator} and {@code year}, like {@code title=Java_ist_auch_eine_Insel,creator=GalileoComputing}. The same seed
+ * and settings always produce the same file.
+ * <p>
+ * The file is generated in chunks of lines. The chunks are generated in parallel, each from its own random generator
+ * derived from the seed, into direct buffers, and written to the file in order through a {@link FileChannel}. So
+ * generating even a file of some gigabytes is about as fast as the disk.
+ *
+ * <pre>
+ * <code>
+ * new BookFileGenerator(42).lines(1000000).randomCase(true).edgeCases(0.01).writeTo(file);
+ * </code>
+ * </pre>
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class BookFileGenerator {
+    /**
+     * The version of the generated files, for the {@link test.FixtureCache}. Increase it whenever the same seed and
+     * settings produce a different file than before.
+     */
+    public static final int VERSION = 1;
+    /**
+     * The latest year a book may have been published in.
+     */
+    public static final int MAX_YEAR = 2015;
+    /**
+     * The longest title or creator that is generated.
+     */
+    public static final int MAX_VALUE_LENGTH = 64;
+    private static final int LINES_PER_CHUNK = 8192;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_LINE_LENGTH = "title=,creator=,year=".length() + 2 * MAX_VALUE_LENGTH + 4
+            + LINE_SEPARATOR.length;
+    private static final String[] ATTRIBUTES = {
+            "title", "creator", "year"
+    };
+    private static final int TITLE = 0;
+    private static final int CREATOR = 1;
+    private static final int YEAR = 2;
+
+    private final long seed;
+    private long lines = 1000;
+    private final double[] attributeRates = {
+            1, 1, 1
+    };
+    private boolean randomCase = false;
+    private boolean shuffleOrder = false;
+    private double edgeCaseRate = 0;
+
+    /**
+     * Creates a generator for files of 1000 lines, containing all attributes in lower case, in the order title,
+     * creator, year.
+     *
+     * @param seed
+     *            The seed all random decisions are derived from.
+     */
+    public BookFileGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param lines
+     *            How many lines the file shall have.
+     * @return this generator
+     */
+    public BookFileGenerator lines(long lines) {
+        if (lines < 0) {
+            throw new IllegalArgumentException("A file can not have " + lines + " lines!");
+        }
+        this.lines = lines;
+        return this;
+    }
+
+    /**
+     * Sets how likely each attribute is to appear in a line. A line always contains at least one attribute: if none
+     * was chosen, one of them is.
+     *
+     * @param title
+     *            The probability of a line containing a title, between 0 and 1.
+     * @param creator
+     *            The probability of a line containing a creator, between 0 and 1.
+     * @param year
+     *            The probability of a line containing a year, between 0 and 1.
+     * @return this generator
+     */
+    public BookFileGenerator attributeRates(double title, double creator, double year) {
+        this.attributeRates[TITLE] = title;
+        this.attributeRates[CREATOR] = creator;
+        this.attributeRates[YEAR] = year;
+        return this;
+    }
+
+    /**
+     * @param randomCase
+     *            Whether every letter of the attribute names and values shall be in random case.
+     * @return this generator
+     */
+    public BookFileGenerator randomCase(boolean randomCase) {
+        this.randomCase = randomCase;
+        return this;
+    }
+
+    /**
+     * @param shuffleOrder
+     *            Whether the attributes of a line shall be in random order.
+     * @return this generator
+     */
+    public BookFileGenerator shuffleOrder(boolean shuffleOrder) {
+        this.shuffleOrder = shuffleOrder;
+        return this;
+    }
+
+    /**
+     * Sets how often a value is an edge case that is still valid: titles and creators of one or
+     * {@link #MAX_VALUE_LENGTH} characters, and the years {@code 0} and {@link #MAX_YEAR}.
+     *
+     * @param rate
+     *            The probability of a value being an edge case, between 0 and 1.
+     * @return this generator
+     */
+    public BookFileGenerator edgeCases(double rate) {
+        this.edgeCaseRate = rate;
+        return this;
+    }
+
+    /**
+     * @return The seed all random decisions are derived from.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Describes all settings of this generator except for the seed. Two generators with the same seed and parameters
+     * generate the same file.
+     *
+     * @return The settings of this generator.
+     */
+    public String getParameters() {
+        return "lines=" + this.lines + ",titleRate=" + this.attributeRates[TITLE] + ",creatorRate="
+                + this.attributeRates[CREATOR] + ",yearRate=" + this.attributeRates[YEAR] + ",randomCase="
+                + this.randomCase + ",shuffleOrder=" + this.shuffleOrder + ",edgeCaseRate=" + this.edgeCaseRate
+                + ",lineSeparator=" + LINE_SEPARATOR.length;
+    }
+
+    /**
+     * Writes the file. An existing file is overwritten.
+     *
+     * @param file
+     *            Where to write the file to.
+     * @return The size of the written file in bytes.
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    public long writeTo(Path file) throws IOException {
+        int chunks = (int) ((this.lines + LINES_PER_CHUNK - 1) / LINES_PER_CHUNK);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        // enough chunks to keep every worker busy while we write, but not so many that they fill the memory
+        int window = Math.max(2, 2 * pool.getParallelism());
+        ArrayDeque<ForkJoinTask<ByteBuffer>> inFlight = new ArrayDeque<ForkJoinTask<ByteBuffer>>(window);
+        ConcurrentLinkedQueue<ByteBuffer> freeBuffers = new ConcurrentLinkedQueue<ByteBuffer>();
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            int nextChunk = 0;
+            while (nextChunk < chunks || !inFlight.isEmpty()) {
+                while (nextChunk < chunks && inFlight.size() < window) {
+                    inFlight.add(pool.submit(new Chunk(nextChunk++, freeBuffers)));
+                }
+                ByteBuffer buffer = inFlight.poll().join();
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer);
+                }
+                buffer.clear();
+                freeBuffers.add(buffer);
+            }
+        } finally {
+            for (ForkJoinTask<ByteBuffer> task : inFlight) {
+                task.cancel(false);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Generates the lines of one chunk.
+     */
+    private class Chunk extends RecursiveTask<ByteBuffer> {
+        private static final long serialVersionUID = 1L;
+        private final int index;
+        private final ConcurrentLinkedQueue<ByteBuffer> freeBuffers;
+        private SplittableRandom random;
+        private ByteBuffer buffer;
+
+        private Chunk(int index, ConcurrentLinkedQueue<ByteBuffer> freeBuffers) {
+            this.index = index;
+            this.freeBuffers = freeBuffers;
+        }
+
+        @Override
+        protected ByteBuffer compute() {
+            this.buffer = this.freeBuffers.poll();
+            if (this.buffer == null) {
+                this.buffer = ByteBuffer.allocateDirect(LINES_PER_CHUNK * MAX_LINE_LENGTH);
+            }
+            // the golden ratio spreads the chunk seeds, so neighbouring chunks are not correlated
+            this.random = new SplittableRandom(BookFileGenerator.this.seed + this.index * 0x9E3779B97F4A7C15L);
+            long firstLine = (long) this.index * LINES_PER_CHUNK;
+            long lastLine = Math.min(BookFileGenerator.this.lines, firstLine + LINES_PER_CHUNK);
+            int[] order = {
+                    TITLE, CREATOR, YEAR
+            };
+            for (long line = firstLine; line < lastLine; line++) {
+                writeLine(order);
+            }
+            this.buffer.flip();
+            return this.buffer;
+        }
+
+        private void writeLine(int[] order) {
+            boolean[] present = new boolean[ATTRIBUTES.length];
+            boolean any = false;
+            for (int i = 0; i < ATTRIBUTES.length; i++) {
+                present[i] = this.random.nextDouble() < BookFileGenerator.this.attributeRates[i];
+                any |= present[i];
+            }
+            if (!any) {
+                present[this.random.nextInt(ATTRIBUTES.length)] = true;
+            }
+            if (BookFileGenerator.this.shuffleOrder) {
+                for (int i = order.length - 1; i > 0; i--) {
+                    int j = this.random.nextInt(i + 1);
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                }
+            }
+            boolean first = true;
+            for (int attribute : order) {
+                if (present[attribute]) {
+                    if (!first) {
+                        this.buffer.put((byte) ',');
+                    }
+                    first = false;
+                    writeCased(ATTRIBUTES[attribute]);
+                    this.buffer.put((byte) '=');
+                    if (attribute == YEAR) {
+                        writeYear();
+                    } else {
+                        writeWord();
+                    }
+                }
+            }
+            this.buffer.put(LINE_SEPARATOR);
+        }
+
+        private void writeCased(String name) {
+            for (int i = 0; i < name.length(); i++) {
+                this.buffer.put(cased(name.charAt(i)));
+            }
+        }
+
+        private byte cased(char letter) {
+            if (BookFileGenerator.this.randomCase && this.random.nextBoolean()) {
+                return (byte) Character.toUpperCase(letter);
+            }
+            return (byte) letter;
+        }
+
+        private void writeYear() {
+            int year;
+            if (this.random.nextDouble() < BookFileGenerator.this.edgeCaseRate) {
+                year = this.random.nextBoolean() ? 0 : MAX_YEAR;
+            } else {
+                year = this.random.nextInt(MAX_YEAR + 1);
+            }
+            int divisor = 1;
+            while (divisor * 10 <= year) {
+                divisor *= 10;
+            }
+            for (; divisor > 0; divisor /= 10) {
+                this.buffer.put((byte) ('0' + year / divisor % 10));
+            }
+        }
+
+        /**
+         * Writes letters, separated by single {@code '_'} or {@code '-'}.
+         */
+        private void writeWord() {
+            int length;
+            if (this.random.nextDouble() < BookFileGenerator.this.edgeCaseRate) {
+                length = this.random.nextBoolean() ? 1 : MAX_VALUE_LENGTH;
+            } else {
+                length = 3 + this.random.nextInt(20);
+            }
+            char previous = '_';
+            for (int i = 0; i < length; i++) {
+                int pick = this.random.nextInt(32);
+                char next;
+                if (pick >= 26 && i > 0 && i < length - 1 && previous != '_' && previous != '-') {
+                    next = (pick < 29) ? '_' : '-';
+                    this.buffer.put((byte) next);
+                } else {
+                    next = (char) ('a' + pick % 26);
+                    this.buffer.put(cased(next));
+                }
+                previous = next;
+            }
+        }
+    }
+}
@@ -2,11 +2,12 @@ package sheet6.c_bookDatabase.subtests;
 
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import org.junit.Test;
 
 import test.Input;
+import test.Randomness;
 import test.TestObject;
 import test.TestObject.SystemExitStatus;
 
@@ -209,7 +210,7 @@ public class InputFileParsingTest extends BookDatabaseSubTest {
 
 	private String shuffleCaseLine(String line) {
 		StringBuilder builder = new StringBuilder();
-		Random random = new Random();
+		SplittableRandom random = Randomness.current();
 		for (char c : line.toCharArray()) {
 			builder.append((random.nextInt(2) != 0) ? Character.toUpperCase(c) : Character.toLowerCase(c));
 		}
@@ -0,0 +1,68 @@
+package sheet6.c_bookDatabase.subtests;
+
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import test.FixtureCache;
+
+/**
+ * Asserts that the program can read in large input files. The files are generated by {@link BookFileGenerator} and
+ * kept in the {@link FixtureCache}. The number of lines can be set through the JVM variable
+ * {@code -Dtest.bookDatabase.lines} (default: 100000).
+ * <p>
+ * NOTE: This test is not part of {@link sheet6.c_bookDatabase.BookDatabaseTest}, as it takes some time. Run it on its
+ * own.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class LargeInputFileTest extends BookDatabaseSubTest {
+    private static final long LINES = Long.getLong("test.bookDatabase.lines", 100000);
+    private static final long SEED = 20150131;
+
+    /**
+     * Tests the program's behaviour for a large input file that only contains complete lines in lower case. Asserts
+     * that:
+     * <ul>
+     * <li>the program reads in the input file without printing an error message
+     * </ul>
+     */
+    @Test
+    public void testLargeSimpleFile() {
+        oneLineTest("quit", "", "0.5", generate(new BookFileGenerator(SEED).lines(LINES)));
+    }
+
+    /**
+     * Tests the program's behaviour for a large input file with lines missing attributes, random case, random order
+     * and edge case values. Asserts that:
+     * <ul>
+     * <li>the program reads in the input file without printing an error message
+     * </ul>
+     */
+    @Test
+    public void testLargeMixedFile() {
+        BookFileGenerator generator = new BookFileGenerator(SEED).lines(LINES).attributeRates(0.8, 0.6, 0.5)
+                .randomCase(true).shuffleOrder(true).edgeCases(0.05);
+        oneLineTest("quit", "", "0.5", generate(generator));
+    }
+
+    private String generate(final BookFileGenerator generator) {
+        try {
+            return FixtureCache.get("books", BookFileGenerator.VERSION, generator.getSeed(), generator.getParameters(),
+                    new FixtureCache.Generator() {
+                        @Override
+                        public void generate(Path file) throws IOException {
+                            generator.writeTo(file);
+                        }
+                    }).toString();
+        } catch (IOException e) {
+            fail("The test was unable to create a test file. That's a shame!");
+            return null;
+        }
+    }
+}
@@ -6,12 +6,13 @@ import static org.junit.Assert.fail;
 
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import org.hamcrest.Matcher;
 import org.junit.Test;
 
 import test.Input;
+import test.Randomness;
 import test.TestObject;
 import test.TestObject.SystemExitStatus;
 
@@ -102,7 +103,7 @@ public class SearchTermParsingTest extends BookDatabaseSubTest {
         // test multiple search requests
         int numberOfRuns = 7;
         int n = -1;
-        Random random = new Random();
+        SplittableRandom random = Randomness.current();
         while (n++ < numberOfRuns) {
             // at least 3, maximal correctSearchTerms.size() * 2 + 2 searches
             int numberOfSearches = random.nextInt(correctSearchTerms.size() * 2) + 3;
@@ -237,7 +238,7 @@ public class SearchTermParsingTest extends BookDatabaseSubTest {
 
     private String shuffle(String line) {
         StringBuilder builder = new StringBuilder();
-        Random random = new Random();
+        SplittableRandom random = Randomness.current();
         for (char c : line.toCharArray()) {
             while (random.nextInt(2) != 0) {
                 builder.append(" ");
@@ -0,0 +1,175 @@
+package test;
+
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * Measures how many bytes the tested class allocates, and enforces allocation budgets. A submission that copies a whole
+ * collection on every change can pass all functional tests, but it keeps the garbage collector busy and slows down
+ * grading for everybody. {@link TestObject} measures the bytes every invocation allocates in the thread it runs in,
+ * see {@link TestObject#getLastMethodAllocatedBytes()}.
+ * <p>
+ * There are two budgets. The invocation budget applies to every single method call through {@link TestObject}. The
+ * session budget applies to all calls of a session since the last {@link TestObject#resetClass()}, or since the budget
+ * was set. Both can be set by the tests (see {@link TestObject#setAllocationBudget(long)} and
+ * {@link TestObject#setSessionAllocationBudget(long)}) or for the whole run, through these JVM variables (in
+ * megabytes, {@code 0} means no budget):
+ * <ul>
+ * <li>{@code -Dtest.allocation.invocation}: the budget for every invocation. Default: {@code 0}.
+ * <li>{@code -Dtest.allocation.session}: the budget for every session. Default: {@code 0}.
+ * </ul>
+ * Only the thread that runs the invocation is measured. Threads the tested class starts itself are not. What the
+ * harness allocates in that thread while the tested class runs, like routing a command to it, arming the deadline for
+ * the command or growing the buffer its output is captured in, is not counted. Neither is what measuring allocates
+ * itself: on some JVMs, reading the counter allocates an array, which is calibrated once and subtracted. If the JVM
+ * cannot measure allocations, nothing is measured and the budgets are not enforced.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Allocations {
+	private static final long MEGABYTE = 1024 * 1024;
+	private static final long INVOCATION_BUDGET = Long.getLong("test.allocation.invocation", 0) * MEGABYTE;
+	private static final long SESSION_BUDGET = Long.getLong("test.allocation.session", 0) * MEGABYTE;
+	private static final com.sun.management.ThreadMXBean threads = allocationMXBean();
+	/**
+	 * The bytes one call of {@link #currentThreadAllocatedBytes()} allocates before it reads the counter.
+	 */
+	private static final long MEASUREMENT_COST = calibrate();
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private Allocations() {
+	}
+
+	/**
+	 * @return The invocation budget in bytes set through {@code -Dtest.allocation.invocation}, or {@code 0}.
+	 */
+	static long defaultInvocationBudget() {
+		return INVOCATION_BUDGET;
+	}
+
+	/**
+	 * @return The session budget in bytes set through {@code -Dtest.allocation.session}, or {@code 0}.
+	 */
+	static long defaultSessionBudget() {
+		return SESSION_BUDGET;
+	}
+
+	/**
+	 * Returns the bytes the current thread has allocated so far.
+	 *
+	 * @return The bytes allocated by the current thread, or {@code -1} if they cannot be measured.
+	 */
+	static long currentThreadAllocatedBytes() {
+		if (threads == null) {
+			return -1;
+		}
+		return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Returns the bytes the current thread allocated since {@code start}, not counting what the measurements allocated
+	 * themselves.
+	 *
+	 * @param start
+	 *            What {@link #currentThreadAllocatedBytes()} returned at the start.
+	 * @return The bytes allocated since {@code start}, or {@code -1} if they cannot be measured.
+	 */
+	static long allocatedSince(long start) {
+		if (start < 0) {
+			return -1;
+		}
+		// the array of this measurement was allocated after start was read
+		return Math.max(currentThreadAllocatedBytes() - start - MEASUREMENT_COST, 0);
+	}
+
+	/**
+	 * Returns the bytes the harness allocated in the current thread since {@code start}, to take them out of what an
+	 * invocation allocated. Both measurements allocated inside the invocation, so both are included.
+	 *
+	 * @param start
+	 *            What {@link #currentThreadAllocatedBytes()} returned before the harness started to work.
+	 * @return The bytes to take out of the invocation, or {@code 0} if they cannot be measured.
+	 */
+	static long harnessSince(long start) {
+		if (start < 0) {
+			return 0;
+		}
+		return currentThreadAllocatedBytes() - start + MEASUREMENT_COST;
+	}
+
+	/**
+	 * Checks whether an allocation budget was exceeded.
+	 *
+	 * @param allocated
+	 *            The bytes that were allocated, or {@code -1} if they could not be measured.
+	 * @param budget
+	 *            The budget in bytes. {@code 0} or less means there is no budget.
+	 * @return {@code true} if {@code allocated} exceeds {@code budget}.
+	 */
+	static boolean exceeds(long allocated, long budget) {
+		return budget > 0 && allocated > budget;
+	}
+
+	/**
+	 * Fails because an allocation budget was exceeded.
+	 *
+	 * @param what
+	 *            What allocated the bytes, for the failure message.
+	 * @param allocated
+	 *            The bytes that were allocated.
+	 * @param operations
+	 *            How many operations (method calls and console commands) allocated them.
+	 * @param budget
+	 *            The budget in bytes.
+	 * @param scope
+	 *            What the budget applies to, for the failure message.
+	 */
+	static void failExceeded(String what, long allocated, long operations, long budget, String scope) {
+		fail(String.format(Locale.US, "%s allocated %s for %d operations (%s per operation), but may only allocate %s "
+				+ "%s. Your code creates a lot more objects than it needs to. Do you copy whole arrays or collections "
+				+ "where you could change them in place?", what, megabytes(allocated), operations,
+				megabytes(allocated / Math.max(operations, 1)), megabytes(budget), scope));
+	}
+
+	private static String megabytes(long bytes) {
+		return String.format(Locale.US, "%.1f MB", (double) bytes / MEGABYTE);
+	}
+
+	/**
+	 * Measures what reading the counter allocates. Java 8 allocates an array for every call, later versions nothing.
+	 */
+	private static long calibrate() {
+		if (threads == null) {
+			return 0;
+		}
+		long cost = Long.MAX_VALUE;
+		for (int i = 0; i < 10; i++) {
+			long first = currentThreadAllocatedBytes();
+			long second = currentThreadAllocatedBytes();
+			cost = Math.min(cost, second - first);
+		}
+		return Math.max(cost, 0);
+	}
+
+	private static com.sun.management.ThreadMXBean allocationMXBean() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+			return null;
+		}
+		com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) bean;
+		if (!allocations.isThreadAllocatedMemorySupported()) {
+			return null;
+		}
+		if (!allocations.isThreadAllocatedMemoryEnabled()) {
+			allocations.setThreadAllocatedMemoryEnabled(true);
+		}
+		return allocations;
+	}
+}
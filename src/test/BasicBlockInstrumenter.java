@@ -0,0 +1,873 @@
+package test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rewrites a class file so that every basic block of every method reports when it is entered. A probe is inserted in
+ * front of the first instruction of every block: the start of the method, every jump target, every exception handler
+ * and every instruction after a conditional jump. Jumps to a block land on its probe. There are two kinds of probes:
+ * <ul>
+ * <li>For {@link Operations}, the probe calls {@link Operations#count(int)} with the index of its method
+ * ({@code sipush index; invokestatic Operations.count}).
+ * <li>For {@link Coverage}, the probe sets the block's entry in a probe array, like JaCoCo does
+ * ({@code getstatic Coverage.probes; sipush block; iconst_1; bastore}).
+ * </ul>
+ * Use {@link #instrumentTestedClass(byte[])} to instrument the tested class with the probes that were requested.
+ * The constructor, {@link #instrument()} and the getters are public, so that the framework tests can instrument other
+ * classes.
+ * <p>
+ * Inserting code moves the instructions, so everything that refers to code offsets is relocated: jumps, switches, the
+ * exception table, the line number and local variable tables and the stack map frames. Other attributes of the
+ * {@code Code} attribute (e.g. type annotations) are dropped. The probes need up to three more slots on the operand
+ * stack.
+ * <p>
+ * The rewriter works on the class file format directly, so it needs no bytecode library. If it meets anything it
+ * cannot handle, for example a jump that does not fit into 16 bits any more, it throws an
+ * {@link IllegalStateException}, and the class should be used as it is.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class BasicBlockInstrumenter {
+	private static final String COUNTER_CLASS = Operations.class.getName().replace('.', '/');
+	private static final String COVERAGE_CLASS = Coverage.class.getName().replace('.', '/');
+	private static final int COUNT_PROBE_LENGTH = 6;
+	private static final int COVERAGE_PROBE_LENGTH = 8;
+	private static final int ICONST_1 = 4;
+	private static final int SIPUSH = 17;
+	private static final int BASTORE = 84;
+	private static final int GETSTATIC = 178;
+	private static final int INVOKESTATIC = 184;
+	private static final int TABLESWITCH = 170;
+	private static final int LOOKUPSWITCH = 171;
+	private static final int GOTO_W = 200;
+	private static final int JSR_W = 201;
+	private static final int WIDE = 196;
+
+	/**
+	 * The length of every instruction that has a fixed length. Switches and {@code wide} are computed.
+	 */
+	private static final int[] LENGTHS = new int[256];
+
+	static {
+		for (int opcode = 0; opcode < 256; opcode++) {
+			LENGTHS[opcode] = 1;
+		}
+		LENGTHS[16] = 2; // bipush
+		LENGTHS[17] = 3; // sipush
+		LENGTHS[18] = 2; // ldc
+		LENGTHS[19] = 3; // ldc_w
+		LENGTHS[20] = 3; // ldc2_w
+		for (int opcode = 21; opcode <= 25; opcode++) {
+			LENGTHS[opcode] = 2; // loads
+		}
+		for (int opcode = 54; opcode <= 58; opcode++) {
+			LENGTHS[opcode] = 2; // stores
+		}
+		LENGTHS[132] = 3; // iinc
+		for (int opcode = 153; opcode <= 168; opcode++) {
+			LENGTHS[opcode] = 3; // conditional jumps, goto, jsr
+		}
+		LENGTHS[169] = 2; // ret
+		for (int opcode = 178; opcode <= 184; opcode++) {
+			LENGTHS[opcode] = 3; // field access, invokevirtual, invokespecial, invokestatic
+		}
+		LENGTHS[185] = 5; // invokeinterface
+		LENGTHS[186] = 5; // invokedynamic
+		LENGTHS[187] = 3; // new
+		LENGTHS[188] = 2; // newarray
+		LENGTHS[189] = 3; // anewarray
+		LENGTHS[192] = 3; // checkcast
+		LENGTHS[193] = 3; // instanceof
+		LENGTHS[197] = 4; // multianewarray
+		LENGTHS[198] = 3; // ifnull
+		LENGTHS[199] = 3; // ifnonnull
+		LENGTHS[GOTO_W] = 5;
+		LENGTHS[JSR_W] = 5;
+	}
+
+	private final byte[] original;
+	private final boolean counting;
+	private final boolean covering;
+	private final List<String> utf8 = new ArrayList<String>();
+	private final List<String> methodNames = new ArrayList<String>();
+	private final List<Integer> blockMethods = new ArrayList<Integer>();
+	private final List<int[]> blockLines = new ArrayList<int[]>();
+	private final List<int[]> branches = new ArrayList<int[]>();
+	private int probeMethodRef;
+	private int probeFieldRef;
+	private int blocks = 0;
+
+	/**
+	 * @param classFile
+	 *            The class file to instrument.
+	 * @param counting
+	 *            Whether to insert the probes for {@link Operations}.
+	 * @param covering
+	 *            Whether to insert the probes for {@link Coverage}.
+	 */
+	public BasicBlockInstrumenter(byte[] classFile, boolean counting, boolean covering) {
+		this.original = classFile;
+		this.counting = counting;
+		this.covering = covering;
+	}
+
+	/**
+	 * Instruments the class file of the tested class with the probes that were requested through the JVM variables of
+	 * {@link Operations} and {@link Coverage}, and tells them about the instrumented class.
+	 *
+	 * @param classFile
+	 *            The class file of the tested class.
+	 * @return The instrumented class file, or {@code classFile} if no probes were requested or the class file cannot
+	 *         be instrumented.
+	 */
+	static byte[] instrumentTestedClass(byte[] classFile) {
+		if (classFile == null || !(Operations.isRequested() || Coverage.isRequested())) {
+			return classFile;
+		}
+		BasicBlockInstrumenter instrumenter = new BasicBlockInstrumenter(classFile, Operations.isRequested(),
+				Coverage.isRequested());
+		byte[] instrumented;
+		try {
+			instrumented = instrumenter.instrument();
+		} catch (IllegalStateException e) {
+			System.err.println("Operations are not counted and coverage is not recorded, because the tested class "
+					+ "cannot be instrumented: " + e.getMessage());
+			return classFile;
+		}
+		if (instrumenter.counting) {
+			Operations.instrumented(instrumenter.methodNames);
+		}
+		if (instrumenter.covering) {
+			Coverage.instrumented(classFile, instrumenter.methodNames, instrumenter.blockMethods,
+					instrumenter.blockLines, instrumenter.branches);
+		}
+		return instrumented;
+	}
+
+	/**
+	 * @return The name and descriptor of every method, in the order of their indices.
+	 */
+	public List<String> getMethodNames() {
+		return this.methodNames;
+	}
+
+	/**
+	 * @return The index of the method of every block, in the order of the block indices.
+	 */
+	public List<Integer> getBlockMethods() {
+		return this.blockMethods;
+	}
+
+	/**
+	 * @return The source lines of every block, in the order of the block indices. Empty if the class file has no line
+	 *         numbers.
+	 */
+	public List<int[]> getBlockLines() {
+		return this.blockLines;
+	}
+
+	/**
+	 * @return Every conditional jump and switch: its source line (or {@code -1}), followed by the index of the block of
+	 *         every target.
+	 */
+	public List<int[]> getBranches() {
+		return this.branches;
+	}
+
+	/**
+	 * Instruments the class file.
+	 *
+	 * @return The instrumented class file.
+	 * @throws IllegalStateException
+	 *             If the class file cannot be instrumented.
+	 */
+	public byte[] instrument() {
+		try {
+			return rewrite();
+		} catch (IOException e) {
+			throw new IllegalStateException("The class file is malformed.", e);
+		} catch (RuntimeException e) {
+			if (e instanceof IllegalStateException) {
+				throw e;
+			}
+			throw new IllegalStateException("The class file is malformed.", e);
+		}
+	}
+
+	private byte[] rewrite() throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(this.original));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(this.original.length * 2);
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		if (in.readInt() != 0xCAFEBABE) {
+			throw new IllegalStateException("This is not a class file.");
+		}
+		out.writeInt(0xCAFEBABE);
+		out.writeShort(in.readUnsignedShort()); // minor version
+		out.writeShort(in.readUnsignedShort()); // major version
+
+		// constant pool: copy it and append the reference to the probe method
+		int poolCount = in.readUnsignedShort();
+		ByteArrayOutputStream pool = new ByteArrayOutputStream();
+		DataOutputStream poolOut = new DataOutputStream(pool);
+		this.utf8.add(null); // index 0 is unused
+		for (int i = 1; i < poolCount; i++) {
+			int tag = in.readUnsignedByte();
+			poolOut.writeByte(tag);
+			String string = null;
+			switch (tag) {
+			case 1:
+				string = in.readUTF();
+				poolOut.writeUTF(string);
+				break;
+			case 3:
+			case 4:
+			case 9:
+			case 10:
+			case 11:
+			case 12:
+			case 17:
+			case 18:
+				copy(in, poolOut, 4);
+				break;
+			case 5:
+			case 6:
+				copy(in, poolOut, 8);
+				this.utf8.add(null);
+				i++; // takes two entries
+				break;
+			case 7:
+			case 8:
+			case 16:
+			case 19:
+			case 20:
+				copy(in, poolOut, 2);
+				break;
+			case 15:
+				copy(in, poolOut, 3);
+				break;
+			default:
+				throw new IllegalStateException("Unknown constant pool tag " + tag);
+			}
+			this.utf8.add(string);
+		}
+		int next = poolCount;
+		int className = next++;
+		poolOut.writeByte(1);
+		poolOut.writeUTF(COUNTER_CLASS);
+		int classRef = next++;
+		poolOut.writeByte(7);
+		poolOut.writeShort(className);
+		int methodName = next++;
+		poolOut.writeByte(1);
+		poolOut.writeUTF("count");
+		int methodType = next++;
+		poolOut.writeByte(1);
+		poolOut.writeUTF("(I)V");
+		int nameAndType = next++;
+		poolOut.writeByte(12);
+		poolOut.writeShort(methodName);
+		poolOut.writeShort(methodType);
+		this.probeMethodRef = next++;
+		poolOut.writeByte(10);
+		poolOut.writeShort(classRef);
+		poolOut.writeShort(nameAndType);
+		int coverageClassName = next++;
+		poolOut.writeByte(1);
+		poolOut.writeUTF(COVERAGE_CLASS);
+		int coverageClassRef = next++;
+		poolOut.writeByte(7);
+		poolOut.writeShort(coverageClassName);
+		int fieldName = next++;
+		poolOut.writeByte(1);
+		poolOut.writeUTF("probes");
+		int fieldType = next++;
+		poolOut.writeByte(1);
+		poolOut.writeUTF("[Z");
+		int fieldNameAndType = next++;
+		poolOut.writeByte(12);
+		poolOut.writeShort(fieldName);
+		poolOut.writeShort(fieldType);
+		this.probeFieldRef = next++;
+		poolOut.writeByte(9);
+		poolOut.writeShort(coverageClassRef);
+		poolOut.writeShort(fieldNameAndType);
+		if (next > 0xFFFF) {
+			throw new IllegalStateException("The constant pool is full.");
+		}
+		out.writeShort(next);
+		pool.writeTo(out);
+
+		copy(in, out, 6); // access flags, this class, super class
+		int interfaces = in.readUnsignedShort();
+		out.writeShort(interfaces);
+		copy(in, out, 2 * interfaces);
+
+		int fields = in.readUnsignedShort();
+		out.writeShort(fields);
+		for (int i = 0; i < fields; i++) {
+			copy(in, out, 6);
+			copyAttributes(in, out);
+		}
+
+		int methods = in.readUnsignedShort();
+		if (methods > Short.MAX_VALUE) {
+			throw new IllegalStateException("There are too many methods.");
+		}
+		out.writeShort(methods);
+		for (int i = 0; i < methods; i++) {
+			copy(in, out, 2); // access flags
+			int name = in.readUnsignedShort();
+			int descriptor = in.readUnsignedShort();
+			out.writeShort(name);
+			out.writeShort(descriptor);
+			this.methodNames.add(this.utf8.get(name) + this.utf8.get(descriptor));
+			int attributes = in.readUnsignedShort();
+			out.writeShort(attributes);
+			for (int a = 0; a < attributes; a++) {
+				int attributeName = in.readUnsignedShort();
+				byte[] attribute = new byte[in.readInt()];
+				in.readFully(attribute);
+				if ("Code".equals(this.utf8.get(attributeName))) {
+					attribute = new CodeRewriter(i, attribute).rewrite();
+				}
+				out.writeShort(attributeName);
+				out.writeInt(attribute.length);
+				out.write(attribute);
+			}
+		}
+
+		copyAttributes(in, out);
+		if (in.read() != -1) {
+			throw new IllegalStateException("There are bytes after the end of the class file.");
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static void copy(DataInputStream in, DataOutputStream out, int length) throws IOException {
+		byte[] buffer = new byte[length];
+		in.readFully(buffer);
+		out.write(buffer);
+	}
+
+	private static void copyAttributes(DataInputStream in, DataOutputStream out) throws IOException {
+		int attributes = in.readUnsignedShort();
+		out.writeShort(attributes);
+		for (int a = 0; a < attributes; a++) {
+			copy(in, out, 2);
+			int length = in.readInt();
+			out.writeInt(length);
+			copy(in, out, length);
+		}
+	}
+
+	/**
+	 * Inserts the probes into one {@code Code} attribute.
+	 */
+	private class CodeRewriter {
+		private final int method;
+		private final ByteBuffer attribute;
+		private byte[] code;
+		private boolean[] instructionStart;
+		private boolean[] leader;
+		/**
+		 * The new offset of every old instruction, for the old offsets that are instruction starts.
+		 */
+		private int[] newInstruction;
+		/**
+		 * The new offset of the probe in front of every old instruction, or of the instruction if it has no probe.
+		 */
+		private int[] newBlock;
+		/**
+		 * The global index of the block starting at every old offset that is a leader.
+		 */
+		private int[] blockIndex;
+		/**
+		 * The old offsets of the conditional jumps and switches.
+		 */
+		private final List<Integer> branchOffsets = new ArrayList<Integer>();
+		/**
+		 * The old line number table: start offset and line of every entry.
+		 */
+		private int[] lineNumbers = new int[0];
+
+		private CodeRewriter(int method, byte[] attribute) {
+			this.method = method;
+			this.attribute = ByteBuffer.wrap(attribute);
+		}
+
+		private byte[] rewrite() throws IOException {
+			int maxStack = u2();
+			int maxLocals = u2();
+			this.code = new byte[this.attribute.getInt()];
+			this.attribute.get(this.code);
+			int handlers = u2();
+			int[] exceptionTable = new int[handlers * 4];
+			for (int i = 0; i < exceptionTable.length; i++) {
+				exceptionTable[i] = u2();
+			}
+
+			findLeaders(exceptionTable);
+			byte[] newCode = relocate();
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(this.attribute.capacity() + newCode.length);
+			DataOutputStream out = new DataOutputStream(bytes);
+			// the coverage probe needs three slots on the stack, the count probe one
+			out.writeShort(Math.min(maxStack + (BasicBlockInstrumenter.this.covering ? 3 : 1), 0xFFFF));
+			out.writeShort(maxLocals);
+			out.writeInt(newCode.length);
+			out.write(newCode);
+			out.writeShort(handlers);
+			for (int i = 0; i < handlers; i++) {
+				out.writeShort(block(exceptionTable[4 * i]));
+				out.writeShort(block(exceptionTable[4 * i + 1]));
+				out.writeShort(block(exceptionTable[4 * i + 2]));
+				out.writeShort(exceptionTable[4 * i + 3]);
+			}
+
+			List<byte[]> kept = new ArrayList<byte[]>();
+			List<Integer> keptNames = new ArrayList<Integer>();
+			int attributes = u2();
+			for (int a = 0; a < attributes; a++) {
+				int name = u2();
+				ByteBuffer content = ByteBuffer.wrap(new byte[this.attribute.getInt()]);
+				this.attribute.get(content.array());
+				String attributeName = BasicBlockInstrumenter.this.utf8.get(name);
+				byte[] relocated;
+				if ("LineNumberTable".equals(attributeName)) {
+					readLineNumbers(content);
+					relocated = relocateLineNumbers(content);
+				} else if ("LocalVariableTable".equals(attributeName)
+						|| "LocalVariableTypeTable".equals(attributeName)) {
+					relocated = relocateLocalVariables(content);
+				} else if ("StackMapTable".equals(attributeName)) {
+					relocated = relocateStackMap(content);
+				} else {
+					continue; // refers to offsets we don't know how to relocate
+				}
+				keptNames.add(name);
+				kept.add(relocated);
+			}
+			out.writeShort(kept.size());
+			for (int a = 0; a < kept.size(); a++) {
+				out.writeShort(keptNames.get(a));
+				out.writeInt(kept.get(a).length);
+				out.write(kept.get(a));
+			}
+			out.flush();
+			describeBlocks();
+			return bytes.toByteArray();
+		}
+
+		private void readLineNumbers(ByteBuffer in) {
+			int entries = in.getShort(0) & 0xFFFF;
+			int[] table = new int[2 * entries];
+			for (int i = 0; i < table.length; i++) {
+				table[i] = in.getShort(2 + 2 * i) & 0xFFFF;
+			}
+			// several line number tables are allowed, in any order
+			int[] merged = Arrays.copyOf(this.lineNumbers, this.lineNumbers.length + table.length);
+			System.arraycopy(table, 0, merged, this.lineNumbers.length, table.length);
+			this.lineNumbers = merged;
+		}
+
+		/**
+		 * @return The source line of the instruction at the old {@code offset}, or {@code -1} if it is not known.
+		 */
+		private int lineAt(int offset) {
+			int line = -1;
+			int start = -1;
+			for (int i = 0; i < this.lineNumbers.length; i += 2) {
+				if (this.lineNumbers[i] <= offset && this.lineNumbers[i] > start) {
+					start = this.lineNumbers[i];
+					line = this.lineNumbers[i + 1];
+				}
+			}
+			return line;
+		}
+
+		/**
+		 * Records the lines of every block and the targets of every branch.
+		 */
+		private void describeBlocks() {
+			int length = this.code.length;
+			for (int start = 0; start < length; start++) {
+				if (!this.leader[start]) {
+					continue;
+				}
+				int end = start + 1;
+				while (end < length && !this.leader[end]) {
+					end++;
+				}
+				List<Integer> lines = new ArrayList<Integer>();
+				int first = lineAt(start);
+				if (first >= 0) {
+					lines.add(first);
+				}
+				for (int i = 0; i < this.lineNumbers.length; i += 2) {
+					if (this.lineNumbers[i] > start && this.lineNumbers[i] < end
+							&& !lines.contains(this.lineNumbers[i + 1])) {
+						lines.add(this.lineNumbers[i + 1]);
+					}
+				}
+				int[] blockLines = new int[lines.size()];
+				for (int i = 0; i < blockLines.length; i++) {
+					blockLines[i] = lines.get(i);
+				}
+				BasicBlockInstrumenter.this.blockMethods.add(this.method);
+				BasicBlockInstrumenter.this.blockLines.add(blockLines);
+			}
+			for (int offset : this.branchOffsets) {
+				int opcode = this.code[offset] & 0xFF;
+				int[] targets;
+				if (isJump(opcode)) {
+					targets = new int[] {
+							offset + length(offset, offset), offset + s2(offset + 1)
+					};
+				} else {
+					targets = switchTargets(offset);
+					for (int i = 0; i < targets.length; i++) {
+						targets[i] += offset;
+					}
+				}
+				int[] branch = new int[targets.length + 1];
+				branch[0] = lineAt(offset);
+				for (int i = 0; i < targets.length; i++) {
+					branch[i + 1] = this.blockIndex[targets[i]];
+				}
+				BasicBlockInstrumenter.this.branches.add(branch);
+			}
+		}
+
+		private int u2() {
+			return this.attribute.getShort() & 0xFFFF;
+		}
+
+		private int s2(int offset) {
+			return (short) (((this.code[offset] & 0xFF) << 8) | (this.code[offset + 1] & 0xFF));
+		}
+
+		private int s4(int offset) {
+			return ((this.code[offset] & 0xFF) << 24) | ((this.code[offset + 1] & 0xFF) << 16)
+					| ((this.code[offset + 2] & 0xFF) << 8) | (this.code[offset + 3] & 0xFF);
+		}
+
+		/**
+		 * @return The length of the instruction at {@code offset}, if it is at {@code position} in the code.
+		 */
+		private int length(int offset, int position) {
+			int opcode = this.code[offset] & 0xFF;
+			switch (opcode) {
+			case TABLESWITCH: {
+				int operands = offset + 1 + padding(offset);
+				int low = s4(operands + 4);
+				int high = s4(operands + 8);
+				return 1 + padding(position) + 12 + 4 * (high - low + 1);
+			}
+			case LOOKUPSWITCH: {
+				int operands = offset + 1 + padding(offset);
+				return 1 + padding(position) + 8 + 8 * s4(operands + 4);
+			}
+			case WIDE:
+				return ((this.code[offset + 1] & 0xFF) == 132) ? 6 : 4;
+			default:
+				return LENGTHS[opcode];
+			}
+		}
+
+		private int padding(int position) {
+			return (4 - (position + 1) % 4) % 4;
+		}
+
+		private void findLeaders(int[] exceptionTable) {
+			int length = this.code.length;
+			this.instructionStart = new boolean[length + 1];
+			this.leader = new boolean[length + 1];
+			this.leader[0] = true;
+			for (int offset = 0; offset < length; offset += length(offset, offset)) {
+				this.instructionStart[offset] = true;
+				int opcode = this.code[offset] & 0xFF;
+				if (isJump(opcode)) {
+					markLeader(offset + ((opcode >= GOTO_W) ? s4(offset + 1) : s2(offset + 1)));
+					if (opcode != 167 && opcode != GOTO_W) { // the next instruction of a goto is only reached by a jump
+						markLeader(offset + length(offset, offset));
+					}
+					if (opcode != 167 && opcode != 168 && opcode < GOTO_W) {
+						this.branchOffsets.add(offset);
+					}
+				} else if (opcode == TABLESWITCH || opcode == LOOKUPSWITCH) {
+					this.branchOffsets.add(offset);
+					for (int target : switchTargets(offset)) {
+						markLeader(offset + target);
+					}
+				}
+			}
+			this.instructionStart[length] = true;
+			this.leader[length] = false;
+			for (int i = 0; i < exceptionTable.length; i += 4) {
+				markLeader(exceptionTable[i + 2]);
+			}
+			this.blockIndex = new int[length + 1];
+			for (int offset = 0; offset < length; offset++) {
+				if (this.leader[offset] && !this.instructionStart[offset]) {
+					throw new IllegalStateException("A jump does not target an instruction.");
+				}
+				if (this.leader[offset]) {
+					this.blockIndex[offset] = BasicBlockInstrumenter.this.blocks++;
+				}
+			}
+			if (BasicBlockInstrumenter.this.covering && BasicBlockInstrumenter.this.blocks > Short.MAX_VALUE) {
+				throw new IllegalStateException("There are too many blocks.");
+			}
+		}
+
+		private void markLeader(int offset) {
+			if (offset < 0 || offset > this.code.length) {
+				throw new IllegalStateException("A jump leaves the method.");
+			}
+			if (offset < this.code.length) {
+				this.leader[offset] = true;
+			}
+		}
+
+		private boolean isJump(int opcode) {
+			return (opcode >= 153 && opcode <= 168) || opcode == 198 || opcode == 199 || opcode == GOTO_W
+					|| opcode == JSR_W;
+		}
+
+		/**
+		 * @return The relative jump targets of a switch, the default target first.
+		 */
+		private int[] switchTargets(int offset) {
+			int operands = offset + 1 + padding(offset);
+			int opcode = this.code[offset] & 0xFF;
+			int count;
+			int stride;
+			int first;
+			if (opcode == TABLESWITCH) {
+				count = s4(operands + 8) - s4(operands + 4) + 1;
+				first = operands + 12;
+				stride = 4;
+			} else {
+				count = s4(operands + 4);
+				first = operands + 12;
+				stride = 8;
+			}
+			int[] targets = new int[count + 1];
+			targets[0] = s4(operands);
+			for (int i = 0; i < count; i++) {
+				targets[i + 1] = s4(first + i * stride);
+			}
+			return targets;
+		}
+
+		private byte[] relocate() {
+			int length = this.code.length;
+			this.newInstruction = new int[length + 1];
+			this.newBlock = new int[length + 1];
+			int probeLength = (BasicBlockInstrumenter.this.counting ? COUNT_PROBE_LENGTH : 0)
+					+ (BasicBlockInstrumenter.this.covering ? COVERAGE_PROBE_LENGTH : 0);
+			int position = 0;
+			for (int offset = 0; offset < length; offset += length(offset, offset)) {
+				this.newBlock[offset] = position;
+				if (this.leader[offset]) {
+					position += probeLength;
+				}
+				this.newInstruction[offset] = position;
+				position += length(offset, position);
+			}
+			this.newBlock[length] = position;
+			this.newInstruction[length] = position;
+			if (position > 0xFFFF) {
+				throw new IllegalStateException("The method is too long to be instrumented.");
+			}
+
+			ByteBuffer out = ByteBuffer.allocate(position);
+			for (int offset = 0; offset < length; offset += length(offset, offset)) {
+				if (this.leader[offset] && BasicBlockInstrumenter.this.covering) {
+					out.put((byte) GETSTATIC);
+					out.putShort((short) BasicBlockInstrumenter.this.probeFieldRef);
+					out.put((byte) SIPUSH);
+					out.putShort((short) this.blockIndex[offset]);
+					out.put((byte) ICONST_1);
+					out.put((byte) BASTORE);
+				}
+				if (this.leader[offset] && BasicBlockInstrumenter.this.counting) {
+					out.put((byte) SIPUSH);
+					out.putShort((short) this.method);
+					out.put((byte) INVOKESTATIC);
+					out.putShort((short) BasicBlockInstrumenter.this.probeMethodRef);
+				}
+				int opcode = this.code[offset] & 0xFF;
+				int from = this.newInstruction[offset];
+				if (isJump(opcode)) {
+					int target = block(offset + ((opcode >= GOTO_W) ? s4(offset + 1) : s2(offset + 1))) - from;
+					out.put((byte) opcode);
+					if (opcode >= GOTO_W) {
+						out.putInt(target);
+					} else {
+						if (target < Short.MIN_VALUE || target > Short.MAX_VALUE) {
+							throw new IllegalStateException("A jump is too long after instrumenting.");
+						}
+						out.putShort((short) target);
+					}
+				} else if (opcode == TABLESWITCH || opcode == LOOKUPSWITCH) {
+					int operands = offset + 1 + padding(offset);
+					int[] targets = switchTargets(offset);
+					out.put((byte) opcode);
+					for (int i = 0; i < padding(from); i++) {
+						out.put((byte) 0);
+					}
+					out.putInt(block(offset + targets[0]) - from);
+					if (opcode == TABLESWITCH) {
+						out.putInt(s4(operands + 4));
+						out.putInt(s4(operands + 8));
+						for (int i = 1; i < targets.length; i++) {
+							out.putInt(block(offset + targets[i]) - from);
+						}
+					} else {
+						out.putInt(targets.length - 1);
+						for (int i = 1; i < targets.length; i++) {
+							out.putInt(s4(operands + 8 + (i - 1) * 8));
+							out.putInt(block(offset + targets[i]) - from);
+						}
+					}
+				} else {
+					out.put(this.code, offset, length(offset, offset));
+				}
+			}
+			return out.array();
+		}
+
+		/**
+		 * @return The new offset of the block starting at the old {@code offset}: its probe, if it has one.
+		 */
+		private int block(int offset) {
+			if (offset < 0 || offset > this.code.length || !this.instructionStart[offset]) {
+				throw new IllegalStateException("An offset does not point to an instruction.");
+			}
+			return this.newBlock[offset];
+		}
+
+		private byte[] relocateLineNumbers(ByteBuffer in) {
+			ByteBuffer out = ByteBuffer.allocate(in.capacity());
+			int entries = in.getShort() & 0xFFFF;
+			out.putShort((short) entries);
+			for (int i = 0; i < entries; i++) {
+				out.putShort((short) block(in.getShort() & 0xFFFF));
+				out.putShort(in.getShort());
+			}
+			return out.array();
+		}
+
+		private byte[] relocateLocalVariables(ByteBuffer in) {
+			ByteBuffer out = ByteBuffer.allocate(in.capacity());
+			int entries = in.getShort() & 0xFFFF;
+			out.putShort((short) entries);
+			for (int i = 0; i < entries; i++) {
+				int start = in.getShort() & 0xFFFF;
+				int end = start + (in.getShort() & 0xFFFF);
+				out.putShort((short) block(start));
+				out.putShort((short) (block(end) - block(start)));
+				out.putShort(in.getShort()); // name
+				out.putShort(in.getShort()); // descriptor or signature
+				out.putShort(in.getShort()); // index
+			}
+			return out.array();
+		}
+
+		private byte[] relocateStackMap(ByteBuffer in) throws IOException {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(in.capacity() + 16);
+			DataOutputStream out = new DataOutputStream(bytes);
+			int frames = in.getShort() & 0xFFFF;
+			out.writeShort(frames);
+			int oldOffset = -1;
+			int newOffset = -1;
+			for (int f = 0; f < frames; f++) {
+				int type = in.get() & 0xFF;
+				int delta;
+				if (type < 64) {
+					delta = type;
+				} else if (type < 128) {
+					delta = type - 64;
+				} else if (type >= 247) {
+					delta = in.getShort() & 0xFFFF;
+				} else {
+					throw new IllegalStateException("Unknown stack map frame type " + type);
+				}
+				oldOffset += delta + 1;
+				int offset = block(oldOffset);
+				int newDelta = offset - newOffset - 1;
+				newOffset = offset;
+
+				if (type < 64 || type == 251) {
+					if (newDelta < 64) {
+						out.writeByte(newDelta);
+					} else {
+						out.writeByte(251);
+						out.writeShort(newDelta);
+					}
+				} else if (type < 128 || type == 247) {
+					if (newDelta < 64) {
+						out.writeByte(64 + newDelta);
+					} else {
+						out.writeByte(247);
+						out.writeShort(newDelta);
+					}
+					copyVerificationType(in, out);
+				} else if (type < 251) { // chop
+					out.writeByte(type);
+					out.writeShort(newDelta);
+				} else if (type < 255) { // append
+					out.writeByte(type);
+					out.writeShort(newDelta);
+					for (int i = 0; i < type - 251; i++) {
+						copyVerificationType(in, out);
+					}
+				} else { // full frame
+					out.writeByte(type);
+					out.writeShort(newDelta);
+					int locals = in.getShort() & 0xFFFF;
+					out.writeShort(locals);
+					for (int i = 0; i < locals; i++) {
+						copyVerificationType(in, out);
+					}
+					int stack = in.getShort() & 0xFFFF;
+					out.writeShort(stack);
+					for (int i = 0; i < stack; i++) {
+						copyVerificationType(in, out);
+					}
+				}
+			}
+			out.flush();
+			return bytes.toByteArray();
+		}
+
+		private void copyVerificationType(ByteBuffer in, DataOutputStream out) throws IOException {
+			int tag = in.get() & 0xFF;
+			out.writeByte(tag);
+			if (tag == 7) { // object
+				out.writeShort(in.getShort());
+			} else if (tag == 8) { // uninitialized: the offset of the 'new' instruction
+				int offset = in.getShort() & 0xFFFF;
+				if (!this.instructionStart[offset]) {
+					throw new IllegalStateException("An offset does not point to an instruction.");
+				}
+				out.writeShort(this.newInstruction[offset]);
+			} else if (tag > 8) {
+				throw new IllegalStateException("Unknown verification type " + tag);
+			}
+		}
+	}
+}
@@ -0,0 +1,260 @@
+package test;
+
+import static org.junit.Assert.fail;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A time and allocation budget for a piece of work, usually one call of a method of the tested class. Scale tests use
+ * it to fail a correct, but pathologically slow or wasteful implementation with a message that tells what was too
+ * expensive:
+ *
+ * <pre>
+ * <code>
+ * int index = Budget.of(50, 1024 * 1024).run("indexOf(42) on 1000000 numbers", new Budget.Task&lt;Integer&gt;() {
+ * 	&#064;Override
+ * 	public Integer run() {
+ * 		return tuple.run(int.class, "indexOf", 42);
+ * 	}
+ * });
+ * </code>
+ * </pre>
+ *
+ * The time is the CPU time the current thread uses while the task runs, scaled to the speed of this machine, see
+ * {@link Calibration}. It is measured once the task is done, and {@link org.junit.Assert#fail} is called if it exceeds
+ * the budget. The {@link Watchdog} only stops a task that runs away: it gets a deadline of {@link #RUNAWAY_FACTOR}
+ * times its budget. If the JVM cannot measure the CPU time of a thread, the watchdog enforces the budget itself, in
+ * wall time. The bytes the current thread allocates while the task runs are measured as in {@link Allocations}, and
+ * {@link org.junit.Assert#fail} is called if they exceed the budget once the task is done. If the JVM cannot measure
+ * allocations, only the time is enforced.
+ * <p>
+ * Scale tests run the same operation on inputs of growing size. {@link #linear(long, long, long)} and
+ * {@link #linearithmic(long, long, long)} describe what an operation may cost for any size, and
+ * {@link Scaling#forSize(int)} creates the budget for one size. Call {@link #warmup(Task)} before the first budgeted
+ * task, so that loading the tested class and the first calls of the framework don't count against it.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public final class Budget {
+	/**
+	 * How many times its budget a task may run before the {@link Watchdog} stops it.
+	 */
+	public static final int RUNAWAY_FACTOR = 2;
+	private static final long MEGABYTE = 1024 * 1024;
+	private final long millis;
+	private final long bytes;
+
+	private Budget(long millis, long bytes) {
+		this.millis = millis;
+		this.bytes = bytes;
+	}
+
+	/**
+	 * Creates a budget.
+	 *
+	 * @param millis
+	 *            The CPU time a task may use, in milliseconds on the reference machine. {@code 0} means no limit.
+	 * @param bytes
+	 *            The bytes a task may allocate. {@code 0} means no limit.
+	 * @return The budget.
+	 */
+	public static Budget of(long millis, long bytes) {
+		if (millis < 0 || bytes < 0) {
+			throw new IllegalArgumentException("A budget must not be negative.");
+		}
+		return new Budget(millis, bytes);
+	}
+
+	/**
+	 * Describes the cost of an operation that takes time linear in the size of its input.
+	 *
+	 * @param fixedMillis
+	 *            The CPU time the operation may use for any size, in milliseconds on the reference machine.
+	 * @param millisPerMillion
+	 *            The CPU time the operation may use for every million elements of its input, in milliseconds on the
+	 *            reference machine.
+	 * @param bytesPerElement
+	 *            The bytes the operation may allocate for every element of its input.
+	 * @return The cost, to create budgets for any size from.
+	 */
+	public static Scaling linear(long fixedMillis, long millisPerMillion, long bytesPerElement) {
+		return new Scaling(fixedMillis, millisPerMillion, bytesPerElement, false);
+	}
+
+	/**
+	 * Describes the cost of an operation that takes time in O(n log n) for an input of size n, like sorting.
+	 *
+	 * @param fixedMillis
+	 *            The CPU time the operation may use for any size, in milliseconds on the reference machine.
+	 * @param millisPerMillion
+	 *            The CPU time the operation may use for an input of a million elements, in milliseconds on the
+	 *            reference machine. It grows by the factor {@code log(n) / log(10^6)} more than linearly.
+	 * @param bytesPerElement
+	 *            The bytes the operation may allocate for every element of its input.
+	 * @return The cost, to create budgets for any size from.
+	 */
+	public static Scaling linearithmic(long fixedMillis, long millisPerMillion, long bytesPerElement) {
+		return new Scaling(fixedMillis, millisPerMillion, bytesPerElement, true);
+	}
+
+	/**
+	 * Runs a task without a budget, so that loading the tested class, calibrating this machine and the first calls of
+	 * the framework don't count against the budget of the first task that is measured. Call it with the cheapest call
+	 * of the tested class.
+	 *
+	 * @param task
+	 *            The task.
+	 */
+	public static void warmup(Task<?> task) {
+		Calibration.factor();
+		task.run();
+	}
+
+	/**
+	 * @return The CPU time a task may use, in milliseconds on the reference machine.
+	 */
+	public long getMillis() {
+		return this.millis;
+	}
+
+	/**
+	 * @return The bytes a task may allocate.
+	 */
+	public long getBytes() {
+		return this.bytes;
+	}
+
+	/**
+	 * Runs a task within this budget. {@link org.junit.Assert#fail} will be called if it exceeds the budget.
+	 *
+	 * @param <T>
+	 *            What the task returns.
+	 * @param what
+	 *            What the task does, for the failure message. For example the call it makes.
+	 * @param task
+	 *            The task.
+	 * @return What the task returned.
+	 */
+	public <T> T run(String what, Task<T> task) {
+		// the first call calibrates, which must not count against the budget
+		double factor = (this.millis > 0) ? Calibration.factor() : 1;
+		long cpuStart = (this.millis > 0) ? Watchdog.currentThreadCpuTime() : -1;
+		Watchdog.Deadline deadline;
+		if (cpuStart >= 0) {
+			deadline = Watchdog.arm(RUNAWAY_FACTOR * this.millis, what + ", which may use " + this.millis
+					+ " ms of CPU time,");
+		} else {
+			deadline = Watchdog.arm(this.millis, what);
+		}
+		long allocationStart = Allocations.currentThreadAllocatedBytes();
+		T result = null;
+		Throwable thrown = null;
+		try {
+			result = task.run();
+		} catch (RuntimeException | Error e) {
+			// a stopped task may also fail otherwise, for example if TestObject reports the ThreadDeath
+			thrown = e;
+		} finally {
+			if (deadline != null) {
+				deadline.cancel();
+			}
+		}
+		long cpuUsed = (cpuStart >= 0) ? Watchdog.currentThreadCpuTime() - cpuStart : -1;
+		if (deadline != null && deadline.hasExpired()) {
+			Thread.interrupted(); // don't leak our interrupt into the next task
+			throw deadline.failure();
+		}
+		if (thrown instanceof RuntimeException) {
+			throw (RuntimeException) thrown;
+		} else if (thrown != null) {
+			throw (Error) thrown;
+		}
+		long cpuBudget = (long) (TimeUnit.MILLISECONDS.toNanos(this.millis) * factor);
+		if (cpuStart >= 0 && cpuUsed > cpuBudget) {
+			fail(String.format(Locale.US, "%s did not finish within %d ms of CPU time (%.1f ms on this machine). It "
+					+ "used %.1f ms of CPU time.", what, this.millis, cpuBudget / 1e6, cpuUsed / 1e6));
+		}
+		if (allocationStart >= 0) {
+			long allocated = Allocations.currentThreadAllocatedBytes() - allocationStart;
+			if (Allocations.exceeds(allocated, this.bytes)) {
+				Allocations.failExceeded(what, allocated, 1, this.bytes, "for it");
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.US, "%d ms, %d bytes", this.millis, this.bytes);
+	}
+
+	/**
+	 * What an operation may cost, depending on the size of its input. Create it through {@link Budget#linear} or
+	 * {@link Budget#linearithmic}.
+	 *
+	 * @author agent
+	 * @version 1.0
+	 * @since 19.10.2026
+	 */
+	public static final class Scaling {
+		private final long fixedMillis;
+		private final long millisPerMillion;
+		private final long bytesPerElement;
+		private final boolean linearithmic;
+
+		private Scaling(long fixedMillis, long millisPerMillion, long bytesPerElement, boolean linearithmic) {
+			if (fixedMillis < 0 || millisPerMillion < 0 || bytesPerElement < 0) {
+				throw new IllegalArgumentException("A budget must not be negative.");
+			}
+			this.fixedMillis = fixedMillis;
+			this.millisPerMillion = millisPerMillion;
+			this.bytesPerElement = bytesPerElement;
+			this.linearithmic = linearithmic;
+		}
+
+		/**
+		 * Creates the budget for an input of {@code n} elements. Besides the bytes for the elements, it allows one
+		 * megabyte for the reflection the framework does.
+		 *
+		 * @param n
+		 *            The size of the input.
+		 * @return The budget.
+		 */
+		public Budget forSize(int n) {
+			double millions = n / 1e6;
+			if (this.linearithmic && n > 1) {
+				millions *= Math.log(n) / Math.log(1e6);
+			}
+			return Budget.of(this.fixedMillis + (long) Math.ceil(this.millisPerMillion * millions), MEGABYTE
+					+ this.bytesPerElement * n);
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.US, "%d ms + %d ms per million elements%s, %d bytes per element",
+					this.fixedMillis, this.millisPerMillion, this.linearithmic ? " (n log n)" : "",
+					this.bytesPerElement);
+		}
+	}
+
+	/**
+	 * Work to be done within a {@link Budget}.
+	 *
+	 * @param <T>
+	 *            What the task returns.
+	 * @author agent
+	 * @version 1.0
+	 * @since 19.10.2026
+	 */
+	public abstract static class Task<T> {
+		/**
+		 * Does the work.
+		 *
+		 * @return The result of the work.
+		 */
+		public abstract T run();
+	}
+}
@@ -0,0 +1,127 @@
+package test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures how fast this machine runs Java code, compared to the machine the timeouts in the tests were chosen on. The
+ * {@link Watchdog} multiplies CPU time budgets with {@link #factor()}, so a test gets about the same amount of work
+ * done before its deadline on every machine.
+ * <p>
+ * The factor is determined once, by running a small reference benchmark (hashing, sorting and string building, about
+ * what the tested classes do) and comparing its CPU time with the CPU time it took on the reference machine. The
+ * benchmark first runs {@link #WARMUP_ROUNDS} rounds for the JIT to compile it, and then {@link #ROUNDS} measured
+ * rounds. Their median is used, as single rounds may be sped up by a compilation that just finished or slowed down by
+ * other processes. The factor can be set with the JVM variable {@code -Dtest.timeout.calibration}, for example to
+ * {@code 1} to use the budgets as they are written in the tests. This class uses no other class of the harness, so
+ * {@link test.batch.IsolatedRun} can share it between its runs.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Calibration {
+	/**
+	 * The CPU time one measured round of {@link #REPEATS} runs of {@link #workload()} took on the reference machine, in
+	 * nanoseconds.
+	 */
+	private static final long REFERENCE_NANOS = 6400000;
+	private static final int WARMUP_ROUNDS = 10;
+	private static final int ROUNDS = 15;
+	/**
+	 * How often {@link #workload()} runs in one round, so a round is long compared to the resolution of the CPU clock.
+	 */
+	private static final int REPEATS = 2;
+	private static final double MIN_FACTOR = 0.25;
+	private static final double MAX_FACTOR = 16;
+	private static volatile double factor = Double.NaN;
+	/**
+	 * Keeps the JIT from dropping the workload.
+	 */
+	private static volatile int sink;
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private Calibration() {
+	}
+
+	/**
+	 * Returns how much slower this machine is than the reference machine. The benchmark is run on the first call.
+	 *
+	 * @return The factor to multiply CPU time budgets with. {@code 1} if this machine is as fast as the reference
+	 *         machine or if CPU time cannot be measured.
+	 */
+	public static double factor() {
+		double result = factor;
+		if (Double.isNaN(result)) {
+			synchronized (Calibration.class) {
+				result = factor;
+				if (Double.isNaN(result)) {
+					result = determineFactor();
+					factor = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	private static double determineFactor() {
+		String configured = System.getProperty("test.timeout.calibration");
+		if (configured != null) {
+			try {
+				return Double.parseDouble(configured);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("-Dtest.timeout.calibration must be a number, but was '" + configured
+						+ "'!", e);
+			}
+		}
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (!threads.isCurrentThreadCpuTimeSupported()) {
+			return 1;
+		}
+		for (int round = 0; round < WARMUP_ROUNDS; round++) {
+			sink += workload();
+		}
+		long[] times = new long[ROUNDS];
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = threads.getCurrentThreadCpuTime();
+			for (int repeat = 0; repeat < REPEATS; repeat++) {
+				sink += workload();
+			}
+			times[round] = threads.getCurrentThreadCpuTime() - start;
+		}
+		Arrays.sort(times);
+		double measured = (double) times[ROUNDS / 2] / REFERENCE_NANOS;
+		return Math.max(MIN_FACTOR, Math.min(MAX_FACTOR, measured));
+	}
+
+	/**
+	 * The reference benchmark. Do not change it without measuring {@link #REFERENCE_NANOS} again.
+	 *
+	 * @return Something depending on all the work that was done.
+	 */
+	private static int workload() {
+		int seed = 42;
+		int[] numbers = new int[20000];
+		Map<Integer, String> names = new HashMap<Integer, String>();
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < numbers.length; i++) {
+			seed = seed * 1103515245 + 12345;
+			numbers[i] = seed >>> 8;
+			builder.setLength(0);
+			builder.append("item").append(numbers[i] % 1000);
+			names.put(numbers[i] % 5000, builder.toString());
+		}
+		Arrays.sort(numbers);
+		int result = 0;
+		for (int i = 0; i < numbers.length; i += 7) {
+			String name = names.get(numbers[i] % 5000);
+			result += (name == null) ? i : name.hashCode();
+		}
+		return result + names.size();
+	}
+}
@@ -0,0 +1,360 @@
+package test;
+
+import static org.junit.Assert.fail;
+
+import java.util.Locale;
+
+/**
+ * Checks how the running time of a method of the tested class grows with the size of its input. A test that waits
+ * for a timeout can only tell a student that the code is too slow. This check runs the method for a geometric series
+ * of input sizes, finds the complexity class that fits the measured times best and tells the student which growth was
+ * measured and which was expected:
+ *
+ * <pre>
+ * <code>
+ * Complexity.of("countNumbers", new Complexity.Experiment() {
+ * 	&#064;Override
+ * 	public Measurement prepare(int n) {
+ * 		TestObject tuple = new TestObject(randomNumbers(n));
+ * 		return tuple.measure("countNumbers", 42);
+ * 	}
+ * }).sizes(1000, 64000).countingOperations().assertAtMost(Complexity.Growth.LINEAR);
+ * </code>
+ * </pre>
+ *
+ * Every size runs in a fresh context: the tested class is {@link TestObject#resetClass() reset} before
+ * {@link Experiment#prepare(int)} is called. The cost of a size is the number of operations of one call if
+ * {@link #countingOperations() operations are counted}, and the median time of its {@link Measurement} otherwise.
+ * <p>
+ * Prefer counting operations. The count is the same on every machine and under any load, so the fit tells even
+ * neighbouring growths like O(n) and O(n log n) apart. Times are not reliable enough for that: as the tested class is
+ * loaded anew, its code is interpreted again at the beginning of every size, and the JIT compiler, the garbage
+ * collector and other processes distort single sizes. A timed fit is only good for bounds far from the expected
+ * growth, like O(n²) for a linear method. A timed measurement calls the method over and over, so if the method changes
+ * its instance or its arguments, let {@link Measurement#arguments(Measurement.Arguments)} supply new ones.
+ * <p>
+ * To find the growth, the costs are fitted against every {@link Growth} in log-log space: {@code log(cost)} is
+ * approximated by {@code log(c) + log(f(n))} with the best constant {@code c}, and the growth {@code f} with the least
+ * squared error wins. The slope of a straight line through the points in log-log space is reported as the fitted
+ * exponent, e.g. {@code 1.0} for linear and {@code 2.0} for quadratic growth.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Complexity {
+	private final String what;
+	private final Experiment experiment;
+	private int smallest = 1000;
+	private int largest = 64000;
+	private int factor = 2;
+	private boolean countOperations = false;
+
+	private Complexity(String what, Experiment experiment) {
+		this.what = what;
+		this.experiment = experiment;
+	}
+
+	/**
+	 * Prepares checking the complexity of an operation.
+	 *
+	 * @param what
+	 *            What is measured, for the failure message. For example the name of the method.
+	 * @param experiment
+	 *            Prepares the measurement for every size.
+	 * @return The check. Configure it and call {@link #assertAtMost(Growth)} or {@link #fit()}.
+	 */
+	public static Complexity of(String what, Experiment experiment) {
+		return new Complexity(what, experiment);
+	}
+
+	/**
+	 * Sets the sizes to measure. The sizes start at {@code smallest} and are multiplied by the {@link #factor(int)}
+	 * until they exceed {@code largest}. Default: {@code 1000} to {@code 64000}.
+	 *
+	 * @param smallest
+	 *            The first size.
+	 * @param largest
+	 *            The largest size.
+	 * @return This check.
+	 */
+	public Complexity sizes(int smallest, int largest) {
+		if (smallest < 2 || largest < smallest * 4) {
+			throw new IllegalArgumentException("The largest size must be at least four times the smallest size.");
+		}
+		this.smallest = smallest;
+		this.largest = largest;
+		return this;
+	}
+
+	/**
+	 * Sets how much the size grows from one measurement to the next. Default: {@code 2}.
+	 *
+	 * @param factor
+	 *            The factor between two sizes.
+	 * @return This check.
+	 */
+	public Complexity factor(int factor) {
+		if (factor < 2) {
+			throw new IllegalArgumentException("The sizes must grow by at least factor 2.");
+		}
+		this.factor = factor;
+		return this;
+	}
+
+	/**
+	 * Uses the {@link Measurement#countOperations() number of operations} of a call as its cost, instead of its time.
+	 * The result is the same on every machine, so it is best for grading. Needs {@code -Dtest.operations=true}, see
+	 * {@link Operations}.
+	 *
+	 * @return This check.
+	 */
+	public Complexity countingOperations() {
+		this.countOperations = true;
+		return this;
+	}
+
+	/**
+	 * Measures all sizes and fits the costs.
+	 *
+	 * @return The fit.
+	 */
+	public Fit fit() {
+		int count = 0;
+		for (long n = this.smallest; n <= this.largest; n *= this.factor) {
+			count++;
+		}
+		if (count < 3) {
+			throw new IllegalArgumentException("At least three sizes are needed for a fit.");
+		}
+		if (!this.countOperations) {
+			// a throwaway round, so the JIT compiler is done with the harness and the first size is not an outlier
+			TestObject.resetClass();
+			this.experiment.prepare(this.smallest).run();
+		}
+		int[] sizes = new int[count];
+		double[] costs = new double[count];
+		long n = this.smallest;
+		for (int i = 0; i < count; i++, n *= this.factor) {
+			sizes[i] = (int) n;
+			TestObject.resetClass();
+			Measurement measurement = this.experiment.prepare(sizes[i]);
+			costs[i] = this.countOperations ? measurement.countOperations() : measurement.run().getMedian();
+		}
+		return new Fit(sizes, costs, this.countOperations ? "operations" : "ns");
+	}
+
+	/**
+	 * Measures all sizes and calls {@link org.junit.Assert#fail} if the costs grow faster than {@code bound}.
+	 *
+	 * @param bound
+	 *            The fastest growth that is allowed.
+	 * @return The fit.
+	 */
+	public Fit assertAtMost(Growth bound) {
+		Fit fit = fit();
+		if (fit.getGrowth().compareTo(bound) > 0) {
+			fail(String.format(Locale.US, "%s seems to take %s time, but should take at most %s. Its cost grew "
+					+ "like n^%.2f for n from %d to %d. Measured:%n%s", this.what, fit.getGrowth(), bound,
+					fit.getExponent(), this.smallest, fit.sizes[fit.sizes.length - 1], fit.table()));
+		}
+		return fit;
+	}
+
+	/**
+	 * Prepares the measurement of one size.
+	 *
+	 * @author agent
+	 * @version 1.0
+	 * @since 19.10.2026
+	 */
+	public abstract static class Experiment {
+		/**
+		 * Generates input of size {@code n} and prepares the measurement of the operation on it. The tested class was
+		 * just reset.
+		 *
+		 * @param n
+		 *            The size of the input.
+		 * @return The measurement of the operation. It is run by the caller.
+		 */
+		public abstract Measurement prepare(int n);
+	}
+
+	/**
+	 * The complexity classes the costs are fitted against, from the slowest growth to the fastest.
+	 *
+	 * @author agent
+	 * @version 1.0
+	 * @since 19.10.2026
+	 */
+	public enum Growth {
+		/**
+		 * {@code O(1)}.
+		 */
+		CONSTANT("O(1)") {
+			@Override
+			double logOf(double n) {
+				return 0;
+			}
+		},
+		/**
+		 * {@code O(log n)}.
+		 */
+		LOGARITHMIC("O(log n)") {
+			@Override
+			double logOf(double n) {
+				return Math.log(Math.log(n));
+			}
+		},
+		/**
+		 * {@code O(n)}.
+		 */
+		LINEAR("O(n)") {
+			@Override
+			double logOf(double n) {
+				return Math.log(n);
+			}
+		},
+		/**
+		 * {@code O(n log n)}.
+		 */
+		LINEARITHMIC("O(n log n)") {
+			@Override
+			double logOf(double n) {
+				return Math.log(n) + Math.log(Math.log(n));
+			}
+		},
+		/**
+		 * {@code O(n²)}.
+		 */
+		QUADRATIC("O(n²)") {
+			@Override
+			double logOf(double n) {
+				return 2 * Math.log(n);
+			}
+		};
+
+		private final String notation;
+
+		private Growth(String notation) {
+			this.notation = notation;
+		}
+
+		/**
+		 * @return The logarithm of this growth function at {@code n}.
+		 */
+		abstract double logOf(double n);
+
+		@Override
+		public String toString() {
+			return this.notation;
+		}
+	}
+
+	/**
+	 * The result of fitting the measured costs.
+	 *
+	 * @author agent
+	 * @version 1.0
+	 * @since 19.10.2026
+	 */
+	public static class Fit {
+		private final int[] sizes;
+		private final double[] costs;
+		private final Growth growth;
+		private final double exponent;
+		private final String unit;
+
+		Fit(int[] sizes, double[] costs, String unit) {
+			this.sizes = sizes;
+			this.costs = costs;
+			this.unit = unit;
+			int count = sizes.length;
+			double[] logSizes = new double[count];
+			double[] logCosts = new double[count];
+			for (int i = 0; i < count; i++) {
+				logSizes[i] = Math.log(sizes[i]);
+				// a median of 0 ns happens if the clock is too coarse. It is as fast as it gets.
+				logCosts[i] = Math.log(Math.max(costs[i], 1e-3));
+			}
+
+			Growth best = null;
+			double bestError = Double.POSITIVE_INFINITY;
+			for (Growth candidate : Growth.values()) {
+				double[] residuals = new double[count];
+				for (int i = 0; i < count; i++) {
+					residuals[i] = logCosts[i] - candidate.logOf(sizes[i]);
+				}
+				double logConstant = mean(residuals);
+				double error = 0;
+				for (double residual : residuals) {
+					error += (residual - logConstant) * (residual - logConstant);
+				}
+				if (error < bestError) {
+					best = candidate;
+					bestError = error;
+				}
+			}
+			this.growth = best;
+
+			double meanLogSize = mean(logSizes);
+			double meanLogCost = mean(logCosts);
+			double covariance = 0;
+			double variance = 0;
+			for (int i = 0; i < count; i++) {
+				covariance += (logSizes[i] - meanLogSize) * (logCosts[i] - meanLogCost);
+				variance += (logSizes[i] - meanLogSize) * (logSizes[i] - meanLogSize);
+			}
+			this.exponent = covariance / variance;
+		}
+
+		private static double mean(double[] values) {
+			double sum = 0;
+			for (double value : values) {
+				sum += value;
+			}
+			return sum / values.length;
+		}
+
+		/**
+		 * @return The complexity class that fits the measured costs best.
+		 */
+		public Growth getGrowth() {
+			return this.growth;
+		}
+
+		/**
+		 * @return The slope of the costs in log-log space: how the costs grow, as the exponent of {@code n}.
+		 */
+		public double getExponent() {
+			return this.exponent;
+		}
+
+		/**
+		 * @return The measured sizes.
+		 */
+		public int[] getSizes() {
+			return this.sizes.clone();
+		}
+
+		/**
+		 * @return The cost for every size: the median time in nanoseconds, or the number of operations.
+		 */
+		public double[] getCosts() {
+			return this.costs.clone();
+		}
+
+		private String table() {
+			StringBuilder table = new StringBuilder();
+			for (int i = 0; i < this.sizes.length; i++) {
+				table.append(String.format(Locale.US, "%12d: %,.0f %s%n", this.sizes[i], this.costs[i], this.unit));
+			}
+			return table.toString();
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.US, "%s (n^%.2f)", this.growth, this.exponent);
+		}
+	}
+}
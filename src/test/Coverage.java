@@ -0,0 +1,328 @@
+package test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Records which lines and branches of the tested class the tests executed. With {@code -Dtest.coverage=FILE}, the
+ * {@link TestObject.TestClassLoader} {@link BasicBlockInstrumenter instruments} the tested class like JaCoCo does:
+ * every basic block (a sequence of instructions without jumps) sets its entry in the {@link #probes probe array} when
+ * it is entered. That is a single array store, so the tests run hardly slower.
+ * <p>
+ * The probe array belongs to this class, not to the tested class, so the probes of all redefinitions of the tested
+ * class through {@link TestObject#resetClass()} and of all parallel sessions are merged. A line is covered if any block
+ * on it was executed. A branch (a conditional jump or a switch) has a target for every way it can go, and a target is
+ * taken if the block it jumps to was executed. Lines with a branch that was not taken every way are reported as partly
+ * covered. Lines are only known if the tested class was compiled with line numbers, which is the default.
+ * <p>
+ * {@link #report()} describes the coverage in a few lines. It is written to {@code FILE} together with the
+ * {@link Metrics}: when the JVM exits, when an {@link test.batch.IsolatedRun isolated run} ends, and whenever a test
+ * class with the class rule of {@code Metrics} finishes. {@code {className}} in the file name is replaced by the name
+ * of the tested class, so a batch writes one report per submission. Only the tested class is instrumented, not the
+ * other classes of the submission. If it cannot be instrumented, it is used as it is, and {@link #isCovering()}
+ * returns {@code false}.
+ * <p>
+ * The report in {@code FILE} covers all test runs of the same tested class, not only the current one: the suites of
+ * a sheet, the {@link test.batch.IsolatedRun isolated runs} of a JVM and the JVMs of a
+ * {@link test.batch.WorkerPool worker pool} all add to it. Next to the report, {@code FILE.probes} keeps the probes
+ * that were set so far, together with a hash of the class file they belong to. Every export merges the probes of this
+ * JVM with those in the file while it holds a lock on the file, and writes the report of the union. Probes of another
+ * class file, for example of an earlier version of the submission, are replaced.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Coverage {
+	private static final String reportFile = System.getProperty("test.coverage");
+	/**
+	 * Whether the block with the index was executed. Set by the instrumented tested class. Don't write this yourself.
+	 */
+	public static boolean[] probes = null;
+	private static volatile Layout layout = null;
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private Coverage() {
+	}
+
+	/**
+	 * @return Whether the tested class was instrumented and coverage is recorded.
+	 */
+	public static boolean isCovering() {
+		return layout != null;
+	}
+
+	/**
+	 * @return Whether {@code -Dtest.coverage} is set.
+	 */
+	static boolean isRequested() {
+		return reportFile != null;
+	}
+
+	/**
+	 * Called when the tested class was instrumented, before it is loaded.
+	 *
+	 * @param classFile
+	 *            The class file of the tested class, as it was before it was instrumented.
+	 * @param methodNames
+	 *            The name and descriptor of every method, in the order of their indices.
+	 * @param blockMethods
+	 *            The index of the method of every block.
+	 * @param blockLines
+	 *            The source lines of every block.
+	 * @param branches
+	 *            The source line of every branch, followed by the blocks of its targets.
+	 */
+	static void instrumented(byte[] classFile, List<String> methodNames, List<Integer> blockMethods,
+			List<int[]> blockLines, List<int[]> branches) {
+		probes = new boolean[blockMethods.size()];
+		layout = new Layout(hash(classFile), methodNames, blockMethods, blockLines, branches);
+	}
+
+	/**
+	 * Describes the coverage of the tested class so far: how many of its lines and branches were executed, per method
+	 * and in total, and which lines were missed.
+	 *
+	 * @return The report, or a note how to record coverage if it is not recorded.
+	 */
+	public static String report() {
+		Layout current = layout;
+		if (current == null) {
+			return "Coverage is not recorded. Run the tests with -Dtest.coverage=FILE to record it.";
+		}
+		return report(current, probes.clone());
+	}
+
+	/**
+	 * Describes the coverage of the blocks in {@code executed}.
+	 */
+	private static String report(Layout current, boolean[] executed) {
+		int methodCount = current.methodNames.size();
+		List<TreeSet<Integer>> allLines = sets(methodCount + 1);
+		List<TreeSet<Integer>> coveredLines = sets(methodCount + 1);
+		for (int block = 0; block < executed.length; block++) {
+			int method = current.blockMethods.get(block);
+			for (int line : current.blockLines.get(block)) {
+				allLines.get(method).add(line);
+				allLines.get(methodCount).add(line);
+				if (executed[block]) {
+					coveredLines.get(method).add(line);
+					coveredLines.get(methodCount).add(line);
+				}
+			}
+		}
+		int[] allTargets = new int[methodCount + 1];
+		int[] takenTargets = new int[methodCount + 1];
+		TreeSet<Integer> partlyCovered = new TreeSet<Integer>();
+		for (int[] branch : current.branches) {
+			int method = current.blockMethods.get(branch[1]);
+			TreeSet<Integer> targets = new TreeSet<Integer>();
+			for (int i = 1; i < branch.length; i++) {
+				targets.add(branch[i]);
+			}
+			int taken = 0;
+			for (int target : targets) {
+				if (executed[target]) {
+					taken++;
+				}
+			}
+			allTargets[method] += targets.size();
+			allTargets[methodCount] += targets.size();
+			takenTargets[method] += taken;
+			takenTargets[methodCount] += taken;
+			if (taken > 0 && taken < targets.size() && branch[0] >= 0) {
+				partlyCovered.add(branch[0]);
+			}
+		}
+
+		StringBuilder report = new StringBuilder();
+		report.append(String.format(Locale.US, "Coverage of %s: lines %s, branches %s%n", submission(),
+				ratio(coveredLines.get(methodCount).size(), allLines.get(methodCount).size()),
+				ratio(takenTargets[methodCount], allTargets[methodCount])));
+		int width = 6;
+		for (String name : current.methodNames) {
+			width = Math.max(width, name.length());
+		}
+		report.append(String.format(Locale.US, "  %-" + width + "s  %-20s  %s%n", "method", "lines", "branches"));
+		for (int method = 0; method < methodCount; method++) {
+			if (allLines.get(method).isEmpty() && allTargets[method] == 0) {
+				continue;
+			}
+			report.append(String.format(Locale.US, "  %-" + width + "s  %-20s  %s%n",
+					current.methodNames.get(method),
+					ratio(coveredLines.get(method).size(), allLines.get(method).size()),
+					ratio(takenTargets[method], allTargets[method])));
+		}
+		TreeSet<Integer> missed = new TreeSet<Integer>(allLines.get(methodCount));
+		missed.removeAll(coveredLines.get(methodCount));
+		report.append("Missed lines: ").append(ranges(missed)).append(String.format("%n"));
+		report.append("Partly covered lines: ").append(ranges(partlyCovered)).append(String.format("%n"));
+		return report.toString();
+	}
+
+	/**
+	 * Merges the probes with those recorded for the same class file in {@code FILE.probes}, and writes the report of
+	 * the merged probes to the file configured through {@code -Dtest.coverage}, if coverage is recorded.
+	 */
+	static synchronized void export() {
+		Layout current = layout;
+		if (current == null) {
+			return;
+		}
+		Path report = Paths.get(reportFile.replace("{className}", submission()));
+		Path recorded = report.resolveSibling(report.getFileName() + ".probes");
+		// closing the channel releases the lock
+		try (FileChannel channel = FileChannel.open(recorded, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			lock(channel);
+			boolean[] executed = merge(current, probes.clone(), channel);
+			StringBuilder content = new StringBuilder(current.hash).append('\n');
+			for (boolean probe : executed) {
+				content.append(probe ? '1' : '0');
+			}
+			channel.truncate(0);
+			channel.write(ByteBuffer.wrap(content.append('\n').toString().getBytes(StandardCharsets.UTF_8)), 0);
+			Files.write(report, report(current, executed).getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			System.err.println("Unable to write the coverage report to " + reportFile + ": " + e);
+		}
+	}
+
+	/**
+	 * Locks {@code channel} against other JVMs, and against other class loaders of this JVM that loaded this class,
+	 * too.
+	 */
+	private static void lock(FileChannel channel) throws IOException {
+		while (true) {
+			try {
+				channel.lock();
+				return;
+			} catch (OverlappingFileLockException e) {
+				// another class loader of this JVM holds the lock
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while waiting for the lock on the coverage probes.");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets every probe in {@code executed} that is set in the probes recorded in {@code channel}, if they were recorded
+	 * for the same class file.
+	 *
+	 * @return {@code executed}
+	 */
+	private static boolean[] merge(Layout current, boolean[] executed, FileChannel channel) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+		while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+			// read everything
+		}
+		String[] lines = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).split("\n");
+		if (lines.length < 2 || !lines[0].equals(current.hash) || lines[1].length() != executed.length) {
+			return executed;
+		}
+		for (int block = 0; block < executed.length; block++) {
+			executed[block] |= lines[1].charAt(block) == '1';
+		}
+		return executed;
+	}
+
+	/**
+	 * @return The SHA-256 hash of {@code classFile} in hexadecimal digits.
+	 */
+	private static String hash(byte[] classFile) {
+		try {
+			return String.format("%064x", new BigInteger(1, MessageDigest.getInstance("SHA-256").digest(classFile)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Every JVM has to support SHA-256!", e);
+		}
+	}
+
+	private static String submission() {
+		String className = System.getProperty("className");
+		return (className == null) ? "" : className;
+	}
+
+	private static List<TreeSet<Integer>> sets(int count) {
+		List<TreeSet<Integer>> sets = new ArrayList<TreeSet<Integer>>();
+		for (int i = 0; i < count; i++) {
+			sets.add(new TreeSet<Integer>());
+		}
+		return sets;
+	}
+
+	private static String ratio(int covered, int all) {
+		if (all == 0) {
+			return "-";
+		}
+		return String.format(Locale.US, "%d of %d (%.1f%%)", covered, all, 100.0 * covered / all);
+	}
+
+	/**
+	 * @return The lines as ranges, e.g. {@code "3-5, 9"}, or {@code "none"}.
+	 */
+	private static String ranges(TreeSet<Integer> lines) {
+		if (lines.isEmpty()) {
+			return "none";
+		}
+		StringBuilder result = new StringBuilder();
+		Integer start = null;
+		int previous = 0;
+		for (int line : lines) {
+			if (start != null && line == previous + 1) {
+				previous = line;
+				continue;
+			}
+			if (start != null) {
+				result.append(range(start, previous)).append(", ");
+			}
+			start = line;
+			previous = line;
+		}
+		return result.append(range(start, previous)).toString();
+	}
+
+	private static String range(int start, int end) {
+		return (start == end) ? String.valueOf(start) : start + "-" + end;
+	}
+
+	/**
+	 * What the instrumentation found out about the tested class.
+	 */
+	private static class Layout {
+		private final String hash;
+		private final List<String> methodNames;
+		private final List<Integer> blockMethods;
+		private final List<int[]> blockLines;
+		private final List<int[]> branches;
+
+		private Layout(String hash, List<String> methodNames, List<Integer> blockMethods, List<int[]> blockLines,
+				List<int[]> branches) {
+			this.hash = hash;
+			this.methodNames = Collections.unmodifiableList(methodNames);
+			this.blockMethods = Collections.unmodifiableList(blockMethods);
+			this.blockLines = Collections.unmodifiableList(blockLines);
+			this.branches = Collections.unmodifiableList(branches);
+		}
+	}
+}
@@ -0,0 +1,423 @@
+package test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Java Flight Recorder events for what {@link TestObject} does. With them, a recording of a grading run shows the
+ * harness next to the garbage collections, compilations and locks of the JVM. Start the recording as usual, e.g. with
+ * {@code -XX:StartFlightRecording=filename=grading.jfr}, and look at the events in the category "JUnit-KIT", or print
+ * them with {@code jfr print --categories JUnit-KIT grading.jfr}.
+ * <p>
+ * The events cost next to nothing if no recording is running: the {@code begin} methods ask the cached event type
+ * whether it is enabled, and return {@code null} before anything is allocated or measured. {@link TestObject} skips
+ * everything else.
+ * <p>
+ * The event types are defined when this class is initialised, through {@code jdk.jfr.EventFactory}, which is only
+ * reached by reflection. So the harness still compiles for Java 8 ({@code --release 8}), where {@code jdk.jfr} is not
+ * part of the platform. On a JVM without Flight Recorder, the events are simply never recorded.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+final class Events {
+	private static final String CATEGORY = "JUnit-KIT";
+	private static final String[] BYTES = {
+		"jdk.jfr.DataAmount", "BYTES"
+	};
+	private static final String[] NANOSECONDS = {
+		"jdk.jfr.Timespan", "NANOSECONDS"
+	};
+	private static final String submission = System.getProperty("className");
+
+	private static final Type INVOCATION = new Type("test.Invocation", "Invocation",
+			"A method or constructor of the tested class was run", false,
+			field(String.class, "submission", "Submission", null, null),
+			field(String.class, "method", "Method", null, null),
+			field(boolean.class, "constructor", "Constructor", null, null),
+			field(long.class, "cpuTime", "CPU Time", "CPU time the tested code used, or -1 if the JVM cannot measure it",
+					NANOSECONDS),
+			field(long.class, "inputLength", "Input Length", "Characters provided through Terminal.in", null),
+			field(long.class, "outputSize", "Output", "Bytes printed to System.out", BYTES),
+			field(long.class, "allocated", "Allocated",
+					"Bytes the invoking thread allocated, or -1 if the JVM cannot measure it", BYTES),
+			field(long.class, "operations", "Operations",
+					"Basic blocks of the tested class executed, or -1 if operations are not counted", null),
+			field(String.class, "outcome", "Outcome", "returned, exception, exit or failed", null));
+	private static final Type CLASS_RESET = new Type("test.ClassReset", "Class Reset",
+			"The tested class was loaded again", false, field(String.class, "submission", "Submission", null, null),
+			field(long.class, "classSize", "Class File Size", null, BYTES));
+	private static final Type SESSION_COMMAND = new Type("test.SessionCommand", "Session Command",
+			"The tested class read a command from Terminal.in and executed it", false,
+			field(String.class, "submission", "Submission", null, null),
+			field(String.class, "command", "Command", null, null));
+	private static final Type OUTPUT_CAPTURED = new Type("test.OutputCaptured", "Output Captured",
+			"The output of an invocation was collected", false,
+			field(String.class, "submission", "Submission", null, null),
+			field(String.class, "method", "Method", null, null), field(long.class, "size", "Output", null, BYTES),
+			field(int.class, "lines", "Lines", null, null));
+	private static final Type EXIT_INTERCEPTED = new Type("test.ExitIntercepted", "Exit Intercepted",
+			"The tested class called System.exit, which was intercepted", true,
+			field(String.class, "submission", "Submission", null, null),
+			field(String.class, "method", "Method", null, null), field(int.class, "status", "Status", null, null),
+			field(boolean.class, "allowed", "Allowed", null, null));
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private Events() {
+	}
+
+	/**
+	 * Starts an {@link Invocation} event.
+	 *
+	 * @param methodName
+	 *            the name of the invoked method.
+	 * @param constructor
+	 *            whether a constructor is invoked.
+	 * @return The started event, or {@code null} if it is not recorded.
+	 */
+	static Invocation beginInvocation(String methodName, boolean constructor) {
+		if (!INVOCATION.isEnabled()) {
+			return null;
+		}
+		Invocation event = new Invocation();
+		event.method = methodName;
+		event.constructor = constructor;
+		return event;
+	}
+
+	/**
+	 * Starts a {@link ClassReset} event.
+	 *
+	 * @return The started event, or {@code null} if it is not recorded.
+	 */
+	static ClassReset beginClassReset() {
+		if (!CLASS_RESET.isEnabled()) {
+			return null;
+		}
+		return new ClassReset();
+	}
+
+	/**
+	 * Starts a {@link SessionCommand} event.
+	 *
+	 * @return The started event, or {@code null} if it is not recorded.
+	 */
+	static SessionCommand beginSessionCommand() {
+		if (!SESSION_COMMAND.isEnabled()) {
+			return null;
+		}
+		return new SessionCommand();
+	}
+
+	/**
+	 * Starts an {@link OutputCaptured} event.
+	 *
+	 * @param methodName
+	 *            the name of the method whose output is collected.
+	 * @return The started event, or {@code null} if it is not recorded.
+	 */
+	static OutputCaptured beginOutputCaptured(String methodName) {
+		if (!OUTPUT_CAPTURED.isEnabled()) {
+			return null;
+		}
+		OutputCaptured event = new OutputCaptured();
+		event.method = methodName;
+		return event;
+	}
+
+	/**
+	 * Records that the tested class called {@link System#exit(int)}.
+	 *
+	 * @param methodName
+	 *            the name of the method that called {@code System.exit}.
+	 * @param status
+	 *            the status passed to {@code System.exit}.
+	 * @param allowed
+	 *            whether the test allowed the call.
+	 */
+	static void exitIntercepted(String methodName, int status, boolean allowed) {
+		if (!EXIT_INTERCEPTED.isEnabled()) {
+			return;
+		}
+		new Recorded(EXIT_INTERCEPTED).commit(submission, methodName, status, allowed);
+	}
+
+	/**
+	 * A method or constructor of the tested class was run, from routing its input to collecting its output.
+	 */
+	static final class Invocation extends Recorded {
+		String method;
+		boolean constructor;
+		long cpuTime;
+		long inputLength;
+		long outputSize;
+		long allocated;
+		long operations;
+		String outcome;
+
+		private Invocation() {
+			super(INVOCATION);
+		}
+
+		void commit() {
+			commit(submission, this.method, this.constructor, this.cpuTime, this.inputLength, this.outputSize,
+					this.allocated, this.operations, this.outcome);
+		}
+	}
+
+	/**
+	 * The tested class was loaded again by {@link TestObject#resetClass()}.
+	 */
+	static final class ClassReset extends Recorded {
+		long classSize;
+
+		private ClassReset() {
+			super(CLASS_RESET);
+		}
+
+		void commit() {
+			commit(submission, this.classSize);
+		}
+	}
+
+	/**
+	 * The tested class read a command from {@code Terminal.in}. The event lasts from the read until the tested class
+	 * reads the next command, so it covers executing the command.
+	 */
+	static final class SessionCommand extends Recorded {
+		String command;
+
+		private SessionCommand() {
+			super(SESSION_COMMAND);
+		}
+
+		void commit() {
+			commit(submission, this.command);
+		}
+	}
+
+	/**
+	 * The output of an invocation was collected.
+	 */
+	static final class OutputCaptured extends Recorded {
+		String method;
+		long size;
+		int lines;
+
+		private OutputCaptured() {
+			super(OUTPUT_CAPTURED);
+		}
+
+		void commit() {
+			commit(submission, this.method, this.size, this.lines);
+		}
+	}
+
+	/**
+	 * A started Flight Recorder event. Created only if its type is enabled.
+	 */
+	static class Recorded {
+		private final Type type;
+		private final Object event;
+
+		private Recorded(Type type) {
+			this.type = type;
+			this.event = type.begin();
+		}
+
+		/**
+		 * Ends and commits the event.
+		 *
+		 * @param values
+		 *            The values of the event's fields, in the order the fields were defined.
+		 */
+		final void commit(Object... values) {
+			this.type.commit(this.event, values);
+		}
+	}
+
+	private static Field field(Class<?> type, String name, String label, String description, String[] content) {
+		return new Field(type, name, label, description, content);
+	}
+
+	/**
+	 * A field of an event type.
+	 */
+	private static final class Field {
+		private final Class<?> type;
+		private final String name;
+		private final String label;
+		private final String description;
+		/**
+		 * The annotation telling the unit of the field, and its value, or {@code null}.
+		 */
+		private final String[] content;
+
+		private Field(Class<?> type, String name, String label, String description, String[] content) {
+			this.type = type;
+			this.name = name;
+			this.label = label;
+			this.description = description;
+			this.content = content;
+		}
+	}
+
+	/**
+	 * An event type, defined through {@code jdk.jfr.EventFactory}. The methods of Flight Recorder are called through
+	 * method handles of exact types, so asking whether the type is enabled allocates nothing.
+	 */
+	private static final class Type {
+		private static final MethodHandle isEnabled;
+		private static final MethodHandle newEvent;
+		private static final MethodHandle begin;
+		private static final MethodHandle set;
+		private static final MethodHandle commit;
+
+		static {
+			MethodHandle[] handles = findHandles();
+			isEnabled = handles[0];
+			newEvent = handles[1];
+			begin = handles[2];
+			set = handles[3];
+			commit = handles[4];
+		}
+
+		/**
+		 * The {@code jdk.jfr.EventFactory}, or {@code null} if Flight Recorder is not available.
+		 */
+		private final Object factory;
+		/**
+		 * The {@code jdk.jfr.EventType} created by {@link #factory}.
+		 */
+		private final Object eventType;
+
+		private Type(String name, String label, String description, boolean stackTrace, Field... fields) {
+			Object createdFactory = null;
+			Object createdType = null;
+			if (isEnabled != null) {
+				try {
+					Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+					List<Object> annotations = new ArrayList<Object>(Arrays.asList(annotation("jdk.jfr.Name", name),
+							annotation("jdk.jfr.Label", label), annotation("jdk.jfr.Description", description),
+							annotation("jdk.jfr.Category", new String[] {
+								CATEGORY
+							}), annotation("jdk.jfr.StackTrace", stackTrace)));
+					List<Object> values = new ArrayList<Object>();
+					for (Field field : fields) {
+						values.add(valueDescriptor(field));
+					}
+					createdFactory = factoryClass.getMethod("create", List.class, List.class).invoke(null,
+							annotations, values);
+					createdType = factoryClass.getMethod("getEventType").invoke(createdFactory);
+				} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+					// no Flight Recorder for us: the type is never enabled
+					createdFactory = null;
+					createdType = null;
+				}
+			}
+			this.factory = createdFactory;
+			this.eventType = createdType;
+		}
+
+		boolean isEnabled() {
+			if (this.eventType == null) {
+				return false;
+			}
+			try {
+				return (boolean) isEnabled.invokeExact(this.eventType);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		Object begin() {
+			try {
+				Object event = (Object) newEvent.invokeExact(this.factory);
+				begin.invokeExact(event);
+				return event;
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		void commit(Object event, Object[] values) {
+			try {
+				for (int i = 0; i < values.length; i++) {
+					set.invokeExact(event, i, values[i]);
+				}
+				commit.invokeExact(event);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		/**
+		 * @return The handles for {@code EventType.isEnabled}, {@code EventFactory.newEvent}, {@code Event.begin},
+		 *         {@code Event.set} and {@code Event.commit}, or {@code null}s if Flight Recorder is not available.
+		 */
+		private static MethodHandle[] findHandles() {
+			MethodHandle[] handles = new MethodHandle[5];
+			try {
+				MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+				Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType");
+				Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+				Class<?> eventClass = Class.forName("jdk.jfr.Event");
+				handles[0] = lookup.findVirtual(eventTypeClass, "isEnabled", MethodType.methodType(boolean.class))
+						.asType(MethodType.methodType(boolean.class, Object.class));
+				handles[1] = lookup.findVirtual(factoryClass, "newEvent", MethodType.methodType(eventClass))
+						.asType(MethodType.methodType(Object.class, Object.class));
+				handles[2] = lookup.findVirtual(eventClass, "begin", MethodType.methodType(void.class))
+						.asType(MethodType.methodType(void.class, Object.class));
+				handles[3] = lookup.findVirtual(eventClass, "set",
+						MethodType.methodType(void.class, int.class, Object.class))
+						.asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+				handles[4] = lookup.findVirtual(eventClass, "commit", MethodType.methodType(void.class))
+						.asType(MethodType.methodType(void.class, Object.class));
+				return handles;
+			} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+				return new MethodHandle[5];
+			}
+		}
+
+		/**
+		 * Creates a {@code jdk.jfr.ValueDescriptor} for {@code field}.
+		 */
+		private static Object valueDescriptor(Field field) throws ReflectiveOperationException {
+			List<Object> annotations = new ArrayList<Object>();
+			annotations.add(annotation("jdk.jfr.Label", field.label));
+			if (field.description != null) {
+				annotations.add(annotation("jdk.jfr.Description", field.description));
+			}
+			if (field.content != null) {
+				annotations.add(annotation(field.content[0], field.content[1]));
+			}
+			Constructor<?> constructor = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class,
+					String.class, List.class);
+			return constructor.newInstance(field.type, field.name, annotations);
+		}
+
+		/**
+		 * Creates a {@code jdk.jfr.AnnotationElement} for the annotation {@code annotationName} with {@code value}.
+		 */
+		private static Object annotation(String annotationName, Object value) throws ReflectiveOperationException {
+			Class<?> annotationType = Class.forName(annotationName);
+			Constructor<?> constructor = Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class,
+					Object.class);
+			return constructor.newInstance(annotationType, value);
+		}
+	}
+}
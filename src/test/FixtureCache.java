@@ -0,0 +1,254 @@
+package test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps generated input files on the local disk, so they are generated once and then reused by every later test run.
+ * A file is identified by the name and version of its generator, the seed and the generator's parameters. Change the
+ * version whenever a generator starts to produce different files for the same seed and parameters.
+ * <p>
+ * The cache directory can be set through the JVM variable {@code -Dtest.fixtureCache}. It defaults to
+ * {@code .cache/junit-kit/fixtures} in the user's home directory. Delete it to clear the cache.
+ * <p>
+ * The cache has a budget, which can be set in bytes through {@code -Dtest.fixtureCacheBudget} and defaults to 1 GB.
+ * Every time a file is added, the least recently used files are deleted until all files fit into three quarters of the
+ * budget. A file counts as used when it was last returned by {@link #get(String, int, long, String, Generator)}, in any
+ * JVM.
+ * <p>
+ * Files in the cache are shared by all tests, threads and JVMs. Tests must not change them.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class FixtureCache {
+	private static final Path directory = createDirectory();
+	private static final long BUDGET = Long.getLong("test.fixtureCacheBudget", 1024L * 1024 * 1024);
+	/**
+	 * How old a temporary file has to be before it is considered left over by a JVM that died while generating it.
+	 */
+	private static final long ABANDONED_AGE = 60L * 60 * 1000;
+	/**
+	 * One lock object per key, so each file is generated by one thread of this JVM only. Other JVMs are kept out by a
+	 * file lock.
+	 */
+	private static final ConcurrentHashMap<String, Object> generating = new ConcurrentHashMap<String, Object>();
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Generates a file.
+	 */
+	public interface Generator {
+		/**
+		 * Writes the file. Has to write the same content for the same seed and parameters every time.
+		 *
+		 * @param file
+		 *            Where to write the file to. The file may exist and has to be overwritten.
+		 * @throws IOException
+		 *             If the file could not be written.
+		 */
+		void generate(Path file) throws IOException;
+	}
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private FixtureCache() {
+	}
+
+	/**
+	 * Returns the cached file for the given key. If there is none, it is generated by {@code generator}.
+	 *
+	 * @param name
+	 *            The name of the generator, for example {@code "books"}. May only contain characters that can be used
+	 *            in file names.
+	 * @param version
+	 *            The version of the generator.
+	 * @param seed
+	 *            The seed the generator uses.
+	 * @param parameters
+	 *            All other settings of the generator that influence the file's content.
+	 * @param generator
+	 *            Generates the file if it is not in the cache.
+	 * @return The path of the cached file.
+	 * @throws IOException
+	 *             If the file could not be generated.
+	 */
+	public static Path get(String name, int version, long seed, String parameters, Generator generator)
+			throws IOException {
+		String key = name + "-v" + version + "-" + Long.toHexString(seed) + "-" + hash(parameters);
+		Path file = directory.resolve(key);
+		if (markUsed(file)) {
+			return file;
+		}
+		boolean generated = false;
+		Object lock = new Object();
+		Object existingLock = generating.putIfAbsent(key, lock);
+		synchronized ((existingLock == null) ? lock : existingLock) {
+			// closing the channel releases the lock
+			try (FileChannel lockChannel = FileChannel.open(directory.resolve(key + ".lock"),
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+				lockChannel.lock();
+				if (!Files.exists(file)) {
+					generate(file, generator);
+					generated = true;
+				}
+			}
+		}
+		if (generated) {
+			evict(file);
+		}
+		return file;
+	}
+
+	/**
+	 * Marks a cached file as recently used, so it is not evicted soon.
+	 *
+	 * @return {@code false} if the file is not in the cache.
+	 */
+	private static boolean markUsed(Path file) {
+		try {
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Deletes the least recently used files until all files fit into three quarters of the budget, and temporary files
+	 * that were left over. A file another JVM deletes meanwhile or uses at the same time is generated again when it is
+	 * needed next, which costs time but never gives a wrong file.
+	 *
+	 * @param keep
+	 *            The file that was just generated. It is about to be used, so it is not evicted.
+	 */
+	private static void evict(Path keep) {
+		List<Entry> cached = new ArrayList<Entry>();
+		long totalSize = 0;
+		long now = System.currentTimeMillis();
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+			for (Path entry : entries) {
+				String name = entry.getFileName().toString();
+				BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class,
+						LinkOption.NOFOLLOW_LINKS);
+				if (!attributes.isRegularFile() || name.endsWith(".lock")) {
+					continue;
+				}
+				long modified = attributes.lastModifiedTime().toMillis();
+				if (name.startsWith("generating-")) {
+					if (now - modified > ABANDONED_AGE) {
+						Files.deleteIfExists(entry);
+					}
+					continue;
+				}
+				totalSize += attributes.size();
+				if (!entry.equals(keep)) {
+					cached.add(new Entry(entry, attributes.size(), modified));
+				}
+			}
+		} catch (IOException e) {
+			return; // another JVM is evicting at the same time. We will try again next time.
+		}
+		if (totalSize <= BUDGET) {
+			return;
+		}
+		Collections.sort(cached, new Comparator<Entry>() {
+			@Override
+			public int compare(Entry first, Entry second) {
+				return Long.compare(first.lastUsed, second.lastUsed);
+			}
+		});
+		for (int i = 0; i < cached.size() && totalSize > BUDGET / 4 * 3; i++) {
+			Entry entry = cached.get(i);
+			totalSize -= entry.size;
+			try {
+				Files.deleteIfExists(entry.file);
+				Files.deleteIfExists(directory.resolve(entry.file.getFileName() + ".lock"));
+			} catch (IOException e) {
+				// someone else deleted it already
+			}
+		}
+	}
+
+	/**
+	 * Generates into a temporary file and moves it into the cache afterwards, so no one ever sees a half written file.
+	 */
+	private static void generate(Path file, Generator generator) throws IOException {
+		Path temporary = Files.createFile(directory.resolve(Randomness.uniqueName("generating-", ".tmp")));
+		try {
+			generator.generate(temporary);
+			try {
+				Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	private static String hash(String parameters) {
+		byte[] hash;
+		try {
+			hash = MessageDigest.getInstance("SHA-256").digest(parameters.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Every JVM has to support SHA-256!", e);
+		}
+		char[] hex = new char[16];
+		for (int i = 0; i < hex.length / 2; i++) {
+			hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+			hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xf];
+		}
+		return new String(hex);
+	}
+
+	private static Path createDirectory() {
+		String configured = System.getProperty("test.fixtureCache");
+		Path base;
+		if (configured != null) {
+			base = Paths.get(configured);
+		} else {
+			base = Paths.get(System.getProperty("user.home"), ".cache", "junit-kit", "fixtures");
+		}
+		try {
+			return Files.createDirectories(base).toAbsolutePath();
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to create the directory for cached test files: " + base, e);
+		}
+	}
+
+	/**
+	 * A file in the cache, as found by {@link FixtureCache#evict(Path)}.
+	 */
+	private static class Entry {
+		private final Path file;
+		private final long size;
+		private final long lastUsed;
+
+		private Entry(Path file, long size, long lastUsed) {
+			this.file = file;
+			this.size = size;
+			this.lastUsed = lastUsed;
+		}
+	}
+}
@@ -0,0 +1,294 @@
+package test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The state of {@link Fixtures} that exists once per JVM: the directory of the files this JVM creates, the lock that
+ * tells other JVMs it is still in use, the shutdown hook that deletes it, and which shared files this JVM uses.
+ * {@link test.batch.IsolatedRun} loads {@code Fixtures} anew for every run, but shares this class between all runs, so
+ * a batch of many runs still has one directory and one shutdown hook. This class therefore must not use any other
+ * class of the harness.
+ * <p>
+ * A shared file lies directly in the fixture directory and may be used by several JVMs, and by several copies of
+ * {@code Fixtures} in one JVM. Every copy {@link #claim(Path) claims} it before it checks or writes the file, and
+ * {@link #release(Path) releases} it once it no longer needs it. The JVM counts the claims, and while the count is
+ * above zero, a marker file in its own directory tells other JVMs that it uses the file. The last JVM to release a
+ * file deletes it. Markers are only created and checked while holding a lock on {@link #SHARED_LOCK_FILE}, so a JVM
+ * never deletes a file another JVM just claimed.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public final class FixtureDirectory {
+	/**
+	 * The name of the file a JVM holds a lock on as long as it uses its own directory.
+	 */
+	private static final String LOCK_FILE = ".lock";
+	private static final String PREFIX = "jvm-";
+	/**
+	 * The name of the file in the fixture directory that is locked while claims of shared files are checked.
+	 */
+	private static final String SHARED_LOCK_FILE = ".shared.lock";
+	/**
+	 * The start of the name of a marker file, which is followed by the name of the shared file.
+	 */
+	private static final String MARKER = "uses-";
+	private static final AtomicLong names = new AtomicLong();
+	/**
+	 * The fixture directories that were swept by this JVM. Guarded by the class.
+	 */
+	private static final Set<Path> swept = new HashSet<Path>();
+	/**
+	 * The directory of the files this JVM creates, or {@code null} before the first one is. Guarded by the class.
+	 */
+	private static Path ownDirectory;
+	/**
+	 * Tells other JVMs that {@link #ownDirectory} is still in use. Guarded by the class.
+	 */
+	private static FileChannel ownLock;
+	/**
+	 * How many copies of {@link Fixtures} in this JVM claimed each shared file. Guarded by the class.
+	 */
+	private static final Map<Path, Integer> claims = new HashMap<Path, Integer>();
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private FixtureDirectory() {
+	}
+
+	/**
+	 * Returns the directory of the files this JVM creates. It is created and locked on the first call, and deleted
+	 * when the JVM exits.
+	 *
+	 * @param fixtureDirectory
+	 *            The directory all fixture files are created in.
+	 * @return The directory of this JVM inside {@code fixtureDirectory}.
+	 * @throws IOException
+	 *             If the directory could not be created.
+	 */
+	public static synchronized Path own(Path fixtureDirectory) throws IOException {
+		if (ownDirectory == null) {
+			Path created = Files.createDirectory(fixtureDirectory.resolve(PREFIX + processId() + "-"
+					+ Long.toString(System.nanoTime() & 0xffffff, 36) + "-" + names.getAndIncrement()));
+			ownLock = FileChannel.open(created.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			ownLock.lock();
+			ownDirectory = created;
+			Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+				@Override
+				public void run() {
+					deleteOwnDirectory();
+				}
+			}, "test-fixtures-cleanup"));
+		}
+		return ownDirectory;
+	}
+
+	/**
+	 * Tells other JVMs that this JVM uses a shared file, so they do not delete it. Call it before checking whether the
+	 * file exists, so a JVM that deletes the file either does so before the check or not at all.
+	 *
+	 * @param file
+	 *            A file lying directly in the fixture directory.
+	 * @throws IOException
+	 *             If the claim could not be recorded.
+	 */
+	public static synchronized void claim(Path file) throws IOException {
+		Integer count = claims.get(file);
+		if (count == null) {
+			Path marker = own(file.getParent()).resolve(MARKER + file.getFileName());
+			FileChannel lock = lockShared(file.getParent());
+			try {
+				if (!Files.exists(marker)) {
+					Files.createFile(marker);
+				}
+			} finally {
+				lock.close();
+			}
+			count = 0;
+		}
+		claims.put(file, count + 1);
+	}
+
+	/**
+	 * Releases a claim of {@link #claim(Path)}. If this was the last claim in this JVM and no other JVM claimed the
+	 * file, it is deleted.
+	 *
+	 * @param file
+	 *            A claimed file.
+	 */
+	public static synchronized void release(Path file) {
+		Integer count = claims.remove(file);
+		if (count == null) {
+			return;
+		}
+		if (count > 1) {
+			claims.put(file, count - 1);
+			return;
+		}
+		Path fixtureDirectory = file.getParent();
+		try {
+			FileChannel lock = lockShared(fixtureDirectory);
+			try {
+				Files.deleteIfExists(ownDirectory.resolve(MARKER + file.getFileName()));
+				if (!isClaimedElsewhere(fixtureDirectory, file.getFileName().toString())) {
+					Files.deleteIfExists(file);
+				}
+			} finally {
+				lock.close();
+			}
+		} catch (IOException e) {
+			// the file is deleted by a sweep later
+		}
+	}
+
+	/**
+	 * Deletes the shared files in {@code fixtureDirectory} that were not handed out for {@code maxAge} milliseconds,
+	 * and the directories of JVMs that no longer run. Only files named the way {@link Input} names them are touched,
+	 * so a configured fixture directory may contain other files. Every fixture directory is swept once per JVM.
+	 *
+	 * @param fixtureDirectory
+	 *            The directory all fixture files are created in.
+	 * @param maxAge
+	 *            How long a shared file is kept after it was last handed out, in milliseconds.
+	 */
+	public static void sweep(Path fixtureDirectory, long maxAge) {
+		synchronized (FixtureDirectory.class) {
+			if (!swept.add(fixtureDirectory)) {
+				return;
+			}
+		}
+		long oldest = System.currentTimeMillis() - maxAge;
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(fixtureDirectory)) {
+			for (Path entry : entries) {
+				String name = entry.getFileName().toString();
+				if (lastModified(entry) >= oldest) {
+					continue;
+				}
+				if (name.matches("[0-9a-f]{32}\\.txt")) {
+					synchronized (FixtureDirectory.class) {
+						FileChannel lock = lockShared(fixtureDirectory);
+						try {
+							if (!claims.containsKey(entry) && !isClaimedElsewhere(fixtureDirectory, name)) {
+								Files.deleteIfExists(entry);
+							}
+						} finally {
+							lock.close();
+						}
+					}
+				} else if (name.matches("writing-.*\\.tmp")) {
+					Files.deleteIfExists(entry);
+				} else if (name.startsWith(PREFIX) && Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)
+						&& isAbandoned(entry)) {
+					deleteDirectory(entry);
+				}
+			}
+		} catch (IOException e) {
+			// someone else is sweeping, too. The files will be found next time.
+		}
+	}
+
+	/**
+	 * Locks the fixture directory against other JVMs claiming or deleting shared files. Closing the returned channel
+	 * releases the lock. Must be called while holding the lock on the class, as a JVM can only hold one lock on a file.
+	 */
+	private static FileChannel lockShared(Path fixtureDirectory) throws IOException {
+		FileChannel channel = FileChannel.open(fixtureDirectory.resolve(SHARED_LOCK_FILE), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE);
+		try {
+			channel.lock();
+			return channel;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Checks whether a JVM other than this one, which still runs, has a marker for the shared file {@code name}. Must
+	 * be called while holding {@link #lockShared(Path)}.
+	 */
+	private static boolean isClaimedElsewhere(Path fixtureDirectory, String name) throws IOException {
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(fixtureDirectory, PREFIX + "*")) {
+			for (Path entry : entries) {
+				if (!entry.equals(ownDirectory) && Files.exists(entry.resolve(MARKER + name), LinkOption.NOFOLLOW_LINKS)
+						&& !isAbandoned(entry)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static synchronized void deleteOwnDirectory() {
+		if (ownDirectory != null) {
+			deleteDirectory(ownDirectory);
+			try {
+				ownLock.close();
+			} catch (IOException e) {
+				// the lock is released when the JVM exits anyway
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the JVM owning {@code jvmDirectory} no longer runs, as nobody holds the lock on its lock file.
+	 */
+	private static boolean isAbandoned(Path jvmDirectory) {
+		Path lockFile = jvmDirectory.resolve(LOCK_FILE);
+		if (!Files.exists(lockFile)) {
+			return true;
+		}
+		try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+			FileLock lock = channel.tryLock();
+			if (lock == null) {
+				return false;
+			}
+			lock.release();
+			return true;
+		} catch (IOException | OverlappingFileLockException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Deletes a directory of a JVM. Such directories contain files only.
+	 */
+	private static void deleteDirectory(Path jvmDirectory) {
+		try {
+			try (DirectoryStream<Path> entries = Files.newDirectoryStream(jvmDirectory)) {
+				for (Path entry : entries) {
+					Files.deleteIfExists(entry);
+				}
+			}
+			Files.deleteIfExists(jvmDirectory);
+		} catch (IOException e) {
+			// we tried. The directory is in a temporary directory anyway.
+		}
+	}
+
+	private static long lastModified(Path file) throws IOException {
+		return Files.getLastModifiedTime(file, LinkOption.NOFOLLOW_LINKS).toMillis();
+	}
+
+	private static String processId() {
+		String name = ManagementFactory.getRuntimeMXBean().getName();
+		int at = name.indexOf('@');
+		return (at > 0) ? name.substring(0, at) : Integer.toHexString(name.hashCode());
+	}
+}
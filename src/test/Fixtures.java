@@ -0,0 +1,509 @@
+package test;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * Keeps track of the files tests create, and deletes them when they are no longer needed. Every file belongs to a
+ * {@link Scope}. When a scope closes, all of its files are deleted in one go. Files of the {@link Scope#BATCH} scope
+ * live until the JVM exits, but if all files together grow larger than the budget, the least recently used ones are
+ * deleted early. So a JVM running test classes for hours does not fill the disk, and does not collect an ever-growing
+ * list of files to delete on exit. A file that was handed out in a scope is not deleted early before that scope
+ * closes, even if it was not opened yet.
+ * <p>
+ * Open a scope with a rule:
+ *
+ * <pre>
+ * <code>
+ * &#064;Rule
+ * public TestRule testFixtures = Fixtures.scope(Scope.TEST);
+ * &#064;ClassRule
+ * public static TestRule classFixtures = Fixtures.scope(Scope.CLASS);
+ * </code>
+ * </pre>
+ *
+ * A file registered for a scope that is not open in the current thread belongs to the next wider scope that is open.
+ * Threads started by a test belong to the scopes of the thread that started them.
+ * <p>
+ * All files are created in the fixture directory. It can be set through the JVM variable {@code -Dtest.fixtureDir}.
+ * Otherwise, it is a directory of the current user in {@code /dev/shm} if that exists, so the files are kept in memory,
+ * and in the temporary directory of the JVM if not. Only the user may access this directory. If it exists but belongs
+ * to someone else or others may access it, a new private directory is used instead. The budget can be set in bytes
+ * through {@code -Dtest.fixtureBudget} and defaults to 256 MB.
+ * <p>
+ * Files lying directly in the fixture directory, like the ones of {@link Input}, are shared by all JVMs using it. The
+ * files {@link #newFile(Scope, String)} creates are put into a directory of this JVM instead. A shared file is
+ * {@link #claim(Path) claimed} before it is used, and when it is evicted or its scope closes, it is only deleted if no
+ * other JVM claimed it, see {@link FixtureDirectory}. Every JVM also deletes the shared files nobody handed out for a
+ * while when it starts, together with the directories of JVMs that died without cleaning up. The time can be set in
+ * milliseconds through {@code -Dtest.fixtureMaxAge} and defaults to one hour. The directory of a JVM, its shutdown
+ * hook and the sweep exist once per JVM, see {@link FixtureDirectory}.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Fixtures {
+	/**
+	 * The permissions of a directory only its owner may access.
+	 */
+	private static final Set<PosixFilePermission> PRIVATE = EnumSet.of(PosixFilePermission.OWNER_READ,
+			PosixFilePermission.OWNER_WRITE, PosixFilePermission.OWNER_EXECUTE);
+	private static final Path directory = createDirectory();
+	private static final long BUDGET = Long.getLong("test.fixtureBudget", 256L * 1024 * 1024);
+	private static final long MAX_AGE = Long.getLong("test.fixtureMaxAge", 60L * 60 * 1000);
+	/**
+	 * All registered files, the least recently used first. Guarded by itself.
+	 */
+	private static final LinkedHashMap<Path, Fixture> files = new LinkedHashMap<Path, Fixture>(64, 0.75f, true);
+	/**
+	 * The files created through {@link #newFile(Scope, String)}. They are written after they were registered, so their
+	 * size is measured again before the budget is checked. Guarded by {@link #files}.
+	 */
+	private static final Set<Fixture> growing = new HashSet<Fixture>();
+	private static final Frame batch = new Frame(Scope.BATCH, null);
+	private static final InheritableThreadLocal<Frame> openScopes = new InheritableThreadLocal<Frame>() {
+		@Override
+		protected Frame initialValue() {
+			return batch;
+		}
+	};
+	private static long totalSize = 0;
+
+	static {
+		FixtureDirectory.sweep(directory, MAX_AGE);
+	}
+
+	/**
+	 * How long a file is needed.
+	 */
+	public enum Scope {
+		/**
+		 * The file is deleted after the current test method.
+		 */
+		TEST,
+		/**
+		 * The file is deleted after the current test class.
+		 */
+		CLASS,
+		/**
+		 * The file is deleted when the JVM exits, or earlier if the budget is exceeded and it was not used for a long
+		 * time.
+		 */
+		BATCH
+	}
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private Fixtures() {
+	}
+
+	/**
+	 * @return The directory all fixture files are created in.
+	 */
+	public static Path directory() {
+		return directory;
+	}
+
+	/**
+	 * Creates a rule that opens {@code scope} for each test method ({@link org.junit.Rule}) or for the test class
+	 * ({@link org.junit.ClassRule}).
+	 *
+	 * @param scope
+	 *            The scope to open. Must not be {@link Scope#BATCH}, which is always open.
+	 * @return A rule to be used with {@link org.junit.Rule} or {@link org.junit.ClassRule}.
+	 */
+	public static TestRule scope(final Scope scope) {
+		if (scope == Scope.BATCH) {
+			throw new IllegalArgumentException("The batch scope is always open!");
+		}
+		return new TestRule() {
+			@Override
+			public Statement apply(final Statement base, Description description) {
+				return new Statement() {
+					@Override
+					public void evaluate() throws Throwable {
+						Frame outer = openScopes.get();
+						Frame frame = new Frame(scope, outer);
+						openScopes.set(frame);
+						try {
+							base.evaluate();
+						} finally {
+							openScopes.set(outer);
+							close(frame);
+						}
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Creates a new, empty file that belongs to {@code scope}. The file is put into a directory of this JVM inside the
+	 * fixture directory, so no other JVM sees it.
+	 *
+	 * @param scope
+	 *            How long the file is needed.
+	 * @param suffix
+	 *            The end of the file's name, for example {@code ".txt"}.
+	 * @return The path of the created file.
+	 * @throws IOException
+	 *             If the file could not be created.
+	 */
+	public static Path newFile(Scope scope, String suffix) throws IOException {
+		Path ownDirectory = FixtureDirectory.own(directory);
+		Path file = Files.createFile(ownDirectory.resolve(Randomness.uniqueName("fixture-", suffix)));
+		register(file, scope, null, true);
+		return file;
+	}
+
+	/**
+	 * Registers a file that was created by the caller. The file will be deleted when {@code scope} closes. If it is
+	 * deleted earlier because the budget was exceeded, {@code onDelete} is run afterwards, so the caller knows it has
+	 * to create the file again. A file lying directly in the {@link #directory() fixture directory} is shared with other
+	 * JVMs. It is {@link #claim(Path) claimed} as long as it is registered, and only deleted if nobody else claimed it.
+	 *
+	 * @param file
+	 *            The file to register.
+	 * @param scope
+	 *            How long the file is needed.
+	 * @param onDelete
+	 *            What to run after the file was deleted. May be {@code null}.
+	 */
+	public static void register(Path file, Scope scope, Runnable onDelete) {
+		register(file, scope, onDelete, false);
+	}
+
+	/**
+	 * Claims a shared file lying directly in the {@link #directory() fixture directory}, so nobody deletes it until
+	 * the claim is {@link #release(Path) released}. Claim the file before checking whether it exists or writing it,
+	 * {@link #register(Path, Scope, Runnable) register} it, and release the claim afterwards. A registered file holds a
+	 * claim of its own.
+	 *
+	 * @param file
+	 *            The shared file.
+	 * @throws IOException
+	 *             If the claim could not be recorded.
+	 */
+	public static void claim(Path file) throws IOException {
+		FixtureDirectory.claim(file.toAbsolutePath());
+	}
+
+	/**
+	 * Releases a claim of {@link #claim(Path)}. The file is deleted if nobody else claimed it.
+	 *
+	 * @param file
+	 *            The shared file.
+	 */
+	public static void release(Path file) {
+		FixtureDirectory.release(file.toAbsolutePath());
+	}
+
+	private static void register(Path file, Scope scope, Runnable onDelete, boolean isGrowing) {
+		Frame frame = openScopes.get();
+		Frame pinning = frame;
+		while (frame.scope.ordinal() < scope.ordinal()) {
+			frame = frame.outer;
+		}
+		boolean owned = !directory.equals(file.toAbsolutePath().getParent());
+		boolean claimed = false;
+		if (!owned) {
+			try {
+				claim(file);
+				claimed = true;
+			} catch (IOException e) {
+				// other JVMs may delete the file early. Whoever uses it then will write it again.
+			}
+		}
+		long size = size(file);
+		List<Fixture> evicted;
+		Fixture old;
+		synchronized (files) {
+			old = files.remove(file);
+			if (old != null) {
+				totalSize -= old.size;
+				old.frame.fixtures.remove(old);
+				growing.remove(old);
+			}
+			Fixture fixture = new Fixture(file, size, frame, onDelete, owned, claimed);
+			files.put(file, fixture);
+			frame.fixtures.add(fixture);
+			if (isGrowing) {
+				growing.add(fixture);
+			}
+			totalSize += size;
+			pin(fixture, pinning);
+			evicted = evict(fixture);
+		}
+		if (old != null && old.claimed) {
+			release(file);
+		}
+		delete(evicted);
+		if (!owned) {
+			refresh(file);
+		}
+	}
+
+	/**
+	 * Marks a file as used, so it is not deleted early if the budget is exceeded. It is kept at least until the
+	 * innermost scope open in the current thread closes.
+	 *
+	 * @param file
+	 *            A registered file.
+	 */
+	public static void touch(Path file) {
+		Frame pinning = openScopes.get();
+		boolean refresh;
+		synchronized (files) {
+			Fixture fixture = files.get(file);
+			if (fixture == null) {
+				return;
+			}
+			pin(fixture, pinning);
+			long now = System.currentTimeMillis();
+			refresh = !fixture.owned && now - fixture.refreshed > MAX_AGE / 4;
+			if (refresh) {
+				fixture.refreshed = now;
+			}
+		}
+		if (refresh) {
+			refresh(file);
+		}
+	}
+
+	/**
+	 * Keeps {@code fixture} until {@code frame} closes. Must be called while holding the lock on {@link #files}.
+	 */
+	private static void pin(Fixture fixture, Frame frame) {
+		if (frame != batch && frame.pinned.add(fixture)) {
+			fixture.pins++;
+		}
+	}
+
+	/**
+	 * Removes the least recently used files of the batch scope until all files fit into three quarters of the budget.
+	 * Files that are pinned by an open scope are kept. Must be called while holding the lock on {@link #files}.
+	 *
+	 * @param keep
+	 *            The file that was just registered. It is about to be used, so it is not evicted.
+	 * @return The files to delete.
+	 */
+	private static List<Fixture> evict(Fixture keep) {
+		List<Fixture> evicted = new ArrayList<Fixture>();
+		// the files written since they were registered
+		for (Fixture fixture : growing) {
+			long size = size(fixture.file);
+			totalSize += size - fixture.size;
+			fixture.size = size;
+		}
+		if (totalSize <= BUDGET) {
+			return evicted;
+		}
+		Iterator<Fixture> iterator = files.values().iterator();
+		while (totalSize > BUDGET / 4 * 3 && iterator.hasNext()) {
+			Fixture fixture = iterator.next();
+			if (fixture.frame == batch && fixture.pins == 0 && fixture != keep) {
+				iterator.remove();
+				batch.fixtures.remove(fixture);
+				growing.remove(fixture);
+				totalSize -= fixture.size;
+				evicted.add(fixture);
+			}
+		}
+		return evicted;
+	}
+
+	/**
+	 * Closes the batch scope: deletes the files this class loader created and forgets the shared ones. Call it when
+	 * the class loader that loaded the harness is discarded, like {@link test.batch.IsolatedRun} does after every run.
+	 * Otherwise, the files are deleted when the JVM exits.
+	 */
+	public static void closeBatch() {
+		close(batch);
+	}
+
+	private static void close(Frame frame) {
+		List<Fixture> closed;
+		synchronized (files) {
+			for (Fixture fixture : frame.pinned) {
+				fixture.pins--;
+			}
+			frame.pinned.clear();
+			closed = new ArrayList<Fixture>(frame.fixtures);
+			frame.fixtures.clear();
+			for (Fixture fixture : closed) {
+				files.remove(fixture.file);
+				growing.remove(fixture);
+				totalSize -= fixture.size;
+			}
+		}
+		delete(closed);
+	}
+
+	/**
+	 * Deletes files outside of the lock, so other threads can go on registering files meanwhile. Files shared with other
+	 * JVMs are released, and only deleted if nobody else claimed them.
+	 */
+	private static void delete(List<Fixture> fixtures) {
+		for (Fixture fixture : fixtures) {
+			if (fixture.owned) {
+				try {
+					Files.deleteIfExists(fixture.file);
+				} catch (IOException e) {
+					// we tried. The file is in a temporary directory anyway.
+				}
+			} else if (fixture.claimed) {
+				release(fixture.file);
+			}
+		}
+		for (Fixture fixture : fixtures) {
+			if (fixture.onDelete != null) {
+				fixture.onDelete.run();
+			}
+		}
+	}
+
+	/**
+	 * Tells other JVMs that a shared file is in use, so they do not delete it when they sweep.
+	 */
+	private static void refresh(Path file) {
+		try {
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException e) {
+			// it was deleted in the meantime. Whoever uses it will write it again.
+		}
+	}
+
+	private static long size(Path file) {
+		try {
+			return Files.size(file);
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private static Path createDirectory() {
+		String configured = System.getProperty("test.fixtureDir");
+		Path base;
+		if (configured != null) {
+			base = Paths.get(configured);
+		} else if (Files.isDirectory(Paths.get("/dev/shm")) && Files.isWritable(Paths.get("/dev/shm"))) {
+			base = Paths.get("/dev/shm");
+		} else {
+			base = Paths.get(System.getProperty("java.io.tmpdir"));
+		}
+		try {
+			if (configured != null) {
+				return Files.createDirectories(base).toAbsolutePath();
+			}
+			if (Files.getFileAttributeView(base, PosixFileAttributeView.class) == null) {
+				// no permissions to check. The temporary directory is the user's own on such systems.
+				return Files.createDirectories(base.resolve("junit-kit-fixtures")).toAbsolutePath();
+			}
+			String user = System.getProperty("user.name", "unknown").replaceAll("[^A-Za-z0-9._-]", "_");
+			Path shared = base.resolve("junit-kit-fixtures-" + user);
+			try {
+				Files.createDirectory(shared, PosixFilePermissions.asFileAttribute(PRIVATE));
+			} catch (FileAlreadyExistsException e) {
+				// created by an earlier run. We check it below.
+			}
+			if (isPrivate(shared)) {
+				return shared.toAbsolutePath();
+			}
+			// someone else may read or replace our files there. A directory of our own still lets this JVM run.
+			return Files.createTempDirectory(base, "junit-kit-fixtures-").toAbsolutePath();
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to create the directory for test files in " + base, e);
+		}
+	}
+
+	/**
+	 * Checks whether {@code directory} is a real directory that belongs to the current user, and that nobody else may
+	 * access.
+	 */
+	private static boolean isPrivate(Path directory) throws IOException {
+		PosixFileAttributes attributes = Files.readAttributes(directory, PosixFileAttributes.class,
+				LinkOption.NOFOLLOW_LINKS);
+		if (!attributes.isDirectory() || !attributes.permissions().equals(PRIVATE)) {
+			return false;
+		}
+		UserPrincipal user = directory.getFileSystem().getUserPrincipalLookupService()
+				.lookupPrincipalByName(System.getProperty("user.name"));
+		return attributes.owner().equals(user);
+	}
+
+	/**
+	 * A registered file.
+	 */
+	private static class Fixture {
+		private final Path file;
+		private long size;
+		private final Frame frame;
+		private final Runnable onDelete;
+		/**
+		 * Whether this JVM created the file, and so may delete it.
+		 */
+		private final boolean owned;
+		/**
+		 * Whether the file holds a {@link Fixtures#claim(Path) claim}, as it is shared.
+		 */
+		private final boolean claimed;
+		/**
+		 * How many open scopes handed out the file.
+		 */
+		private int pins = 0;
+		/**
+		 * When the file was last marked as in use for other JVMs.
+		 */
+		private long refreshed = System.currentTimeMillis();
+
+		private Fixture(Path file, long size, Frame frame, Runnable onDelete, boolean owned, boolean claimed) {
+			this.file = file;
+			this.size = size;
+			this.frame = frame;
+			this.onDelete = onDelete;
+			this.owned = owned;
+			this.claimed = claimed;
+		}
+	}
+
+	/**
+	 * An open scope. The files registered and handed out in it are guarded by {@link Fixtures#files}.
+	 */
+	private static class Frame {
+		private final Scope scope;
+		private final Frame outer;
+		private final Set<Fixture> fixtures = new HashSet<Fixture>();
+		/**
+		 * The files handed out in this scope, which must not be deleted early.
+		 */
+		private final Set<Fixture> pinned = new HashSet<Fixture>();
+
+		private Frame(Scope scope, Frame outer) {
+			this.scope = scope;
+			this.outer = outer;
+		}
+	}
+}
@@ -0,0 +1,273 @@
+package test;
+
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * Estimates how much memory instances of the tested class occupy. A submission that keeps several copies of its
+ * numbers behaves correctly, but needs a multiple of the memory it should. {@link TestObject#shallowSize()} tells how
+ * large the instance itself is, and {@link TestObject#retainedSize()} how large everything is that it references
+ * directly or indirectly: its arrays, nodes, boxed numbers and so on.
+ * <p>
+ * The sizes follow the object layout of the running JVM: the size of an object header and of a reference depend on
+ * whether compressed pointers are used, and every object is padded to the object alignment. Fields are assumed to be
+ * packed without gaps, so the sizes are estimates that may be a few bytes per object too small. The layout of every
+ * class is computed once and cached. The object graph is walked without recursion, so long linked structures are no
+ * problem, and every object is counted once, even if it is referenced several times.
+ * <p>
+ * Static fields are not followed, and neither are classes, class loaders, threads and enum constants, as they are not
+ * owned by the instance. Objects that are shared with others, like small {@link Integer}s from the cache, are counted
+ * nonetheless. Since Java 9, the fields of JDK classes cannot be read unless their package is opened, e.g. through
+ * {@code --add-opens java.base/java.util=ALL-UNNAMED}. Without that, strings, collections and maps are estimated from
+ * their content: a collection is counted as an array of references to its elements, and a map additionally as one
+ * entry object per mapping.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Footprint {
+	private static final int REFERENCE_SIZE;
+	private static final int OBJECT_HEADER_SIZE;
+	private static final int ARRAY_HEADER_SIZE;
+	private static final int ALIGNMENT;
+	private static final ConcurrentHashMap<Class<?>, ClassLayout> layouts = new ConcurrentHashMap<Class<?>, ClassLayout>();
+
+	static {
+		boolean is64Bit = !"32".equals(System.getProperty("sun.arch.data.model"));
+		boolean compressedOops = is64Bit;
+		boolean compressedClassPointers = is64Bit;
+		int alignment = 8;
+		try {
+			HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+			compressedOops = is64Bit && Boolean.parseBoolean(vmOption(hotSpot, "UseCompressedOops", "true"));
+			compressedClassPointers = compressedOops
+					&& Boolean.parseBoolean(vmOption(hotSpot, "UseCompressedClassPointers", "true"));
+			alignment = Integer.parseInt(vmOption(hotSpot, "ObjectAlignmentInBytes", "8"));
+		} catch (RuntimeException | LinkageError e) {
+			// not a HotSpot JVM. Assume its defaults.
+		}
+		REFERENCE_SIZE = (is64Bit && !compressedOops) ? 8 : 4;
+		int classPointerSize = (is64Bit && !compressedClassPointers) ? 8 : 4;
+		int markWordSize = is64Bit ? 8 : 4;
+		OBJECT_HEADER_SIZE = markWordSize + classPointerSize;
+		ARRAY_HEADER_SIZE = OBJECT_HEADER_SIZE + 4;
+		ALIGNMENT = alignment;
+	}
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private Footprint() {
+	}
+
+	/**
+	 * Estimates the size of an object itself, without the objects it references.
+	 *
+	 * @param object
+	 *            The object.
+	 * @return The size in bytes, or {@code 0} for {@code null}.
+	 */
+	public static long shallowSize(Object object) {
+		if (object == null) {
+			return 0;
+		}
+		Class<?> type = object.getClass();
+		if (type.isArray()) {
+			return align(ARRAY_HEADER_SIZE + (long) Array.getLength(object) * sizeOf(type.getComponentType()));
+		}
+		return layoutOf(type).shallowSize;
+	}
+
+	/**
+	 * Estimates the size of an object and of all objects it references, directly or indirectly.
+	 *
+	 * @param root
+	 *            The object.
+	 * @return The size in bytes, or {@code 0} for {@code null}.
+	 */
+	public static long retainedSize(Object root) {
+		Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		Deque<Object> pending = new ArrayDeque<Object>();
+		long size = 0;
+		push(root, visited, pending);
+		while (!pending.isEmpty()) {
+			Object object = pending.pop();
+			size += shallowSize(object);
+			Class<?> type = object.getClass();
+			if (type.isArray()) {
+				if (!type.getComponentType().isPrimitive()) {
+					for (Object element : (Object[]) object) {
+						push(element, visited, pending);
+					}
+				}
+				continue;
+			}
+			ClassLayout layout = layoutOf(type);
+			for (Field field : layout.references) {
+				try {
+					push(field.get(object), visited, pending);
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+			if (layout.opaque) {
+				size += estimateOpaque(object, visited, pending);
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Fails because an instance retains more memory than it should.
+	 *
+	 * @param what
+	 *            The instance, for the failure message.
+	 * @param retained
+	 *            The bytes it retains.
+	 * @param elements
+	 *            How many elements it holds.
+	 * @param bytesPerElement
+	 *            How many bytes it may retain per element.
+	 */
+	static void failExceeded(String what, long retained, long elements, double bytesPerElement) {
+		fail(String.format(Locale.US, "%s with %d elements retains %,d bytes (%.1f bytes per element), but should "
+				+ "retain at most %.1f bytes per element. Do you keep several copies of the elements, or arrays that "
+				+ "are much larger than needed?", what, elements, retained, (double) retained / elements,
+				bytesPerElement));
+	}
+
+	private static void push(Object object, Set<Object> visited, Deque<Object> pending) {
+		if (object == null || object instanceof Class || object instanceof ClassLoader || object instanceof Thread
+				|| object instanceof Enum) {
+			return;
+		}
+		if (visited.add(object)) {
+			pending.push(object);
+		}
+	}
+
+	/**
+	 * Estimates what a JDK object whose fields cannot be read retains besides its shallow size, and pushes the objects
+	 * it holds.
+	 *
+	 * @return The estimated bytes of the hidden parts of the object.
+	 */
+	private static long estimateOpaque(Object object, Set<Object> visited, Deque<Object> pending) {
+		if (object instanceof String) {
+			String string = (String) object;
+			boolean latin1 = true;
+			for (int i = 0; i < string.length() && latin1; i++) {
+				latin1 = string.charAt(i) < 256;
+			}
+			return align(ARRAY_HEADER_SIZE + (long) string.length() * (latin1 ? 1 : 2));
+		}
+		if (object instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) object;
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				push(entry.getKey(), visited, pending);
+				push(entry.getValue(), visited, pending);
+			}
+			long entry = align(OBJECT_HEADER_SIZE + 4 + 3 * REFERENCE_SIZE);
+			return align(ARRAY_HEADER_SIZE + (long) map.size() * REFERENCE_SIZE) + map.size() * entry;
+		}
+		if (object instanceof Collection) {
+			Collection<?> collection = (Collection<?>) object;
+			for (Object element : collection) {
+				push(element, visited, pending);
+			}
+			return align(ARRAY_HEADER_SIZE + (long) collection.size() * REFERENCE_SIZE);
+		}
+		return 0;
+	}
+
+	private static ClassLayout layoutOf(Class<?> type) {
+		ClassLayout layout = layouts.get(type);
+		if (layout == null) {
+			layout = new ClassLayout(type);
+			ClassLayout existing = layouts.putIfAbsent(type, layout);
+			if (existing != null) {
+				layout = existing;
+			}
+		}
+		return layout;
+	}
+
+	private static int sizeOf(Class<?> type) {
+		if (!type.isPrimitive()) {
+			return REFERENCE_SIZE;
+		} else if (type == long.class || type == double.class) {
+			return 8;
+		} else if (type == int.class || type == float.class) {
+			return 4;
+		} else if (type == char.class || type == short.class) {
+			return 2;
+		}
+		return 1;
+	}
+
+	private static long align(long size) {
+		return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+
+	private static String vmOption(HotSpotDiagnosticMXBean hotSpot, String name, String fallback) {
+		try {
+			return hotSpot.getVMOption(name).getValue();
+		} catch (IllegalArgumentException e) {
+			// the option does not exist in this JVM
+			return fallback;
+		}
+	}
+
+	/**
+	 * The instance fields of a class and its superclasses.
+	 */
+	private static class ClassLayout {
+		private final long shallowSize;
+		private final List<Field> references = new ArrayList<Field>();
+		/**
+		 * Whether some reference fields cannot be read.
+		 */
+		private boolean opaque = false;
+
+		private ClassLayout(Class<?> type) {
+			long size = OBJECT_HEADER_SIZE;
+			for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (Modifier.isStatic(field.getModifiers())) {
+						continue;
+					}
+					size += sizeOf(field.getType());
+					if (field.getType().isPrimitive()) {
+						continue;
+					}
+					try {
+						field.setAccessible(true);
+						this.references.add(field);
+					} catch (RuntimeException e) {
+						// the package of a JDK class is not opened to us
+						this.opaque = true;
+					}
+				}
+			}
+			this.shallowSize = align(size);
+		}
+	}
+}
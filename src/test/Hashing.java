@@ -0,0 +1,275 @@
+package test;
+
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Checks how well {@code hashCode()} and {@code equals(o)} of the tested class work in a {@link HashMap}. Both can be
+ * correct and still make hash maps and hash sets slow: if many instances share a hash code, like with a constant hash
+ * code or one that is the sum of the numbers in a tuple, every lookup has to call {@code equals(o)} on all of them,
+ * and filling a map becomes quadratic.
+ * <p>
+ * {@link #stress(String, List, List, Budget)} puts instances into a {@link HashMap}, looks every one of them up
+ * through an equal, but different instance and checks that this fits into a {@link Budget}. {@link TestObject}
+ * forwards {@code hashCode()} and {@code equals(o)} to the instances it represents, so the map works with the
+ * methods of the tested class. Before the map is filled, the hash codes are analysed, see {@link Statistics}, so the
+ * failure message can tell why lookups are slow. Calling {@code hashCode()} for the checks and the analysis counts
+ * against the budget, too. {@link #stressRandomTuples(int)} does all of this for random tuples of growing size.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public final class Hashing {
+	private static final int[] TUPLE_SIZES = {1000, 10000, 100000, 1000000};
+	/**
+	 * What checking, filling the map and looking every tuple up may cost, by number of tuples.
+	 */
+	private static final Budget.Scaling TUPLE_LOOKUPS = Budget.linear(20, 4000, 512);
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private Hashing() {
+	}
+
+	/**
+	 * Puts instances into a {@link HashMap} and looks all of them up again. {@link org.junit.Assert#fail} is called if
+	 * that exceeds the budget, if equal instances have different hash codes or if a lookup does not find its instance.
+	 *
+	 * @param what
+	 *            The instances, for the failure message. For example {@code "1000 random NaturalNumberTuples"}.
+	 * @param keys
+	 *            The instances to put into the map. They should all differ from each other.
+	 * @param equalKeys
+	 *            For every instance in {@code keys}, an equal, but different instance to look it up with.
+	 * @param budget
+	 *            The budget for checking and analysing the hash codes, filling the map and looking all instances up.
+	 * @return The statistics of the hash codes of {@code keys}.
+	 */
+	public static Statistics stress(String what, List<TestObject> keys, List<TestObject> equalKeys, Budget budget) {
+		if (keys.size() != equalKeys.size()) {
+			throw new IllegalArgumentException("Every key needs an equal key to look it up with.");
+		}
+		Lookups lookups = new Lookups(keys, equalKeys);
+		int missing;
+		try {
+			missing = budget.run("Checking the hash codes of " + what + ", putting them into a HashMap and looking "
+					+ "them up", lookups);
+		} catch (AssertionError e) {
+			if (lookups.statistics == null) {
+				throw new AssertionError(e.getMessage() + "\n\nhashCode() itself must be too expensive.");
+			}
+			String hint = (lookups.statistics.getBucketSkew() > 2 || lookups.statistics.getEqualsCalls() > 2)
+					? "Spread the hash codes: combine the numbers like 31 * hash + number does, instead of adding them "
+							+ "up or returning a constant."
+					: "The hash codes are spread well, so hashCode() or equals(o) themselves must be too expensive.";
+			throw new AssertionError(e.getMessage() + "\n\n" + lookups.statistics + " " + hint);
+		}
+		if (lookups.unequalHashCodes >= 0) {
+			int i = lookups.unequalHashCodes;
+			fail(String.format("Two equal instances of %s have different hash codes (%d and %d)! Equal "
+					+ "instances must have the same hash code, or a HashMap won't find them.",
+					TestObject.getSimpleName(), keys.get(i).hashCode(), equalKeys.get(i).hashCode()));
+		}
+		if (missing > 0) {
+			fail(String.format("A HashMap did not find %d of %s when looking them up with equal instances. Do "
+					+ "hashCode() and equals(Object) of %s agree?", missing, what, TestObject.getSimpleName()));
+		}
+		return lookups.statistics;
+	}
+
+	/**
+	 * Runs {@link #stress(String, List, List, Budget)} on random tuples of the tested class, for 10^3 up to 10^6
+	 * tuples. The tuples have 6 to 12 numbers between 1 and 100 and are created through the constructor taking an
+	 * {@code int[]}. The random numbers are drawn from {@link Randomness#current()}.
+	 *
+	 * @param maxSize
+	 *            The most tuples to try.
+	 */
+	public static void stressRandomTuples(int maxSize) {
+		SplittableRandom random = Randomness.current();
+		for (int size : TUPLE_SIZES) {
+			if (size > maxSize) {
+				break;
+			}
+			List<TestObject> keys = new ArrayList<TestObject>(size);
+			List<TestObject> equalKeys = new ArrayList<TestObject>(size);
+			for (int i = 0; i < size; i++) {
+				int[] numbers = new int[random.nextInt(6, 13)];
+				for (int j = 0; j < numbers.length; j++) {
+					numbers[j] = random.nextInt(1, 101);
+				}
+				keys.add(new TestObject(numbers));
+				equalKeys.add(new TestObject(numbers.clone()));
+			}
+			stress(size + " random " + TestObject.getSimpleName() + "s", keys, equalKeys,
+					TUPLE_LOOKUPS.forSize(size));
+		}
+	}
+
+	/**
+	 * Checks the hash codes of equal instances, analyses them and looks every instance up in a {@link HashMap}.
+	 * Returns how many instances were not found.
+	 */
+	private static final class Lookups extends Budget.Task<Integer> {
+		private final List<TestObject> keys;
+		private final List<TestObject> equalKeys;
+		/**
+		 * The index of the first instance whose equal instance has another hash code, or {@code -1}.
+		 */
+		private int unequalHashCodes = -1;
+		private Statistics statistics;
+
+		private Lookups(List<TestObject> keys, List<TestObject> equalKeys) {
+			this.keys = keys;
+			this.equalKeys = equalKeys;
+		}
+
+		@Override
+		public Integer run() {
+			for (int i = 0; i < this.keys.size(); i++) {
+				if (this.keys.get(i).hashCode() != this.equalKeys.get(i).hashCode()) {
+					this.unequalHashCodes = i;
+					return 0;
+				}
+			}
+			this.statistics = new Statistics(this.keys);
+			Map<TestObject, Integer> map = new HashMap<TestObject, Integer>();
+			for (int i = 0; i < this.keys.size(); i++) {
+				map.put(this.keys.get(i), i);
+			}
+			int notFound = 0;
+			for (int i = 0; i < this.equalKeys.size(); i++) {
+				Integer found = map.get(this.equalKeys.get(i));
+				if (found == null || found != i) {
+					notFound++;
+				}
+			}
+			return notFound;
+		}
+	}
+
+	/**
+	 * How the hash codes of some instances are distributed: how many instances share a hash code, and how they would
+	 * be distributed over the buckets of a {@link HashMap} that holds them.
+	 *
+	 * @author agent
+	 * @version 1.0
+	 * @since 19.10.2026
+	 */
+	public static final class Statistics {
+		private final int size;
+		private final int distinctHashCodes;
+		private final int largestGroup;
+		private final double equalsCalls;
+		private final int buckets;
+		private final int fullestBucket;
+		private final double entriesWalked;
+		private final double idealEntriesWalked;
+
+		/**
+		 * Analyses the hash codes of instances.
+		 *
+		 * @param keys
+		 *            The instances. They should all differ from each other.
+		 */
+		public Statistics(List<TestObject> keys) {
+			this.size = keys.size();
+			int[] hashCodes = new int[this.size];
+			for (int i = 0; i < this.size; i++) {
+				hashCodes[i] = keys.get(i).hashCode();
+			}
+
+			// a HashMap only calls equals(o) on entries with the same hash code
+			int[] sorted = hashCodes.clone();
+			Arrays.sort(sorted);
+			int distinct = 0;
+			int largest = 0;
+			long calls = 0;
+			int start = 0;
+			while (start < sorted.length) {
+				int end = start + 1;
+				while (end < sorted.length && sorted[end] == sorted[start]) {
+					end++;
+				}
+				long group = end - start;
+				distinct++;
+				largest = (int) Math.max(largest, group);
+				// looking up the k-th instance of a group compares it to k instances
+				calls += group * (group + 1) / 2;
+				start = end;
+			}
+			this.distinctHashCodes = distinct;
+			this.largestGroup = largest;
+			this.equalsCalls = (double) calls / Math.max(this.size, 1);
+
+			// a HashMap doubles its table whenever it is 75% full, and spreads the high bits of a hash code
+			int capacity = 16;
+			while (capacity * 0.75 < this.size) {
+				capacity *= 2;
+			}
+			int[] load = new int[capacity];
+			for (int hashCode : hashCodes) {
+				load[(hashCode ^ (hashCode >>> 16)) & (capacity - 1)]++;
+			}
+			int fullest = 0;
+			long walked = 0;
+			for (int entries : load) {
+				fullest = Math.max(fullest, entries);
+				walked += (long) entries * (entries + 1) / 2;
+			}
+			this.buckets = capacity;
+			this.fullestBucket = fullest;
+			this.entriesWalked = (double) walked / Math.max(this.size, 1);
+			this.idealEntriesWalked = 1 + (this.size - 1) / (2.0 * capacity);
+		}
+
+		/**
+		 * @return The share of instances whose hash code is also the hash code of another instance that came before
+		 *         them. {@code 0} if all hash codes differ, almost {@code 1} if they are all the same.
+		 */
+		public double getCollisionRate() {
+			return (this.size == 0) ? 0 : 1 - (double) this.distinctHashCodes / this.size;
+		}
+
+		/**
+		 * @return The most instances that share one hash code.
+		 */
+		public int getLargestGroup() {
+			return this.largestGroup;
+		}
+
+		/**
+		 * @return How many entries a lookup of an instance walks through on average, divided by how many it would walk
+		 *         through if the hash codes were spread evenly over the buckets. {@code 1} is perfect.
+		 */
+		public double getBucketSkew() {
+			return this.entriesWalked / this.idealEntriesWalked;
+		}
+
+		/**
+		 * @return How often a lookup of an instance calls {@code equals(o)} on average.
+		 */
+		public double getEqualsCalls() {
+			return this.equalsCalls;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.US, "The %d instances have %d distinct hash codes (collision rate %.2f%%), up "
+					+ "to %d share one. In a HashMap with %d buckets, the fullest bucket holds %d of them. A lookup "
+					+ "walks through %.1f entries (%.1f times as many as for evenly spread hash codes) and calls "
+					+ "equals(o) %.1f times on average.", this.size, this.distinctHashCodes,
+					100 * getCollisionRate(), this.largestGroup, this.buckets, this.fullestBucket,
+					this.entriesWalked, getBucketSkew(), this.equalsCalls);
+		}
+	}
+}
@@ -3,24 +3,68 @@ package test;
 import static org.junit.Assert.fail;
 
 import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Contains helper methods to generate input for tests.
+ * <p>
+ * Input files are named after a hash of their content. A file with some content is written once and then shared by
+ * all tests, all threads and all JVMs using the same {@link Fixtures#directory() fixture directory}. Files are written
+ * in UTF-8, with the line separator of the platform, and the hash is taken of exactly these bytes. A file that another
+ * JVM wrote is only used once its content was checked against its name; otherwise it is written again. The files
+ * belong to the {@link Fixtures.Scope#BATCH batch scope}: if they were deleted in the meantime, they are written again.
+ * A file is {@link Fixtures#claim(Path) claimed} while it is checked and written, so no other JVM deletes it in
+ * between.
  * 
  * @author Joshua Gleitze
  * @version 1.0
  * @since 31.01.2015
  */
 public class Input {
-	private static HashMap<String, String[]> filesMap = new HashMap<>();
-	private static HashMap<String[], String> reverseFileMap = new HashMap<>();
+	/**
+	 * The lines of every file handed out by this JVM that still exists, by path.
+	 */
+	private static final ConcurrentHashMap<String, String[]> filesMap = new ConcurrentHashMap<>();
+	/**
+	 * The path of every file handed out by this JVM that still exists, by the hash of its content.
+	 */
+	private static final ConcurrentHashMap<String, Path> hashMap = new ConcurrentHashMap<>();
+	private static final ThreadLocal<MessageDigest> digest = new ThreadLocal<MessageDigest>() {
+		@Override
+		protected MessageDigest initialValue() {
+			try {
+				return MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException("Every JVM has to support SHA-256!", e);
+			}
+		}
+	};
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+	/**
+	 * How many lines of the beginning of a file are shown in {@link #fileMessage(String[])}.
+	 */
+	private static final int HEAD_LINES = 30;
+	/**
+	 * How many lines of the end of a file are shown in {@link #fileMessage(String[])}.
+	 */
+	private static final int TAIL_LINES = 10;
+	/**
+	 * How many characters of a line are shown in {@link #fileMessage(String[])}.
+	 */
+	private static final int MAX_LINE_LENGTH = 200;
 
 	/**
 	 * This class is not meant to be instantiated.
@@ -37,28 +81,39 @@ public class Input {
 	 * @return path to a file containing {@code lines}
 	 */
 	public static String getFile(String... lines) {
-		String fileName;
-		if (!Input.reverseFileMap.containsKey(lines)) {
-			fileName = UUID.randomUUID().toString() + ".txt";
-			File file = new File(fileName);
-			BufferedWriter outputWriter = null;
-			try {
-				outputWriter = new BufferedWriter(new FileWriter(file));
-				for (int i = 0; i < lines.length; i++) {
-					outputWriter.write(lines[i]);
-					outputWriter.newLine();
-				}
-				outputWriter.flush();
-				outputWriter.close();
-				file.deleteOnExit();
-			} catch (IOException e) {
-				fail("The test was unable to create a test file. That's a shame!");
+		final String hash = hash(lines);
+		Path file = hashMap.get(hash);
+		// another JVM sharing the fixture directory may have deleted the file when it exited
+		if (file != null && Files.exists(file)) {
+			Fixtures.touch(file);
+			return file.toString();
+		}
+		file = Fixtures.directory().resolve(hash + ".txt");
+		final String fileName = file.toString();
+		try {
+			// no other JVM may delete the file between checking and registering it
+			Fixtures.claim(file);
+		} catch (IOException e) {
+			fail("The test was unable to create a test file. That's a shame!");
+		}
+		try {
+			if (!hasContent(file, hash)) {
+				write(file, lines);
 			}
-
-			Input.filesMap.put(fileName, lines);
-			Input.reverseFileMap.put(lines, fileName);
-		} else {
-			fileName = Input.reverseFileMap.get(lines);
+			// the same array may be changed by the caller later, so we keep a copy for the file messages
+			filesMap.put(fileName, lines.clone());
+			hashMap.put(hash, file);
+			Fixtures.register(file, Fixtures.Scope.BATCH, new Runnable() {
+				@Override
+				public void run() {
+					hashMap.remove(hash);
+					filesMap.remove(fileName);
+				}
+			});
+		} catch (IOException e) {
+			fail("The test was unable to create a test file. That's a shame!");
+		} finally {
+			Fixtures.release(file);
 		}
 		return fileName;
 	}
@@ -72,16 +127,80 @@ public class Input {
 	 * @return path to a file containing {@code lines}
 	 */
 	public static String getFile(Collection<String> lines) {
-		String[] linesArray = new String[lines.size()];
-		Iterator<String> iterator = lines.iterator();
-		for (int i = 0; iterator.hasNext(); i++) {
-			linesArray[i] = iterator.next();
+		return getFile(lines.toArray(new String[lines.size()]));
+	}
+
+	/**
+	 * Writes {@code lines} to a temporary file next to {@code file} and then moves it to {@code file}. Other threads
+	 * and JVMs thus either see no file or the complete file. A file that is already there is replaced, as its content
+	 * did not match its name.
+	 */
+	private static void write(Path file, String[] lines) throws IOException {
+		Path temporary = Files.createFile(Fixtures.directory().resolve(Randomness.uniqueName("writing-", ".tmp")));
+		try {
+			try (BufferedWriter outputWriter = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+				for (int i = 0; i < lines.length; i++) {
+					outputWriter.write(String.valueOf(lines[i]));
+					outputWriter.newLine();
+				}
+			}
+			try {
+				Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporary);
 		}
-		return getFile(linesArray);
 	}
 
 	/**
-	 * A message giving information about the input file used in a test.
+	 * Checks whether {@code file} is a regular file whose content has the hash {@code hash}. Another JVM may have
+	 * written it, or it may have been put there by someone else, so its name alone is not trusted.
+	 */
+	private static boolean hasContent(Path file, String hash) throws IOException {
+		if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+			return false;
+		}
+		MessageDigest messageDigest = digest.get();
+		byte[] buffer = new byte[8192];
+		try (InputStream input = Files.newInputStream(file, LinkOption.NOFOLLOW_LINKS)) {
+			int read;
+			while ((read = input.read(buffer)) > 0) {
+				messageDigest.update(buffer, 0, read);
+			}
+		}
+		return hex(messageDigest.digest()).equals(hash);
+	}
+
+	/**
+	 * Hashes the content of a file containing {@code lines}: every line in UTF-8, followed by the line separator.
+	 */
+	private static String hash(String[] lines) {
+		MessageDigest messageDigest = digest.get();
+		for (String line : lines) {
+			messageDigest.update(String.valueOf(line).getBytes(StandardCharsets.UTF_8));
+			messageDigest.update(LINE_SEPARATOR);
+		}
+		return hex(messageDigest.digest());
+	}
+
+	/**
+	 * @return The first 16 bytes of {@code hash} as hexadecimal digits.
+	 */
+	private static String hex(byte[] hash) {
+		char[] hex = new char[32];
+		for (int i = 0; i < hex.length / 2; i++) {
+			hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+			hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xf];
+		}
+		return new String(hex);
+	}
+
+	/**
+	 * A message giving information about the input file used in a test. Long files are shortened to their first and last
+	 * lines, and long lines to their beginning. The message always contains the path of the file and the hash of its
+	 * content, so the whole file can be found.
 	 * 
 	 * @param commandLineArguments
 	 *            The command line arguments the main method was called with during the test. The file message will read
@@ -89,16 +208,57 @@ public class Input {
 	 * @return A text representing the input file
 	 */
 	public static String fileMessage(String[] commandLineArguments) {
-		String result = "";
-		if (commandLineArguments.length > 1 && filesMap.containsKey(commandLineArguments[1])) {
-			result = "\n with the following input file:\n\n"
-					+ arrayToLines(filesMap.get(commandLineArguments[1])) + "\n\n";
+		if (commandLineArguments.length < 2 || !isFile(commandLineArguments[1])) {
+			return "";
+		}
+		String fileName = commandLineArguments[1];
+		String[] lines = filesMap.get(fileName);
+		if (lines == null) {
+			return ""; // it was just deleted
 		}
-		return result;
+		StringBuilder result = new StringBuilder();
+		result.append("\n with the following input file:\n\n");
+		appendLines(result, lines);
+		String hash = Paths.get(fileName).getFileName().toString();
+		hash = hash.substring(0, hash.length() - ".txt".length());
+		result.append("\n\n(").append(lines.length).append((lines.length == 1) ? " line" : " lines")
+				.append(", content hash ").append(hash).append(", stored in ").append(fileName).append(")\n\n");
+		return result.toString();
 	}
 
+	/**
+	 * Appends the first {@link #HEAD_LINES} and the last {@link #TAIL_LINES} lines, each shortened to
+	 * {@link #MAX_LINE_LENGTH} characters.
+	 */
+	private static void appendLines(StringBuilder result, String[] lines) {
+		for (int i = 0; i < lines.length; i++) {
+			if (i == HEAD_LINES && lines.length > HEAD_LINES + TAIL_LINES) {
+				int omitted = lines.length - HEAD_LINES - TAIL_LINES;
+				result.append("[... ").append(omitted).append(" more lines ...]\n");
+				i += omitted;
+			}
+			String line = String.valueOf(lines[i]);
+			if (line.length() > MAX_LINE_LENGTH) {
+				result.append(line, 0, MAX_LINE_LENGTH).append("[... ").append(line.length() - MAX_LINE_LENGTH)
+						.append(" more characters]");
+			} else {
+				result.append(line);
+			}
+			if (i < lines.length - 1) {
+				result.append('\n');
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a file was handed out by {@link #getFile(String...)}.
+	 * 
+	 * @param fileName
+	 *            A path.
+	 * @return {@code true} if {@code fileName} is the path of a file created through this class.
+	 */
 	public static boolean isFile(String fileName) {
-		return filesMap.containsKey(fileName);
+		return fileName != null && filesMap.containsKey(fileName);
 	}
 
 	/**
@@ -109,14 +269,14 @@ public class Input {
 	 * @return the array as lines.
 	 */
 	public static String arrayToLines(String[] lines) {
-	    String result = "";
-	    for (String line : lines) {
-	        if (result != "") {
-	            result += "\n";
-	        }
-	        result += line;
-	    }
-	    return result;
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < lines.length; i++) {
+			if (i > 0) {
+				result.append('\n');
+			}
+			result.append(lines[i]);
+		}
+		return result.toString();
 	}
 
 }
@@ -0,0 +1,394 @@
+package test;
+
+import static org.junit.Assert.fail;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Measures how long a method of the tested class takes. Get a measurement from
+ * {@link TestObject#measureStatic(String, Object...)} or {@link TestObject#measure(String, Object...)}, configure it and
+ * {@link #run()} it:
+ *
+ * <pre>
+ * <code>
+ * Measurement.Result result = TestObject.measureStatic("getSum", array).warmup(20).iterations(50).run();
+ * assertThat(result.getMedian(), is(lessThan(1e6)));
+ * </code>
+ * </pre>
+ *
+ * The method is looked up once, when the measurement is created, and then called with the same arguments over and
+ * over. If the method changes its arguments, every call after the first would get different input. Then let
+ * {@link #arguments(Arguments)} supply new arguments for every call. They are created before the time of a sample is
+ * taken, so creating them is not measured:
+ *
+ * <pre>
+ * <code>
+ * Measurement.Result result = TestObject.measureStatic("sort", (Object) unsorted).arguments(new Measurement.Arguments() {
+ * 	&#064;Override
+ * 	public Object[] next() {
+ * 		return new Object[] {
+ * 			unsorted.clone()
+ * 		};
+ * 	}
+ * }).run();
+ * </code>
+ * </pre>
+ *
+ * A sample is the time of {@link #operationsPerSample(int) a number of} calls in a row, divided by that number.
+ * The warmup samples are thrown away, so that the JIT compiler has settled when the measured samples are taken. Of the
+ * measured samples, those further than 1.5 times the interquartile range outside of the quartiles are rejected as
+ * outliers (they are usually caused by garbage collections or other processes). The {@link Result} reports the median
+ * and the 90th percentile of the remaining samples, and a 95% confidence interval for the median.
+ * <p>
+ * Unlike {@link TestObject#runStatic(Class, String, Object...)}, the calls are not watched by the {@link Watchdog}, and
+ * what the method prints to {@code System.out} is thrown away instead of being collected. Input through
+ * {@code Terminal} is not provided.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Measurement {
+	/**
+	 * The quantile of the standard normal distribution for a two-sided 95% confidence interval.
+	 */
+	private static final double Z_95 = 1.959964;
+	/**
+	 * If the operations per sample are chosen automatically, one sample should take at least this long, so that the
+	 * resolution of {@link System#nanoTime()} does not matter.
+	 */
+	private static final long MIN_SAMPLE_NANOS = 1000000;
+	private static final int MAX_OPERATIONS_PER_SAMPLE = 1 << 20;
+	/**
+	 * Keeps the JIT compiler from removing calls whose result is never used.
+	 */
+	private static volatile Object sink;
+
+	private final Method method;
+	private final Object target;
+	private final Object[] arguments;
+	private final Object[] testArguments;
+	private Arguments supplier = null;
+	private int warmup = 50;
+	private int iterations = 30;
+	private int operationsPerSample = 0;
+
+	/**
+	 * Creates a measurement of a method that was already looked up.
+	 *
+	 * @param method
+	 *            The method of the tested class.
+	 * @param target
+	 *            The instance to call the method on, or {@code null} for a static method.
+	 * @param arguments
+	 *            The arguments, already translated for the tested class.
+	 * @param testArguments
+	 *            The arguments as the test passed them, for failure messages.
+	 */
+	Measurement(Method method, Object target, Object[] arguments, Object[] testArguments) {
+		this.method = method;
+		this.target = target;
+		this.arguments = arguments;
+		this.testArguments = testArguments;
+	}
+
+	/**
+	 * Supplies the arguments for the calls of a {@link Measurement}.
+	 */
+	public interface Arguments {
+		/**
+		 * Creates the arguments for one call. Is called before the time of the sample the call belongs to is taken.
+		 *
+		 * @return The arguments, as they would be passed to {@link TestObject}. Their classes have to match the formal
+		 *         arguments of the measured method. If the method changes them, they have to be new objects every time.
+		 */
+		Object[] next();
+	}
+
+	/**
+	 * Lets {@code supplier} create new arguments for every call, instead of calling the method with the same arguments
+	 * over and over. All arguments of a sample are created before its time is taken.
+	 *
+	 * @param supplier
+	 *            Creates the arguments of every call.
+	 * @return This measurement.
+	 */
+	public Measurement arguments(Arguments supplier) {
+		this.supplier = supplier;
+		return this;
+	}
+
+	/**
+	 * Sets how many samples are taken and thrown away before the measured samples are taken. Default: {@code 50}.
+	 *
+	 * @param samples
+	 *            The number of warmup samples.
+	 * @return This measurement.
+	 */
+	public Measurement warmup(int samples) {
+		if (samples < 0) {
+			throw new IllegalArgumentException("The number of warmup samples must not be negative.");
+		}
+		this.warmup = samples;
+		return this;
+	}
+
+	/**
+	 * Sets how many samples are measured. Default: {@code 30}.
+	 *
+	 * @param samples
+	 *            The number of measured samples. At least {@code 5}.
+	 * @return This measurement.
+	 */
+	public Measurement iterations(int samples) {
+		if (samples < 5) {
+			throw new IllegalArgumentException("At least 5 samples are needed to reject outliers.");
+		}
+		this.iterations = samples;
+		return this;
+	}
+
+	/**
+	 * Sets how many times the method is called for one sample. By default, this is chosen so that a sample takes at
+	 * least a millisecond.
+	 *
+	 * @param operations
+	 *            The calls per sample, or {@code 0} to choose automatically.
+	 * @return This measurement.
+	 */
+	public Measurement operationsPerSample(int operations) {
+		if (operations < 0) {
+			throw new IllegalArgumentException("The number of operations per sample must not be negative.");
+		}
+		this.operationsPerSample = operations;
+		return this;
+	}
+
+	/**
+	 * Runs the measurement. {@link org.junit.Assert#fail} will be called if the method throws an exception.
+	 *
+	 * @return The result.
+	 */
+	public Result run() {
+		TestObject.startMeasuring();
+		try {
+			int operations = (this.operationsPerSample > 0) ? this.operationsPerSample : chooseOperationsPerSample();
+			for (int i = 0; i < this.warmup; i++) {
+				sample(operations);
+			}
+			double[] samples = new double[this.iterations];
+			for (int i = 0; i < this.iterations; i++) {
+				samples[i] = (double) sample(operations) / operations;
+			}
+			return new Result(samples, operations);
+		} finally {
+			TestObject.stopMeasuring();
+		}
+	}
+
+	/**
+	 * Counts the operations one call executes in the tested class, instead of measuring its time. Counting is
+	 * deterministic, so the method is called only once and there is no warmup. {@link org.junit.Assert#fail} will be
+	 * called if operations are not counted, see {@link Operations}.
+	 *
+	 * @return How many basic blocks of the tested class the call executed.
+	 */
+	public long countOperations() {
+		if (!Operations.isCounting()) {
+			fail("Operations are not counted. Run the tests with -Dtest.operations=true to count them.");
+		}
+		TestObject.startMeasuring();
+		try {
+			long before = Operations.currentThreadOperations();
+			sample(1);
+			return Operations.currentThreadOperations() - before;
+		} finally {
+			TestObject.stopMeasuring();
+		}
+	}
+
+	/**
+	 * Doubles the operations per sample until a sample takes at least {@link #MIN_SAMPLE_NANOS}.
+	 */
+	private int chooseOperationsPerSample() {
+		int operations = 1;
+		while (operations < MAX_OPERATIONS_PER_SAMPLE && sample(operations) < MIN_SAMPLE_NANOS) {
+			operations *= 2;
+		}
+		return operations;
+	}
+
+	/**
+	 * Calls the method {@code operations} times.
+	 *
+	 * @return How long the calls took, in nanoseconds.
+	 */
+	private long sample(int operations) {
+		Object[][] prepared = null;
+		if (this.supplier != null) {
+			prepared = new Object[operations][];
+			for (int i = 0; i < operations; i++) {
+				prepared[i] = TestObject.translateAllToImplemented(this.supplier.next());
+			}
+		}
+		Object result = null;
+		long start = System.nanoTime();
+		try {
+			if (prepared == null) {
+				for (int i = 0; i < operations; i++) {
+					result = this.method.invoke(this.target, this.arguments);
+				}
+			} else {
+				for (int i = 0; i < operations; i++) {
+					result = this.method.invoke(this.target, prepared[i]);
+				}
+			}
+		} catch (IllegalAccessException e) {
+			fail("The method called in " + call() + " is not accessible! Correct its visibility!");
+		} catch (IllegalArgumentException e) {
+			fail("The arguments supplied while measuring " + call() + " don't match the formal arguments of the method. "
+					+ "Most likely, this test contains an error which causes this.");
+		} catch (InvocationTargetException e) {
+			StringWriter stackTrace = new StringWriter();
+			e.getCause().printStackTrace(new PrintWriter(stackTrace));
+			fail("An Exception occurred while measuring " + call() + ": \n\n" + stackTrace.toString());
+		}
+		long elapsed = System.nanoTime() - start;
+		sink = result;
+		TestObject.discardMeasuredOutput();
+		return elapsed;
+	}
+
+	/**
+	 * Renders the measured call for failure messages. This is only done on failure, as the arguments may be huge.
+	 */
+	private String call() {
+		return TestObject.renderMethodCall(this.method.getName(), this.testArguments, false);
+	}
+
+	/**
+	 * The result of a {@link Measurement}. All times are in nanoseconds per call.
+	 *
+	 * @author agent
+	 * @version 1.0
+	 * @since 19.10.2026
+	 */
+	public static class Result {
+		private final double[] samples;
+		private final int outliers;
+		private final int operationsPerSample;
+		private final double median;
+		private final double p90;
+		private final double lowerBound;
+		private final double upperBound;
+
+		/**
+		 * Evaluates measured samples.
+		 *
+		 * @param measured
+		 *            The measured samples, in nanoseconds per call. At least {@code 5}.
+		 * @param operationsPerSample
+		 *            How many calls were made for one sample.
+		 */
+		Result(double[] measured, int operationsPerSample) {
+			double[] sorted = measured.clone();
+			Arrays.sort(sorted);
+			double q1 = quantile(sorted, 0.25);
+			double q3 = quantile(sorted, 0.75);
+			double fence = 1.5 * (q3 - q1);
+			int from = 0;
+			int to = sorted.length;
+			while (sorted[from] < q1 - fence) {
+				from++;
+			}
+			while (sorted[to - 1] > q3 + fence) {
+				to--;
+			}
+			this.samples = Arrays.copyOfRange(sorted, from, to);
+			this.outliers = sorted.length - this.samples.length;
+			this.operationsPerSample = operationsPerSample;
+
+			int n = this.samples.length;
+			this.median = quantile(this.samples, 0.5);
+			this.p90 = this.samples[(int) Math.ceil(0.9 * n) - 1];
+			// distribution free confidence interval for the median, from the ranks of the order statistics
+			double spread = Z_95 * Math.sqrt(n) / 2;
+			int lower = (int) Math.floor(n / 2.0 - spread);
+			int upper = (int) Math.ceil(n / 2.0 + 1 + spread);
+			this.lowerBound = this.samples[Math.max(lower, 1) - 1];
+			this.upperBound = this.samples[Math.min(upper, n) - 1];
+		}
+
+		/**
+		 * Linear interpolation between the closest ranks.
+		 */
+		private static double quantile(double[] sorted, double p) {
+			double rank = p * (sorted.length - 1);
+			int below = (int) Math.floor(rank);
+			int above = Math.min(below + 1, sorted.length - 1);
+			return sorted[below] + (rank - below) * (sorted[above] - sorted[below]);
+		}
+
+		/**
+		 * @return The median time of a call, in nanoseconds.
+		 */
+		public double getMedian() {
+			return this.median;
+		}
+
+		/**
+		 * @return The 90th percentile of the time of a call, in nanoseconds.
+		 */
+		public double getP90() {
+			return this.p90;
+		}
+
+		/**
+		 * @return The lower bound of the 95% confidence interval of the median, in nanoseconds.
+		 */
+		public double getLowerBound() {
+			return this.lowerBound;
+		}
+
+		/**
+		 * @return The upper bound of the 95% confidence interval of the median, in nanoseconds.
+		 */
+		public double getUpperBound() {
+			return this.upperBound;
+		}
+
+		/**
+		 * @return The samples that were not rejected as outliers, sorted, in nanoseconds per call.
+		 */
+		public double[] getSamples() {
+			return this.samples.clone();
+		}
+
+		/**
+		 * @return How many samples were rejected as outliers.
+		 */
+		public int getOutlierCount() {
+			return this.outliers;
+		}
+
+		/**
+		 * @return How many calls were made for one sample.
+		 */
+		public int getOperationsPerSample() {
+			return this.operationsPerSample;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.US, "median %.1f ns (95%% confidence interval %.1f ns to %.1f ns), "
+					+ "90th percentile %.1f ns, %d of %d samples rejected as outliers, %d calls per sample",
+					this.median, this.lowerBound, this.upperBound, this.p90, this.outliers, this.samples.length
+							+ this.outliers, this.operationsPerSample);
+		}
+	}
+}
@@ -0,0 +1,461 @@
+package test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * Records where the time of a test run goes. {@link TestObject} and {@link InteractiveConsoleTest} measure every
+ * {@link Phase} of every invocation, and the nanoseconds are added up per test method. They can then be viewed per
+ * test, per test class (suite) and for the whole submission, which is everything that ran against the tested class in
+ * this class loader.
+ * <p>
+ * Recording is cheap: it reads the clock twice and adds to a {@link LongAdder}, without allocating anything, so it is
+ * enabled by default. Disable it through the JVM variable {@code -Dtest.metrics.enabled=false}. The measurements are
+ * assigned to the test method that is running, as told by the rule of {@link Watchdog#timeout(long)}, or by this rule
+ * in test classes without a timeout:
+ *
+ * <pre>
+ * <code>
+ * &#064;Rule
+ * public TestRule metrics = Metrics.rule();
+ * &#064;ClassRule
+ * public static TestRule suiteMetrics = Metrics.rule();
+ * </code>
+ * </pre>
+ *
+ * If the JVM variable {@code -Dtest.metrics} names a file, all measurements are written to it when the JVM exits, when
+ * an {@link test.batch.IsolatedRun isolated run} ends, and whenever a test class with the class rule finishes: as CSV
+ * if the file name ends with {@code .csv}, as JSON otherwise. {@code {className}} in the file name is replaced by the
+ * name of the tested class, so a batch writes one file per submission. The {@link Coverage} report is written at the
+ * same time.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Metrics {
+	private static final boolean enabled = Boolean.parseBoolean(System.getProperty("test.metrics.enabled", "true"));
+	private static final String exportFile = System.getProperty("test.metrics");
+	/**
+	 * The measurements of every test method, by the test's display name.
+	 */
+	private static final ConcurrentHashMap<String, Bucket> tests = new ConcurrentHashMap<String, Bucket>();
+	/**
+	 * Measurements that were taken outside of a test rule.
+	 */
+	private static final Bucket untracked = new Bucket("", "");
+	private static final InheritableThreadLocal<Bucket> current = new InheritableThreadLocal<Bucket>();
+	/**
+	 * Writes the measurements and the coverage when the JVM exits, if they are to be written at all. Removed by
+	 * {@link #close()}.
+	 */
+	private static Thread exportHook;
+
+	static {
+		if ((exportFile != null && enabled) || Coverage.isRequested()) {
+			exportHook = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					exportAll();
+				}
+			}, "test-metrics-export");
+			Runtime.getRuntime().addShutdownHook(exportHook);
+		}
+	}
+
+	/**
+	 * The phases of running a test.
+	 */
+	public enum Phase {
+		/**
+		 * {@link TestObject#resetClass()}.
+		 */
+		RESET,
+		/**
+		 * Routing the input of {@link TestObject#setNextMethodCallInput(String)} to {@code Terminal.in} and back.
+		 */
+		INPUT,
+		/**
+		 * Running the tested method or constructor, without looking it up.
+		 */
+		INVOCATION,
+		/**
+		 * Capturing {@code System.out} and collecting what was printed.
+		 */
+		OUTPUT,
+		/**
+		 * Building the failure message and checking the output.
+		 */
+		ASSERTION
+	}
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private Metrics() {
+	}
+
+	/**
+	 * Creates a rule that assigns all measurements of a test method to it ({@link org.junit.Rule}), or writes the
+	 * measurements to the file configured through {@code -Dtest.metrics} after the test class
+	 * ({@link org.junit.ClassRule}).
+	 *
+	 * @return A rule to be used with {@link org.junit.Rule} or {@link org.junit.ClassRule}.
+	 */
+	public static TestRule rule() {
+		return new TestRule() {
+			@Override
+			public Statement apply(final Statement base, final Description description) {
+				if (description.isTest()) {
+					return track(base, description);
+				}
+				return new Statement() {
+					@Override
+					public void evaluate() throws Throwable {
+						try {
+							base.evaluate();
+						} finally {
+							exportAll();
+						}
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Assigns all measurements taken while {@code base} runs to the test method {@code description}.
+	 *
+	 * @param base
+	 *            The test method.
+	 * @param description
+	 *            Its description.
+	 * @return A statement that runs {@code base}.
+	 */
+	static Statement track(final Statement base, final Description description) {
+		return new Statement() {
+			@Override
+			public void evaluate() throws Throwable {
+				Bucket outer = current.get();
+				current.set(bucketFor(description));
+				try {
+					base.evaluate();
+				} finally {
+					current.set(outer);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Writes the measurements and the {@link Coverage} report now, and not again when the JVM exits. Called by
+	 * {@link test.batch.IsolatedRun} when a run ends, as its class loader, and the measurements with it, are discarded
+	 * afterwards.
+	 */
+	public static synchronized void close() {
+		if (exportHook != null) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(exportHook);
+			} catch (IllegalStateException e) {
+				// the JVM exits, so the hook runs anyway
+				return;
+			}
+			exportHook = null;
+		}
+		exportAll();
+	}
+
+	/**
+	 * Starts measuring a phase.
+	 *
+	 * @return The start time, to be passed to {@link #record(Phase, long)}.
+	 */
+	public static long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Ends measuring a phase and adds its duration to the current test.
+	 *
+	 * @param phase
+	 *            The measured phase.
+	 * @param start
+	 *            What {@link #start()} returned when the phase started.
+	 */
+	public static void record(Phase phase, long start) {
+		if (!enabled) {
+			return;
+		}
+		long nanos = System.nanoTime() - start;
+		Bucket bucket = current.get();
+		if (bucket == null) {
+			bucket = untracked;
+		}
+		bucket.nanos[phase.ordinal()].add(nanos);
+		bucket.counts[phase.ordinal()].increment();
+	}
+
+	/**
+	 * @param phase
+	 *            A phase.
+	 * @return How many nanoseconds the submission spent in {@code phase} so far.
+	 */
+	public static long getNanos(Phase phase) {
+		return total(allBuckets())[0][phase.ordinal()];
+	}
+
+	/**
+	 * @param phase
+	 *            A phase.
+	 * @return How often the submission went through {@code phase} so far.
+	 */
+	public static long getCount(Phase phase) {
+		return total(allBuckets())[1][phase.ordinal()];
+	}
+
+	/**
+	 * Writes all measurements to {@code file}: as CSV if its name ends with {@code .csv}, as JSON otherwise.
+	 *
+	 * @param file
+	 *            The file to write to. It is overwritten.
+	 * @throws IOException
+	 *             If the file could not be written.
+	 */
+	public static void write(Path file) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			if (file.getFileName().toString().endsWith(".csv")) {
+				writeCsv(writer);
+			} else {
+				writeJson(writer);
+			}
+		}
+	}
+
+	/**
+	 * Writes all measurements as JSON: an object with the totals of the submission and a list of suites, each with its
+	 * totals and a list of its tests. Every total maps the phases to their count and nanoseconds.
+	 *
+	 * @param writer
+	 *            Where to write to.
+	 * @throws IOException
+	 *             If writing fails.
+	 */
+	public static void writeJson(Writer writer) throws IOException {
+		Map<String, List<Bucket>> suites = suites();
+		writer.write("{\"submission\":" + quote(submission()) + ",\"total\":" + json(total(allBuckets()))
+				+ ",\"suites\":[");
+		String suiteSeparator = "";
+		for (Map.Entry<String, List<Bucket>> suite : suites.entrySet()) {
+			writer.write(suiteSeparator + "{\"name\":" + quote(suite.getKey()) + ",\"total\":"
+					+ json(total(suite.getValue())) + ",\"tests\":[");
+			String testSeparator = "";
+			for (Bucket test : suite.getValue()) {
+				writer.write(testSeparator + "{\"name\":" + quote(test.test) + ",\"total\":" + json(test.snapshot())
+						+ "}");
+				testSeparator = ",";
+			}
+			writer.write("]}");
+			suiteSeparator = ",";
+		}
+		writer.write("]}\n");
+	}
+
+	/**
+	 * Writes all measurements as CSV, one line per phase of the submission, of every suite and of every test.
+	 *
+	 * @param writer
+	 *            Where to write to.
+	 * @throws IOException
+	 *             If writing fails.
+	 */
+	public static void writeCsv(Writer writer) throws IOException {
+		writer.write("level,submission,suite,test,phase,count,nanos\n");
+		String submission = csv(submission());
+		csvLines(writer, "submission," + submission + ",,,", total(allBuckets()));
+		for (Map.Entry<String, List<Bucket>> suite : suites().entrySet()) {
+			String name = csv(suite.getKey());
+			csvLines(writer, "suite," + submission + "," + name + ",,", total(suite.getValue()));
+			for (Bucket test : suite.getValue()) {
+				csvLines(writer, "test," + submission + "," + name + "," + csv(test.test) + ",", test.snapshot());
+			}
+		}
+	}
+
+	private static void csvLines(Writer writer, String prefix, long[][] totals) throws IOException {
+		for (Phase phase : Phase.values()) {
+			writer.write(prefix + phase.name().toLowerCase() + "," + totals[1][phase.ordinal()] + ","
+					+ totals[0][phase.ordinal()] + "\n");
+		}
+	}
+
+	private static String json(long[][] totals) {
+		StringBuilder result = new StringBuilder("{");
+		for (Phase phase : Phase.values()) {
+			result.append((phase.ordinal() > 0) ? "," : "").append('"').append(phase.name().toLowerCase())
+					.append("\":{\"count\":").append(totals[1][phase.ordinal()]).append(",\"nanos\":")
+					.append(totals[0][phase.ordinal()]).append('}');
+		}
+		return result.append('}').toString();
+	}
+
+	private static String quote(String string) {
+		StringBuilder result = new StringBuilder("\"");
+		for (char c : string.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				result.append('\\').append(c);
+			} else if (c < 0x20) {
+				result.append(String.format("\\u%04x", (int) c));
+			} else {
+				result.append(c);
+			}
+		}
+		return result.append('"').toString();
+	}
+
+	private static String csv(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+			return value;
+		}
+		return "\"" + value.replace("\"", "\"\"") + "\"";
+	}
+
+	/**
+	 * @return The tested class, which identifies the submission.
+	 */
+	private static String submission() {
+		String className = System.getProperty("className");
+		return (className == null) ? "" : className;
+	}
+
+	/**
+	 * Writes the measurements and the {@link Coverage} report, if they are to be written.
+	 */
+	private static void exportAll() {
+		export();
+		Coverage.export();
+	}
+
+	/**
+	 * Writes the measurements to the file configured through {@code -Dtest.metrics}, if there is one.
+	 */
+	private static void export() {
+		if (exportFile == null || !enabled) {
+			return;
+		}
+		try {
+			write(Paths.get(exportFile.replace("{className}", submission())));
+		} catch (IOException e) {
+			System.err.println("Unable to write the test metrics to " + exportFile + ": " + e);
+		}
+	}
+
+	private static Bucket bucketFor(Description description) {
+		String key = description.getDisplayName();
+		Bucket bucket = tests.get(key);
+		if (bucket == null) {
+			String suite = (description.getClassName() == null) ? "" : description.getClassName();
+			String test = (description.getMethodName() == null) ? key : description.getMethodName();
+			Bucket existing = tests.putIfAbsent(key, bucket = new Bucket(suite, test));
+			if (existing != null) {
+				bucket = existing;
+			}
+		}
+		return bucket;
+	}
+
+	/**
+	 * @return The tests, grouped by suite and sorted by name. Measurements outside of a test belong to the suite
+	 *         {@code ""}.
+	 */
+	private static Map<String, List<Bucket>> suites() {
+		Map<String, List<Bucket>> suites = new TreeMap<String, List<Bucket>>();
+		for (Bucket bucket : new TreeMap<String, Bucket>(tests).values()) {
+			if (!suites.containsKey(bucket.suite)) {
+				suites.put(bucket.suite, new ArrayList<Bucket>());
+			}
+			suites.get(bucket.suite).add(bucket);
+		}
+		if (untracked.hasMeasurements()) {
+			List<Bucket> outside = new ArrayList<Bucket>();
+			outside.add(untracked);
+			suites.put("", outside);
+		}
+		return suites;
+	}
+
+	private static List<Bucket> allBuckets() {
+		List<Bucket> all = new ArrayList<Bucket>(tests.values());
+		all.add(untracked);
+		return all;
+	}
+
+	/**
+	 * @return The summed nanoseconds ({@code [0]}) and counts ({@code [1]}) of all {@code buckets}, by phase.
+	 */
+	private static long[][] total(List<Bucket> buckets) {
+		long[][] total = new long[2][Phase.values().length];
+		for (Bucket bucket : buckets) {
+			long[][] snapshot = bucket.snapshot();
+			for (int i = 0; i < total[0].length; i++) {
+				total[0][i] += snapshot[0][i];
+				total[1][i] += snapshot[1][i];
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * The measurements of one test method.
+	 */
+	private static class Bucket {
+		private final String suite;
+		private final String test;
+		private final LongAdder[] nanos = adders();
+		private final LongAdder[] counts = adders();
+
+		private Bucket(String suite, String test) {
+			this.suite = suite;
+			this.test = test;
+		}
+
+		private long[][] snapshot() {
+			long[][] snapshot = new long[2][this.nanos.length];
+			for (int i = 0; i < this.nanos.length; i++) {
+				snapshot[0][i] = this.nanos[i].sum();
+				snapshot[1][i] = this.counts[i].sum();
+			}
+			return snapshot;
+		}
+
+		private boolean hasMeasurements() {
+			for (LongAdder count : this.counts) {
+				if (count.sum() > 0) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private static LongAdder[] adders() {
+			LongAdder[] adders = new LongAdder[Phase.values().length];
+			for (int i = 0; i < adders.length; i++) {
+				adders[i] = new LongAdder();
+			}
+			return adders;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the operations the tested class executes. Times are noisy on a machine that runs many tests at once, but the
+ * number of executed operations is the same on every machine and under any load. With {@code -Dtest.operations=true},
+ * the {@link TestObject.TestClassLoader} {@link BasicBlockInstrumenter instruments} the tested class, so that every
+ * basic block (a sequence of instructions without jumps) counts one operation for its method when it is entered. Then
+ * {@link TestObject#getLastMethodOperations()} tells how many operations the last invocation executed, and
+ * {@link Measurement#countOperations()} and {@link Complexity#countingOperations()} measure in operations instead of
+ * time.
+ * <p>
+ * Every thread counts on its own, so parallel sessions don't contend. Only the tested class is instrumented, not the
+ * other classes of the submission, and only the thread of an invocation is counted. If the tested class cannot be
+ * instrumented, it is used as it is, and {@link #isCounting()} returns {@code false}.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Operations {
+	private static final boolean requested = Boolean.getBoolean("test.operations");
+	private static volatile List<String> methods = null;
+	private static final ThreadLocal<Counter> counters = new ThreadLocal<Counter>() {
+		@Override
+		protected Counter initialValue() {
+			return new Counter();
+		}
+	};
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private Operations() {
+	}
+
+	/**
+	 * Called by the instrumented tested class whenever it enters a basic block. Don't call this yourself.
+	 *
+	 * @param method
+	 *            The index of the method in the class file of the tested class.
+	 */
+	public static void count(int method) {
+		Counter counter = counters.get();
+		counter.total++;
+		if (method >= counter.perMethod.length) {
+			counter.perMethod = Arrays.copyOf(counter.perMethod, Math.max(method + 1, counter.perMethod.length * 2));
+		}
+		counter.perMethod[method]++;
+	}
+
+	/**
+	 * @return Whether the tested class was instrumented and operations are counted.
+	 */
+	public static boolean isCounting() {
+		return methods != null;
+	}
+
+	/**
+	 * @return Whether {@code -Dtest.operations=true} is set.
+	 */
+	static boolean isRequested() {
+		return requested;
+	}
+
+	/**
+	 * Called when the tested class was instrumented.
+	 *
+	 * @param methodNames
+	 *            The name and descriptor of every method, in the order of their indices.
+	 */
+	static void instrumented(List<String> methodNames) {
+		methods = Collections.unmodifiableList(methodNames);
+	}
+
+	/**
+	 * Returns how many operations the current thread has executed so far.
+	 *
+	 * @return The operations of the current thread, or {@code -1} if operations are not counted.
+	 */
+	static long currentThreadOperations() {
+		return isCounting() ? counters.get().total : -1;
+	}
+
+	/**
+	 * Returns how many operations the current thread has executed so far in every method of the tested class.
+	 *
+	 * @return The operations of every method that executed any, by name and descriptor, e.g. {@code "add(I)I"}. Empty
+	 *         if operations are not counted.
+	 */
+	public static Map<String, Long> currentThreadOperationsByMethod() {
+		Map<String, Long> result = new LinkedHashMap<String, Long>();
+		List<String> names = methods;
+		if (names == null) {
+			return result;
+		}
+		long[] perMethod = counters.get().perMethod;
+		for (int i = 0; i < Math.min(names.size(), perMethod.length); i++) {
+			if (perMethod[i] > 0) {
+				result.put(names.get(i), perMethod[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The operations of one thread.
+	 */
+	private static class Counter {
+		private long total = 0;
+		private long[] perMethod = new long[16];
+	}
+}
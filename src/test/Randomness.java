@@ -0,0 +1,159 @@
+package test;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * Hands out random numbers to tests, reproducibly. All randomness of a test run is derived from one master seed. It is
+ * taken from the JVM variable {@code -Dtest.seed}, or from the clock if that is not set. Every test method gets its
+ * own {@link SplittableRandom}, derived from the master seed and the test's name, so it draws the same numbers no
+ * matter which other tests ran before or in parallel.
+ * <p>
+ * Open the generator of each test method with a rule. If a test that used {@link #current()} fails, the master seed is
+ * added to the failure as a suppressed exception, so the run can be replayed. The failure itself is thrown unchanged,
+ * so tools still see its type, like a {@link org.junit.ComparisonFailure} with its expected and actual values:
+ *
+ * <pre>
+ * <code>
+ * &#064;Rule
+ * public TestRule randomness = Randomness.rule();
+ * </code>
+ * </pre>
+ *
+ * Unlike {@link java.security.SecureRandom} and {@link java.util.UUID#randomUUID()}, nothing in here can block while
+ * waiting for entropy, or is shared between threads.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Randomness {
+	private static final long masterSeed = Long.getLong("test.seed", System.nanoTime() ^ System.currentTimeMillis());
+	/**
+	 * Used for code that runs outside of a test rule. Guarded by itself.
+	 */
+	private static final SplittableRandom outside = new SplittableRandom(masterSeed);
+	private static final InheritableThreadLocal<TestRandom> current = new InheritableThreadLocal<TestRandom>();
+	private static final AtomicLong nameCounter = new AtomicLong();
+	/**
+	 * Makes names unique between JVMs: the process ID, and some bits of the clock in case it is reused.
+	 */
+	private static final String namePrefix = processId() + "-" + Long.toString(System.nanoTime() & 0xffffff, 36) + "-";
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private Randomness() {
+	}
+
+	/**
+	 * @return The seed all randomness of this test run is derived from.
+	 */
+	public static long getMasterSeed() {
+		return masterSeed;
+	}
+
+	/**
+	 * Creates a rule that gives each test method its own generator, and reports the master seed if the test fails after
+	 * using it.
+	 *
+	 * @return A rule to be used with {@link org.junit.Rule}.
+	 */
+	public static TestRule rule() {
+		return new TestRule() {
+			@Override
+			public Statement apply(final Statement base, final Description description) {
+				return new Statement() {
+					@Override
+					public void evaluate() throws Throwable {
+						TestRandom outer = current.get();
+						TestRandom testRandom = new TestRandom(seedFor(description.getDisplayName()));
+						current.set(testRandom);
+						try {
+							base.evaluate();
+						} catch (AssertionError failure) {
+							if (testRandom.used) {
+								failure.addSuppressed(new SeedReport());
+							}
+							throw failure;
+						} finally {
+							current.set(outer);
+						}
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Returns the generator of the current test. Threads started by a test share its generator, so they should
+	 * {@link SplittableRandom#split() split} it before they use it. If no test rule is active, a new generator split
+	 * from the master seed is returned.
+	 *
+	 * @return A random number generator.
+	 */
+	public static SplittableRandom current() {
+		TestRandom testRandom = current.get();
+		if (testRandom == null) {
+			synchronized (outside) {
+				return outside.split();
+			}
+		}
+		testRandom.used = true;
+		return testRandom.random;
+	}
+
+	/**
+	 * Creates a name that no other call of this method in any JVM returned before. Does not draw from any generator,
+	 * so it does not change the numbers tests get.
+	 *
+	 * @param prefix
+	 *            The start of the name.
+	 * @param suffix
+	 *            The end of the name.
+	 * @return {@code prefix}, something unique, {@code suffix}.
+	 */
+	public static String uniqueName(String prefix, String suffix) {
+		return prefix + namePrefix + Long.toString(nameCounter.getAndIncrement(), 36) + suffix;
+	}
+
+	/**
+	 * Derives a seed from the master seed and a name, so each name gets its own, well-mixed seed.
+	 */
+	private static long seedFor(String name) {
+		long seed = masterSeed ^ (name.hashCode() * 0x9E3779B97F4A7C15L);
+		return new SplittableRandom(seed).nextLong();
+	}
+
+	private static String processId() {
+		String name = ManagementFactory.getRuntimeMXBean().getName();
+		int at = name.indexOf('@');
+		return (at > 0) ? name.substring(0, at) : Integer.toHexString(name.hashCode());
+	}
+
+	/**
+	 * Tells which seed a failed test used. It is only a note on the failure, so it has no stack trace of its own.
+	 */
+	private static class SeedReport extends Throwable {
+		private static final long serialVersionUID = 7314029518566250741L;
+
+		private SeedReport() {
+			super("The random numbers of this test were derived from the seed " + masterSeed + ". Run with -Dtest.seed="
+					+ masterSeed + " to get the same ones again.", null, false, false);
+		}
+	}
+
+	private static class TestRandom {
+		private final SplittableRandom random;
+		private volatile boolean used = false;
+
+		private TestRandom(long seed) {
+			this.random = new SplittableRandom(seed);
+		}
+	}
+}
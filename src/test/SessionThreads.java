@@ -0,0 +1,80 @@
+package test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Starts threads to run sessions on the tested class. If the JVM supports virtual threads (Java 21 and later), sessions
+ * are run on virtual threads, so tens of thousands of sessions that mostly wait for their {@code Terminal} input can be
+ * in flight without a platform thread for each of them. On older JVMs, or if the JVM variable
+ * {@code -Dtest.sessionThreads=platform} is set, a platform thread is started for every session.
+ * <p>
+ * A thread started by this class inherits the settings of the calling thread's session (see
+ * {@link TestObject#allowSystemExit(TestObject.SystemExitStatus)}, {@link TestObject#rethrowExceptions(Class...)}),
+ * but has its own input and output.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class SessionThreads {
+	/**
+	 * {@code Thread.ofVirtual()}, or {@code null} if virtual threads are not available or not wanted.
+	 */
+	private static final Method ofVirtual;
+	/**
+	 * {@code Thread.Builder.start(Runnable)}
+	 */
+	private static final Method builderStart;
+
+	static {
+		Method virtual = null;
+		Method start = null;
+		if (!"platform".equals(System.getProperty("test.sessionThreads"))) {
+			try {
+				virtual = Thread.class.getMethod("ofVirtual");
+				start = Class.forName("java.lang.Thread$Builder").getMethod("start", Runnable.class);
+			} catch (NoSuchMethodException | ClassNotFoundException e) {
+				virtual = null;
+				start = null;
+			}
+		}
+		ofVirtual = virtual;
+		builderStart = start;
+	}
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private SessionThreads() {
+	}
+
+	/**
+	 * Returns whether sessions are run on virtual threads.
+	 *
+	 * @return {@code true} if {@link #start(Runnable)} starts virtual threads.
+	 */
+	public static boolean usesVirtualThreads() {
+		return ofVirtual != null;
+	}
+
+	/**
+	 * Starts a thread that runs {@code session}.
+	 *
+	 * @param session
+	 *            What to run in the new thread.
+	 * @return The started thread.
+	 */
+	public static Thread start(Runnable session) {
+		if (ofVirtual != null) {
+			try {
+				return (Thread) builderStart.invoke(ofVirtual.invoke(null), session);
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				throw new IllegalStateException("Unable to start a virtual thread!", e);
+			}
+		}
+		Thread thread = new Thread(session);
+		thread.start();
+		return thread;
+	}
+}
@@ -9,10 +9,9 @@ import static org.junit.Assert.fail;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
-import java.io.FileDescriptor;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.StringReader;
@@ -21,6 +20,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
@@ -28,7 +28,7 @@ import java.security.Permission;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Stack;
+import java.util.Locale;
 
 import org.junit.Assert;
 
@@ -136,13 +136,23 @@ import org.junit.Assert;
  * @version 2.1
  */
 public class TestObject {
-	private static boolean allowSystemExit0 = false;
-	private static boolean allowSystemExitGreater0 = false;
 	private static final String className = System.getProperty("className");
-	private static Class<?> clazz = new TestClassLoader().loadClass();
-	private static String nextCallInput;
-	private static Stack<String> programOutput = new Stack<String>();
-	private static List<Class<? extends Exception>> rethrowExceptions = new LinkedList<Class<? extends Exception>>();
+	private static final Class<?> loadedClass = new TestClassLoader().loadClass();
+	/**
+	 * The state of the session the current thread runs. Threads started by a session inherit its settings, but get
+	 * their own input and output.
+	 */
+	private static final InheritableThreadLocal<Session> session = new InheritableThreadLocal<Session>() {
+		@Override
+		protected Session initialValue() {
+			return new Session(loadedClass);
+		}
+
+		@Override
+		protected Session childValue(Session parentSession) {
+			return parentSession.fork();
+		}
+	};
 	private final Object instance;
 
 	/**
@@ -156,7 +166,7 @@ public class TestObject {
 	 *            The arguments to be passed to the constructor.
 	 */
 	public TestObject(Class<?>[] formalArguments, Object... arguments) {
-		this.instance = run(clazz, "", formalArguments, arguments, null, true);
+		this.instance = run(clazz(), "", formalArguments, arguments, null, true);
 	}
 
 	/**
@@ -194,22 +204,23 @@ public class TestObject {
 	 *            The status you want to allow calling {@link System#exit} with.
 	 */
 	public static void allowSystemExit(SystemExitStatus status) {
+		Session current = session.get();
 		switch (status) {
 		case ALL:
-			allowSystemExit0 = true;
-			allowSystemExitGreater0 = true;
+			current.allowSystemExit0 = true;
+			current.allowSystemExitGreater0 = true;
 			break;
 		case WITH_0:
-			allowSystemExit0 = true;
-			allowSystemExitGreater0 = false;
+			current.allowSystemExit0 = true;
+			current.allowSystemExitGreater0 = false;
 			break;
 		case WITH_GREATER_THAN_0:
-			allowSystemExit0 = false;
-			allowSystemExitGreater0 = true;
+			current.allowSystemExit0 = false;
+			current.allowSystemExitGreater0 = true;
 			break;
 		case NONE:
-			allowSystemExit0 = false;
-			allowSystemExitGreater0 = false;
+			current.allowSystemExit0 = false;
+			current.allowSystemExitGreater0 = false;
 			break;
 		default:
 			break;
@@ -222,7 +233,92 @@ public class TestObject {
 	 * @return What the method that was last run using {@code TestObject} printed to System.out
 	 */
 	public static String getLastMethodOutput() {
-		return programOutput.peek();
+		return session.get().lastOutput;
+	}
+
+	/**
+	 * Gets the CPU time the last run method used.
+	 * 
+	 * @return The CPU time in nanoseconds the method that was last run using {@code TestObject} used, or {@code -1} if
+	 *         the JVM can not measure it.
+	 */
+	public static long getLastMethodCpuTime() {
+		return session.get().lastCpuTime;
+	}
+
+	/**
+	 * Makes the methods this thread runs record when they print every line, see
+	 * {@link #getLastMethodLineCpuTimes()}. Recording costs a little CPU time for every line, so it is off by default.
+	 * 
+	 * @param timing
+	 *            Whether to record the CPU time of every printed line.
+	 */
+	public static void timeOutputLines(boolean timing) {
+		session.get().outContent.timingLines = timing;
+	}
+
+	/**
+	 * Gets the CPU time the last run method had used whenever it finished a line of its output. A program that answers
+	 * its input line by line thus tells how long every answer took. Lines printed at once, for example from one
+	 * {@code StringBuilder}, have the same time.
+	 * 
+	 * @return For every line the method that was last run using {@code TestObject} printed, the CPU time in
+	 *         nanoseconds it had used when it printed the line separator. {@code null} if
+	 *         {@link #timeOutputLines(boolean)} was off or the JVM can not measure the CPU time.
+	 */
+	public static long[] getLastMethodLineCpuTimes() {
+		return session.get().lastLineCpuTimes;
+	}
+
+	/**
+	 * Gets the bytes the last run method allocated. Only the thread the method ran in is measured, and what the harness
+	 * allocated there meanwhile is not counted (see {@link Allocations}).
+	 * 
+	 * @return The bytes the method that was last run using {@code TestObject} allocated, or {@code -1} if the JVM can
+	 *         not measure it.
+	 */
+	public static long getLastMethodAllocatedBytes() {
+		return session.get().lastAllocated;
+	}
+
+	/**
+	 * Gets how many operations the last run method executed in the tested class. Operations are only counted if the
+	 * JVM variable {@code -Dtest.operations=true} is set, see {@link Operations}.
+	 * 
+	 * @return The number of basic blocks of the tested class the method that was last run using {@code TestObject}
+	 *         executed, or {@code -1} if operations are not counted.
+	 */
+	public static long getLastMethodOperations() {
+		return session.get().lastExecutedOperations;
+	}
+
+	/**
+	 * Sets how many bytes every method run using {@code TestObject} may allocate. {@link org.junit.Assert#fail} will
+	 * be called if a method allocates more. Setting this will apply throughout the session, unless you call this method
+	 * again. The default is set through the JVM variable {@code -Dtest.allocation.invocation}, see
+	 * {@link Allocations}.
+	 * 
+	 * @param bytes
+	 *            The budget in bytes. {@code 0} means that there is no budget.
+	 */
+	public static void setAllocationBudget(long bytes) {
+		session.get().allocationBudget = bytes;
+	}
+
+	/**
+	 * Sets how many bytes all methods run using {@code TestObject} may allocate together, counted from now on until
+	 * the next call to {@link #resetClass()}, after which they are counted anew. {@link org.junit.Assert#fail} will be
+	 * called if they allocate more. The default is set through the JVM variable {@code -Dtest.allocation.session}, see
+	 * {@link Allocations}.
+	 * 
+	 * @param bytes
+	 *            The budget in bytes. {@code 0} means that there is no budget.
+	 */
+	public static void setSessionAllocationBudget(long bytes) {
+		Session current = session.get();
+		current.sessionAllocationBudget = bytes;
+		current.sessionAllocated = 0;
+		current.sessionOperations = 0;
 	}
 
 	/**
@@ -232,6 +328,7 @@ public class TestObject {
 	 *         package {@code null} is returned.
 	 */
 	public static String getPackageName() {
+		Class<?> clazz = clazz();
 		if (clazz.getPackage() == null) {
 			return null;
 		}
@@ -244,7 +341,7 @@ public class TestObject {
 	 * @return What {@code object.class.getSimpleName()} returns if {@code object} is an instance of the tested class.
 	 */
 	public static String getSimpleName() {
-		return clazz.getSimpleName();
+		return clazz().getSimpleName();
 	}
 
 	/**
@@ -260,7 +357,7 @@ public class TestObject {
 	public static boolean hasMethod(String methodName, Class<?>... formalArguments) {
 		Method m;
 		try {
-			m = clazz.getDeclaredMethod(methodName, formalArguments);
+			m = clazz().getDeclaredMethod(methodName, formalArguments);
 		} catch (NoSuchMethodException | SecurityException e) {
 			return false;
 		}
@@ -282,14 +379,17 @@ public class TestObject {
 	public static String renderMethodCall(String methodName, Object[] parameters, boolean isConstructor) {
 		String result = "";
 		if (isConstructor) {
-			result += clazz.getSimpleName();
+			result += clazz().getSimpleName();
 		} else {
 			result += methodName;
 		}
 		result += "(";
 		for (int i = 0; i < parameters.length; i++) {
 			if (parameters[i].getClass().isArray()) {
-				result += Arrays.deepToString((Object[]) parameters[i]);
+				String rendered = Arrays.deepToString(new Object[] {
+					parameters[i]
+				}); // also works for arrays of primitives
+				result += rendered.substring(1, rendered.length() - 1);
 			} else {
 				result += parameters[i].toString();
 			}
@@ -317,7 +417,7 @@ public class TestObject {
 			boolean isConstructor) {
 		String result = "";
 		if (isConstructor) {
-			result += "constructor " + clazz.getSimpleName();
+			result += "constructor " + clazz().getSimpleName();
 		} else {
 			result += (isStatic) ? "static method " : "method ";
 			result += methodName;
@@ -335,12 +435,36 @@ public class TestObject {
 		return result;
 	}
 
+	/**
+	 * Fails if the {@link Watchdog} stopped the current thread before. Stopping a thread may leave its session in any
+	 * state, for example capturing the output forever, so nothing it reports can be trusted any more.
+	 */
+	private static void failIfStopped() {
+		String stoppedWhile = Watchdog.stoppedWhile(Thread.currentThread());
+		if (stoppedWhile != null) {
+			fail("This test can not be run: " + stoppedWhile + " missed its deadline and was stopped, as it did not "
+					+ "react to being interrupted. That may have left the tests in any state. Fix this first!");
+		}
+	}
+
 	/**
 	 * Resets the tested class. Resetting the tested class means that it will be in the state it was when the program
-	 * was started. Especially all static fields will be reset to their initial values.
+	 * was started. Especially all static fields will be reset to their initial values. The reset only applies to the
+	 * session of the current thread, so sessions that run in parallel can reset the class independently.
 	 */
 	public static void resetClass() {
-		clazz = new TestClassLoader().loadClass();
+		failIfStopped();
+		long start = Metrics.start();
+		Events.ClassReset event = Events.beginClassReset();
+		Session current = session.get();
+		current.clazz = new TestClassLoader().loadClass();
+		current.sessionAllocated = 0;
+		current.sessionOperations = 0;
+		Metrics.record(Metrics.Phase.RESET, start);
+		if (event != null) {
+			event.classSize = TestClassLoader.classData.length;
+			event.commit();
+		}
 	}
 
 	/**
@@ -362,12 +486,13 @@ public class TestObject {
 	// clear that anything different than a class extending Exception would not make sense (but will not lead to an
 	// ClassCastException)
 	public static void rethrowExceptions(Class<? extends Exception>... exceptionClasses) {
-		rethrowExceptions = new LinkedList<Class<? extends Exception>>();
+		List<Class<? extends Exception>> rethrowExceptions = new LinkedList<Class<? extends Exception>>();
 		for (Class<? extends Exception> exceptionClass : exceptionClasses) {
 			if (exceptionClass != null) {
 				rethrowExceptions.add(exceptionClass);
 			}
 		}
+		session.get().rethrowExceptions = rethrowExceptions;
 	}
 
 	/**
@@ -437,6 +562,37 @@ public class TestObject {
 		runStaticVoid(methodName, getTypeArray(arguments), arguments);
 	}
 
+	/**
+	 * Prepares measuring how long a static method of the tested class takes. The method named {@code methodName}
+	 * taking the formal arguments {@code formalArguments} will be selected right away. See {@link Measurement}.
+	 * 
+	 * @param methodName
+	 *            The name of the static method you want to measure.
+	 * @param formalArguments
+	 *            The method's formal argument's classes. By them, the method will be selected.
+	 * @param arguments
+	 *            The arguments the method will be called with.
+	 * @return The measurement. Configure it and call {@link Measurement#run()}.
+	 */
+	public static Measurement measureStatic(String methodName, Class<?>[] formalArguments, Object... arguments) {
+		return measurement(methodName, formalArguments, arguments, null);
+	}
+
+	/**
+	 * Prepares measuring how long a static method of the tested class takes. The method named {@code methodName}
+	 * taking the classes of {@code arguments} as formal arguments will be selected right away. See
+	 * {@link Measurement}.
+	 * 
+	 * @param methodName
+	 *            The name of the static method you want to measure.
+	 * @param arguments
+	 *            The arguments the method will be called with.
+	 * @return The measurement. Configure it and call {@link Measurement#run()}.
+	 */
+	public static Measurement measureStatic(String methodName, Object... arguments) {
+		return measureStatic(methodName, getTypeArray(arguments), arguments);
+	}
+
 	/**
 	 * Provides input for the next method call. The String you provide will be accessible for the tested program through
 	 * the {@code Terminal} class. <br>
@@ -450,7 +606,7 @@ public class TestObject {
 	 *            the input that should be provided through the {@code Terminal} class on the next method call.
 	 */
 	public static void setNextMethodCallInput(String input) {
-		nextCallInput = input;
+		session.get().nextCallInput = input;
 	}
 
 	/**
@@ -487,7 +643,7 @@ public class TestObject {
 		if (object.getClass().isArray()) {
 			return translateAllToTestObject((Object[]) object);
 		}
-		if (object.getClass() == clazz) {
+		if (object.getClass() == clazz()) {
 			return new TestObject(true, object);
 		}
 		return object;
@@ -503,7 +659,7 @@ public class TestObject {
 	 *            The Objects you want to get the classes of.
 	 * @return The classes of {@code arguments}
 	 */
-	private static Class<?>[] getTypeArray(Object[] arguments) {
+	static Class<?>[] getTypeArray(Object[] arguments) {
 		if (arguments == null) {
 			return null;
 		}
@@ -579,39 +735,83 @@ public class TestObject {
 	@SuppressWarnings(value = "unchecked")
 	private static <T> T run(Class<T> expectedReturnType, String methodName, Class<?>[] formalArguments,
 			Object[] arguments, Object inst, boolean callConstructor) {
+		failIfStopped();
 		Object result = null;
+		Session current = session.get();
+		Class<?> clazz = current.clazz;
 		Object[] args = translateAllToImplemented(arguments);
 		Class<?>[] types = translateAllClassesToImplemented(formalArguments);
-		NoExitSecurityManager.setup(); // prevent System.exit()
-		if (nextCallInput != null) {
-			Console.setTerminalInput(nextCallInput); // provide input in the Terminal class
+		NoExitSecurityManager.install(); // prevent System.exit()
+		Events.Invocation event = Events.beginInvocation(methodName, callConstructor);
+		String outcome = "failed";
+		long phaseStart = Metrics.start();
+		if (current.nextCallInput != null) {
+			Console.setTerminalInput(current, current.nextCallInput); // provide input in the Terminal class
+			Metrics.record(Metrics.Phase.INPUT, phaseStart);
+			phaseStart = Metrics.start();
 		}
-		Console.observeSystemOut(); // observe the Sysout
+		Console.observeSystemOut(current); // observe the Sysout
+		Metrics.record(Metrics.Phase.OUTPUT, phaseStart);
+		Watchdog.Deadline invocationDeadline = Watchdog.armInvocation(methodName, arguments, callConstructor);
+		long cpuStart = Watchdog.currentThreadCpuTime();
+		long allocationStart = -1;
+		long allocated = -1;
+		long operationsStart = Operations.currentThreadOperations();
+		long commandsBefore = current.commandsRead;
+		// set when a failure message is built, see Metrics.Phase.ASSERTION
+		long assertionStart = 0;
+		boolean asserting = false;
 		try {
-			if (callConstructor) {
-				Constructor<?> cunstructor = clazz.getDeclaredConstructor(types);
-				result = cunstructor.newInstance(args);
-			} else {
-				Method method = clazz.getDeclaredMethod(methodName, types);
-				result = method.invoke(inst, args);
+			try {
+				Constructor<?> cunstructor = null;
+				Method method = null;
+				if (callConstructor) {
+					cunstructor = clazz.getDeclaredConstructor(types);
+				} else {
+					method = clazz.getDeclaredMethod(methodName, types);
+				}
+				// only what the tested class allocates counts, not looking it up
+				current.harnessAllocated = 0;
+				allocationStart = Allocations.currentThreadAllocatedBytes();
+				long invocationStart = Metrics.start();
+				try {
+					result = callConstructor ? cunstructor.newInstance(args) : method.invoke(inst, args);
+				} finally {
+					Metrics.record(Metrics.Phase.INVOCATION, invocationStart);
+				}
+			} finally {
+				allocated = Allocations.allocatedSince(allocationStart);
+			}
+			if (!callConstructor) {
 				result = translateToTestObject(result);
 			}
+			outcome = "returned";
 		} catch (NoSuchMethodException e) {
+			asserting = true;
+			assertionStart = Metrics.start();
 			String message = "There obviously is no "
 					+ renderMethodFormal(methodName, formalArguments, (inst == null), callConstructor)
 					+ ", in your class while there should be one.\n";
 			fail(message);
 		} catch (NullPointerException e) {
+			asserting = true;
+			assertionStart = Metrics.start();
 			String message = "The " + renderMethodFormal(methodName, formalArguments, false, callConstructor)
 					+ " is expected to be static!";
 			fail(message);
 		} catch (SecurityException e) {
+			asserting = true;
+			assertionStart = Metrics.start();
 			fail("SecurityException: '" + e.getMessage() + "'\n\n" + e.getStackTrace());
 		} catch (IllegalAccessException e) {
+			asserting = true;
+			assertionStart = Metrics.start();
 			String message = "The " + renderMethodFormal(methodName, formalArguments, (inst == null), callConstructor)
 					+ " is not accessible! Correct its visibility!";
 			fail(message);
 		} catch (IllegalArgumentException e) {
+			asserting = true;
+			assertionStart = Metrics.start();
 			String message = "The passed arguments, '";
 			Class<?>[] passedTypes = getTypeArray(arguments);
 			for (int i = 0; i < arguments.length; i++) {
@@ -625,19 +825,27 @@ public class TestObject {
 					+ "You wouldn't try to find and fix it, would you?";
 			fail(message);
 		} catch (InvocationTargetException e) {
+			asserting = true;
+			assertionStart = Metrics.start();
+			failOnMissedDeadline(current, invocationDeadline);
 			StringWriter stackTraceStringWriter = new StringWriter(); // will hold the printed stack trace of the actual
 																		// error.
 			if (e.getCause() instanceof ExitException) {
 				ExitException exitException = (ExitException) e.getCause();
 				exitException.printStackTrace(new PrintWriter(stackTraceStringWriter));
-				if (!((allowSystemExit0 && exitException.status == 0) || (allowSystemExitGreater0 && exitException.status > 0))) {
+				boolean allowed = (current.allowSystemExit0 && exitException.status == 0)
+						|| (current.allowSystemExitGreater0 && exitException.status > 0);
+				Events.exitIntercepted(methodName, exitException.status, allowed);
+				outcome = "exit";
+				if (!allowed) {
 					String message = "While calling " + renderMethodCall(methodName, arguments, callConstructor)
 							+ ", your code called System.exit(" + exitException.status
 							+ "). This was not expected and is an error: \n\n" + stackTraceStringWriter.toString();
 					fail(message);
 				}
 			} else {
-				for (Class<?> exceptionClass : rethrowExceptions) {
+				outcome = "exception";
+				for (Class<?> exceptionClass : current.rethrowExceptions) {
 					if (exceptionClass.isInstance(e.getCause())) {
 						throw new TestMethodException(e.getCause());
 					}
@@ -649,32 +857,193 @@ public class TestObject {
 				fail(message);
 			}
 		} catch (InstantiationException e) {
+			asserting = true;
+			assertionStart = Metrics.start();
 			String message = clazz.getName() + " could not be instantiated. This are the exception details: \n\n"
 					+ e.getMessage() + "\n\n" + e.getStackTrace();
 			fail(message);
 		} finally {
-			NoExitSecurityManager.reset();
-			programOutput.add(Console.getAll());
-			Console.resetSystemOut();
-			if (nextCallInput != null) {
-				Console.resetTerminalInput();
-				nextCallInput = null;
+			if (asserting) {
+				Metrics.record(Metrics.Phase.ASSERTION, assertionStart);
+			}
+			if (invocationDeadline != null) {
+				invocationDeadline.cancel();
+			}
+			if (current.commandDeadline != null) {
+				current.commandDeadline.cancel();
+			}
+			current.lastCpuTime = (cpuStart < 0) ? -1 : Watchdog.currentThreadCpuTime() - cpuStart;
+			current.lastLineCpuTimes = (cpuStart < 0) ? null : current.outContent.lineCpuTimes(cpuStart);
+			current.lastAllocated = (allocated < 0) ? -1 : Math.max(allocated - current.harnessAllocated, 0);
+			current.lastOperations = Math.max(current.commandsRead - commandsBefore, 1);
+			current.lastExecutedOperations = (operationsStart < 0) ? -1 : Operations.currentThreadOperations()
+					- operationsStart;
+			if (current.lastAllocated >= 0) {
+				current.sessionAllocated += current.lastAllocated;
+				current.sessionOperations += current.lastOperations;
+			}
+			if (current.commandEvent != null) {
+				current.commandEvent.commit();
+				current.commandEvent = null;
+			}
+			phaseStart = Metrics.start();
+			Events.OutputCaptured outputEvent = Events.beginOutputCaptured(methodName);
+			long outputSize = current.outContent.count;
+			current.lastOutput = Console.getAll(current);
+			Console.resetSystemOut(current);
+			Metrics.record(Metrics.Phase.OUTPUT, phaseStart);
+			if (outputEvent != null) {
+				outputEvent.size = outputSize;
+				outputEvent.lines = countLines(current.lastOutput);
+				outputEvent.commit();
+			}
+			if (event != null) {
+				event.cpuTime = current.lastCpuTime;
+				event.allocated = current.lastAllocated;
+				event.operations = current.lastExecutedOperations;
+				event.inputLength = (current.nextCallInput == null) ? 0 : current.nextCallInput.length();
+				event.outputSize = outputSize;
+				event.outcome = outcome;
+			}
+			if (current.nextCallInput != null) {
+				phaseStart = Metrics.start();
+				Console.resetTerminalInput(current);
+				current.nextCallInput = null;
+				Metrics.record(Metrics.Phase.INPUT, phaseStart);
+			}
+			if (event != null) {
+				event.commit();
 			}
 		}
-
-		if (expectedReturnType == null) {
-			if (result != null) {
+		assertionStart = Metrics.start();
+		try {
+			failOnMissedDeadline(current, invocationDeadline);
+			current.commandDeadline = null;
+			failOnExceededAllocationBudget(current, methodName, arguments, callConstructor);
+
+			if (expectedReturnType == null) {
+				if (result != null) {
+					fail("The " + renderMethodFormal(methodName, formalArguments, (inst == null), callConstructor)
+							+ " is expected to be a void method!");
+				}
+				return null;
+			}
+			if (result != null && !expectedReturnType.isInstance(result) && !isWrapperOf(result, expectedReturnType)) {
 				fail("The " + renderMethodFormal(methodName, formalArguments, (inst == null), callConstructor)
-						+ " is expected to be a void method!");
+						+ " is expected to return a " + expectedReturnType.getSimpleName()
+						+ " but instead returned a " + result.getClass().getSimpleName() + ".\n");
 			}
-			return null;
+			return (T) result;
+		} finally {
+			Metrics.record(Metrics.Phase.ASSERTION, assertionStart);
+		}
+	}
+
+	/**
+	 * Looks up the method to measure.
+	 * 
+	 * @param inst
+	 *            The instance you want the method to run on. {@code null} if you want to measure a static method.
+	 */
+	private static Measurement measurement(String methodName, Class<?>[] formalArguments, Object[] arguments,
+			Object inst) {
+		Class<?>[] types = translateAllClassesToImplemented(formalArguments);
+		try {
+			Method method = clazz().getDeclaredMethod(methodName, types);
+			if (inst == null && !Modifier.isStatic(method.getModifiers())) {
+				fail("The " + renderMethodFormal(methodName, formalArguments, false, false)
+						+ " is expected to be static!");
+			}
+			return new Measurement(method, inst, translateAllToImplemented(arguments), arguments);
+		} catch (NoSuchMethodException e) {
+			fail("There obviously is no " + renderMethodFormal(methodName, formalArguments, (inst == null), false)
+					+ ", in your class while there should be one.\n");
+		}
+		return null;
+	}
+
+	/**
+	 * Prepares the current session for {@link Measurement#run()}: {@code System.exit} is prevented, and the output is
+	 * collected so it can be thrown away.
+	 */
+	static void startMeasuring() {
+		NoExitSecurityManager.install();
+		Console.observeSystemOut(session.get());
+	}
+
+	/**
+	 * Throws away what was printed since the last call, without converting it into a String.
+	 */
+	static void discardMeasuredOutput() {
+		session.get().outContent.reset();
+	}
+
+	/**
+	 * Ends what {@link #startMeasuring()} started.
+	 */
+	static void stopMeasuring() {
+		Session current = session.get();
+		current.out.flush();
+		Console.resetSystemOut(current);
+	}
+
+	/**
+	 * Calls {@link Assert#fail()} if the last invocation exceeded the invocation or the session allocation budget.
+	 */
+	private static void failOnExceededAllocationBudget(Session current, String methodName, Object[] arguments,
+			boolean isConstructor) {
+		if (Allocations.exceeds(current.lastAllocated, current.allocationBudget)) {
+			Allocations.failExceeded("While calling " + renderMethodCall(methodName, arguments, isConstructor)
+					+ ", your code", current.lastAllocated, current.lastOperations, current.allocationBudget,
+					"per call");
 		}
-		if (result != null && !expectedReturnType.isInstance(result) && !isWrapperOf(result, expectedReturnType)) {
-			fail("The " + renderMethodFormal(methodName, formalArguments, (inst == null), callConstructor)
-					+ " is expected to return a " + expectedReturnType.getSimpleName() + " but instead returned a "
-					+ result.getClass().getSimpleName() + ".\n");
+		if (Allocations.exceeds(current.sessionAllocated, current.sessionAllocationBudget)) {
+			Allocations.failExceeded("Since the tested class was reset, your code", current.sessionAllocated,
+					current.sessionOperations, current.sessionAllocationBudget, "in this session");
+		}
+	}
+
+	/**
+	 * Counts the lines of an output for {@link Events.OutputCaptured}.
+	 */
+	private static int countLines(String output) {
+		int lines = 0;
+		for (int i = 0; i < output.length(); i++) {
+			if (output.charAt(i) == '\n') {
+				lines++;
+			}
+		}
+		return (output.isEmpty() || output.endsWith("\n")) ? lines : lines + 1;
+	}
+
+	/**
+	 * Returns the tested class as seen by the session of the current thread.
+	 * 
+	 * @return The tested class, as loaded by the last call to {@link #resetClass()} in this session.
+	 */
+	private static Class<?> clazz() {
+		return session.get().clazz;
+	}
+
+	/**
+	 * Calls {@link Assert#fail()} if the last command read in the current session or the current invocation missed its
+	 * deadline (see {@link Watchdog}).
+	 * 
+	 * @param current
+	 *            the session of the current thread.
+	 * @param invocationDeadline
+	 *            the deadline of the current invocation. May be {@code null}.
+	 */
+	private static void failOnMissedDeadline(Session current, Watchdog.Deadline invocationDeadline) {
+		Watchdog.Deadline missed = invocationDeadline;
+		if (current.commandDeadline != null && current.commandDeadline.hasExpired()) {
+			missed = current.commandDeadline;
+		}
+		if (missed != null && missed.hasExpired()) {
+			current.commandDeadline = null;
+			Thread.interrupted(); // the watchdog interrupted us. Don't leak that into the next call.
+			throw missed.failure();
 		}
-		return (T) result;
 	}
 
 	/**
@@ -704,7 +1073,7 @@ public class TestObject {
 	 * @return A copy of {@code objects} where any occurrence of an instance of {@code TestObject} has been converted
 	 *         into the instance of the tested class that was represented by it.
 	 */
-	private static Object[] translateAllToImplemented(Object[] objects) {
+	static Object[] translateAllToImplemented(Object[] objects) {
 		if (objects == null) {
 			return null;
 		}
@@ -725,7 +1094,7 @@ public class TestObject {
 	 */
 	private static Class<?> translateClassToImplemented(Class<?> c) {
 		if (c == TestObject.class) {
-			return clazz;
+			return clazz();
 		} else {
 			return c;
 		}
@@ -778,6 +1147,47 @@ public class TestObject {
 		return this.instance.hashCode();
 	}
 
+	/**
+	 * Estimates how many bytes the instance of the tested class represented by {@code this} occupies itself, without
+	 * the objects it references. See {@link Footprint}.
+	 *
+	 * @return The shallow size of the instance in bytes.
+	 */
+	public long shallowSize() {
+		return Footprint.shallowSize(this.instance);
+	}
+
+	/**
+	 * Estimates how many bytes the instance of the tested class represented by {@code this} keeps alive: its own size
+	 * and the size of all objects it references, directly or indirectly. See {@link Footprint}.
+	 *
+	 * @return The retained size of the instance in bytes.
+	 */
+	public long retainedSize() {
+		return Footprint.retainedSize(this.instance);
+	}
+
+	/**
+	 * Asserts that the instance of the tested class represented by {@code this} does not keep more memory alive than
+	 * {@code bytesPerElement} for every element it holds. {@link org.junit.Assert#fail} will be called if it does.
+	 *
+	 * @param elements
+	 *            How many elements the instance holds. At least {@code 1}.
+	 * @param bytesPerElement
+	 *            How many bytes the instance may retain per element.
+	 * @return The retained size of the instance in bytes.
+	 */
+	public long assertRetainedSizeAtMost(int elements, double bytesPerElement) {
+		if (elements < 1) {
+			throw new IllegalArgumentException("There must be at least one element.");
+		}
+		long retained = retainedSize();
+		if (retained > bytesPerElement * elements) {
+			Footprint.failExceeded("An instance of " + getSimpleName(), retained, elements, bytesPerElement);
+		}
+		return retained;
+	}
+
 	/**
 	 * Runs a method on the instance of tested class represented by {@code this}. The method named {@code methodName}
 	 * taking the formal arguments {@code formalArguments} will be selected.
@@ -816,6 +1226,38 @@ public class TestObject {
 		return this.run(expectedReturnType, methodName, getTypeArray(arguments), arguments);
 	}
 
+	/**
+	 * Prepares measuring how long a method on the instance of the tested class represented by {@code this} takes. The
+	 * method named {@code methodName} taking the formal arguments {@code formalArguments} will be selected right away.
+	 * Every call runs on the same instance. See {@link Measurement}.
+	 * 
+	 * @param methodName
+	 *            The name of the method you want to measure.
+	 * @param formalArguments
+	 *            The method's formal argument's classes. By them, the method will be selected.
+	 * @param arguments
+	 *            The arguments the method will be called with.
+	 * @return The measurement. Configure it and call {@link Measurement#run()}.
+	 */
+	public Measurement measure(String methodName, Class<?>[] formalArguments, Object... arguments) {
+		return measurement(methodName, formalArguments, arguments, this.instance);
+	}
+
+	/**
+	 * Prepares measuring how long a method on the instance of the tested class represented by {@code this} takes. The
+	 * method named {@code methodName} taking the classes of {@code arguments} as formal arguments will be selected
+	 * right away. Every call runs on the same instance. See {@link Measurement}.
+	 * 
+	 * @param methodName
+	 *            The name of the method you want to measure.
+	 * @param arguments
+	 *            The arguments the method will be called with.
+	 * @return The measurement. Configure it and call {@link Measurement#run()}.
+	 */
+	public Measurement measure(String methodName, Object... arguments) {
+		return measure(methodName, getTypeArray(arguments), arguments);
+	}
+
 	/**
 	 * Runs a void method on the instance of tested class represented by {@code this}. The method named
 	 * {@code methodName} taking the formal arguments {@code formalArguments} will be selected.
@@ -869,29 +1311,181 @@ public class TestObject {
 		WITH_GREATER_THAN_0
 	}
 
+	/**
+	 * The state of one session on the tested class. Every thread runs its own session, so multiple sessions can run in
+	 * parallel (for example on virtual threads, see {@link SessionThreads}). Nothing in here is synchronized: a session
+	 * is only ever used by the thread it belongs to.
+	 * 
+	 * @author agent
+	 *
+	 */
+	private static class Session {
+		private Class<?> clazz;
+		private boolean allowSystemExit0 = false;
+		private boolean allowSystemExitGreater0 = false;
+		private List<Class<? extends Exception>> rethrowExceptions = new LinkedList<Class<? extends Exception>>();
+		private String nextCallInput;
+		private String lastOutput;
+		private long lastCpuTime = -1;
+		private long[] lastLineCpuTimes;
+		private final CaptureBuffer outContent = new CaptureBuffer();
+		private final PrintStream out = new PrintStream(this.outContent);
+		private boolean capturing = false;
+		private BufferedReader terminalInput;
+		private Watchdog.Deadline commandDeadline;
+		private Events.SessionCommand commandEvent;
+		private long commandsRead = 0;
+		private long lastAllocated = -1;
+		/**
+		 * The bytes the harness allocated in this session's thread during the current invocation.
+		 */
+		private long harnessAllocated = 0;
+		private long lastOperations = 0;
+		private long lastExecutedOperations = -1;
+		private long allocationBudget = Allocations.defaultInvocationBudget();
+		private long sessionAllocated = 0;
+		private long sessionOperations = 0;
+		private long sessionAllocationBudget = Allocations.defaultSessionBudget();
+
+		private Session(Class<?> clazz) {
+			this.clazz = clazz;
+		}
+
+		/**
+		 * Creates a session for a thread started in this session. It has the settings of this session, but its own
+		 * input and output.
+		 */
+		private Session fork() {
+			Session child = new Session(this.clazz);
+			child.allowSystemExit0 = this.allowSystemExit0;
+			child.allowSystemExitGreater0 = this.allowSystemExitGreater0;
+			child.rethrowExceptions = this.rethrowExceptions;
+			child.allocationBudget = this.allocationBudget;
+			child.sessionAllocationBudget = this.sessionAllocationBudget;
+			child.outContent.timingLines = this.outContent.timingLines;
+			return child;
+		}
+	}
+
+	/**
+	 * An unsynchronized replacement for {@link ByteArrayOutputStream}. Each session writes into its own buffer, so
+	 * there is nothing to synchronize on, and a session's thread never has to wait for a monitor while printing. If
+	 * {@link #timingLines} is set, it also records the CPU time of the thread whenever a line separator is written.
+	 * 
+	 * @author agent
+	 *
+	 */
+	private static class CaptureBuffer extends OutputStream {
+		private byte[] buffer = new byte[256];
+		private int count = 0;
+		private boolean timingLines = false;
+		private long[] lineCpuTimes = new long[0];
+		private int lines = 0;
+
+		@Override
+		public void write(int b) {
+			ensureCapacity(this.count + 1);
+			this.buffer[this.count++] = (byte) b;
+			if (this.timingLines && b == '\n') {
+				recordLines(1);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int offset, int length) {
+			ensureCapacity(this.count + length);
+			System.arraycopy(b, offset, this.buffer, this.count, length);
+			this.count += length;
+			if (this.timingLines) {
+				int separators = 0;
+				for (int i = offset; i < offset + length; i++) {
+					if (b[i] == '\n') {
+						separators++;
+					}
+				}
+				if (separators > 0) {
+					recordLines(separators);
+				}
+			}
+		}
+
+		/**
+		 * Records the current CPU time for lines that were just finished. Lines written at once get the same time.
+		 */
+		private void recordLines(int finished) {
+			long now = Watchdog.currentThreadCpuTime();
+			if (this.lines + finished > this.lineCpuTimes.length) {
+				long harnessStart = Allocations.currentThreadAllocatedBytes();
+				this.lineCpuTimes = Arrays.copyOf(this.lineCpuTimes, Math.max(this.lines + finished,
+						this.lineCpuTimes.length * 2));
+				session.get().harnessAllocated += Allocations.harnessSince(harnessStart);
+			}
+			Arrays.fill(this.lineCpuTimes, this.lines, this.lines + finished, now);
+			this.lines += finished;
+		}
+
+		/**
+		 * @return The CPU time of every line since {@code cpuStart}, or {@code null} if lines are not timed.
+		 */
+		private long[] lineCpuTimes(long cpuStart) {
+			if (!this.timingLines) {
+				return null;
+			}
+			long[] result = new long[this.lines];
+			for (int i = 0; i < this.lines; i++) {
+				result[i] = this.lineCpuTimes[i] - cpuStart;
+			}
+			return result;
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (capacity > this.buffer.length) {
+				long harnessStart = Allocations.currentThreadAllocatedBytes();
+				this.buffer = Arrays.copyOf(this.buffer, Math.max(capacity, this.buffer.length * 2));
+				session.get().harnessAllocated += Allocations.harnessSince(harnessStart);
+			}
+		}
+
+		private void reset() {
+			this.count = 0;
+			this.lines = 0;
+		}
+
+		@Override
+		public String toString() {
+			return new String(this.buffer, 0, this.count);
+		}
+	}
+
 	/**
 	 * Provides methods to handle System.in and System.out. I decided to put this class into {@code TestObject} to have
 	 * everything at one spot. I know that there are some arguments that would strongly speak in favor of putting this
 	 * in ań own class. Nevertheless, {@code TestObject} is made to make testing as easy as possible, and I'm convinced
 	 * that having {@code Console} nested in {@code TestObject} is easier to handle.
+	 * <p>
+	 * {@code System.out} and {@code Terminal.in} are replaced once by streams that forward to the session of the
+	 * current thread. This way, parallel sessions don't see each other's input and output.
 	 * 
 	 * @author Joshua Gleitze
 	 *
 	 */
 	private static class Console {
-		private static final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+		private static volatile RoutingPrintStream routingOut;
+		private static volatile boolean terminalRouted = false;
 		private static Class<?> terminalClass = null;
-		private static Object terminalIn;
 		private static boolean triedInformatikPackage = false;
 
 		/**
 		 * Gets everything that what was written to the Sysout since observing was started in one String.
 		 * 
+		 * @param current
+		 *            the session to get the output of.
 		 * @return A String containing everything that was printed to Sysout since Observing via
-		 *         {@link #observeSystemOut()} was called.
+		 *         {@link #observeSystemOut(Session)} was called.
 		 */
-		private static String getAll() {
-			return outContent.toString();
+		private static String getAll(Session current) {
+			current.out.flush();
+			return current.outContent.toString();
 		}
 
 		private static Class<?> loadTerminalClass() {
@@ -926,26 +1520,48 @@ public class TestObject {
 		}
 
 		/**
-		 * Starts to observe the Sysout. Don't forget to use {@link #resetSystemOut()} to stop observing after you're
-		 * done!.
+		 * Starts to observe the Sysout of the current thread. Don't forget to use {@link #resetSystemOut(Session)} to
+		 * stop observing after you're done!.
+		 * 
+		 * @param current
+		 *            the session of the current thread.
 		 */
-		private static void observeSystemOut() {
-			System.setOut(new PrintStream(outContent));
+		private static void observeSystemOut(Session current) {
+			if (System.out != routingOut) {
+				installRoutingOut();
+			}
+			current.capturing = true;
+		}
+
+		private static synchronized void installRoutingOut() {
+			if (System.out != routingOut) {
+				routingOut = new RoutingPrintStream(System.out);
+				System.setOut(routingOut);
+			}
 		}
 
 		/**
-		 * Stops observing the Sysout after it was started with {@link #observeSystemOut()}.
+		 * Stops observing the Sysout after it was started with {@link #observeSystemOut(Session)}.
+		 * 
+		 * @param current
+		 *            the session of the current thread.
 		 */
-		private static void resetSystemOut() {
-			System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.out)));
-			outContent.reset();
+		private static void resetSystemOut(Session current) {
+			current.capturing = false;
+			current.outContent.reset();
 		}
 
-		private static void resetTerminalInput() {
-			setTerminalInField(null);
+		private static void resetTerminalInput(Session current) {
+			current.terminalInput = null;
 		}
 
-		private static void setTerminalInField(Object value) {
+		/**
+		 * Replaces {@code Terminal.in} by a {@link RoutingReader}, unless that was already done.
+		 */
+		private static synchronized void routeTerminalIn() {
+			if (terminalRouted) {
+				return;
+			}
 			if (terminalClass == null) {
 				terminalClass = loadTerminalClass();
 			}
@@ -953,13 +1569,14 @@ public class TestObject {
 				Field in = terminalClass.getDeclaredField("in");
 				boolean wasAccessible = in.isAccessible();
 				in.setAccessible(true);
-				if (value == null) {
-					in.set(null, terminalIn);
-				} else {
-					terminalIn = in.get(null);
-					in.set(null, value);
+				Object terminalIn = in.get(null);
+				if (!(terminalIn instanceof BufferedReader)) {
+					fail("The field 'in' of your Terminal class is not a BufferedReader."
+							+ " Please use the Terminal class that was provided for the programming lecture at the KIT!.");
 				}
+				in.set(null, new RoutingReader((BufferedReader) terminalIn));
 				in.setAccessible(wasAccessible);
+				terminalRouted = true;
 			} catch (NoSuchFieldException e) {
 				String message = "";
 				message += "The implementation you have of the Terminal class does not have a field 'in'."
@@ -974,14 +1591,281 @@ public class TestObject {
 			}
 		}
 
-		private static void setTerminalInput(String input) {
+		private static void setTerminalInput(Session current, String input) {
 			if (input != null) {
-				BufferedReader newIn = new BufferedReader(new StringReader(input));
-				setTerminalInField(newIn);
+				if (!terminalRouted) {
+					routeTerminalIn();
+				}
+				current.terminalInput = new BufferedReader(new StringReader(input));
 			}
 		}
 	}
 
+	/**
+	 * Replaces {@code System.out}. Everything printed is forwarded to the session of the printing thread if that
+	 * session currently observes the Sysout, and to the original {@code System.out} otherwise. All methods of
+	 * {@link PrintStream} are overridden, so the monitor of this shared stream is never taken; the only monitor taken
+	 * is the one of the session's own stream, which no other thread uses.
+	 * 
+	 * @author agent
+	 *
+	 */
+	private static class RoutingPrintStream extends PrintStream {
+		private final PrintStream original;
+
+		private RoutingPrintStream(PrintStream original) {
+			super(original);
+			this.original = original;
+		}
+
+		private PrintStream target() {
+			Session current = session.get();
+			return current.capturing ? current.out : this.original;
+		}
+
+		@Override
+		public void write(int b) {
+			target().write(b);
+		}
+
+		@Override
+		public void write(byte[] buf, int off, int len) {
+			target().write(buf, off, len);
+		}
+
+		@Override
+		public void flush() {
+			target().flush();
+		}
+
+		@Override
+		public void close() {
+			target().flush();
+		}
+
+		@Override
+		public boolean checkError() {
+			return target().checkError();
+		}
+
+		@Override
+		public void print(boolean b) {
+			target().print(b);
+		}
+
+		@Override
+		public void print(char c) {
+			target().print(c);
+		}
+
+		@Override
+		public void print(int i) {
+			target().print(i);
+		}
+
+		@Override
+		public void print(long l) {
+			target().print(l);
+		}
+
+		@Override
+		public void print(float f) {
+			target().print(f);
+		}
+
+		@Override
+		public void print(double d) {
+			target().print(d);
+		}
+
+		@Override
+		public void print(char[] s) {
+			target().print(s);
+		}
+
+		@Override
+		public void print(String s) {
+			target().print(s);
+		}
+
+		@Override
+		public void print(Object obj) {
+			target().print(obj);
+		}
+
+		@Override
+		public void println() {
+			target().println();
+		}
+
+		@Override
+		public void println(boolean x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(char x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(int x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(long x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(float x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(double x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(char[] x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(String x) {
+			target().println(x);
+		}
+
+		@Override
+		public void println(Object x) {
+			target().println(x);
+		}
+
+		@Override
+		public PrintStream printf(String format, Object... args) {
+			target().printf(format, args);
+			return this;
+		}
+
+		@Override
+		public PrintStream printf(Locale l, String format, Object... args) {
+			target().printf(l, format, args);
+			return this;
+		}
+
+		@Override
+		public PrintStream format(String format, Object... args) {
+			target().format(format, args);
+			return this;
+		}
+
+		@Override
+		public PrintStream format(Locale l, String format, Object... args) {
+			target().format(l, format, args);
+			return this;
+		}
+
+		@Override
+		public PrintStream append(CharSequence csq) {
+			target().append(csq);
+			return this;
+		}
+
+		@Override
+		public PrintStream append(CharSequence csq, int start, int end) {
+			target().append(csq, start, end);
+			return this;
+		}
+
+		@Override
+		public PrintStream append(char c) {
+			target().append(c);
+			return this;
+		}
+	}
+
+	/**
+	 * Replaces {@code Terminal.in}. Reads from the input of the current thread's session if it has some, and from the
+	 * original {@code Terminal.in} otherwise. Like {@link RoutingPrintStream}, it never takes its own lock. Every line
+	 * read is a new command, so the command deadline (see {@link Watchdog}) is armed anew.
+	 * 
+	 * @author agent
+	 *
+	 */
+	private static class RoutingReader extends BufferedReader {
+		private final BufferedReader original;
+
+		private RoutingReader(BufferedReader original) {
+			super(new StringReader(""));
+			this.original = original;
+		}
+
+		private BufferedReader source() {
+			BufferedReader input = session.get().terminalInput;
+			return (input == null) ? this.original : input;
+		}
+
+		@Override
+		public String readLine() throws IOException {
+			Session current = session.get();
+			if (current.terminalInput == null) {
+				return this.original.readLine();
+			}
+			// the tested class pays for reading the line, as it would from a real terminal, but not for the rest
+			long harnessStart = Allocations.currentThreadAllocatedBytes();
+			if (current.commandDeadline != null) {
+				if (current.commandDeadline.hasExpired()) {
+					return null;
+				}
+				current.commandDeadline.cancel();
+			}
+			if (current.commandEvent != null) {
+				current.commandEvent.commit();
+				current.commandEvent = null;
+			}
+			current.harnessAllocated += Allocations.harnessSince(harnessStart);
+			String line = current.terminalInput.readLine();
+			harnessStart = Allocations.currentThreadAllocatedBytes();
+			current.commandDeadline = (line == null) ? null : Watchdog.armCommand(line);
+			if (line != null) {
+				current.commandsRead++;
+				current.commandEvent = Events.beginSessionCommand();
+				if (current.commandEvent != null) {
+					current.commandEvent.command = line;
+				}
+			}
+			current.harnessAllocated += Allocations.harnessSince(harnessStart);
+			return line;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return source().read();
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			return source().read(cbuf, off, len);
+		}
+
+		@Override
+		public boolean ready() throws IOException {
+			return source().ready();
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			return source().skip(n);
+		}
+
+		@Override
+		public void close() throws IOException {
+			// Terminal.in is shared by all sessions and must stay open.
+		}
+	}
+
 	/**
 	 * This exception is thrown if the tested method called {@link System#exit}. It is then handled to output a error
 	 * message for that.
@@ -1007,21 +1891,28 @@ public class TestObject {
 	 *
 	 */
 	private static class NoExitSecurityManager extends SecurityManager {
-		private static SecurityManager systemSecurityManager;
-
-		private static void reset() {
-			System.setSecurityManager(systemSecurityManager);
-		}
+		private static volatile boolean installed = false;
 
-		private static void setup() {
-			systemSecurityManager = System.getSecurityManager();
-			System.setSecurityManager(new NoExitSecurityManager());
+		/**
+		 * Installs the {@code NoExitSecurityManager}, unless this was done before. It stays installed, because
+		 * switching the security manager for every method call would not work for sessions that run in parallel.
+		 */
+		private static void install() {
+			if (!installed) {
+				synchronized (NoExitSecurityManager.class) {
+					if (!installed) {
+						System.setSecurityManager(new NoExitSecurityManager());
+						installed = true;
+					}
+				}
+			}
 		}
 
 		@Override
 		public void checkExit(int status) {
 			super.checkExit(status);
 			Class<?>[] classContext = this.getClassContext();
+			Class<?> clazz = clazz();
 			for (Class<?> c : classContext) {
 				if (c == clazz) {
 					throw new ExitException(status);
@@ -1049,12 +1940,13 @@ public class TestObject {
 	 * @since 24.01.2015
 	 *
 	 */
-	private static class TestClassLoader extends ClassLoader {
-		private final static byte[] classData = getClassData();
+	static class TestClassLoader extends ClassLoader {
+		private final static byte[] classData = BasicBlockInstrumenter.instrumentTestedClass(getClassData());
 		private static String packageName = getPackageName();
 
-		private TestClassLoader() {
-			super();
+		TestClassLoader() {
+			// the tested class shall see the classes TestObject sees, even if it was loaded in a test.batch.IsolatedRun
+			super(TestObject.class.getClassLoader());
 		}
 
 		private static String getPackageName() {
@@ -1069,7 +1961,7 @@ public class TestObject {
 		 * 
 		 * @return The tested class' file contents.
 		 */
-		private static byte[] getClassData() {
+		static byte[] getClassData() {
 			byte[] result = null;
 
 			if (className == null || className.length() == 0) {
@@ -1133,7 +2025,7 @@ public class TestObject {
 		 * 
 		 * @return The tested class
 		 */
-		private Class<?> loadClass() {
+		Class<?> loadClass() {
 			if (getPackage(packageName) == null) {
 				definePackage(className.substring(0, className.lastIndexOf(".")), "", "", "", "", "", "", null);
 			}
@@ -0,0 +1,614 @@
+package test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * Watches over all deadlines of a test run with one thread. JUnit's {@link org.junit.rules.Timeout} starts a new thread
+ * for every test method. The watchdog instead keeps the deadlines of all tests, method invocations and console commands
+ * in one timer wheel. If a deadline expires, the watchdog records the stack of the thread that missed it, interrupts
+ * that thread and, if it does not react, stops it. Recording the stack waits until the thread reaches a safepoint,
+ * which a loop compiled without safepoint polls may take long to do, so it is done in a separate thread and never
+ * holds up the other deadlines. A deadline that was cancelled never interrupts or stops its thread, even if it expired
+ * at the same moment. Stopping a thread may leave its {@link TestObject} session in any state, so every further test
+ * in a stopped thread fails right away.
+ * <p>
+ * The watchdog thread and its firing threads only run while there are deadlines. Once no deadline was armed for
+ * {@link #IDLE_TICKS} ticks, they end, and the next deadline starts them again. Every
+ * {@link test.batch.IsolatedRun} loads its own {@code Watchdog}, so a thread that kept running would keep the class
+ * loader of its run alive.
+ * <p>
+ * Use {@link #timeout(long)} instead of {@code new Timeout(...)}:
+ *
+ * <pre>
+ * <code>
+ * &#064;Rule
+ * public TestRule globalTimeout = Watchdog.timeout(5000);
+ * </code>
+ * </pre>
+ *
+ * All deadlines can be configured in one place, through these JVM variables (in milliseconds, {@code 0} means no
+ * deadline):
+ * <ul>
+ * <li>{@code -Dtest.timeout.test}: the deadline for every test method. Overrides what the test classes pass to
+ * {@link #timeout(long)}.
+ * <li>{@code -Dtest.timeout.invocation}: the deadline for every method call through {@link TestObject}. Default:
+ * {@code 0}.
+ * <li>{@code -Dtest.timeout.command}: the deadline for every command of an interactive console session, counted from
+ * the moment the tested class reads the command until it reads the next one. Default: {@code 0}.
+ * <li>{@code -Dtest.timeout.grace}: how long a thread that missed a deadline has to react to being interrupted, before
+ * it is stopped. Default: {@code 1000}.
+ * </ul>
+ * <p>
+ * By default, deadlines count the CPU time the watched thread used, not the time that passed. A test that is correct
+ * does not time out because other processes keep the machine busy. The budgets are multiplied with the
+ * {@link Calibration#factor() calibration factor} of this machine, which is determined before the first deadline is
+ * armed. Because a thread that waits uses no CPU time, a deadline expires anyway once {@code -Dtest.timeout.wallFactor}
+ * (default: {@code 4}) times its budget passed, but at most {@code -Dtest.timeout.maxWait} (in milliseconds, default:
+ * {@code 5000}) after its budget passed. A test with a budget of 5 seconds that waits for input that never comes thus
+ * fails after 10 seconds. Set {@code -Dtest.timeout.clock=wall} to count the time that passed instead. This is also
+ * done if the JVM cannot measure the CPU time of a thread.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Watchdog {
+	private static final long TEST_TIMEOUT = Long.getLong("test.timeout.test", -1);
+	private static final long INVOCATION_TIMEOUT = Long.getLong("test.timeout.invocation", 0);
+	private static final long COMMAND_TIMEOUT = Long.getLong("test.timeout.command", 0);
+	private static final long GRACE_PERIOD = Long.getLong("test.timeout.grace", 1000);
+	private static final long WALL_FACTOR = Long.getLong("test.timeout.wallFactor", 4);
+	private static final long MAX_WAIT = Long.getLong("test.timeout.maxWait", 5000);
+	private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+	private static final boolean cpuClock = useCpuClock();
+	private static final long TICK = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final int WHEEL_SIZE = 512;
+	/**
+	 * How many ticks the watchdog thread waits for new deadlines once the wheel is empty, before it ends.
+	 */
+	private static final int IDLE_TICKS = 100;
+	private static final boolean canStopThreads = canStopThreads();
+
+	/**
+	 * Deadlines that were armed, but are not yet in the wheel. Only the watchdog thread touches the wheel.
+	 */
+	private static final ConcurrentLinkedQueue<Deadline> armed = new ConcurrentLinkedQueue<Deadline>();
+	private static final List<List<Deadline>> wheel = new ArrayList<List<Deadline>>(WHEEL_SIZE);
+	private static volatile Thread watchdogThread;
+	/**
+	 * The threads that were stopped, and what they were doing. Stopping a thread may leave its {@link TestObject}
+	 * session in any state, so {@link TestObject} fails every further call in such a thread.
+	 */
+	private static final Map<Thread, String> stopped = Collections.synchronizedMap(new WeakHashMap<Thread, String>());
+	private static volatile boolean anyStopped = false;
+
+	static {
+		for (int i = 0; i < WHEEL_SIZE; i++) {
+			wheel.add(new ArrayList<Deadline>());
+		}
+	}
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private Watchdog() {
+	}
+
+	/**
+	 * Creates a rule that fails a test if it runs longer than {@code millis} milliseconds. The test keeps running in
+	 * the thread JUnit runs it in. The JVM variable {@code -Dtest.timeout.test} overrides {@code millis}. The rule also
+	 * assigns the {@link Metrics} of the test to it.
+	 *
+	 * @param millis
+	 *            The maximum run time of each test method, in milliseconds.
+	 * @return A rule to be used with {@link org.junit.Rule}.
+	 */
+	public static TestRule timeout(final long millis) {
+		final long timeout = testTimeout(millis);
+		return new TestRule() {
+			@Override
+			public Statement apply(Statement base, final Description description) {
+				final Statement tracked = Metrics.track(base, description);
+				return new Statement() {
+					@Override
+					public void evaluate() throws Throwable {
+						if (canStopThreads) {
+							evaluateWatched(tracked, timeout, "The test " + description.getDisplayName());
+						} else {
+							evaluateAbandoning(tracked, timeout, "The test " + description.getDisplayName());
+						}
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Arms a deadline for the current thread.
+	 *
+	 * @param millis
+	 *            How many milliseconds the current thread has. If {@code 0} or less, {@code null} is returned.
+	 * @param what
+	 *            What has to be done until the deadline, for the failure message.
+	 * @return The armed deadline. Don't forget to {@link Deadline#cancel() cancel} it!
+	 */
+	public static Deadline arm(long millis, String what) {
+		if (millis <= 0) {
+			return null;
+		}
+		// the first call calibrates, which must not count against the deadline
+		double factor = cpuClock ? Calibration.factor() : 1;
+		Deadline deadline = new Deadline(Thread.currentThread(), millis, what);
+		deadline.cpuStart = currentThreadCpuTime(); // -1 on virtual threads
+		if (cpuClock && deadline.cpuStart >= 0) {
+			deadline.countsCpu = true;
+			deadline.factor = factor;
+		}
+		schedule(deadline, deadline.budget());
+		return deadline;
+	}
+
+	/**
+	 * Tells whether a thread was stopped because it missed a deadline and did not react to being interrupted.
+	 *
+	 * @param thread
+	 *            A thread.
+	 * @return What the thread was doing when it was stopped, or {@code null} if it was not stopped.
+	 */
+	static String stoppedWhile(Thread thread) {
+		return anyStopped ? stopped.get(thread) : null;
+	}
+
+	/**
+	 * Returns the deadline of a test method that passes {@code millis} to {@link #timeout(long)}.
+	 *
+	 * @param millis
+	 *            What the test class passes to {@link #timeout(long)}.
+	 * @return The deadline in milliseconds, which {@code -Dtest.timeout.test} may override.
+	 */
+	static long testTimeout(long millis) {
+		return (TEST_TIMEOUT >= 0) ? TEST_TIMEOUT : millis;
+	}
+
+	/**
+	 * Returns how long a thread with a deadline of {@code millis}, armed now, may run at most: until the deadline
+	 * expired, whether it counts CPU time or not, and the thread had the grace period to react. A thread waiting for
+	 * such a thread can give up after that.
+	 *
+	 * @param millis
+	 *            The budget of the deadline in milliseconds, greater than {@code 0}.
+	 * @return How many milliseconds may pass.
+	 */
+	static long wallTimeLimit(long millis) {
+		long budget = cpuClock ? (long) Math.ceil(millis * Calibration.factor()) : millis;
+		long wall = budget + (cpuClock ? Math.min(budget * (WALL_FACTOR - 1), MAX_WAIT) : 0);
+		return wall + GRACE_PERIOD + 2 * TimeUnit.NANOSECONDS.toMillis(TICK);
+	}
+
+	/**
+	 * Returns the CPU time the current thread has used so far.
+	 *
+	 * @return The CPU time of the current thread in nanoseconds, or {@code -1} if it cannot be measured.
+	 */
+	static long currentThreadCpuTime() {
+		return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+	}
+
+	/**
+	 * Arms the deadline for a method invocation through {@link TestObject}, if one is configured.
+	 *
+	 * @param methodName
+	 *            The name of the invoked method.
+	 * @param arguments
+	 *            The arguments it is invoked with.
+	 * @param isConstructor
+	 *            Whether the constructor is invoked.
+	 * @return The armed deadline or {@code null}, if there is no deadline for invocations.
+	 */
+	static Deadline armInvocation(String methodName, Object[] arguments, boolean isConstructor) {
+		if (INVOCATION_TIMEOUT <= 0) {
+			return null;
+		}
+		return arm(INVOCATION_TIMEOUT, "The call " + TestObject.renderMethodCall(methodName, arguments, isConstructor));
+	}
+
+	/**
+	 * Arms the deadline for a console command, if one is configured.
+	 *
+	 * @param command
+	 *            The command that was read.
+	 * @return The armed deadline or {@code null}, if there is no deadline for commands.
+	 */
+	static Deadline armCommand(String command) {
+		return arm(COMMAND_TIMEOUT, "The command '" + command + "'");
+	}
+
+	private static void evaluateWatched(Statement base, long timeout, String test) throws Throwable {
+		Deadline deadline = arm(timeout, test);
+		Throwable thrown = null;
+		try {
+			base.evaluate();
+		} catch (Throwable t) {
+			thrown = t;
+		} finally {
+			if (deadline != null) {
+				deadline.cancel();
+			}
+		}
+		if (deadline != null && deadline.hasExpired()) {
+			Thread.interrupted(); // don't leak our interrupt into the next test
+			throw deadline.failure();
+		}
+		if (thrown != null) {
+			throw thrown;
+		}
+	}
+
+	/**
+	 * Runs the test in a new thread and abandons it if it does not finish in time. This is what JUnit does, and we
+	 * only do it if this JVM does not allow to stop a thread.
+	 */
+	private static void evaluateAbandoning(final Statement base, long timeout, String test) throws Throwable {
+		final Throwable[] thrown = new Throwable[1];
+		Thread testThread = SessionThreads.start(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					base.evaluate();
+				} catch (Throwable t) {
+					thrown[0] = t;
+				}
+			}
+		});
+		testThread.join(timeout);
+		if (testThread.isAlive()) {
+			Deadline deadline = new Deadline(testThread, timeout, test);
+			deadline.expire();
+			throw deadline.failure();
+		}
+		if (thrown[0] != null) {
+			throw thrown[0];
+		}
+	}
+
+	private static void schedule(Deadline deadline, long delayNanos) {
+		deadline.dueTime = System.nanoTime() + delayNanos;
+		armed.add(deadline);
+		if (watchdogThread == null) {
+			startWatchdog();
+		}
+	}
+
+	private static synchronized void startWatchdog() {
+		if (watchdogThread == null) {
+			// fires the deadlines that are due, so a thread whose stack cannot be recorded right away does not stop the
+			// wheel
+			final ExecutorService firing = Executors.newCachedThreadPool(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "test-watchdog-fire");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						watch(firing);
+					} finally {
+						firing.shutdown();
+					}
+				}
+			}, "test-watchdog");
+			thread.setDaemon(true);
+			thread.start();
+			watchdogThread = thread;
+		}
+	}
+
+	/**
+	 * The loop of the watchdog thread. Every tick, newly armed deadlines are put into the wheel and the deadlines in the
+	 * current slot are checked. Returns once the wheel was empty for {@link #IDLE_TICKS} ticks.
+	 */
+	private static void watch(ExecutorService firing) {
+		long tick = System.nanoTime() / TICK;
+		int scheduled = 0;
+		int idle = 0;
+		while (true) {
+			long now = System.nanoTime();
+			while (now / TICK < tick) {
+				LockSupport.parkNanos(TICK - now % TICK);
+				now = System.nanoTime();
+			}
+			Deadline deadline;
+			while ((deadline = armed.poll()) != null) {
+				long dueTick = Math.max((deadline.dueTime + TICK - 1) / TICK, tick);
+				deadline.rounds = (dueTick - tick) / WHEEL_SIZE;
+				wheel.get((int) (dueTick % WHEEL_SIZE)).add(deadline);
+				scheduled++;
+			}
+			List<Deadline> slot = wheel.get((int) (tick % WHEEL_SIZE));
+			for (int i = slot.size() - 1; i >= 0; i--) {
+				deadline = slot.get(i);
+				if (deadline.cancelled) {
+					remove(slot, i);
+					scheduled--;
+				} else if (deadline.rounds > 0) {
+					deadline.rounds--;
+				} else {
+					remove(slot, i);
+					scheduled--;
+					final Deadline due = deadline;
+					firing.execute(new Runnable() {
+						@Override
+						public void run() {
+							due.due();
+						}
+					});
+				}
+			}
+			tick++;
+			idle = (scheduled == 0) ? idle + 1 : 0;
+			if (idle >= IDLE_TICKS && stopWatchdog()) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Ends the watchdog thread if no deadline was armed in the meantime. A deadline that is armed while the thread
+	 * ends starts a new one.
+	 *
+	 * @return {@code true} if the watchdog thread has to end.
+	 */
+	private static boolean stopWatchdog() {
+		synchronized (Watchdog.class) {
+			if (!armed.isEmpty()) {
+				return false;
+			}
+			watchdogThread = null;
+		}
+		// schedule() may have seen the thread just before it was cleared
+		if (!armed.isEmpty()) {
+			startWatchdog();
+		}
+		return true;
+	}
+
+	private static void remove(List<Deadline> slot, int index) {
+		int last = slot.size() - 1;
+		slot.set(index, slot.get(last));
+		slot.remove(last);
+	}
+
+	private static boolean useCpuClock() {
+		if ("wall".equals(System.getProperty("test.timeout.clock")) || !threads.isThreadCpuTimeSupported()) {
+			return false;
+		}
+		if (!threads.isThreadCpuTimeEnabled()) {
+			threads.setThreadCpuTimeEnabled(true);
+		}
+		return true;
+	}
+
+	private static String millis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos) + " ms";
+	}
+
+	@SuppressWarnings("deprecation")
+	private static boolean canStopThreads() {
+		try {
+			new Thread().stop(); // the thread was not started, so nothing happens if stopping is possible.
+			return true;
+		} catch (UnsupportedOperationException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * A deadline for one thread. Created by the {@code arm} methods of {@link Watchdog}.
+	 *
+	 * @author agent
+	 * @version 1.0
+	 * @since 19.10.2026
+	 */
+	public static class Deadline {
+		private final Thread thread;
+		private final long timeout;
+		private final String what;
+		private volatile boolean cancelled = false;
+		private volatile boolean expired = false;
+		private volatile boolean stopped = false;
+		private volatile StackTraceElement[] stackTrace;
+		private volatile long cpuUsed = -1;
+		private volatile long wallUsed;
+		private final long armedAt = System.nanoTime();
+		private long cpuStart = -1;
+		private boolean countsCpu = false;
+		private double factor = 1;
+		private long dueTime;
+		private long rounds;
+
+		private Deadline(Thread thread, long timeout, String what) {
+			this.thread = thread;
+			this.timeout = timeout;
+			this.what = what;
+		}
+
+		/**
+		 * Cancels this deadline. Call this as soon as the watched work is done. Once this method returned, the deadline
+		 * will neither expire nor interrupt or stop the thread any more.
+		 */
+		public void cancel() {
+			synchronized (this) {
+				this.cancelled = true;
+			}
+		}
+
+		/**
+		 * @return {@code true} if the watched thread missed this deadline.
+		 */
+		public boolean hasExpired() {
+			return this.expired;
+		}
+
+		/**
+		 * @return The timeout of this deadline, in milliseconds.
+		 */
+		public long getTimeout() {
+			return this.timeout;
+		}
+
+		/**
+		 * Creates the failure to report for this deadline.
+		 *
+		 * @return An {@link AssertionError} explaining that the deadline was missed and where the thread was at that
+		 *         moment.
+		 */
+		public AssertionError failure() {
+			StringBuilder message = new StringBuilder();
+			message.append(this.what).append(" did not finish within ").append(this.timeout).append(" ms");
+			if (this.countsCpu) {
+				message.append(" of CPU time (").append(millis(budget())).append(" on this machine)");
+			}
+			message.append(". It ran for ").append(millis(this.wallUsed));
+			if (this.cpuUsed >= 0) {
+				message.append(" and used ").append(millis(this.cpuUsed)).append(" of CPU time");
+			}
+			message.append(". Maybe there is an endless loop?");
+			if (this.stopped) {
+				message.append(" It did not react to being interrupted and was stopped, so the following tests fail,")
+						.append(" too.");
+			}
+			message.append(" This is where it was:\n\n");
+			if (this.stackTrace != null) {
+				for (StackTraceElement element : this.stackTrace) {
+					message.append("\tat ").append(element).append('\n');
+				}
+			}
+			AssertionError failure = new AssertionError(message.toString());
+			if (this.stackTrace != null) {
+				failure.setStackTrace(this.stackTrace);
+			}
+			return failure;
+		}
+
+		/**
+		 * @return The CPU time budget, scaled to this machine, or the wall time budget, in nanoseconds.
+		 */
+		private long budget() {
+			return (long) (TimeUnit.MILLISECONDS.toNanos(this.timeout) * this.factor);
+		}
+
+		/**
+		 * @return How much time may pass until a deadline that counts CPU time expires anyway, in nanoseconds.
+		 */
+		private long wallBudget() {
+			long budget = budget();
+			return budget + Math.min(budget * (WALL_FACTOR - 1), TimeUnit.MILLISECONDS.toNanos(MAX_WAIT));
+		}
+
+		/**
+		 * @return The CPU time the watched thread used since the deadline was armed, or {@code -1} if it can not be
+		 *         measured.
+		 */
+		private long cpuUsed() {
+			if (this.cpuStart < 0) {
+				return -1;
+			}
+			long cpuTime = threads.getThreadCpuTime(this.thread.getId());
+			return (cpuTime < 0) ? -1 : cpuTime - this.cpuStart;
+		}
+
+		/**
+		 * Records where the thread is and how much time it used, and marks this deadline as expired, unless it was
+		 * cancelled in the meantime.
+		 *
+		 * @return {@code true} if the deadline expired, {@code false} if it was cancelled.
+		 */
+		private boolean expire() {
+			StackTraceElement[] trace = this.thread.getStackTrace();
+			long wall = System.nanoTime() - this.armedAt;
+			long cpu = cpuUsed();
+			synchronized (this) {
+				if (this.cancelled) {
+					return false;
+				}
+				this.stackTrace = trace;
+				this.wallUsed = wall;
+				this.cpuUsed = cpu;
+				this.expired = true;
+				return true;
+			}
+		}
+
+		/**
+		 * Called by a firing thread of the watchdog if the deadline's wall time is up. If the deadline counts CPU time
+		 * and the thread has some of its budget left, the deadline is scheduled again for the rest of the budget: the
+		 * thread can not use it up any sooner.
+		 */
+		private void due() {
+			if (this.cancelled) {
+				return;
+			}
+			if (!this.expired && this.countsCpu) {
+				long used = cpuUsed();
+				long wallLeft = wallBudget() - (System.nanoTime() - this.armedAt);
+				long cpuLeft = budget() - used;
+				if (used >= 0 && cpuLeft > 0 && wallLeft > 0) {
+					schedule(this, Math.min(cpuLeft, wallLeft));
+					return;
+				}
+			}
+			fire();
+		}
+
+		/**
+		 * The first time, the thread is interrupted. If it did not react within the grace period, it is stopped. The
+		 * thread is only interrupted or stopped while holding the lock {@link #cancel()} takes, so it can not hit the
+		 * thread once it went on to other work.
+		 */
+		@SuppressWarnings("deprecation")
+		private void fire() {
+			if (!this.expired) {
+				if (!expire()) {
+					return;
+				}
+				synchronized (this) {
+					if (!this.cancelled) {
+						this.thread.interrupt();
+					}
+				}
+				if (canStopThreads && GRACE_PERIOD >= 0) {
+					schedule(this, TimeUnit.MILLISECONDS.toNanos(GRACE_PERIOD));
+				}
+			} else if (canStopThreads) {
+				synchronized (this) {
+					if (!this.cancelled) {
+						Watchdog.stopped.put(this.thread, this.what);
+						anyStopped = true;
+						this.stopped = true;
+						this.thread.stop();
+					}
+				}
+			}
+		}
+	}
+}
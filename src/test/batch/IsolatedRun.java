@@ -0,0 +1,161 @@
+package test.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Runs a {@link WorkItem} in the current JVM, but in a fresh class loader. The tests, {@link test.TestObject} and the
+ * submission are loaded anew for every run, so the static state of the harness (above all the name of the tested class)
+ * does not survive from one work item to the next. JUnit, Hamcrest and the JDK are shared between all runs and thus
+ * only have to be loaded (and compiled by the JIT) once. So are {@link test.FixtureDirectory}, the state of the
+ * fixtures that has to exist once per JVM, and {@link test.Calibration}, so the machine is measured once. After every
+ * run, the batch scope of its {@link test.Fixtures} is closed and its {@link test.Metrics} are written.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class IsolatedRun {
+	/**
+	 * Classes in these packages are loaded once and shared between all runs.
+	 */
+	private static final String[] SHARED_PACKAGES = {
+			"org.junit.", "junit.", "org.hamcrest."
+	};
+	/**
+	 * Classes of the harness that are loaded once and shared between all runs.
+	 */
+	private static final String[] SHARED_CLASSES = {
+			"test.FixtureDirectory", "test.Calibration"
+	};
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private IsolatedRun() {
+	}
+
+	/**
+	 * Runs {@code item} in a fresh class loader.
+	 *
+	 * @param item
+	 *            The work item to run.
+	 * @param listener
+	 *            Will be notified about the test run. May be {@code null}.
+	 * @return The result of the test run.
+	 * @throws ClassNotFoundException
+	 *             if the test class of {@code item} cannot be found.
+	 */
+	public static Result run(WorkItem item, RunListener listener) throws ClassNotFoundException {
+		String previousClassName = System.getProperty("className");
+		Thread thread = Thread.currentThread();
+		ClassLoader previousContextLoader = thread.getContextClassLoader();
+		URLClassLoader loader = new URLClassLoader(classPath(item), new SharedClassLoader());
+		System.setProperty("className", item.getClassName());
+		thread.setContextClassLoader(loader);
+		try {
+			Class<?> testClass = Class.forName(item.getTestClassName(), true, loader);
+			JUnitCore core = new JUnitCore();
+			if (listener != null) {
+				core.addListener(listener);
+			}
+			return core.run(testClass);
+		} finally {
+			closeFixtures(loader);
+			closeMetrics(loader);
+			thread.setContextClassLoader(previousContextLoader);
+			if (previousClassName == null) {
+				System.clearProperty("className");
+			} else {
+				System.setProperty("className", previousClassName);
+			}
+			try {
+				loader.close();
+			} catch (IOException e) {
+				// we only close the loader to release its files early. If that fails, the garbage collector does it.
+			}
+		}
+	}
+
+	/**
+	 * Deletes the files the run created, and releases the shared ones, before its class loader is discarded.
+	 */
+	private static void closeFixtures(ClassLoader loader) {
+		try {
+			Class.forName("test.Fixtures", true, loader).getMethod("closeBatch").invoke(null);
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// the files are deleted when the JVM exits
+		}
+	}
+
+	/**
+	 * Writes the metrics of the run, if requested, and removes the shutdown hook that would otherwise write them and
+	 * keep the class loader alive until the JVM exits.
+	 */
+	private static void closeMetrics(ClassLoader loader) {
+		try {
+			Class.forName("test.Metrics", true, loader).getMethod("close").invoke(null);
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// the metrics are written when the JVM exits
+		}
+	}
+
+	/**
+	 * The class path of an isolated run: the submission first, then the harness and the tests.
+	 */
+	private static URL[] classPath(WorkItem item) {
+		List<URL> urls = new ArrayList<URL>();
+		addAll(urls, item.getSubmissionClassPath());
+		addAll(urls, System.getProperty("java.class.path"));
+		return urls.toArray(new URL[urls.size()]);
+	}
+
+	private static void addAll(List<URL> urls, String classPath) {
+		for (String entry : classPath.split(File.pathSeparator)) {
+			if (entry.length() > 0) {
+				try {
+					urls.add(new File(entry).toURI().toURL());
+				} catch (MalformedURLException e) {
+					throw new IllegalArgumentException("Bad class path entry: " + entry, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The parent of the class loaders used for isolated runs. Exposes the JDK and the classes in
+	 * {@link IsolatedRun#SHARED_PACKAGES} and {@link IsolatedRun#SHARED_CLASSES}, but nothing else of the application
+	 * class path.
+	 */
+	private static class SharedClassLoader extends ClassLoader {
+		private final ClassLoader applicationLoader = IsolatedRun.class.getClassLoader();
+
+		private SharedClassLoader() {
+			super(ClassLoader.getSystemClassLoader().getParent());
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			for (String sharedPackage : SHARED_PACKAGES) {
+				if (name.startsWith(sharedPackage)) {
+					return this.applicationLoader.loadClass(name);
+				}
+			}
+			for (String sharedClass : SHARED_CLASSES) {
+				if (name.equals(sharedClass) || name.startsWith(sharedClass + "$")) {
+					return this.applicationLoader.loadClass(name);
+				}
+			}
+			throw new ClassNotFoundException(name);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package test.batch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * The messages the {@link WorkerPool} and its {@link Worker}s exchange. All messages start with one command byte.
+ * Strings are sent as their length followed by their UTF-8 bytes, because {@link DataOutputStream#writeUTF(String)}
+ * cannot handle the long stack traces some submissions produce.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+class Protocol {
+	/**
+	 * worker to pool: the worker has loaded the harness and is ready to accept work items.
+	 */
+	static final byte READY = 1;
+	/**
+	 * pool to worker: run the work item that follows.
+	 */
+	static final byte RUN = 2;
+	/**
+	 * pool to worker: shut down.
+	 */
+	static final byte QUIT = 3;
+	/**
+	 * worker to pool: a test started. Followed by its display name.
+	 */
+	static final byte TEST_STARTED = 10;
+	/**
+	 * worker to pool: a test failed. Followed by its display name, the failure message and the stack trace.
+	 */
+	static final byte TEST_FAILURE = 11;
+	/**
+	 * worker to pool: an assumption of a test failed. Followed by its display name.
+	 */
+	static final byte TEST_ASSUMPTION_FAILURE = 12;
+	/**
+	 * worker to pool: a test was ignored. Followed by its display name.
+	 */
+	static final byte TEST_IGNORED = 13;
+	/**
+	 * worker to pool: a test finished. Followed by its display name.
+	 */
+	static final byte TEST_FINISHED = 14;
+	/**
+	 * worker to pool: the work item is done.
+	 */
+	static final byte ITEM_DONE = 20;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private Protocol() {
+	}
+
+	static void writeString(DataOutputStream out, String string) throws IOException {
+		byte[] bytes = (string == null ? "" : string).getBytes(UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, UTF_8);
+	}
+}
@@ -0,0 +1,78 @@
+package test.batch;
+
+/**
+ * One unit of work for the {@link WorkerPool}: a test class that shall be run against a submission. A submission is
+ * described by the class path its classes can be found on and the name of the tested class (what you would otherwise
+ * pass to the JVM through {@code -DclassName=}).
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class WorkItem {
+	private final String submissionClassPath;
+	private final String className;
+	private final String testClassName;
+
+	/**
+	 * Constructs a work item.
+	 *
+	 * @param submissionClassPath
+	 *            The class path the submission's classes can be found on. Multiple entries are separated by
+	 *            {@link java.io.File#pathSeparator}.
+	 * @param className
+	 *            The fully qualified name of the tested class.
+	 * @param testClassName
+	 *            The fully qualified name of the test class to run.
+	 */
+	public WorkItem(String submissionClassPath, String className, String testClassName) {
+		this.submissionClassPath = submissionClassPath;
+		this.className = className;
+		this.testClassName = testClassName;
+	}
+
+	/**
+	 * Parses a work item from one line of a work list. The line has to contain the submission's class path, the tested
+	 * class' name and the test class' name, separated by tabs.
+	 *
+	 * @param line
+	 *            the line to parse.
+	 * @return The work item described by {@code line}.
+	 * @throws IllegalArgumentException
+	 *             if {@code line} does not consist of exactly three tab separated fields.
+	 */
+	public static WorkItem parse(String line) {
+		String[] fields = line.split("\t");
+		if (fields.length != 3) {
+			throw new IllegalArgumentException("A work item must consist of three tab separated fields "
+					+ "(submission class path, class name, test class name), but got: '" + line + "'");
+		}
+		return new WorkItem(fields[0], fields[1], fields[2]);
+	}
+
+	/**
+	 * @return The class path the submission's classes can be found on.
+	 */
+	public String getSubmissionClassPath() {
+		return this.submissionClassPath;
+	}
+
+	/**
+	 * @return The fully qualified name of the tested class.
+	 */
+	public String getClassName() {
+		return this.className;
+	}
+
+	/**
+	 * @return The fully qualified name of the test class to run.
+	 */
+	public String getTestClassName() {
+		return this.testClassName;
+	}
+
+	@Override
+	public String toString() {
+		return this.testClassName + " on " + this.className + " (" + this.submissionClassPath + ")";
+	}
+}
@@ -0,0 +1,142 @@
+package test.batch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * A worker JVM of the {@link WorkerPool}. It connects to the pool, loads JUnit and the harness and then runs the work
+ * items the pool sends until it is told to quit. Every work item is run through {@link IsolatedRun}. The test events
+ * are streamed back to the pool while the tests run, so the pool still knows what happened if the worker dies.
+ * <p>
+ * This class is started by the {@link WorkerPool}. There should be no need to start it by hand.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class Worker {
+	/**
+	 * These classes are loaded before the worker reports to be ready, so the first work item does not have to pay for
+	 * it.
+	 */
+	private static final String[] PRELOADED_CLASSES = {
+			"org.junit.runner.JUnitCore", "org.junit.runners.BlockJUnit4ClassRunner", "org.junit.runners.Suite",
+			"org.junit.rules.Timeout", "org.junit.Assert", "org.hamcrest.CoreMatchers"
+	};
+
+	private final DataInputStream in;
+	private final DataOutputStream out;
+
+	private Worker(Socket socket) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+		this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+	}
+
+	/**
+	 * Starts a worker.
+	 *
+	 * @param args
+	 *            The only argument is the port on the loopback interface the pool listens on.
+	 * @throws IOException
+	 *             if the connection to the pool breaks.
+	 */
+	public static void main(String[] args) throws IOException {
+		Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]));
+		try {
+			new Worker(socket).serve();
+		} finally {
+			socket.close();
+		}
+		// a submission may have leaked non-daemon threads. They must not keep the worker alive.
+		System.exit(0);
+	}
+
+	private void serve() throws IOException {
+		for (String className : PRELOADED_CLASSES) {
+			try {
+				Class.forName(className);
+			} catch (ClassNotFoundException e) {
+				// not worth failing for, the work item will report it if JUnit really is missing.
+			}
+		}
+		this.out.writeByte(Protocol.READY);
+		this.out.flush();
+
+		while (this.in.readByte() == Protocol.RUN) {
+			WorkItem item = new WorkItem(Protocol.readString(this.in), Protocol.readString(this.in),
+					Protocol.readString(this.in));
+			StreamingListener listener = new StreamingListener();
+			try {
+				IsolatedRun.run(item, listener);
+			} catch (Throwable t) {
+				listener.sendFailure(item.getTestClassName(), t);
+			}
+			listener.send(Protocol.ITEM_DONE, null);
+			this.out.flush();
+		}
+	}
+
+	/**
+	 * Sends all test events to the pool.
+	 */
+	private class StreamingListener extends RunListener {
+
+		@Override
+		public void testStarted(Description description) throws Exception {
+			send(Protocol.TEST_STARTED, description.getDisplayName());
+			// if the test kills the worker, the pool shall know which test it was
+			Worker.this.out.flush();
+		}
+
+		@Override
+		public void testFailure(Failure failure) throws Exception {
+			sendFailure(failure.getDescription().getDisplayName(), failure.getException());
+		}
+
+		@Override
+		public void testAssumptionFailure(Failure failure) {
+			try {
+				send(Protocol.TEST_ASSUMPTION_FAILURE, failure.getDescription().getDisplayName());
+			} catch (IOException e) {
+				throw new IllegalStateException("Lost the connection to the worker pool!", e);
+			}
+		}
+
+		@Override
+		public void testIgnored(Description description) throws Exception {
+			send(Protocol.TEST_IGNORED, description.getDisplayName());
+		}
+
+		@Override
+		public void testFinished(Description description) throws Exception {
+			send(Protocol.TEST_FINISHED, description.getDisplayName());
+			Worker.this.out.flush();
+		}
+
+		private synchronized void send(byte event, String displayName) throws IOException {
+			Worker.this.out.writeByte(event);
+			if (displayName != null) {
+				Protocol.writeString(Worker.this.out, displayName);
+			}
+		}
+
+		private synchronized void sendFailure(String displayName, Throwable exception) throws IOException {
+			StringWriter trace = new StringWriter();
+			exception.printStackTrace(new PrintWriter(trace));
+			send(Protocol.TEST_FAILURE, displayName);
+			Protocol.writeString(Worker.this.out, exception.getMessage());
+			Protocol.writeString(Worker.this.out, trace.toString());
+		}
+	}
+}
@@ -0,0 +1,535 @@
+package test.batch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.internal.TextListener;
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Runs many {@link WorkItem}s in a pool of warm worker JVMs. Some submissions corrupt the JVM they run in (deep
+ * recursion, {@link OutOfMemoryError}s, leaked threads, ...). To keep them from influencing other submissions, every
+ * work item runs in a {@link Worker} process. Starting a cold JVM for every test class is slow, so the workers are
+ * started once, load JUnit and the harness, and then run work items until they were used {@code recycleAfter} times
+ * or crashed. Then they are replaced by a fresh worker.
+ * <p>
+ * Every worker has its own queue of work items. Work items of the same submission are put into the same queue. A worker
+ * that runs out of work steals work items from the end of the other workers' queues.
+ * <p>
+ * The results of all workers are merged into one {@link Result} and reported just like JUnit reports an in-process run.
+ * If a worker dies or does not finish a work item in time, a failure is reported for the tests that were running, or
+ * for the work item's test class if none was.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * java test.batch.WorkerPool [-workers N] [-recycle N] [-timeout MILLISECONDS] [-J&lt;jvm argument&gt;...] WORKLIST
+ * </pre>
+ *
+ * The work list contains one work item per line, see {@link WorkItem#parse(String)}. The workers are started with the
+ * class path of the pool.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class WorkerPool {
+	/**
+	 * How long we wait for a freshly started worker to report to be ready.
+	 */
+	private static final int WORKER_START_TIMEOUT = 60000;
+
+	private final int workerCount;
+	private final int recycleAfter;
+	private final int itemTimeout;
+	private final List<String> jvmArguments;
+
+	/**
+	 * Constructs a worker pool. The worker processes are only started once {@link #run(List, RunListener)} is called.
+	 *
+	 * @param workerCount
+	 *            How many worker JVMs to run in parallel.
+	 * @param recycleAfter
+	 *            After how many work items a worker is replaced by a fresh one.
+	 * @param itemTimeout
+	 *            How many milliseconds a worker may take for one work item before it is killed. {@code 0} for no limit.
+	 * @param jvmArguments
+	 *            Additional arguments for the worker JVMs, e.g. {@code -Xmx256m}.
+	 */
+	public WorkerPool(int workerCount, int recycleAfter, int itemTimeout, List<String> jvmArguments) {
+		if (workerCount < 1 || recycleAfter < 1 || itemTimeout < 0) {
+			throw new IllegalArgumentException("A worker pool needs at least one worker, which runs at least one "
+					+ "work item, and the timeout must not be negative!");
+		}
+		this.workerCount = workerCount;
+		this.recycleAfter = recycleAfter;
+		this.itemTimeout = itemTimeout;
+		this.jvmArguments = new ArrayList<String>(jvmArguments);
+	}
+
+	/**
+	 * Runs a worker pool from the command line. See the class documentation for the arguments.
+	 *
+	 * @param args
+	 *            the command line arguments.
+	 * @throws IOException
+	 *             if the work list cannot be read.
+	 * @throws InterruptedException
+	 *             if the pool is interrupted while waiting for its workers.
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int workers = Runtime.getRuntime().availableProcessors();
+		int recycle = 50;
+		int timeout = 0;
+		List<String> jvmArguments = new ArrayList<String>();
+		String workList = null;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-workers")) {
+				workers = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-recycle")) {
+				recycle = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-timeout")) {
+				timeout = Integer.parseInt(args[++i]);
+			} else if (args[i].startsWith("-J")) {
+				jvmArguments.add(args[i].substring(2));
+			} else {
+				workList = args[i];
+			}
+		}
+		if (workList == null) {
+			System.err.println("Usage: java " + WorkerPool.class.getName()
+					+ " [-workers N] [-recycle N] [-timeout MILLISECONDS] [-J<jvm argument>...] WORKLIST");
+			System.exit(2);
+		}
+
+		Result result = new WorkerPool(workers, recycle, timeout, jvmArguments).run(readWorkList(workList),
+				new TextListener(System.out));
+		System.exit(result.wasSuccessful() ? 0 : 1);
+	}
+
+	/**
+	 * Reads a work list file. Empty lines and lines starting with {@code #} are ignored.
+	 *
+	 * @param path
+	 *            path to the work list.
+	 * @return The work items in the list.
+	 * @throws IOException
+	 *             if the file cannot be read.
+	 */
+	public static List<WorkItem> readWorkList(String path) throws IOException {
+		List<WorkItem> items = new ArrayList<WorkItem>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(path), "UTF-8"));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.trim().length() > 0 && !line.startsWith("#")) {
+					items.add(WorkItem.parse(line));
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return items;
+	}
+
+	/**
+	 * Runs all {@code items} in the pool and blocks until they are done.
+	 *
+	 * @param items
+	 *            The work items to run.
+	 * @param listener
+	 *            Is notified about all tests of all work items, as if they had been run in this JVM. May be
+	 *            {@code null}.
+	 * @return The merged result of all work items.
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting for the workers.
+	 */
+	public Result run(List<WorkItem> items, RunListener listener) throws InterruptedException {
+		Result result = new Result();
+		List<RunListener> listeners = new ArrayList<RunListener>();
+		listeners.add(result.createListener());
+		if (listener != null) {
+			listeners.add(listener);
+		}
+		Reporter reporter = new Reporter(listeners);
+
+		List<Slot> slots = new ArrayList<Slot>();
+		for (int i = 0; i < this.workerCount; i++) {
+			slots.add(new Slot(slots, reporter));
+		}
+		// keep the work items of one submission together
+		Map<String, List<WorkItem>> submissions = new LinkedHashMap<String, List<WorkItem>>();
+		for (WorkItem item : items) {
+			String key = item.getSubmissionClassPath() + File.pathSeparator + item.getClassName();
+			if (!submissions.containsKey(key)) {
+				submissions.put(key, new ArrayList<WorkItem>());
+			}
+			submissions.get(key).add(item);
+		}
+		int slotIndex = 0;
+		for (List<WorkItem> submissionItems : submissions.values()) {
+			slots.get(slotIndex++ % slots.size()).queue.addAll(submissionItems);
+		}
+
+		reporter.started();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < slots.size(); i++) {
+			Thread thread = new Thread(slots.get(i), "worker-pool-" + i);
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		reporter.finished(result);
+		return result;
+	}
+
+	/**
+	 * Forwards the events the workers send to the listeners of the pool. The events of one work item are forwarded at
+	 * once, so the listeners see the tests of different work items one after another, as they would in-process.
+	 */
+	private static class Reporter {
+		private final List<RunListener> listeners;
+
+		private Reporter(List<RunListener> listeners) {
+			this.listeners = listeners;
+		}
+
+		private synchronized void started() {
+			Description description = Description.createSuiteDescription(WorkerPool.class.getName());
+			for (RunListener listener : this.listeners) {
+				try {
+					listener.testRunStarted(description);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+
+		private synchronized void finished(Result result) {
+			for (RunListener listener : this.listeners) {
+				try {
+					listener.testRunFinished(result);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+
+		private synchronized void report(List<Event> events) {
+			for (Event event : events) {
+				for (RunListener listener : this.listeners) {
+					try {
+						event.fire(listener);
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * One test event a worker sent.
+	 */
+	private static class Event {
+		private final byte type;
+		private final Description description;
+		private final Failure failure;
+
+		private Event(byte type, String displayName) {
+			this(type, displayName, null, null);
+		}
+
+		private Event(byte type, String displayName, String message, String trace) {
+			this.type = type;
+			this.description = Description.createSuiteDescription(displayName);
+			this.failure = (trace == null) ? null : new Failure(this.description, new RemoteException(message, trace));
+		}
+
+		private void fire(RunListener listener) throws Exception {
+			switch (this.type) {
+			case Protocol.TEST_STARTED:
+				listener.testStarted(this.description);
+				break;
+			case Protocol.TEST_FAILURE:
+				listener.testFailure(this.failure);
+				break;
+			case Protocol.TEST_ASSUMPTION_FAILURE:
+				listener.testAssumptionFailure(new Failure(this.description, new RemoteException(null, "")));
+				break;
+			case Protocol.TEST_IGNORED:
+				listener.testIgnored(this.description);
+				break;
+			case Protocol.TEST_FINISHED:
+				listener.testFinished(this.description);
+				break;
+			default:
+				throw new IllegalStateException("Unknown test event " + this.type);
+			}
+		}
+	}
+
+	/**
+	 * Stands in for an exception that occurred in a worker JVM. It prints the stack trace as it was printed in the
+	 * worker.
+	 */
+	private static class RemoteException extends Exception {
+		private static final long serialVersionUID = 2781985021541946853L;
+		private final String trace;
+
+		private RemoteException(String message, String trace) {
+			super(message);
+			this.trace = trace;
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+
+		@Override
+		public void printStackTrace(PrintWriter writer) {
+			writer.print(this.trace);
+		}
+
+		@Override
+		public void printStackTrace(PrintStream stream) {
+			stream.print(this.trace);
+		}
+	}
+
+	/**
+	 * A place for one worker JVM. Replaces the worker process whenever it crashed or was used {@link #recycleAfter}
+	 * times.
+	 */
+	private class Slot implements Runnable {
+		private final ConcurrentLinkedDeque<WorkItem> queue = new ConcurrentLinkedDeque<WorkItem>();
+		private final List<Slot> allSlots;
+		private final Reporter reporter;
+		private Process process;
+		private Socket socket;
+		private DataInputStream in;
+		private DataOutputStream out;
+		private int itemsRun;
+
+		private Slot(List<Slot> allSlots, Reporter reporter) {
+			this.allSlots = allSlots;
+			this.reporter = reporter;
+		}
+
+		@Override
+		public void run() {
+			WorkItem item;
+			try {
+				while ((item = nextItem()) != null) {
+					if (this.process == null) {
+						startWorker();
+					}
+					runItem(item);
+					if (this.process != null && this.itemsRun >= WorkerPool.this.recycleAfter) {
+						stopWorker();
+					}
+				}
+			} finally {
+				if (this.process != null) {
+					stopWorker();
+				}
+			}
+		}
+
+		/**
+		 * Takes the next work item from this slot's queue or steals one from another slot.
+		 */
+		private WorkItem nextItem() {
+			WorkItem item = this.queue.pollFirst();
+			if (item != null) {
+				return item;
+			}
+			int start = this.allSlots.indexOf(this);
+			for (int i = 1; i < this.allSlots.size(); i++) {
+				item = this.allSlots.get((start + i) % this.allSlots.size()).queue.pollLast();
+				if (item != null) {
+					return item;
+				}
+			}
+			return null;
+		}
+
+		private void runItem(WorkItem item) {
+			List<Event> events = new ArrayList<Event>();
+			List<String> running = new ArrayList<String>();
+			String suffix = " [" + item.getClassName() + " @ " + item.getSubmissionClassPath() + "]";
+			if (this.process == null) {
+				events.add(new Event(Protocol.TEST_FAILURE, item.getTestClassName() + suffix,
+						"Could not start a worker", "Could not start a worker JVM to run " + item + "\n"));
+				this.reporter.report(events);
+				return;
+			}
+			this.itemsRun++;
+			try {
+				this.out.writeByte(Protocol.RUN);
+				Protocol.writeString(this.out, item.getSubmissionClassPath());
+				Protocol.writeString(this.out, item.getClassName());
+				Protocol.writeString(this.out, item.getTestClassName());
+				this.out.flush();
+				long deadline = System.currentTimeMillis() + WorkerPool.this.itemTimeout;
+				byte type;
+				while ((type = readEventType(deadline)) != Protocol.ITEM_DONE) {
+					String displayName = Protocol.readString(this.in) + suffix;
+					if (type == Protocol.TEST_FAILURE) {
+						events.add(new Event(type, displayName, Protocol.readString(this.in),
+								Protocol.readString(this.in)));
+					} else {
+						events.add(new Event(type, displayName));
+					}
+					if (type == Protocol.TEST_STARTED) {
+						running.add(displayName);
+					} else if (type == Protocol.TEST_FINISHED) {
+						running.remove(displayName);
+					}
+				}
+			} catch (SocketTimeoutException e) {
+				String message = "The worker did not finish " + item + " within " + WorkerPool.this.itemTimeout
+						+ " ms and was killed.";
+				abort(events, running, item.getTestClassName() + suffix, message);
+				killWorker();
+			} catch (IOException e) {
+				String message = "The worker JVM died while running " + item + " (" + exitStatus() + ").";
+				abort(events, running, item.getTestClassName() + suffix, message);
+				killWorker();
+			}
+			this.reporter.report(events);
+		}
+
+		/**
+		 * Reports the failure of a work item the worker could not finish. The tests that were running fail and are
+		 * finished, so the listeners don't wait for them forever. If no test was running, the test class fails.
+		 */
+		private void abort(List<Event> events, List<String> running, String testClass, String message) {
+			if (running.isEmpty()) {
+				events.add(new Event(Protocol.TEST_FAILURE, testClass, message, message + "\n"));
+			}
+			for (String displayName : running) {
+				events.add(new Event(Protocol.TEST_FAILURE, displayName, message, message + "\n"));
+				events.add(new Event(Protocol.TEST_FINISHED, displayName));
+			}
+		}
+
+		/**
+		 * Reads the type of the next event, but only waits until {@code deadline} if the pool has an item timeout.
+		 */
+		private byte readEventType(long deadline) throws IOException {
+			if (WorkerPool.this.itemTimeout > 0) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					throw new SocketTimeoutException();
+				}
+				this.socket.setSoTimeout((int) remaining);
+			}
+			return this.in.readByte();
+		}
+
+		private void startWorker() {
+			this.itemsRun = 0;
+			ServerSocket server = null;
+			try {
+				server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+				server.setSoTimeout(WORKER_START_TIMEOUT);
+				List<String> command = new ArrayList<String>();
+				command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+				command.addAll(WorkerPool.this.jvmArguments);
+				command.add("-cp");
+				command.add(System.getProperty("java.class.path"));
+				command.add(Worker.class.getName());
+				command.add(String.valueOf(server.getLocalPort()));
+				this.process = new ProcessBuilder(command).inheritIO().start();
+				this.socket = server.accept();
+				this.in = new DataInputStream(new BufferedInputStream(this.socket.getInputStream()));
+				this.out = new DataOutputStream(new BufferedOutputStream(this.socket.getOutputStream()));
+				if (this.in.readByte() != Protocol.READY) {
+					throw new EOFException("The worker did not report to be ready.");
+				}
+			} catch (IOException e) {
+				System.err.println("Could not start a worker JVM: " + e.getMessage());
+				killWorker();
+			} finally {
+				if (server != null) {
+					try {
+						server.close();
+					} catch (IOException e) {
+						// the server socket is not needed any more, we don't care.
+					}
+				}
+			}
+		}
+
+		private void stopWorker() {
+			try {
+				this.out.writeByte(Protocol.QUIT);
+				this.out.flush();
+				if (!this.process.waitFor(WORKER_START_TIMEOUT, TimeUnit.MILLISECONDS)) {
+					killWorker();
+				}
+			} catch (IOException e) {
+				// the worker is already gone.
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				killWorker();
+			}
+		}
+
+		private void killWorker() {
+			if (this.socket != null) {
+				try {
+					this.socket.close();
+				} catch (IOException e) {
+					// we are throwing the worker away anyway.
+				}
+			}
+			if (this.process != null) {
+				this.process.destroy();
+			}
+			this.process = null;
+			this.socket = null;
+			this.in = null;
+			this.out = null;
+		}
+
+		private String exitStatus() {
+			try {
+				if (this.process.waitFor(1, TimeUnit.SECONDS)) {
+					return "exit code " + this.process.exitValue();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "exit code unknown";
+		}
+	}
+}
@@ -0,0 +1,10 @@
+/**
+ * Contains classes to run many test classes against many submissions in one batch. The core class is
+ * {@link test.batch.WorkerPool}. It keeps a pool of warm worker JVMs that run the work items, so a submission that
+ * crashes or corrupts its JVM cannot influence the results of other submissions.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+package test.batch;
@@ -0,0 +1,195 @@
+package test.test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.is;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import test.BasicBlockInstrumenter;
+import test.Coverage;
+
+/**
+ * Checks the {@link BasicBlockInstrumenter} on {@link BranchingClass}, which has every kind of control flow the
+ * instrumenter has to relocate. The instrumented class is defined and run, so the JVM verifies it, and it has to
+ * compute the same results as the original class. This works without {@code -Dtest.operations=true} or
+ * {@code -Dtest.coverage}.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class BasicBlockInstrumenterTest {
+	/**
+	 * The methods whose every block is executed by {@link #exercise(Class)}.
+	 */
+	private static final List<String> FULLY_EXERCISED = Arrays.asList("tableSwitch(I)I", "lookupSwitch(I)I",
+			"tryCatch(Ljava/lang/String;)I", "nestedTry([II)I", "wide(I)J", "uninitialized(I)Ljava/lang/String;");
+
+	/**
+	 * Tests the probes for {@code Operations}. Asserts that:
+	 * <ul>
+	 * <li>the instrumented class is valid and computes the same results as the original class.
+	 * </ul>
+	 */
+	@Test
+	public void testCountingProbes() throws Exception {
+		BasicBlockInstrumenter instrumenter = new BasicBlockInstrumenter(classFile(), true, false);
+		assertThat(exercise(define(instrumenter.instrument())), is(exercise(BranchingClass.class)));
+	}
+
+	/**
+	 * Tests the probes for {@link Coverage}. Asserts that:
+	 * <ul>
+	 * <li>the instrumented class is valid and computes the same results as the original class.
+	 * <li>every block of a method is reported as executed if every way through the method was taken, so the probes
+	 * are where the jumps, switches and exception handlers land.
+	 * </ul>
+	 */
+	@Test
+	public void testCoverageProbes() throws Exception {
+		checkCoverage(new BasicBlockInstrumenter(classFile(), false, true));
+	}
+
+	/**
+	 * Tests both probes at once. Asserts that:
+	 * <ul>
+	 * <li>the instrumented class is valid and computes the same results as the original class.
+	 * <li>the coverage probes are where the jumps, switches and exception handlers land.
+	 * </ul>
+	 */
+	@Test
+	public void testBothProbes() throws Exception {
+		checkCoverage(new BasicBlockInstrumenter(classFile(), true, true));
+	}
+
+	/**
+	 * Tests class files that cannot be instrumented. Asserts that:
+	 * <ul>
+	 * <li>an {@link IllegalStateException} is thrown for a file that is no class file, and for a truncated class file.
+	 * </ul>
+	 */
+	@Test
+	public void testMalformedClassFiles() throws IOException {
+		byte[] classFile = classFile();
+		for (byte[] malformed : new byte[][] {
+				"no class".getBytes("UTF-8"), Arrays.copyOf(classFile, classFile.length / 2)
+		}) {
+			try {
+				new BasicBlockInstrumenter(malformed, true, true).instrument();
+				fail("A malformed class file was instrumented.");
+			} catch (IllegalStateException e) {
+				// what we wanted
+			}
+		}
+	}
+
+	private static void checkCoverage(BasicBlockInstrumenter instrumenter) throws Exception {
+		byte[] instrumented = instrumenter.instrument();
+		List<Integer> blockMethods = instrumenter.getBlockMethods();
+		List<String> methodNames = instrumenter.getMethodNames();
+		boolean[] previous = Coverage.probes;
+		boolean[] probes = new boolean[blockMethods.size()];
+		Coverage.probes = probes;
+		try {
+			assertThat(exercise(define(instrumented)), is(exercise(BranchingClass.class)));
+		} finally {
+			Coverage.probes = previous;
+		}
+		for (String method : FULLY_EXERCISED) {
+			assertTrue(method + " was not instrumented.", methodNames.contains(method));
+		}
+		for (int block = 0; block < probes.length; block++) {
+			String method = methodNames.get(blockMethods.get(block));
+			if (FULLY_EXERCISED.contains(method)) {
+				assertTrue("Block " + block + " of " + method + " was not reported as executed.", probes[block]);
+			}
+		}
+	}
+
+	/**
+	 * Calls every method of {@code branching} with arguments that take every way through the method.
+	 *
+	 * @return The results of the calls, or the exceptions they threw.
+	 */
+	private static List<Object> exercise(Class<?> branching) throws Exception {
+		List<Object> results = new ArrayList<Object>();
+		for (int value = -1; value <= 6; value++) {
+			results.add(call(branching, "tableSwitch", int.class, value));
+		}
+		for (int value : new int[] {-5, 100, 10000, 1000000, 7}) {
+			results.add(call(branching, "lookupSwitch", int.class, value));
+		}
+		for (String value : new String[] {"insert", "remove", "quit", "info"}) {
+			results.add(call(branching, "stringSwitch", String.class, value));
+		}
+		for (String value : new String[] {"21", "twenty-one"}) {
+			results.add(call(branching, "tryCatch", String.class, value));
+		}
+		results.add(call(branching, "nestedTry", int[].class, new int[] {4, 2}, 1));
+		results.add(call(branching, "nestedTry", int[].class, new int[] {0, 2}, 1));
+		results.add(call(branching, "nestedTry", int[].class, new int[] {4}, 3));
+		for (int seed : new int[] {1, -7}) {
+			results.add(call(branching, "wide", int.class, seed));
+		}
+		for (int seed = -300; seed <= 300; seed += 3) {
+			results.add(call(branching, "longMethod", int.class, seed));
+		}
+		for (int value : new int[] {-12, 3, 11, 4}) {
+			results.add(call(branching, "uninitialized", int.class, value));
+		}
+		return results;
+	}
+
+	private static Object call(Class<?> branching, String method, Class<?> firstFormalArgument, Object... arguments)
+			throws Exception {
+		Class<?>[] formalArguments = (arguments.length == 1) ? new Class<?>[] {
+				firstFormalArgument
+		} : new Class<?>[] {
+				firstFormalArgument, int.class
+		};
+		try {
+			return branching.getMethod(method, formalArguments).invoke(null, arguments);
+		} catch (InvocationTargetException e) {
+			return e.getCause().getClass();
+		}
+	}
+
+	private static byte[] classFile() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (InputStream in = BranchingClass.class.getResourceAsStream("BranchingClass.class")) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) > 0) {
+				bytes.write(buffer, 0, read);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Defines {@code classFile} in a new class loader, and so lets the JVM verify it.
+	 */
+	private static Class<?> define(byte[] classFile) throws ClassNotFoundException {
+		DefiningClassLoader loader = new DefiningClassLoader();
+		loader.define(classFile);
+		return Class.forName(BranchingClass.class.getName(), true, loader);
+	}
+
+	private static class DefiningClassLoader extends ClassLoader {
+		private DefiningClassLoader() {
+			super(BasicBlockInstrumenterTest.class.getClassLoader());
+		}
+
+		private void define(byte[] classFile) {
+			defineClass(BranchingClass.class.getName(), classFile, 0, classFile.length);
+		}
+	}
+}
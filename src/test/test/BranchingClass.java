@@ -0,0 +1,275 @@
+package test.test;
+
+/**
+ * A class with every kind of control flow that {@code BasicBlockInstrumenter} has to relocate: switches, exception
+ * handlers, {@code wide} instructions, long methods and objects that are created while a branch is taken.
+ */
+public class BranchingClass {
+	public static int tableSwitch(int value) {
+		switch (value) {
+		case 0:
+			return 10;
+		case 1:
+			return 11;
+		case 2:
+			return 12;
+		case 3:
+		case 4:
+			return 34;
+		case 5:
+			return 15;
+		default:
+			return -1;
+		}
+	}
+
+	public static int lookupSwitch(int value) {
+		switch (value) {
+		case -5:
+			return 1;
+		case 100:
+			return 2;
+		case 10000:
+			return 3;
+		case 1000000:
+			return 4;
+		default:
+			return 0;
+		}
+	}
+
+	public static int stringSwitch(String value) {
+		switch (value) {
+		case "insert":
+			return 1;
+		case "remove":
+			return 2;
+		case "quit":
+			return 3;
+		default:
+			return 0;
+		}
+	}
+
+	public static int tryCatch(String value) {
+		int result;
+		try {
+			result = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			result = -1;
+		}
+		return result * 2;
+	}
+
+	public static int nestedTry(int[] values, int index) {
+		try {
+			try {
+				return values[index] / values[0];
+			} catch (ArithmeticException e) {
+				return -1;
+			}
+		} catch (ArrayIndexOutOfBoundsException e) {
+			return -2;
+		}
+	}
+
+	public static long wide(int seed) {
+		// 256 slots, so that the following locals need wide loads and stores
+		long l0, l1, l2, l3, l4, l5, l6, l7, l8, l9, l10, l11, l12, l13, l14, l15;
+		long l16, l17, l18, l19, l20, l21, l22, l23, l24, l25, l26, l27, l28, l29, l30, l31;
+		long l32, l33, l34, l35, l36, l37, l38, l39, l40, l41, l42, l43, l44, l45, l46, l47;
+		long l48, l49, l50, l51, l52, l53, l54, l55, l56, l57, l58, l59, l60, l61, l62, l63;
+		long l64, l65, l66, l67, l68, l69, l70, l71, l72, l73, l74, l75, l76, l77, l78, l79;
+		long l80, l81, l82, l83, l84, l85, l86, l87, l88, l89, l90, l91, l92, l93, l94, l95;
+		long l96, l97, l98, l99, l100, l101, l102, l103, l104, l105, l106, l107, l108, l109, l110, l111;
+		long l112, l113, l114, l115, l116, l117, l118, l119, l120, l121, l122, l123, l124, l125, l126, l127;
+		l127 = seed;
+		int counter = seed;
+		for (int i = 0; i < 3; i++) {
+			counter += 1000;
+		}
+		return counter + l127;
+	}
+
+	public static int longMethod(int seed) {
+		int x = seed;
+		if ((x & 2) != 0) {
+			x += 8;
+		} else {
+			x ^= x >>> 2;
+		}
+		if ((x & 4) != 0) {
+			x += 15;
+		} else {
+			x ^= x >>> 3;
+		}
+		if ((x & 8) != 0) {
+			x += 22;
+		} else {
+			x ^= x >>> 4;
+		}
+		if ((x & 16) != 0) {
+			x += 29;
+		} else {
+			x ^= x >>> 5;
+		}
+		if ((x & 32) != 0) {
+			x += 36;
+		} else {
+			x ^= x >>> 6;
+		}
+		if ((x & 64) != 0) {
+			x += 43;
+		} else {
+			x ^= x >>> 7;
+		}
+		if ((x & 128) != 0) {
+			x += 50;
+		} else {
+			x ^= x >>> 8;
+		}
+		if ((x & 256) != 0) {
+			x += 57;
+		} else {
+			x ^= x >>> 9;
+		}
+		if ((x & 512) != 0) {
+			x += 64;
+		} else {
+			x ^= x >>> 10;
+		}
+		if ((x & 1024) != 0) {
+			x += 71;
+		} else {
+			x ^= x >>> 11;
+		}
+		if ((x & 2048) != 0) {
+			x += 78;
+		} else {
+			x ^= x >>> 12;
+		}
+		if ((x & 4096) != 0) {
+			x += 85;
+		} else {
+			x ^= x >>> 13;
+		}
+		if ((x & 8192) != 0) {
+			x += 92;
+		} else {
+			x ^= x >>> 1;
+		}
+		if ((x & 16384) != 0) {
+			x += 99;
+		} else {
+			x ^= x >>> 2;
+		}
+		if ((x & 32768) != 0) {
+			x += 106;
+		} else {
+			x ^= x >>> 3;
+		}
+		if ((x & 65536) != 0) {
+			x += 113;
+		} else {
+			x ^= x >>> 4;
+		}
+		if ((x & 131072) != 0) {
+			x += 120;
+		} else {
+			x ^= x >>> 5;
+		}
+		if ((x & 262144) != 0) {
+			x += 127;
+		} else {
+			x ^= x >>> 6;
+		}
+		if ((x & 524288) != 0) {
+			x += 134;
+		} else {
+			x ^= x >>> 7;
+		}
+		if ((x & 1048576) != 0) {
+			x += 141;
+		} else {
+			x ^= x >>> 8;
+		}
+		if ((x & 2097152) != 0) {
+			x += 148;
+		} else {
+			x ^= x >>> 9;
+		}
+		if ((x & 4194304) != 0) {
+			x += 155;
+		} else {
+			x ^= x >>> 10;
+		}
+		if ((x & 8388608) != 0) {
+			x += 162;
+		} else {
+			x ^= x >>> 11;
+		}
+		if ((x & 16777216) != 0) {
+			x += 169;
+		} else {
+			x ^= x >>> 12;
+		}
+		if ((x & 33554432) != 0) {
+			x += 176;
+		} else {
+			x ^= x >>> 13;
+		}
+		if ((x & 67108864) != 0) {
+			x += 183;
+		} else {
+			x ^= x >>> 1;
+		}
+		if ((x & 134217728) != 0) {
+			x += 190;
+		} else {
+			x ^= x >>> 2;
+		}
+		if ((x & 268435456) != 0) {
+			x += 197;
+		} else {
+			x ^= x >>> 3;
+		}
+		if ((x & 536870912) != 0) {
+			x += 204;
+		} else {
+			x ^= x >>> 4;
+		}
+		if ((x & 1073741824) != 0) {
+			x += 211;
+		} else {
+			x ^= x >>> 5;
+		}
+		if ((x & 1) != 0) {
+			x += 218;
+		} else {
+			x ^= x >>> 6;
+		}
+		if ((x & 2) != 0) {
+			x += 225;
+		} else {
+			x ^= x >>> 7;
+		}
+		x = Integer.rotateLeft(x, 7) ^ Integer.reverse(x) + Integer.highestOneBit(x) * 31 + Integer.bitCount(x);
+		x = Integer.rotateRight(x, 5) ^ Integer.reverse(x) + Integer.lowestOneBit(x) * 17 + Integer.signum(x);
+		if (x < 0) {
+			x = ~x;
+		}
+		x = Integer.rotateLeft(x, 3) ^ Integer.reverse(x) + Integer.highestOneBit(x) * 13 + Integer.bitCount(x);
+		return x % 3 == 0 ? x
+				: Integer.rotateRight(x, 9) ^ Integer.reverse(x) + Integer.lowestOneBit(x) * 11 + Integer.signum(x)
+						+ Integer.numberOfTrailingZeros(x) * 5 + Integer.numberOfLeadingZeros(x) * 9
+						+ Integer.reverseBytes(x) * 3 + Integer.bitCount(x) * 7;
+	}
+
+	public static String uninitialized(int value) {
+		if (value < 0) {
+			value = -value;
+		}
+		return new StringBuilder(value > 10 ? "large " : "small ")
+				.append(new TestClass(value % 2 == 0 ? value : -value).add(1)).toString();
+	}
+}
@@ -0,0 +1,85 @@
+package test.test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import test.InteractiveConsoleTest;
+
+/**
+ * Checks that sessions on the interactive console, run in parallel by
+ * {@link InteractiveConsoleTest#concurrentSessions(Runnable...)}, don't see each other's input, output or tested class.
+ * Set up this class to test {@code test.test.TestClass}. Its {@code main} method prints every line it reads, prefixed
+ * with its first argument and followed by how often it printed a line since its class was reset.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class ConcurrentSessionsTest extends InteractiveConsoleTest {
+	private static final int LINES = 200;
+
+	/**
+	 * Runs four sessions in parallel. Asserts that:
+	 * <ul>
+	 * <li>every session's output consists of exactly the lines it read, in order.
+	 * <li>every session has its own static state of the tested class.
+	 * </ul>
+	 */
+	@Test
+	public void testSeparateSessions() {
+		concurrentSessions(session("a"), session("b"), session("c"), session("d"));
+	}
+
+	/**
+	 * Runs a session that finishes and one that waits forever. Asserts that:
+	 * <ul>
+	 * <li>the waiting session misses its deadline, although it uses no CPU time, and the test fails because of it.
+	 * <li>the waiting session is interrupted and does not keep running.
+	 * </ul>
+	 */
+	@Test
+	public void testHangingSession() throws InterruptedException {
+		final Thread[] hanging = new Thread[1];
+		AssertionError failure = null;
+		try {
+			concurrentSessions(200, session("a"), new Runnable() {
+				@Override
+				public void run() {
+					hanging[0] = Thread.currentThread();
+					try {
+						new CountDownLatch(1).await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+		} catch (AssertionError e) {
+			failure = e;
+		}
+		assertNotNull("A session that never finished was not noticed.", failure);
+		assertThat(failure.getMessage(), containsString("The session 2 of 2"));
+		hanging[0].join(1000);
+		assertFalse(hanging[0].isAlive());
+	}
+
+	private Runnable session(final String name) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				String[] commands = new String[LINES];
+				String[] expected = new String[LINES];
+				for (int i = 0; i < LINES; i++) {
+					commands[i] = name + i;
+					expected[i] = name + ":" + name + i + " " + (i + 1);
+				}
+				multiLineTest(addQuit(commands), expected, name + ":");
+			}
+		};
+	}
+}
@@ -1,10 +1,40 @@
 package test.test;
 
 import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.anyOf;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assume;
+import org.junit.ComparisonFailure;
 import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
 
+import test.Budget;
+import test.Calibration;
+import test.Complexity;
+import test.Coverage;
+import test.Footprint;
+import test.Hashing;
+import test.Measurement;
+import test.Metrics;
+import test.Operations;
+import test.Randomness;
 import test.TestObject;
 
 /**
@@ -38,6 +68,414 @@ public class FrameworkTest {
 		TestObject.resetClass();
 	}
 
+	/**
+	 * tests running methods on instances of the tested class. Asserts that:
+	 * <ul>
+	 * <li>instance methods run on the instance the {@code TestObject} represents.
+	 * <li>{@code TestObject}s passed as arguments or returned are translated.
+	 * </ul>
+	 */
+	@Test
+	public void testInstanceMethods() {
+		TestObject testObject = new TestObject(1);
+		assertThat(testObject.run(int.class, "add", 2), is(3));
+		TestObject combined = testObject.run(TestObject.class, "combine", new TestObject(4));
+		assertThat(combined.run(int.class, "add", 0), is(7));
+	}
+
+	/**
+	 * tests the {@link TestObject#setNextMethodCallInput(String)} functionality. Asserts that:
+	 * <ul>
+	 * <li>the tested class reads the input through its {@code Terminal} class.
+	 * <li>{@link TestObject#getLastMethodOutput()} returns what it printed.
+	 * </ul>
+	 */
+	@Test
+	public void testConsoleInput() {
+		TestObject.setNextMethodCallInput("a\nb\nquit\n");
+		TestObject.runStaticVoid("echo");
+		assertThat(TestObject.getLastMethodOutput(), is("a" + System.lineSeparator() + "b" + System.lineSeparator()));
+	}
+
+	/**
+	 * tests the {@link Metrics} recorded by {@code TestObject}. Asserts that:
+	 * <ul>
+	 * <li>every reset and every invocation is counted.
+	 * <li>the checks after every invocation are counted as assertions, and so is building the failure message of a
+	 * method that cannot be invoked, which is no invocation.
+	 * <li>the measurements can be exported as JSON and CSV.
+	 * </ul>
+	 */
+	@Test
+	public void testMetrics() throws IOException {
+		long resets = Metrics.getCount(Metrics.Phase.RESET);
+		long invocations = Metrics.getCount(Metrics.Phase.INVOCATION);
+		long assertions = Metrics.getCount(Metrics.Phase.ASSERTION);
+		TestObject.resetClass();
+		TestObject.runStatic(int.class, "staticAddition");
+		TestObject.runStatic(int.class, "staticAddition");
+		assertThat(Metrics.getCount(Metrics.Phase.RESET), is(resets + 1));
+		assertThat(Metrics.getCount(Metrics.Phase.INVOCATION), is(invocations + 2));
+		assertThat(Metrics.getCount(Metrics.Phase.ASSERTION), is(assertions + 2));
+		try {
+			TestObject.runStatic(int.class, "noSuchMethod");
+			fail("A missing method was invoked.");
+		} catch (AssertionError expected) {
+			assertThat(expected.getMessage(), containsString("There obviously is no"));
+		}
+		assertThat(Metrics.getCount(Metrics.Phase.INVOCATION), is(invocations + 2));
+		assertThat(Metrics.getCount(Metrics.Phase.ASSERTION), is(assertions + 3));
+
+		StringWriter json = new StringWriter();
+		Metrics.writeJson(json);
+		assertThat(json.toString(), containsString("\"invocation\":{\"count\":"));
+		StringWriter csv = new StringWriter();
+		Metrics.writeCsv(csv);
+		assertThat(csv.toString(), startsWith("level,submission,suite,test,phase,count,nanos\n"));
+	}
+
+	/**
+	 * tests the allocation budgets of {@code TestObject}. Asserts that:
+	 * <ul>
+	 * <li>the bytes an invocation allocates are measured.
+	 * <li>what the harness allocates is not, so a method that allocates nothing reports no more than the few bytes the
+	 * reflective call needs.
+	 * <li>an invocation that exceeds its budget fails and every command counts as an operation.
+	 * </ul>
+	 */
+	@Test
+	public void testAllocationBudget() {
+		TestObject.setNextMethodCallInput("a\nb\nquit\n");
+		TestObject.runStaticVoid("echo");
+		assertThat(TestObject.getLastMethodAllocatedBytes() > 0, is(true));
+		// the JVM generates an accessor for a method after some reflective calls, which allocates once
+		for (int i = 0; i < 20; i++) {
+			TestObject.runStatic(long.class, "sum", (Object) new int[10]);
+		}
+		assertThat(TestObject.getLastMethodAllocatedBytes() < 64, is(true));
+
+		TestObject.setAllocationBudget(1);
+		try {
+			TestObject.setNextMethodCallInput("a\nb\nquit\n");
+			TestObject.runStaticVoid("echo");
+			fail("The allocation budget was not enforced!");
+		} catch (AssertionError e) {
+			assertThat(e.getMessage(), containsString("allocated"));
+			assertThat(e.getMessage(), containsString("for 3 operations"));
+		} finally {
+			TestObject.setAllocationBudget(0);
+		}
+	}
+
+	/**
+	 * tests the {@link TestObject#measureStatic(String, Object...)} functionality. Asserts that:
+	 * <ul>
+	 * <li>the median lies within its confidence interval and below the 90th percentile.
+	 * <li>all measured samples are accounted for, either as samples or as outliers.
+	 * <li>supplied arguments are created once for every call.
+	 * </ul>
+	 */
+	@Test
+	public void testMeasure() {
+		Measurement.Result result = TestObject.measureStatic("staticAddition").warmup(2).iterations(20).run();
+		assertThat(result.getMedian() > 0, is(true));
+		assertThat(result.getLowerBound() <= result.getMedian(), is(true));
+		assertThat(result.getMedian() <= result.getUpperBound(), is(true));
+		assertThat(result.getMedian() <= result.getP90(), is(true));
+		assertThat(result.getSamples().length + result.getOutlierCount(), is(20));
+
+		final int[] created = new int[1];
+		TestObject.measureStatic("sum", (Object) new int[0]).arguments(new Measurement.Arguments() {
+			@Override
+			public Object[] next() {
+				created[0]++;
+				return new Object[] {
+					new int[10]
+				};
+			}
+		}).warmup(2).iterations(5).operationsPerSample(4).run();
+		assertThat(created[0], is(28));
+	}
+
+	/**
+	 * tests the {@link Complexity} check. Asserts that:
+	 * <ul>
+	 * <li>the time of a method that runs through an array grows with the array.
+	 * <li>it fails if constant time is expected.
+	 * </ul>
+	 */
+	@Test
+	public void testComplexity() {
+		Complexity check = Complexity.of("sum", new Complexity.Experiment() {
+			@Override
+			public Measurement prepare(int n) {
+				return TestObject.measureStatic("sum", (Object) new int[n]).iterations(10);
+			}
+		}).sizes(20000, 640000);
+		Complexity.Fit fit = check.assertAtMost(Complexity.Growth.QUADRATIC);
+		// times are too noisy to insist on O(n), but they clearly grow
+		assertThat(fit.getGrowth(), is(not(Complexity.Growth.CONSTANT)));
+		try {
+			check.assertAtMost(Complexity.Growth.CONSTANT);
+			fail("The complexity bound was not enforced!");
+		} catch (AssertionError e) {
+			assertThat(e.getMessage(), startsWith("sum seems to take O("));
+			assertThat(e.getMessage(), containsString("but should take at most O(1)."));
+		}
+	}
+
+	/**
+	 * tests the {@link TestObject#getLastMethodOperations()} functionality. Asserts that:
+	 * <ul>
+	 * <li>no operations are reported if they are not counted (run with {@code -Dtest.operations=true} to count them).
+	 * <li>every iteration of a loop executes the same number of operations.
+	 * </ul>
+	 */
+	@Test
+	public void testOperations() {
+		TestObject.runStatic(long.class, "sum", (Object) new int[1]);
+		long one = TestObject.getLastMethodOperations();
+		TestObject.runStatic(long.class, "sum", (Object) new int[10]);
+		long ten = TestObject.getLastMethodOperations();
+		if (!Operations.isCounting()) {
+			assertThat(one, is(-1L));
+			assertThat(ten, is(-1L));
+			return;
+		}
+		assertThat(one > 0, is(true));
+		assertThat(ten > one, is(true));
+		assertThat((ten - one) % 9, is(0L));
+	}
+
+	/**
+	 * tests the {@link Coverage} report. Asserts that:
+	 * <ul>
+	 * <li>it explains how to record coverage if it is not recorded (run with {@code -Dtest.coverage=FILE} to record
+	 * it).
+	 * <li>a method that was run is covered, and taking both ways of its loop covers all of its branches.
+	 * </ul>
+	 */
+	@Test
+	public void testCoverage() {
+		TestObject.runStatic(long.class, "sum", (Object) new int[2]);
+		if (!Coverage.isCovering()) {
+			assertThat(Coverage.report(), containsString("-Dtest.coverage=FILE"));
+			return;
+		}
+		TestObject.resetClass();
+		TestObject.runStatic(long.class, "sum", (Object) new int[0]);
+		String report = Coverage.report();
+		assertThat(report, startsWith("Coverage of test.test.TestClass: "));
+		assertThat(report, containsString("sum([I)J"));
+		String sum = report.substring(report.indexOf("sum([I)J"));
+		sum = sum.substring(0, sum.indexOf(System.lineSeparator()));
+		// all lines, then both ways of the loop condition
+		assertThat(sum.indexOf("(100.0%)") < sum.lastIndexOf("(100.0%)"), is(true));
+		assertThat(sum, endsWith("2 of 2 (100.0%)"));
+	}
+
+	/**
+	 * tests the {@link TestObject#retainedSize()} functionality. Asserts that:
+	 * <ul>
+	 * <li>an instance with only primitive fields retains just its own size.
+	 * <li>an instance that retains more than allowed per element fails.
+	 * </ul>
+	 */
+	@Test
+	public void testRetainedSize() {
+		TestObject testObject = new TestObject(1);
+		assertThat(testObject.shallowSize() > 0, is(true));
+		assertThat(testObject.retainedSize(), is(testObject.shallowSize()));
+		assertThat(testObject.assertRetainedSizeAtMost(1, 64), is(testObject.shallowSize()));
+		try {
+			testObject.assertRetainedSizeAtMost(1, 1);
+			fail("The footprint bound was not enforced!");
+		} catch (AssertionError e) {
+			assertThat(e.getMessage(), startsWith("An instance of TestClass with 1 elements retains "));
+		}
+	}
+
+	/**
+	 * tests how {@link Footprint#retainedSize(Object)} walks object graphs. Asserts that:
+	 * <ul>
+	 * <li>a linked list retains all of its nodes, even if it is too long to be walked recursively.
+	 * <li>a node referenced twice is counted once.
+	 * <li>a cycle is counted once and does not keep the walk from ending.
+	 * <li>an array retains its own size and its elements, and only the elements of arrays of references are followed.
+	 * </ul>
+	 */
+	@Test
+	public void testRetainedSizeOfGraphs() {
+		long node = Footprint.shallowSize(new Node(0, null));
+		assertThat(node > 0, is(true));
+
+		Node list = null;
+		for (int i = 0; i < 100000; i++) {
+			list = new Node(i, list);
+		}
+		assertThat(Footprint.retainedSize(list), is(100000 * node));
+
+		Node shared = new Node(0, null);
+		Node[] pair = { new Node(1, shared), new Node(2, shared) };
+		assertThat(Footprint.retainedSize(pair), is(Footprint.shallowSize(pair) + 3 * node));
+
+		Node first = new Node(1, null);
+		Node second = new Node(2, first);
+		first.next = second;
+		assertThat(Footprint.retainedSize(first), is(2 * node));
+
+		Node[] graph = { first, second, first, null };
+		assertThat(Footprint.retainedSize(graph), is(Footprint.shallowSize(graph) + 2 * node));
+		Object[] nested = { graph, graph, pair };
+		assertThat(Footprint.retainedSize(nested), is(Footprint.shallowSize(nested) + Footprint.retainedSize(graph)
+				+ Footprint.retainedSize(pair)));
+
+		int[] numbers = new int[1000];
+		assertThat(Footprint.retainedSize(numbers), is(Footprint.shallowSize(numbers)));
+		assertThat(Footprint.shallowSize(numbers) >= 4000, is(true));
+		assertThat(Footprint.shallowSize(numbers) - Footprint.shallowSize(new int[500]), is(2000L));
+	}
+
+	/**
+	 * tests how {@link Footprint#retainedSize(Object)} estimates JDK objects whose fields it cannot read. Asserts
+	 * that:
+	 * <ul>
+	 * <li>a string retains an array of one byte per character.
+	 * <li>a list retains an array of references to its elements, and its elements.
+	 * <li>a map retains an array of references and an entry per mapping, and its keys and values, each counted once.
+	 * </ul>
+	 * The estimates are only used on Java 9 and later, where the fields of these classes cannot be read.
+	 */
+	@Test
+	public void testRetainedSizeOfJdkObjects() {
+		String string = "abc";
+		assertThat(Footprint.retainedSize(string), anyOf(is(Footprint.shallowSize(string)
+				+ Footprint.shallowSize(new byte[3])), is(Footprint.shallowSize(string)
+				+ Footprint.shallowSize(new char[3]))));
+
+		Integer[] numbers = { 1000, 2000, 3000 };
+		long number = Footprint.shallowSize(numbers[0]);
+		List<Integer> list = new ArrayList<Integer>(Arrays.asList(numbers));
+		assertThat(Footprint.retainedSize(list), is(Footprint.shallowSize(list) + Footprint.shallowSize(new Object[3])
+				+ 3 * number));
+
+		Assume.assumeThat(isOpaque(HashMap.class, "table"), is(true));
+		Map<Integer, Integer> map = new HashMap<Integer, Integer>();
+		map.put(numbers[0], numbers[2]);
+		map.put(numbers[1], numbers[2]);
+		assertThat(Footprint.retainedSize(map), is(Footprint.shallowSize(map) + Footprint.shallowSize(new Object[2])
+				+ 2 * Footprint.shallowSize(new Entry()) + 3 * number));
+	}
+
+	/**
+	 * tests the {@link Hashing} check. Asserts that:
+	 * <ul>
+	 * <li>instances that share a hash code are counted as collisions, and are found in a {@code HashMap} nonetheless.
+	 * <li>a lookup calls {@code equals(o)} on half of the instances with its hash code on average.
+	 * </ul>
+	 */
+	@Test
+	public void testHashing() {
+		List<TestObject> keys = new ArrayList<TestObject>();
+		List<TestObject> equalKeys = new ArrayList<TestObject>();
+		for (int value = 0; value < 1000; value++) {
+			keys.add(new TestObject(value));
+			equalKeys.add(new TestObject(value));
+		}
+		Hashing.Statistics statistics = Hashing.stress("1000 instances", keys, equalKeys, Budget.of(0, 0));
+		// TestClass lets ten consecutive values share a hash code
+		assertThat(statistics.getCollisionRate(), is(0.9));
+		assertThat(statistics.getLargestGroup(), is(10));
+		assertThat(statistics.getEqualsCalls(), is(5.5));
+		assertThat(statistics.getBucketSkew() > 1, is(true));
+	}
+
+	/**
+	 * tests the {@link Randomness#rule()}. Asserts that:
+	 * <ul>
+	 * <li>a failure of a test that drew random numbers is thrown unchanged, with the seed attached to it.
+	 * <li>a failure of a test that drew no random numbers gets no seed.
+	 * </ul>
+	 */
+	@Test
+	public void testRandomnessSeed() throws Throwable {
+		final ComparisonFailure failure = new ComparisonFailure(null, "expected", "actual");
+		Statement drawing = new Statement() {
+			@Override
+			public void evaluate() {
+				Randomness.current().nextInt();
+				throw failure;
+			}
+		};
+		try {
+			Randomness.rule().apply(drawing, Description.createTestDescription(FrameworkTest.class, "drawing"))
+					.evaluate();
+			fail("The failure was swallowed!");
+		} catch (ComparisonFailure e) {
+			assertThat(e == failure, is(true));
+			assertThat(e.getExpected(), is("expected"));
+			assertThat(e.getSuppressed().length, is(1));
+			assertThat(e.getSuppressed()[0].getMessage(),
+					containsString("-Dtest.seed=" + Randomness.getMasterSeed()));
+		}
+
+		final AssertionError plain = new AssertionError();
+		Statement notDrawing = new Statement() {
+			@Override
+			public void evaluate() {
+				throw plain;
+			}
+		};
+		try {
+			Randomness.rule().apply(notDrawing, Description.createTestDescription(FrameworkTest.class, "notDrawing"))
+					.evaluate();
+			fail("The failure was swallowed!");
+		} catch (AssertionError e) {
+			assertThat(e == plain, is(true));
+			assertThat(e.getSuppressed().length, is(0));
+		}
+	}
+
+	/**
+	 * tests the time of a {@link Budget}. Asserts that:
+	 * <ul>
+	 * <li>a task that uses more CPU time than its budget fails once it is done, even if the watchdog did not stop it.
+	 * <li>a task within its budget returns its result.
+	 * </ul>
+	 */
+	@Test
+	public void testTimeBudget() {
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(threads.isCurrentThreadCpuTimeSupported());
+		// less than the watchdog allows, so only the measurement can fail the task
+		final long spin = (long) (TimeUnit.MILLISECONDS.toNanos(150) * Calibration.factor());
+		try {
+			Budget.of(100, 0).run("The spin", new Budget.Task<Long>() {
+				@Override
+				public Long run() {
+					long start = threads.getCurrentThreadCpuTime();
+					long spun = 0;
+					while (threads.getCurrentThreadCpuTime() - start < spin) {
+						spun++;
+					}
+					return spun;
+				}
+			});
+			fail("The time budget was not enforced!");
+		} catch (AssertionError e) {
+			assertThat(e.getMessage(), startsWith("The spin did not finish within 100 ms of CPU time"));
+			// the watchdog would have reported where the task was stopped
+			assertThat(e.getMessage(), containsString("It used"));
+		}
+		int result = Budget.of(100, 0).run("The answer", new Budget.Task<Integer>() {
+			@Override
+			public Integer run() {
+				return 42;
+			}
+		});
+		assertThat(result, is(42));
+	}
+
 	/**
 	 * tests the {@link TestObject#getPackageName()} functionality. Asserts that:
 	 * <ul>
@@ -49,4 +487,38 @@ public class FrameworkTest {
 		assertThat(TestObject.getPackageName(), is("test.test"));
 	}
 
+	private static boolean isOpaque(Class<?> type, String field) {
+		try {
+			type.getDeclaredField(field).setAccessible(true);
+			return false;
+		} catch (NoSuchFieldException | RuntimeException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * A node of a linked structure, for {@link Footprint}.
+	 */
+	private static class Node {
+		@SuppressWarnings("unused")
+		private final int value;
+		private Node next;
+
+		private Node(int value, Node next) {
+			this.value = value;
+			this.next = next;
+		}
+	}
+
+	/**
+	 * Has the fields {@link Footprint} assumes for an entry of a map whose fields it cannot read.
+	 */
+	@SuppressWarnings("unused")
+	private static class Entry {
+		private int hash;
+		private Object key;
+		private Object value;
+		private Object next;
+	}
+
 }
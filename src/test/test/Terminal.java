@@ -0,0 +1,32 @@
+package test.test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * A stand-in for the {@code Terminal} class of the programming lecture, so the framework's console input can be tested
+ * with {@link TestClass}.
+ * 
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public final class Terminal {
+	private static BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+
+	private Terminal() {
+	}
+
+	public static void printLine(String out) {
+		System.out.println(out);
+	}
+
+	public static String readLine() {
+		try {
+			return in.readLine();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
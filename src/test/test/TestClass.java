@@ -2,8 +2,61 @@ package test.test;
 
 public class TestClass {
 	private static int x = 0;
+	private int value;
+
+	public TestClass() {
+	}
+
+	public TestClass(int value) {
+		this.value = value;
+	}
 
 	public static int staticAddition() {
 		return ++x;
 	}
+
+	public static long sum(int[] values) {
+		long sum = 0;
+		for (int value : values) {
+			sum += value;
+		}
+		return sum;
+	}
+
+	public int add(int summand) {
+		this.value += summand;
+		return this.value;
+	}
+
+	public TestClass combine(TestClass other) {
+		return new TestClass(this.value + other.value);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof TestClass && ((TestClass) other).value == this.value;
+	}
+
+	@Override
+	public int hashCode() {
+		// deliberately coarse: ten consecutive values share a hash code
+		return this.value / 10;
+	}
+
+	public static void main(String[] args) {
+		String prefix = (args.length > 0) ? args[0] : "";
+		String line = Terminal.readLine();
+		while (line != null && !line.equals("quit")) {
+			Terminal.printLine(prefix + line + " " + staticAddition());
+			line = Terminal.readLine();
+		}
+	}
+
+	public static void echo() {
+		String line = Terminal.readLine();
+		while (line != null && !line.equals("quit")) {
+			Terminal.printLine(line);
+			line = Terminal.readLine();
+		}
+	}
 }
@@ -0,0 +1,203 @@
+package test.test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Test;
+
+import test.TestObject;
+import test.Watchdog;
+
+/**
+ * Checks the {@link Watchdog}: deadlines expire for threads that work or wait too long, and a cancelled deadline never
+ * interrupts its thread.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class WatchdogTest {
+	/**
+	 * How long a test waits for a deadline to expire before it gives up, in milliseconds.
+	 */
+	private static final long PATIENCE = 60000;
+
+	@After
+	public void clearInterrupt() {
+		Thread.interrupted();
+	}
+
+	/**
+	 * Tests a deadline for a thread that keeps working. Asserts that:
+	 * <ul>
+	 * <li>the thread is interrupted.
+	 * <li>the failure tells what missed the deadline, and where the thread was.
+	 * </ul>
+	 */
+	@Test
+	public void testBusyThread() {
+		Watchdog.Deadline deadline = Watchdog.arm(100, "The loop");
+		long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PATIENCE);
+		while (!Thread.currentThread().isInterrupted() && System.nanoTime() < end) {
+			// busy
+		}
+		deadline.cancel();
+		assertThat("The deadline did not expire.", deadline.hasExpired(), is(true));
+		AssertionError failure = deadline.failure();
+		assertThat(failure.getMessage(), startsWith("The loop did not finish within 100 ms"));
+		assertThat(failure.getMessage(), containsString(WatchdogTest.class.getName() + ".testBusyThread"));
+	}
+
+	/**
+	 * Tests a deadline for a thread that waits, and so uses no CPU time. Asserts that:
+	 * <ul>
+	 * <li>the deadline expires nonetheless, once enough time passed.
+	 * </ul>
+	 */
+	@Test
+	public void testWaitingThread() {
+		Watchdog.Deadline deadline = Watchdog.arm(50, "The sleep");
+		try {
+			Thread.sleep(PATIENCE);
+			fail("The sleeping thread was not interrupted.");
+		} catch (InterruptedException e) {
+			// what we wanted
+		} finally {
+			deadline.cancel();
+		}
+		assertThat(deadline.hasExpired(), is(true));
+		assertThat(deadline.failure().getMessage(), startsWith("The sleep did not finish within 50 ms"));
+	}
+
+	/**
+	 * Tests a deadline for a thread that ignores being interrupted. Asserts that:
+	 * <ul>
+	 * <li>the thread is stopped, and the failure says so.
+	 * <li>{@link TestObject} fails every further call in the stopped thread, as its session may be in any state.
+	 * <li>other threads can still use {@code TestObject}.
+	 * </ul>
+	 */
+	@Test
+	public void testStoppedThread() throws InterruptedException {
+		Assume.assumeTrue(canStopThreads());
+		final Watchdog.Deadline[] deadline = new Watchdog.Deadline[1];
+		final Throwable[] thrown = new Throwable[2];
+		Thread stubborn = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				deadline[0] = Watchdog.arm(50, "The stubborn loop");
+				try {
+					long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PATIENCE);
+					while (System.nanoTime() < end) {
+						Thread.interrupted();
+					}
+				} catch (ThreadDeath e) {
+					thrown[0] = e;
+				}
+				deadline[0].cancel();
+				try {
+					TestObject.resetClass();
+				} catch (AssertionError e) {
+					thrown[1] = e;
+				}
+			}
+		});
+		stubborn.start();
+		stubborn.join();
+		assertThat("The thread was not stopped.", thrown[0] instanceof ThreadDeath, is(true));
+		assertThat(deadline[0].failure().getMessage(), containsString("was stopped"));
+		assertThat("The stopped thread could go on testing.", thrown[1] instanceof AssertionError, is(true));
+		assertThat(thrown[1].getMessage(), startsWith("This test can not be run: The stubborn loop missed"));
+		TestObject.resetClass();
+	}
+
+	@SuppressWarnings("deprecation")
+	private static boolean canStopThreads() {
+		try {
+			new Thread().stop();
+			return true;
+		} catch (UnsupportedOperationException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Tests the watchdog once no deadline is armed any more. Asserts that:
+	 * <ul>
+	 * <li>the watchdog thread and its firing threads end, so they don't keep the class loader of an isolated run alive.
+	 * <li>a deadline that is armed afterwards still expires.
+	 * </ul>
+	 */
+	@Test
+	public void testIdleWatchdogEnds() throws InterruptedException {
+		Watchdog.arm(1, "The spin").cancel();
+		Watchdog.Deadline expired = Watchdog.arm(1, "The first spin");
+		spinUntilInterrupted();
+		expired.cancel();
+		// a cancelled deadline leaves the wheel once the wheel came around to it
+		long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PATIENCE);
+		while (watchdogThreads() > 0 && System.nanoTime() < end) {
+			Thread.sleep(100);
+		}
+		assertThat("The watchdog threads did not end.", watchdogThreads(), is(0));
+
+		Watchdog.Deadline deadline = Watchdog.arm(1, "The second spin");
+		spinUntilInterrupted();
+		deadline.cancel();
+		assertThat(deadline.hasExpired(), is(true));
+	}
+
+	private static void spinUntilInterrupted() {
+		long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PATIENCE);
+		while (!Thread.interrupted() && System.nanoTime() < end) {
+			// busy
+		}
+	}
+
+	private static int watchdogThreads() {
+		int count = 0;
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().startsWith("test-watchdog") && thread.isAlive()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Tests many deadlines that are cancelled at about the moment they expire. Asserts that:
+	 * <ul>
+	 * <li>a deadline that did not expire until it was cancelled never interrupts its thread afterwards.
+	 * </ul>
+	 */
+	@Test
+	public void testCancelledDeadlines() {
+		SplittableRandom random = new SplittableRandom(20141124);
+		for (int i = 0; i < 100; i++) {
+			Watchdog.Deadline deadline = Watchdog.arm(1, "The spin");
+			long end = System.nanoTime() + random.nextLong(TimeUnit.MILLISECONDS.toNanos(4));
+			while (System.nanoTime() < end) {
+				// busy
+			}
+			deadline.cancel();
+			boolean expired = deadline.hasExpired();
+			try {
+				// a late interrupt would arrive while we wait
+				Thread.sleep(15);
+			} catch (InterruptedException e) {
+				if (!expired) {
+					fail("A deadline interrupted its thread after it was cancelled.");
+				}
+			}
+			assertThat(deadline.hasExpired(), is(expired));
+			Thread.interrupted();
+		}
+	}
+}
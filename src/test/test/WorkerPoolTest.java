@@ -0,0 +1,178 @@
+package test.test;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+import test.TestObject;
+import test.batch.WorkItem;
+import test.batch.WorkerPool;
+
+/**
+ * Checks the {@link WorkerPool}. The work items run the public nested classes of this class, which are not meant to be
+ * run on their own. Every test starts worker JVMs, so the tests take a few seconds.
+ *
+ * @author agent
+ * @version 1.0
+ * @since 19.10.2026
+ */
+public class WorkerPoolTest {
+
+	/**
+	 * Tests running a submission that reads and prints through its {@code Terminal} class in a worker. Asserts that:
+	 * <ul>
+	 * <li>the tested class sees the {@code Terminal} class {@link TestObject} routes, although it was loaded by an
+	 * {@link test.batch.IsolatedRun}.
+	 * </ul>
+	 */
+	@Test
+	public void testSubmissionTerminal() throws InterruptedException {
+		Result result = run(0, Echo.class);
+		assertThat(failures(result), result.wasSuccessful(), is(true));
+		assertThat(result.getRunCount(), is(1));
+	}
+
+	/**
+	 * Tests a work item that kills its worker JVM in the middle of a test. Asserts that:
+	 * <ul>
+	 * <li>the test that was running fails and is finished.
+	 * <li>the worker is replaced and the next work item runs.
+	 * </ul>
+	 */
+	@Test
+	public void testWorkerDeath() throws InterruptedException {
+		EventCounter counter = new EventCounter();
+		Result result = run(0, counter, Halting.class, Passing.class);
+		counter.assertBalanced();
+		assertThat(result.getRunCount(), is(2));
+		assertThat(result.getFailureCount(), is(1));
+		Failure failure = result.getFailures().get(0);
+		assertThat(failure.getDescription().getDisplayName(), containsString("testHalt"));
+		assertThat(failure.getMessage(), containsString("The worker JVM died"));
+	}
+
+	/**
+	 * Tests a work item that does not finish in time. Asserts that:
+	 * <ul>
+	 * <li>the test that was running fails with a message about the timeout and is finished.
+	 * <li>the worker is replaced and the next work item runs.
+	 * </ul>
+	 */
+	@Test
+	public void testItemTimeout() throws InterruptedException {
+		EventCounter counter = new EventCounter();
+		Result result = run(3000, counter, Sleeping.class, Passing.class);
+		counter.assertBalanced();
+		assertThat(result.getRunCount(), is(2));
+		assertThat(result.getFailureCount(), is(1));
+		Failure failure = result.getFailures().get(0);
+		assertThat(failure.getDescription().getDisplayName(), containsString("testSleep"));
+		assertThat(failure.getMessage(), containsString("did not finish"));
+	}
+
+	private static Result run(int itemTimeout, Class<?>... testClasses) throws InterruptedException {
+		return run(itemTimeout, null, testClasses);
+	}
+
+	private static Result run(int itemTimeout, RunListener listener, Class<?>... testClasses)
+			throws InterruptedException {
+		List<String> jvmArguments = new ArrayList<String>();
+		String securityManager = System.getProperty("java.security.manager");
+		if (securityManager != null) {
+			// TestObject installs a security manager, which newer JVMs only allow if they were told so
+			jvmArguments.add("-Djava.security.manager=" + securityManager);
+		}
+		List<WorkItem> items = new ArrayList<WorkItem>();
+		for (Class<?> testClass : testClasses) {
+			items.add(new WorkItem("", TestClass.class.getName(), testClass.getName()));
+		}
+		return new WorkerPool(1, 50, itemTimeout, jvmArguments).run(items, listener);
+	}
+
+	private static String failures(Result result) {
+		StringBuilder message = new StringBuilder();
+		for (Failure failure : result.getFailures()) {
+			message.append(failure.getTestHeader()).append(": ").append(failure.getTrace());
+		}
+		return message.toString();
+	}
+
+	/**
+	 * Counts how often every test was started and finished.
+	 */
+	private static class EventCounter extends RunListener {
+		private final Map<String, Integer> open = new HashMap<String, Integer>();
+
+		@Override
+		public void testStarted(Description description) {
+			Integer count = this.open.get(description.getDisplayName());
+			this.open.put(description.getDisplayName(), (count == null) ? 1 : count + 1);
+		}
+
+		@Override
+		public void testFinished(Description description) {
+			Integer count = this.open.get(description.getDisplayName());
+			this.open.put(description.getDisplayName(), (count == null) ? -1 : count - 1);
+		}
+
+		private void assertBalanced() {
+			for (Map.Entry<String, Integer> test : this.open.entrySet()) {
+				assertThat("The test " + test.getKey() + " was started and finished a different number of times.",
+						test.getValue(), is(0));
+			}
+		}
+	}
+
+	/**
+	 * Runs {@link TestClass#echo()}. Run by {@link WorkerPoolTest#testSubmissionTerminal()}.
+	 */
+	public static class Echo {
+		@Test
+		public void testEcho() {
+			TestObject.setNextMethodCallInput("hello\nworld\nquit\n");
+			TestObject.runStaticVoid("echo");
+			assertThat(TestObject.getLastMethodOutput(), is("hello" + System.lineSeparator() + "world"
+					+ System.lineSeparator()));
+		}
+	}
+
+	/**
+	 * Kills the JVM it runs in. Run by {@link WorkerPoolTest#testWorkerDeath()}.
+	 */
+	public static class Halting {
+		@Test
+		public void testHalt() {
+			Runtime.getRuntime().halt(3);
+		}
+	}
+
+	/**
+	 * Does not finish before the worker is killed. Run by {@link WorkerPoolTest#testItemTimeout()}.
+	 */
+	public static class Sleeping {
+		@Test
+		public void testSleep() throws InterruptedException {
+			Thread.sleep(600000);
+		}
+	}
+
+	/**
+	 * Passes. Run after a worker was replaced.
+	 */
+	public static class Passing {
+		@Test
+		public void testPass() {
+		}
+	}
+}